@@ -0,0 +1,43 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The entry point of the benchmarks jar. It runs JMH with the given command line, writing the
+ * results as JSON to <tt>jmh-result.json</tt> unless another result format or file is given,
+ * so that the results of successive runs can be collected to track the performance over time.
+ * <p>
+ * For example, to run the micro-benchmarks of the cloudlet schedulers and the macro-benchmark of
+ * the PlanetLab scenario with 100 VMs, from the root of the project:
+ * <tt>java -jar modules/cloudsim-benchmarks/target/benchmarks.jar CloudletSchedulerBenchmark PlanetLabBenchmark -p vms=100</tt>
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public final class Benchmarks {
+
+	/** The default file of the results. */
+	public static final String RESULT_FILE = "jmh-result.json";
+
+	private Benchmarks() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		List<String> options = new ArrayList<>(Arrays.asList(args));
+		if (!options.contains("-rf") && !options.contains("-rff")) {
+			options.addAll(List.of("-rf", "json", "-rff", RESULT_FILE));
+		}
+		Main.main(options.toArray(new String[0]));
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletScheduler;
+import org.cloudbus.cloudsim.CloudletSchedulerSpaceShared;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CloudletScheduler#updateCloudletsProcessing(double, List)}, as called by a host
+ * at each update of its guests, for a number of cloudlets executed by a guest with four PEs.
+ * The cloudlets are long enough for none of them to finish during the measurements.
+ * <p>
+ * Run with: <tt>java -jar modules/cloudsim-benchmarks/target/benchmarks.jar CloudletSchedulerBenchmark</tt>
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CloudletSchedulerBenchmark {
+
+	/** The number of PEs of the guest. */
+	private static final int PES = 4;
+
+	@Param({"TimeShared", "SpaceShared"})
+	public String scheduler;
+
+	@Param({"10", "100", "1000", "10000"})
+	public int cloudlets;
+
+	private CloudletScheduler cloudletScheduler;
+
+	private List<Double> mipsShare;
+
+	private double time;
+
+	@Setup(Level.Iteration)
+	public void setUp() {
+		cloudletScheduler = switch (scheduler) {
+			case "TimeShared" -> new CloudletSchedulerTimeShared();
+			case "SpaceShared" -> new CloudletSchedulerSpaceShared();
+			default -> throw new IllegalArgumentException("Unknown cloudlet scheduler " + scheduler);
+		};
+		mipsShare = new ArrayList<>();
+		for (int i = 0; i < PES; i++) {
+			mipsShare.add(1000.0);
+		}
+		cloudletScheduler.updateCloudletsProcessing(0, mipsShare);
+
+		Random random = new Random(0);
+		for (int i = 0; i < cloudlets; i++) {
+			Cloudlet cl = new Cloudlet(i, Long.MAX_VALUE / 2_000_000 - random.nextInt(1000), 1 + random.nextInt(2),
+					300, 300, new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+			cl.setResourceParameter(0, 0, 0);
+			cloudletScheduler.cloudletSubmit(cl);
+		}
+		time = 0;
+	}
+
+	@Benchmark
+	public double update() {
+		time += 0.1;
+		return cloudletScheduler.updateCloudletsProcessing(time, mipsShare);
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.VmAllocationWithSelectionPolicy;
+import org.cloudbus.cloudsim.container.core.Container;
+import org.cloudbus.cloudsim.container.core.ContainerDatacenterBroker;
+import org.cloudbus.cloudsim.container.core.ContainerVm;
+import org.cloudbus.cloudsim.container.core.PowerContainerDatacenter;
+import org.cloudbus.cloudsim.container.core.PowerContainerDatacenterCM;
+import org.cloudbus.cloudsim.container.resourceAllocatorMigrationEnabled.PowerContainerVmAllocationPolicyMigrationStaticThresholdMCUnderUtilized;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.examples.container.ConstantsExamples;
+import org.cloudbus.cloudsim.examples.container.HelperEx;
+import org.cloudbus.cloudsim.selectionPolicies.PowerSelectionPolicyMaximumCorrelation;
+import org.cloudbus.cloudsim.selectionPolicies.PowerSelectionPolicyMaximumCorrelation2;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyFirstFit;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMaximumUsage;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMostFull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures a whole day of the scenario of {@code examples.container.ContainerOverbooking}, i.e., a
+ * {@link PowerContainerDatacenterCM} with the static-threshold allocation policy of under- and
+ * over-utilized hosts ("MSThreshold-Under_0.80_0.70"), the most-full container placement, the
+ * maximum-correlation selection of VMs and containers and the first-fit host selection, running
+ * containers with PlanetLab traces. The scale multiplies the 20 hosts, 25 VMs and 50 containers
+ * of the example. The migration and energy logs of the datacenter are written to a temporary
+ * folder, which is deleted after the benchmark.
+ * <p>
+ * Run from the root of the project with:
+ * <tt>java -jar modules/cloudsim-benchmarks/target/benchmarks.jar ContainerOverbookingBenchmark</tt>
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ContainerOverbookingBenchmark {
+
+	@Param({"1", "10"})
+	public int scale;
+
+	/** The percentile of the utilization of the cloudlets the containers are sized with. */
+	@Param({"80"})
+	public double overBookingFactor;
+
+	private Path logFolder;
+
+	@Setup(Level.Trial)
+	public void createLogFolder() throws IOException {
+		logFolder = Files.createTempDirectory("cloudsim-benchmark");
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteLogFolder() throws IOException {
+		try (Stream<Path> paths = Files.walk(logFolder)) {
+			paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void setUp() throws Exception {
+		Log.disable();
+		CloudSim.init(1, Calendar.getInstance(), false);
+
+		ContainerDatacenterBroker broker = HelperEx.createBroker(overBookingFactor);
+		int brokerId = broker.getId();
+		List<Cloudlet> cloudletList = HelperEx.createContainerCloudletList(brokerId,
+				PlanetLabWorkload.getFolder(), ConstantsExamples.NUMBER_CLOUDLETS * scale);
+		List<Container> containerList = HelperEx.createContainerList(brokerId, cloudletList.size());
+		List<ContainerVm> vmList = HelperEx.createVmList(brokerId, ConstantsExamples.NUMBER_VMS * scale);
+		List<HostEntity> hostList = HelperEx.createHostList(ConstantsExamples.NUMBER_HOSTS * scale);
+
+		// the VMs are power-aware guests, as in RunnerAbs
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		SelectionPolicy<GuestEntity> vmSelectionPolicy =
+				(SelectionPolicy) new PowerSelectionPolicyMaximumCorrelation(new SelectionPolicyMaximumUsage<>());
+		VmAllocationPolicy vmAllocationPolicy = new PowerContainerVmAllocationPolicyMigrationStaticThresholdMCUnderUtilized(
+				hostList,
+				vmSelectionPolicy,
+				new PowerSelectionPolicyMaximumCorrelation2(new SelectionPolicyMaximumUsage<>()),
+				new SelectionPolicyFirstFit<>(),
+				0.80,
+				0.70,
+				ConstantsExamples.VM_TYPES,
+				ConstantsExamples.VM_PES,
+				ConstantsExamples.VM_RAM,
+				ConstantsExamples.VM_BW,
+				ConstantsExamples.VM_SIZE,
+				ConstantsExamples.VM_MIPS);
+		VmAllocationPolicy containerAllocationPolicy =
+				new VmAllocationWithSelectionPolicy(vmList, new SelectionPolicyMostFull<>());
+
+		PowerContainerDatacenter datacenter = (PowerContainerDatacenter) HelperEx.createDatacenter("datacenter",
+				PowerContainerDatacenterCM.class, hostList, vmAllocationPolicy, containerAllocationPolicy,
+				"ContainerOverbookingBenchmark_" + scale, ConstantsExamples.SCHEDULING_INTERVAL,
+				logFolder.toString(), ConstantsExamples.VM_STARTTUP_DELAY, ConstantsExamples.CONTAINER_STARTTUP_DELAY);
+		vmAllocationPolicy.setDatacenter(datacenter);
+		datacenter.setDisableVmMigrations(false);
+
+		broker.submitGuestList(vmList);
+		broker.submitContainerList(containerList);
+		broker.submitCloudletList(cloudletList);
+		CloudSim.terminateSimulation(86400.0D);
+	}
+
+	@Benchmark
+	public double simulate() {
+		return CloudSim.startSimulation();
+	}
+}
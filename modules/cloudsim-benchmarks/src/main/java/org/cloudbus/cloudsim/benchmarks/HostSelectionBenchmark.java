@@ -0,0 +1,135 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationWithSelectionPolicy;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyFirstFit;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyLeastFull;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMostFull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the placement of a batch of VMs by a {@link VmAllocationWithSelectionPolicy}, scanning the
+ * hosts or using the host index, with the first-fit, least-full (worst-fit) and most-full (best-fit)
+ * selection policies. Each VM is placed with
+ * {@link VmAllocationWithSelectionPolicy#allocateHostForGuest(org.cloudbus.cloudsim.core.GuestEntity)},
+ * as a datacenter does, and there are ten VMs per host, which use about 75% of the MIPS of the hosts.
+ * <p>
+ * The default parameters keep the scans short. To place 1M VMs on 100k hosts with the index, run:
+ * <tt>java -Xmx4g -jar modules/cloudsim-benchmarks/target/benchmarks.jar HostSelectionBenchmark -p hosts=100000 -p indexed=true</tt>;
+ * the scans take hours at that scale, as each of them checks all the hosts.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class HostSelectionBenchmark {
+
+	/** The number of VMs placed on each host, on average. */
+	private static final int VMS_PER_HOST = 10;
+
+	@Param({"1000", "10000"})
+	public int hosts;
+
+	@Param({"false", "true"})
+	public boolean indexed;
+
+	@Param({"FirstFit", "LeastFull", "MostFull"})
+	public String selectionPolicy;
+
+	private VmAllocationWithSelectionPolicy policy;
+
+	private List<Vm> vms;
+
+	@Setup(Level.Invocation)
+	public void setUp() throws Exception {
+		Log.disable();
+		CloudSim.init(1, null, false);
+		Random random = new Random(0);
+
+		List<Host> hostList = new ArrayList<>(hosts);
+		for (int i = 0; i < hosts; i++) {
+			List<Pe> peList = new ArrayList<>();
+			for (int j = 0; j < 8; j++) {
+				peList.add(new Pe(j, new PeProvisionerSimple(2500)));
+			}
+			hostList.add(new Host(i, new RamProvisionerSimple(32768), new BwProvisionerSimple(10000000),
+					1000000000, peList, new VmSchedulerTimeShared(peList)));
+		}
+		policy = new VmAllocationWithSelectionPolicy(hostList, createSelectionPolicy());
+		policy.setHostIndexEnabled(indexed);
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		new Datacenter("Datacenter", characteristics, policy, new LinkedList<Storage>(), 0);
+
+		int[] mips = {500, 1000, 2000, 2500};
+		int[] ram = {613, 1740, 1740, 870};
+		vms = new ArrayList<>(hosts * VMS_PER_HOST);
+		for (int i = 0; i < hosts * VMS_PER_HOST; i++) {
+			int type = random.nextInt(mips.length);
+			vms.add(new Vm(i, 0, mips[type], 1, ram[type], 100, 2500, "Xen", new CloudletSchedulerTimeShared()));
+		}
+	}
+
+	private SelectionPolicy<HostEntity> createSelectionPolicy() {
+		return switch (selectionPolicy) {
+			case "FirstFit" -> new SelectionPolicyFirstFit<>();
+			case "LeastFull" -> new SelectionPolicyLeastFull<>();
+			case "MostFull" -> new SelectionPolicyMostFull<>();
+			default -> throw new IllegalArgumentException("Unknown selection policy " + selectionPolicy);
+		};
+	}
+
+	@Benchmark
+	public int place() {
+		int placed = 0;
+		for (Vm vm : vms) {
+			if (policy.allocateHostForGuest(vm)) {
+				placed++;
+			}
+		}
+		return placed;
+	}
+}
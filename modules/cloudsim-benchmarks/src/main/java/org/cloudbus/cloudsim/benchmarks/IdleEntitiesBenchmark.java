@@ -0,0 +1,94 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudActionTags;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.network.datacenter.Switch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the clock ticks of the simulation kernel when most of the entities are idle:
+ * a number of {@link Switch}es that never receive a packet, and a single entity sending an event to
+ * itself at each tick. The cost of a tick should not depend on the number of idle switches.
+ * <p>
+ * Run with: <tt>java -jar modules/cloudsim-benchmarks/target/benchmarks.jar IdleEntitiesBenchmark</tt>
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdleEntitiesBenchmark {
+
+	/** The number of clock ticks of each simulation. */
+	private static final int TICKS = 10000;
+
+	@Param({"0", "1000", "10000"})
+	public int idleSwitches;
+
+	/**
+	 * An entity sending an event to itself at each time unit, for a number of ticks.
+	 */
+	private static class Ticker extends SimEntity {
+
+		private int remaining;
+
+		Ticker(int ticks) {
+			super("Ticker");
+			remaining = ticks;
+		}
+
+		@Override
+		public void startEntity() {
+			schedule(getId(), 1, CloudActionTags.BLANK);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			if (--remaining > 0) {
+				schedule(getId(), 1, CloudActionTags.BLANK);
+			}
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void setUp() {
+		Log.disable();
+		CloudSim.init(1, null, false);
+		for (int i = 0; i < idleSwitches; i++) {
+			new Switch("Switch" + i, 8, Switch.SwitchLevel.EDGE_LEVEL, 0.00157, 100000000, 100000000, null);
+		}
+		new Ticker(TICKS);
+	}
+
+	@Benchmark
+	public double run() {
+		return CloudSim.startSimulation();
+	}
+}
@@ -0,0 +1,199 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.examples.network.datacenter.NetworkConstants;
+import org.cloudbus.cloudsim.network.datacenter.NetworkCloudlet;
+import org.cloudbus.cloudsim.network.datacenter.NetworkDatacenter;
+import org.cloudbus.cloudsim.network.datacenter.NetworkHost;
+import org.cloudbus.cloudsim.network.datacenter.Switch;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a {@link NetworkDatacenter} running bag-of-tasks applications, as in
+ * {@code examples.network.datacenter.BagOfTaskAppExample}, with the packet-level network, the
+ * packet-level network with packet batching and the flow-level network. The hosts have two VMs
+ * each, which share the bandwidth of the link to the edge switch, and are attached by groups of
+ * eight to edge switches, which are attached to an aggregation switch. The scale is the number
+ * of hosts, and there is an application per host, whose workers run on random VMs and send
+ * their results to a gatherer after each of their rounds of computation.
+ * <p>
+ * Run with: <tt>java -jar modules/cloudsim-benchmarks/target/benchmarks.jar NetworkDatacenterBenchmark</tt>
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class NetworkDatacenterBenchmark {
+
+	/** The number of hosts attached to an edge switch. */
+	private static final int HOSTS_PER_EDGE_SWITCH = 8;
+
+	/** The number of PEs of a host. */
+	private static final int HOST_PES = 8;
+
+	/** The number of VMs of a host. */
+	private static final int VMS_PER_HOST = 2;
+
+	/** The number of workers of an application. */
+	private static final int WORKERS = 3;
+
+	/** The number of rounds of computation and communication of a worker. */
+	private static final int ROUNDS = 10;
+
+	/** The length of a round of computation, in MI. */
+	private static final long ROUND_LENGTH = 1000;
+
+	/** The data sent by a worker after a round, in bytes. */
+	private static final long ROUND_DATA = 1000000;
+
+	@Param({"16", "128"})
+	public int hosts;
+
+	@Param({"packet", "batched", "flow"})
+	public String network;
+
+	@Setup(Level.Invocation)
+	public void setUp() throws Exception {
+		Log.disable();
+		CloudSim.init(1, Calendar.getInstance(), false);
+
+		NetworkDatacenter datacenter = createDatacenter();
+		switch (network) {
+			case "packet" -> {
+			}
+			case "batched" -> datacenter.setPacketBatching(true);
+			case "flow" -> datacenter.setFlowLevelNetwork(true);
+			default -> throw new IllegalArgumentException("Unknown network model " + network);
+		}
+		createNetwork(datacenter);
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		List<Vm> vmList = new ArrayList<>();
+		for (int i = 0; i < hosts * VMS_PER_HOST; i++) {
+			vmList.add(new Vm(i, broker.getId(), 1000, HOST_PES / VMS_PER_HOST, 512,
+					NetworkConstants.BandWidthEdgeHost / VMS_PER_HOST, 10000, "Xen", new CloudletSchedulerTimeShared()));
+		}
+		broker.submitGuestList(vmList);
+		broker.submitCloudletList(createApplications(broker.getId(), vmList));
+	}
+
+	@Benchmark
+	public double simulate() {
+		return CloudSim.startSimulation();
+	}
+
+	private NetworkDatacenter createDatacenter() throws Exception {
+		List<NetworkHost> hostList = new ArrayList<>();
+		for (int i = 0; i < hosts; i++) {
+			List<Pe> peList = new ArrayList<>();
+			for (int pe = 0; pe < HOST_PES; pe++) {
+				peList.add(new Pe(pe, new PeProvisionerSimple(1000)));
+			}
+			hostList.add(new NetworkHost(i, new RamProvisionerSimple(2048),
+					new BwProvisionerSimple(NetworkConstants.BandWidthEdgeHost), 1000000, peList,
+					new VmSchedulerTimeShared(peList)));
+		}
+
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		return new NetworkDatacenter("Datacenter", characteristics, new VmAllocationPolicySimple(hostList),
+				new LinkedList<>(), 0);
+	}
+
+	private void createNetwork(NetworkDatacenter datacenter) {
+		int edgeSwitches = (hosts + HOSTS_PER_EDGE_SWITCH - 1) / HOSTS_PER_EDGE_SWITCH;
+		Switch aggregationSwitch = new Switch("Aggr0", edgeSwitches, Switch.SwitchLevel.AGGR_LEVEL,
+				NetworkConstants.SwitchingDelayAgg, NetworkConstants.BandWidthEdgeAgg,
+				NetworkConstants.BandWidthAggRoot, datacenter);
+		datacenter.registerSwitch(aggregationSwitch);
+
+		Switch[] edgeSwitch = new Switch[edgeSwitches];
+		for (int i = 0; i < edgeSwitches; i++) {
+			edgeSwitch[i] = new Switch("Edge" + i, HOSTS_PER_EDGE_SWITCH, Switch.SwitchLevel.EDGE_LEVEL,
+					NetworkConstants.SwitchingDelayEdge, NetworkConstants.BandWidthEdgeHost,
+					NetworkConstants.BandWidthEdgeAgg, datacenter);
+			datacenter.registerSwitch(edgeSwitch[i]);
+			datacenter.attachSwitchToSwitch(edgeSwitch[i], aggregationSwitch);
+		}
+
+		List<NetworkHost> hostList = datacenter.getHostList();
+		for (NetworkHost host : hostList) {
+			datacenter.attachSwitchToHost(edgeSwitch[host.getId() / HOSTS_PER_EDGE_SWITCH], host);
+		}
+	}
+
+	private List<Cloudlet> createApplications(int brokerId, List<Vm> vmList) {
+		Random random = new Random(0);
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		List<Cloudlet> cloudletList = new ArrayList<>();
+		for (int app = 0; app < hosts; app++) {
+			List<NetworkCloudlet> tasks = new ArrayList<>();
+			for (int i = 0; i <= WORKERS; i++) {
+				NetworkCloudlet cl = new NetworkCloudlet(cloudletList.size() + i, ROUND_LENGTH, 1,
+						NetworkConstants.FILE_SIZE, NetworkConstants.OUTPUT_SIZE,
+						utilizationModel, utilizationModel, utilizationModel);
+				cl.setUserId(brokerId);
+				cl.setGuestId(vmList.get(random.nextInt(vmList.size())).getId());
+				tasks.add(cl);
+			}
+
+			// the first task is the gatherer
+			NetworkCloudlet gatherer = tasks.get(0);
+			for (int round = 0; round < ROUNDS; round++) {
+				for (int i = 1; i <= WORKERS; i++) {
+					NetworkCloudlet worker = tasks.get(i);
+					worker.addExecutionStage(ROUND_LENGTH);
+					worker.addSendStage(ROUND_DATA, gatherer);
+					gatherer.addRecvStage(worker);
+				}
+			}
+			gatherer.addExecutionStage(ROUND_LENGTH);
+			cloudletList.addAll(tasks);
+		}
+		return cloudletList;
+	}
+}
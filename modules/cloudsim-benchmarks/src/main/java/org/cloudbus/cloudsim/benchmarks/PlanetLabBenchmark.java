@@ -0,0 +1,112 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.examples.power.Constants;
+import org.cloudbus.cloudsim.examples.power.Helper;
+import org.cloudbus.cloudsim.examples.power.planetlab.PlanetLabConstants;
+import org.cloudbus.cloudsim.examples.power.planetlab.PlanetLabHelper;
+import org.cloudbus.cloudsim.power.PowerDatacenter;
+import org.cloudbus.cloudsim.power.PowerHost;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationLocalRegression;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationStaticThreshold;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMinimumMigrationTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a whole day of the scenario of {@code examples.power.planetlab.LrMmt}, i.e., a
+ * {@link PowerDatacenter} with the Local Regression allocation policy and the Minimum Migration
+ * Time selection policy, running the PlanetLab traces of a day. The scale is the number of VMs,
+ * each running one trace, and the number of hosts keeps the ratio of the example (800 hosts for
+ * 1052 VMs). The traces are read before each run and are not measured.
+ * <p>
+ * Run from the root of the project with:
+ * <tt>java -jar modules/cloudsim-benchmarks/target/benchmarks.jar PlanetLabBenchmark</tt>
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PlanetLabBenchmark {
+
+	/** The number of VMs of the example, which runs all the traces of a day. */
+	private static final int EXAMPLE_VMS = 1052;
+
+	@Param({"100", "1052"})
+	public int vms;
+
+	@Param({"20110303"})
+	public String day;
+
+	@Setup(Level.Invocation)
+	public void setUp() throws Exception {
+		Log.disable();
+		CloudSim.init(1, Calendar.getInstance(), false);
+
+		DatacenterBroker broker = Helper.createBroker();
+		List<Cloudlet> cloudletList = PlanetLabHelper.createCloudletListPlanetLab(broker.getId(),
+				PlanetLabWorkload.getFolder(day));
+		if (cloudletList.size() > vms) {
+			cloudletList = new ArrayList<>(cloudletList.subList(0, vms));
+		}
+		List<Vm> vmList = Helper.createVmList(broker.getId(), cloudletList.size());
+		List<PowerHost> hostList = Helper.createHostList(
+				Math.max(1, vms * PlanetLabConstants.NUMBER_OF_HOSTS / EXAMPLE_VMS));
+
+		SelectionPolicy<GuestEntity> vmSelectionPolicy = new SelectionPolicyMinimumMigrationTime();
+		PowerDatacenter datacenter = (PowerDatacenter) Helper.createDatacenter(
+				"Datacenter",
+				PowerDatacenter.class,
+				hostList,
+				new PowerVmAllocationPolicyMigrationLocalRegression(
+						hostList,
+						vmSelectionPolicy,
+						1.2,
+						Constants.SCHEDULING_INTERVAL,
+						new PowerVmAllocationPolicyMigrationStaticThreshold(hostList, vmSelectionPolicy, 0.7)));
+		datacenter.setDisableMigrations(false);
+
+		broker.submitGuestList(vmList);
+		broker.submitCloudletList(cloudletList);
+
+		CloudSim.terminateSimulation(Constants.SIMULATION_LIMIT);
+	}
+
+	@Benchmark
+	public double simulate() {
+		return CloudSim.startSimulation();
+	}
+}
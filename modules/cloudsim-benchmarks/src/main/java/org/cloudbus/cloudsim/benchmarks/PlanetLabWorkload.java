@@ -0,0 +1,78 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+
+/**
+ * Locates the PlanetLab traces of the examples for the macro-benchmarks. The traces are not
+ * packaged in the benchmarks jar, so they are looked up, in order, in the folder given by the
+ * <tt>cloudsim.workload</tt> system property, in the sources of the examples relative to the
+ * working directory (i.e., when the benchmarks are run from the root of the project), and on
+ * the class path.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+final class PlanetLabWorkload {
+
+	/** The folder of the traces in the sources of the examples. */
+	private static final String SOURCE_FOLDER = "modules/cloudsim-examples/src/main/resources/workload/planetlab";
+
+	private PlanetLabWorkload() {
+	}
+
+	/**
+	 * Gets the folder of the PlanetLab traces, which has a sub-folder per day.
+	 *
+	 * @return the path of the folder
+	 * @throws IllegalStateException if the traces cannot be found
+	 */
+	static String getFolder() {
+		String property = System.getProperty("cloudsim.workload");
+		if (property != null) {
+			return checkFolder(new File(property));
+		}
+
+		File sources = new File(SOURCE_FOLDER);
+		if (sources.isDirectory()) {
+			return sources.getAbsolutePath();
+		}
+
+		URL resource = PlanetLabWorkload.class.getClassLoader().getResource("workload/planetlab");
+		if (resource != null && "file".equals(resource.getProtocol())) {
+			try {
+				return checkFolder(new File(resource.toURI()));
+			} catch (URISyntaxException e) {
+				throw new IllegalStateException("Invalid location of the PlanetLab traces: " + resource, e);
+			}
+		}
+		throw new IllegalStateException("The PlanetLab traces are not found; run the benchmarks from the root "
+				+ "of the project or set -Dcloudsim.workload to the workload/planetlab folder");
+	}
+
+	/**
+	 * Gets the folder of the PlanetLab traces of a day.
+	 *
+	 * @param day the day, e.g. <tt>20110303</tt>
+	 * @return the path of the folder
+	 * @throws IllegalStateException if the traces cannot be found
+	 */
+	static String getFolder(String day) {
+		return checkFolder(new File(getFolder(), day));
+	}
+
+	private static String checkFolder(File folder) {
+		if (!folder.isDirectory()) {
+			throw new IllegalStateException("The PlanetLab traces are not found in " + folder);
+		}
+		return folder.getAbsolutePath();
+	}
+}
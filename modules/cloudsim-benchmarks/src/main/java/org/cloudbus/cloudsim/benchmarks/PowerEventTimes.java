@@ -0,0 +1,126 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.EventQueue;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.examples.power.Constants;
+import org.cloudbus.cloudsim.examples.power.Helper;
+import org.cloudbus.cloudsim.examples.power.random.RandomHelper;
+import org.cloudbus.cloudsim.power.PowerDatacenter;
+import org.cloudbus.cloudsim.power.PowerHost;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationLocalRegression;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationStaticThreshold;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMinimumMigrationTime;
+
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Records the distribution of the event scheduling delays (event time minus current clock) of the
+ * power-aware examples, so that the event queue benchmarks replay the same mix of same-time
+ * replies, scheduling-interval ticks and migration delays that the real simulations produce.
+ * <p>
+ * The scenario is the one of {@code examples.power.random.LrMmt}, i.e., a {@link PowerDatacenter}
+ * with the Local Regression allocation policy and the Minimum Migration Time selection policy.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public final class PowerEventTimes {
+
+	private PowerEventTimes() {
+	}
+
+	/**
+	 * Runs the power scenario and records the delay of each scheduled event.
+	 *
+	 * @param numberOfVms the number of VMs (and hosts) of the scenario
+	 * @return the recorded delays, in scheduling order
+	 * @throws Exception if the scenario cannot be created
+	 */
+	public static double[] record(int numberOfVms) throws Exception {
+		DelayRecorder recorder = new DelayRecorder();
+		boolean disabled = Log.isDisabled();
+		Log.disable();
+		try {
+			CloudSim.init(1, Calendar.getInstance(), false, () -> recorder);
+
+			DatacenterBroker broker = Helper.createBroker();
+			List<Cloudlet> cloudletList = RandomHelper.createCloudletList(broker.getId(), numberOfVms);
+			List<Vm> vmList = Helper.createVmList(broker.getId(), numberOfVms);
+			List<PowerHost> hostList = Helper.createHostList(numberOfVms);
+
+			SelectionPolicy<GuestEntity> vmSelectionPolicy = new SelectionPolicyMinimumMigrationTime();
+			PowerDatacenter datacenter = (PowerDatacenter) Helper.createDatacenter(
+					"Datacenter",
+					PowerDatacenter.class,
+					hostList,
+					new PowerVmAllocationPolicyMigrationLocalRegression(
+							hostList,
+							vmSelectionPolicy,
+							1.2,
+							Constants.SCHEDULING_INTERVAL,
+							new PowerVmAllocationPolicyMigrationStaticThreshold(hostList, vmSelectionPolicy, 0.7)));
+			datacenter.setDisableMigrations(false);
+
+			broker.submitGuestList(vmList);
+			broker.submitCloudletList(cloudletList);
+
+			CloudSim.terminateSimulation(Constants.SIMULATION_LIMIT);
+			CloudSim.startSimulation();
+		} finally {
+			Log.setDisabled(disabled);
+		}
+		return recorder.getDelays();
+	}
+
+	/**
+	 * A heap event queue that records the delay of the added events.
+	 */
+	private static class DelayRecorder extends EventQueue {
+
+		private double[] delays = new double[1024];
+
+		private int count;
+
+		@Override
+		public void addEvent(SimEvent newEvent) {
+			record(newEvent);
+			super.addEvent(newEvent);
+		}
+
+		@Override
+		public void addEventFirst(SimEvent newEvent) {
+			record(newEvent);
+			super.addEventFirst(newEvent);
+		}
+
+		private void record(SimEvent event) {
+			if (count == delays.length) {
+				double[] grown = new double[delays.length * 2];
+				System.arraycopy(delays, 0, grown, 0, count);
+				delays = grown;
+			}
+			delays[count++] = event.eventTime() - CloudSim.clock();
+		}
+
+		double[] getDelays() {
+			double[] result = new double[count];
+			System.arraycopy(delays, 0, result, 0, count);
+			return result;
+		}
+	}
+}
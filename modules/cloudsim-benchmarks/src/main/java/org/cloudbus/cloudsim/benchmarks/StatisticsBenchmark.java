@@ -0,0 +1,125 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import org.cloudbus.cloudsim.core.PowerGuestEntity;
+import org.cloudbus.cloudsim.power.PowerVm;
+import org.cloudbus.cloudsim.selectionPolicies.PowerSelectionPolicyMaximumCorrelation;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyRandomSelection;
+import org.cloudbus.cloudsim.util.HistoryStat;
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the statistics computed on the utilization histories by the power-aware allocation
+ * and selection policies:
+ * <ul>
+ * <li>the median of a {@link HistoryStat} sliding window, after each new value;</li>
+ * <li>the {@link MathUtil#getLoessParameterEstimates(double[]) Loess estimates} of a history, as
+ * used by the local regression policies;</li>
+ * <li>the {@link PowerSelectionPolicyMaximumCorrelation maximum correlation} selection among the
+ * VMs of a host.</li>
+ * </ul>
+ * <p>
+ * Run with: <tt>java -jar modules/cloudsim-benchmarks/target/benchmarks.jar StatisticsBenchmark</tt>
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticsBenchmark {
+
+	/** The number of VMs the maximum correlation policy selects from. */
+	private static final int CANDIDATES = 10;
+
+	@Param({"12", "30"})
+	public int historyLength;
+
+	private double[] values;
+
+	private int next;
+
+	private HistoryStat history;
+
+	private double[] window;
+
+	private PowerSelectionPolicyMaximumCorrelation selectionPolicy;
+
+	private List<PowerGuestEntity> candidates;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(0);
+		values = new double[1024];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextDouble();
+		}
+
+		history = new HistoryStat(historyLength);
+		window = new double[historyLength];
+		for (int i = 0; i < historyLength; i++) {
+			history.offer(nextValue());
+			window[i] = values[i];
+		}
+		history.getMedian();
+
+		selectionPolicy = new PowerSelectionPolicyMaximumCorrelation(new SelectionPolicyRandomSelection<>());
+		candidates = new ArrayList<>();
+		for (int i = 0; i < CANDIDATES; i++) {
+			PowerVm vm = new PowerVm(i, 0, 1000, 1, 1024, 1000, 1000, 1, "Xen", null, 300);
+			for (int j = 0; j < Math.min(historyLength, PowerGuestEntity.HISTORY_LENGTH); j++) {
+				vm.addUtilizationHistoryValue(random.nextDouble());
+			}
+			candidates.add(vm);
+		}
+	}
+
+	private double nextValue() {
+		double value = values[next];
+		next = next + 1 == values.length ? 0 : next + 1;
+		return value;
+	}
+
+	@Benchmark
+	public double median() {
+		history.offer(nextValue());
+		return history.getMedian();
+	}
+
+	@Benchmark
+	public double[] loess() {
+		return MathUtil.getLoessParameterEstimates(window);
+	}
+
+	@Benchmark
+	public PowerGuestEntity maximumCorrelation() {
+		return selectionPolicy.select(candidates, null, Collections.emptySet());
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import org.cloudbus.cloudsim.network.DelayMatrix_Float;
+import org.cloudbus.cloudsim.network.FloydWarshall_Float;
+import org.cloudbus.cloudsim.network.TopologicalGraph;
+import org.cloudbus.cloudsim.network.TopologicalLink;
+import org.cloudbus.cloudsim.network.TopologicalNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the computation of the delays between all the nodes of a sparse network topology,
+ * with {@link FloydWarshall_Float} and with the {@link DelayMatrix_Float} used by
+ * {@link org.cloudbus.cloudsim.NetworkTopology}. The topology is a ring, so that it is connected,
+ * plus three random links per node.
+ * <p>
+ * Run with: <tt>java -jar modules/cloudsim-benchmarks/target/benchmarks.jar TopologyBenchmark</tt>
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TopologyBenchmark {
+
+	@Param({"100", "500", "1000"})
+	public int nodes;
+
+	private TopologicalGraph graph;
+
+	private float[][] adjMatrix;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(0);
+		graph = new TopologicalGraph();
+		for (int i = 0; i < nodes; i++) {
+			graph.addNode(new TopologicalNode(i));
+		}
+		for (int i = 0; i < nodes; i++) {
+			graph.addLink(new TopologicalLink(i, (i + 1) % nodes, 1 + random.nextInt(10), 1));
+			for (int j = 0; j < 3; j++) {
+				graph.addLink(new TopologicalLink(i, random.nextInt(nodes), 1 + random.nextInt(10), 1));
+			}
+		}
+
+		adjMatrix = new float[nodes][nodes];
+		for (float[] row : adjMatrix) {
+			Arrays.fill(row, Float.MAX_VALUE);
+		}
+		graph.getLinkIterator().forEachRemaining(link -> {
+			adjMatrix[link.getSrcNodeID()][link.getDestNodeID()] = link.getLinkDelay();
+			adjMatrix[link.getDestNodeID()][link.getSrcNodeID()] = link.getLinkDelay();
+		});
+	}
+
+	@Benchmark
+	public float[][] floydWarshall() {
+		FloydWarshall_Float floyd = new FloydWarshall_Float();
+		floyd.initialize(nodes);
+		return floyd.allPairsShortestPaths(adjMatrix);
+	}
+
+	@Benchmark
+	public float delayMatrix() {
+		DelayMatrix_Float delayMatrix = new DelayMatrix_Float(graph, false);
+		float sum = 0;
+		for (int i = 0; i < nodes; i++) {
+			sum += delayMatrix.getDelay(0, i);
+		}
+		return sum;
+	}
+}
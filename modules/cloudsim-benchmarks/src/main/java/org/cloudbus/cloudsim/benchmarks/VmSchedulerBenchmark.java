@@ -0,0 +1,101 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link VmSchedulerTimeShared#allocatePesForGuest}, as called by a host when the MIPS
+ * requested by one of its guests change: the guest is deallocated then allocated again, while
+ * the other guests keep their allocation. The guests request about 75% of the MIPS of the host.
+ * <p>
+ * Run with: <tt>java -jar modules/cloudsim-benchmarks/target/benchmarks.jar VmSchedulerBenchmark</tt>
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VmSchedulerBenchmark {
+
+	/** The MIPS of each PE of the host. */
+	private static final double PE_MIPS = 2500;
+
+	@Param({"8", "64"})
+	public int pes;
+
+	@Param({"4", "32"})
+	public int guests;
+
+	private VmSchedulerTimeShared vmScheduler;
+
+	private List<Vm> vms;
+
+	private List<List<Double>> requests;
+
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		List<Pe> peList = new ArrayList<>();
+		for (int i = 0; i < pes; i++) {
+			peList.add(new Pe(i, new PeProvisionerSimple(PE_MIPS)));
+		}
+		vmScheduler = new VmSchedulerTimeShared(peList);
+
+		Random random = new Random(0);
+		double guestMips = 0.75 * pes * PE_MIPS / guests;
+		vms = new ArrayList<>();
+		requests = new ArrayList<>();
+		for (int i = 0; i < guests; i++) {
+			int guestPes = Math.max(1, Math.min(pes, (int) Math.ceil(guestMips / PE_MIPS)));
+			double mips = guestMips / guestPes;
+			Vm vm = new Vm(i, 0, mips, guestPes, 0, 0, 0, "", null);
+			List<Double> request = new ArrayList<>();
+			for (int pe = 0; pe < guestPes; pe++) {
+				request.add(mips * (0.5 + random.nextDouble() / 2));
+			}
+			vms.add(vm);
+			requests.add(request);
+			vmScheduler.allocatePesForGuest(vm, request);
+		}
+	}
+
+	@Benchmark
+	public boolean reallocate() {
+		Vm vm = vms.get(next);
+		List<Double> request = requests.get(next);
+		next = next + 1 == vms.size() ? 0 : next + 1;
+		vmScheduler.deallocatePesForGuest(vm);
+		return vmScheduler.allocatePesForGuest(vm, request);
+	}
+}
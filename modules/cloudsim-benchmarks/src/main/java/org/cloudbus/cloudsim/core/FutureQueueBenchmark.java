@@ -0,0 +1,99 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.benchmarks.PowerEventTimes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link FutureQueue} implementations with the classic "hold" model: the queue is
+ * filled with a number of pending events, then each operation polls the earliest event and
+ * schedules a new one after a delay drawn from the delays recorded in a power-aware simulation
+ * (see {@link PowerEventTimes}).
+ * <p>
+ * Run with: <tt>java -jar modules/cloudsim-benchmarks/target/benchmarks.jar FutureQueueBenchmark</tt>
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FutureQueueBenchmark {
+
+	/** The number of VMs of the power scenario the delays are recorded from. */
+	private static final int RECORDED_VMS = 200;
+
+	@Param({"heap", "calendar"})
+	public String queue;
+
+	@Param({"10000", "100000", "1000000"})
+	public int pendingEvents;
+
+	private double[] delays;
+
+	private FutureQueue future;
+
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		delays = PowerEventTimes.record(RECORDED_VMS);
+
+		// EventQueue only returns events while the simulation is running
+		Log.disable();
+		CloudSim.init(1, null, false);
+		CloudSim.runStart();
+
+		future = switch (queue) {
+			case "heap" -> new EventQueue();
+			case "calendar" -> new CalendarQueue();
+			default -> throw new IllegalArgumentException("Unknown queue: " + queue);
+		};
+		for (int i = 0; i < pendingEvents; i++) {
+			future.addEvent(newEvent(0));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		CloudSim.abruptallyTerminate();
+		future.clear();
+	}
+
+	@Benchmark
+	public SimEvent hold() {
+		SimEvent ev = future.poll();
+		future.addEvent(newEvent(ev.eventTime()));
+		return ev;
+	}
+
+	private SimEvent newEvent(double clock) {
+		double delay = delays[next];
+		next = next + 1 == delays.length ? 0 : next + 1;
+		return new SimEvent(SimEvent.SEND, clock + delay, 0, 0, CloudActionTags.BLANK, null);
+	}
+}
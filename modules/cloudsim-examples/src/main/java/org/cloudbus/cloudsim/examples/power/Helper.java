@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -460,6 +461,74 @@ public class Helper {
 		Log.setDisabled(true);
 	}
 
+	/**
+	 * Gets the results of an experiment: the metrics written by
+	 * {@link #printResults(PowerDatacenter, List, double, String, boolean, String)}, as numbers.
+	 * The execution times of the VM allocation policy are NaN if it does not migrate VMs, so that
+	 * all the experiments have the same results.
+	 * 
+	 * @param datacenter the datacenter
+	 * @param vms the vms
+	 * @param lastClock the last clock
+	 * @return the results, by name
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static Map<String, Object> getResults(PowerDatacenter datacenter, List<Vm> vms, double lastClock) {
+		List<Host> hosts = datacenter.getHostList();
+		Map<String, Double> slaMetrics = getSlaMetrics(vms);
+		double slaTimePerActiveHost = getSlaTimePerActiveHost(hosts);
+		double slaDegradationDueToMigration = slaMetrics.get("underallocated_migration");
+		List<Double> timeBeforeHostShutdown = getTimesBeforeHostShutdown(hosts);
+		List<Double> timeBeforeVmMigration = getTimesBeforeVmMigration(vms);
+
+		Map<String, Object> results = new LinkedHashMap<>();
+		results.put("hosts", hosts.size());
+		results.put("vms", vms.size());
+		results.put("simulation_time", lastClock);
+		results.put("energy", datacenter.getPower() / (3600 * 1000));
+		results.put("migrations", datacenter.getMigrationCount());
+		results.put("sla", slaTimePerActiveHost * slaDegradationDueToMigration);
+		results.put("sla_time_per_active_host", slaTimePerActiveHost);
+		results.put("sla_degradation_due_to_migration", slaDegradationDueToMigration);
+		results.put("sla_overall", slaMetrics.get("overall"));
+		results.put("sla_average", slaMetrics.get("average"));
+		results.put("host_shutdowns", timeBeforeHostShutdown.size());
+		results.put("time_before_host_shutdown_mean", meanOrNaN(timeBeforeHostShutdown));
+		results.put("time_before_host_shutdown_stdev", stDevOrNaN(timeBeforeHostShutdown));
+		results.put("time_before_vm_migration_mean", meanOrNaN(timeBeforeVmMigration));
+		results.put("time_before_vm_migration_stdev", stDevOrNaN(timeBeforeVmMigration));
+
+		List<Double> vmSelection = List.of();
+		List<Double> hostSelection = List.of();
+		List<Double> vmReallocation = List.of();
+		List<Double> total = List.of();
+		if (datacenter.getVmAllocationPolicy() instanceof PowerVmAllocationPolicyMigrationAbstract) {
+			PowerVmAllocationPolicyMigrationAbstract vmAllocationPolicy = (PowerVmAllocationPolicyMigrationAbstract) datacenter
+					.getVmAllocationPolicy();
+			vmSelection = vmAllocationPolicy.getExecutionTimeHistoryVmSelection();
+			hostSelection = vmAllocationPolicy.getExecutionTimeHistoryHostSelection();
+			vmReallocation = vmAllocationPolicy.getExecutionTimeHistoryVmReallocation();
+			total = vmAllocationPolicy.getExecutionTimeHistoryTotal();
+		}
+		results.put("execution_time_vm_selection_mean", meanOrNaN(vmSelection));
+		results.put("execution_time_vm_selection_stdev", stDevOrNaN(vmSelection));
+		results.put("execution_time_host_selection_mean", meanOrNaN(hostSelection));
+		results.put("execution_time_host_selection_stdev", stDevOrNaN(hostSelection));
+		results.put("execution_time_vm_reallocation_mean", meanOrNaN(vmReallocation));
+		results.put("execution_time_vm_reallocation_stdev", stDevOrNaN(vmReallocation));
+		results.put("execution_time_total_mean", meanOrNaN(total));
+		results.put("execution_time_total_stdev", stDevOrNaN(total));
+		return results;
+	}
+
+	private static double meanOrNaN(List<Double> data) {
+		return data.isEmpty() ? Double.NaN : MathUtil.mean(data);
+	}
+
+	private static double stDevOrNaN(List<Double> data) {
+		return data.isEmpty() ? Double.NaN : MathUtil.stDev(data);
+	}
+
 	/**
 	 * Parses the experiment name.
 	 * 
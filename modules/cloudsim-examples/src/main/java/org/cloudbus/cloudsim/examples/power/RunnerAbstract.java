@@ -4,7 +4,9 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.cloudbus.cloudsim.*;
 import org.cloudbus.cloudsim.core.CloudSim;
@@ -29,19 +31,29 @@ import org.cloudbus.cloudsim.selectionPolicies.*;
 public abstract class RunnerAbstract {
 
 	/** The enable output. */
-	private static boolean enableOutput;
+	private boolean enableOutput;
 
 	/** The broker. */
-	protected static DatacenterBroker broker;
+	protected DatacenterBroker broker;
 
 	/** The cloudlet list. */
-	protected static List<Cloudlet> cloudletList;
+	protected List<Cloudlet> cloudletList;
 
 	/** The vm list. */
-	protected static List<Vm> vmList;
+	protected List<Vm> vmList;
 
 	/** The host list. */
-	protected static List<PowerHost> hostList;
+	protected List<PowerHost> hostList;
+
+	/** The last clock of the simulation. */
+	private double lastClock;
+
+	/**
+	 * Creates a runner whose experiments are run with {@link #run(String, String, String, String, String)},
+	 * e.g. by a {@link org.cloudbus.cloudsim.EX.util.SweepRunner}.
+	 */
+	protected RunnerAbstract() {
+	}
 
 	/**
 	 * Run.
@@ -144,24 +156,7 @@ public abstract class RunnerAbstract {
 		System.out.println("Starting " + experimentName);
 
 		try {
-			PowerDatacenter datacenter = (PowerDatacenter) Helper.createDatacenter(
-					"Datacenter",
-					PowerDatacenter.class,
-					hostList,
-					vmAllocationPolicy);
-
-			datacenter.setDisableMigrations(false);
-
-			broker.submitGuestList(vmList);
-			broker.submitCloudletList(cloudletList);
-
-			CloudSim.terminateSimulation(Constants.SIMULATION_LIMIT);
-			double lastClock = CloudSim.startSimulation();
-
-			List<Cloudlet> newList = broker.getCloudletReceivedList();
-			Log.println("Received " + newList.size() + " cloudlets");
-
-			CloudSim.stopSimulation();
+			PowerDatacenter datacenter = simulate(vmAllocationPolicy);
 
 			Helper.printResults(
 					datacenter,
@@ -180,6 +175,68 @@ public abstract class RunnerAbstract {
 		Log.println("Finished " + experimentName);
 	}
 
+	/**
+	 * Runs the simulation of the initialised hosts, VMs and cloudlets.
+	 * 
+	 * @param vmAllocationPolicy the vm allocation policy
+	 * @return the datacenter
+	 * @throws Exception the exception
+	 */
+	protected PowerDatacenter simulate(VmAllocationPolicy vmAllocationPolicy) throws Exception {
+		PowerDatacenter datacenter = (PowerDatacenter) Helper.createDatacenter(
+				"Datacenter",
+				PowerDatacenter.class,
+				hostList,
+				vmAllocationPolicy);
+
+		datacenter.setDisableMigrations(false);
+
+		broker.submitGuestList(vmList);
+		broker.submitCloudletList(cloudletList);
+
+		CloudSim.terminateSimulation(Constants.SIMULATION_LIMIT);
+		lastClock = CloudSim.startSimulation();
+
+		List<Cloudlet> newList = broker.getCloudletReceivedList();
+		Log.println("Received " + newList.size() + " cloudlets");
+
+		CloudSim.stopSimulation();
+		return datacenter;
+	}
+
+	/**
+	 * Runs an experiment without writing its results, and without any output if the {@link Log}
+	 * is disabled. Each runner can run a single experiment.
+	 * 
+	 * @param inputFolder the input folder
+	 * @param workload the workload
+	 * @param vmAllocationPolicy the vm allocation policy
+	 * @param vmSelectionPolicy the vm selection policy
+	 * @param parameter the parameter
+	 * @return the results, as computed by {@link Helper#getResults(PowerDatacenter, List, double)}
+	 * @throws Exception the exception
+	 */
+	public Map<String, Object> run(
+			String inputFolder,
+			String workload,
+			String vmAllocationPolicy,
+			String vmSelectionPolicy,
+			String parameter) throws Exception {
+		init(inputFolder + "/" + workload);
+		PowerDatacenter datacenter = simulate(getVmAllocationPolicy(
+				vmAllocationPolicy,
+				vmSelectionPolicy,
+				parameter));
+
+		Map<String, Object> results = new LinkedHashMap<>();
+		results.put("workload", workload);
+		results.put("vm_allocation_policy", vmAllocationPolicy);
+		results.put("vm_selection_policy", vmSelectionPolicy);
+		results.put("parameter", parameter);
+		results.putAll(Helper.getResults(datacenter, vmList, lastClock));
+		return results;
+	}
+
 	/**
 	 * Gets the experiment name.
 	 * 
@@ -323,7 +380,7 @@ public abstract class RunnerAbstract {
 	 * @param enableOutput the new enable output
 	 */
 	public void setEnableOutput(boolean enableOutput) {
-		RunnerAbstract.enableOutput = enableOutput;
+		this.enableOutput = enableOutput;
 	}
 
 	/**
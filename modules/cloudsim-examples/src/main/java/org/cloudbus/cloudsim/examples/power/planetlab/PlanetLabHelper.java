@@ -2,6 +2,7 @@ package org.cloudbus.cloudsim.examples.power.planetlab;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,7 +10,10 @@ import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.UtilizationModel;
 import org.cloudbus.cloudsim.UtilizationModelNull;
 import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory;
+import org.cloudbus.cloudsim.UtilizationModelPlanetLabMapped;
 import org.cloudbus.cloudsim.examples.power.Constants;
+import org.cloudbus.cloudsim.util.PlanetLabTraceFile;
+import org.cloudbus.cloudsim.util.TraceCache;
 
 /**
  * A helper class for the running examples for the PlanetLab workload.
@@ -27,11 +31,15 @@ import org.cloudbus.cloudsim.examples.power.Constants;
  */
 public class PlanetLabHelper {
 
+	/** The number of utilization samples of a trace (5 min * 288 = 24 hours, plus a last one). */
+	private static final int DATA_SAMPLES = 289;
+
 	/**
 	 * Creates the cloudlet list planet lab.
 	 * 
 	 * @param brokerId the broker id
-	 * @param inputFolderName the input folder name
+	 * @param inputFolderName the input folder name, or the path of a
+	 *        {@link PlanetLabTraceFile} created from the input folder
 	 * @return the list
 	 * @throws FileNotFoundException the file not found exception
 	 */
@@ -43,25 +51,24 @@ public class PlanetLabHelper {
 		long outputSize = 300;
 		UtilizationModel utilizationModelNull = new UtilizationModelNull();
 
-		File inputFolder = new File(inputFolderName);
-		File[] files = inputFolder.listFiles();
+		List<UtilizationModel> utilizationModels = null;
+		try {
+			utilizationModels = createUtilizationModels(inputFolderName);
+		} catch (FileNotFoundException e) {
+			throw e;
+		} catch (Exception e) {
+			e.printStackTrace();
+			System.exit(0);
+		}
 
-		for (int i = 0; i < files.length; i++) {
-			Cloudlet cloudlet = null;
-			try {
-				cloudlet = new Cloudlet(
-						i,
-						Constants.CLOUDLET_LENGTH,
-						Constants.CLOUDLET_PES,
-						fileSize,
-						outputSize,
-						new UtilizationModelPlanetLabInMemory(
-								files[i].getAbsolutePath(),
-								Constants.SCHEDULING_INTERVAL), utilizationModelNull, utilizationModelNull);
-			} catch (Exception e) {
-				e.printStackTrace();
-				System.exit(0);
-			}
+		for (int i = 0; i < utilizationModels.size(); i++) {
+			Cloudlet cloudlet = new Cloudlet(
+					i,
+					Constants.CLOUDLET_LENGTH,
+					Constants.CLOUDLET_PES,
+					fileSize,
+					outputSize,
+					utilizationModels.get(i), utilizationModelNull, utilizationModelNull);
 			cloudlet.setUserId(brokerId);
 			cloudlet.setGuestId(i);
 			list.add(cloudlet);
@@ -70,4 +77,37 @@ public class PlanetLabHelper {
 		return list;
 	}
 
+	/**
+	 * Creates the CPU utilization models of the VMs, one per trace. The traces of a
+	 * {@link PlanetLabTraceFile} are mapped rather than read.
+	 * 
+	 * @param inputFolderName the input folder name, or the path of a trace file
+	 * @return the utilization models
+	 * @throws IOException if the traces can not be read
+	 */
+	private static List<UtilizationModel> createUtilizationModels(String inputFolderName) throws IOException {
+		List<UtilizationModel> utilizationModels = new ArrayList<>();
+		File input = new File(inputFolderName);
+		if (input.isFile()) {
+			PlanetLabTraceFile traceFile = TraceCache.getPlanetLabTraceFile(inputFolderName);
+			for (int i = 0; i < traceFile.getTraceCount(); i++) {
+				utilizationModels.add(new UtilizationModelPlanetLabMapped(
+						traceFile,
+						i,
+						Constants.SCHEDULING_INTERVAL));
+			}
+		} else {
+			File[] files = input.listFiles();
+			if (files == null) {
+				throw new FileNotFoundException(inputFolderName);
+			}
+			for (File file : files) {
+				utilizationModels.add(new UtilizationModelPlanetLabInMemory(
+						TraceCache.getPlanetLabData(file.getAbsolutePath(), DATA_SAMPLES),
+						Constants.SCHEDULING_INTERVAL));
+			}
+		}
+		return utilizationModels;
+	}
+
 }
@@ -23,6 +23,14 @@ import org.cloudbus.cloudsim.examples.power.RunnerAbstract;
  */
 public class PlanetLabRunner extends RunnerAbstract {
 
+	/**
+	 * Instantiates a new planet lab runner, whose experiment is run with
+	 * {@link #run(String, String, String, String, String)}.
+	 */
+	public PlanetLabRunner() {
+		super();
+	}
+
 	/**
 	 * Instantiates a new planet lab runner.
 	 * 
@@ -0,0 +1,96 @@
+package org.cloudbus.cloudsim.examples.power.planetlab;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.EX.util.SweepRunner;
+import org.cloudbus.cloudsim.Log;
+
+/**
+ * Runs all the combinations of the VM allocation and VM selection policies of the PlanetLab
+ * examples, i.e. the 20 experiments from IqrMc to ThrRs, in parallel in the current JVM. The
+ * traces of the workload are read only once, and the results of each experiment are written as a
+ * CSV row as soon as it is finished.
+ *
+ * The arguments are optional: the PlanetLab workload (20110303 by default) and the output file
+ * (the standard output by default). The workload can also be the path of a workload folder, or of
+ * a file created from it by {@link org.cloudbus.cloudsim.util.PlanetLabTraceFile}, whose traces
+ * are mapped instead of being read.
+ *
+ * If you are using any algorithms, policies or workload included in the power package please cite
+ * the following paper:
+ *
+ * Anton Beloglazov, and Rajkumar Buyya, "Optimal Online Deterministic Algorithms and Adaptive
+ * Heuristics for Energy and Performance Efficient Dynamic Consolidation of Virtual Machines in
+ * Cloud Data Centers", Concurrency and Computation: Practice and Experience (CCPE), Volume 24,
+ * Issue 13, Pages: 1397-1420, John Wiley &amp; Sons, Ltd, New York, USA, 2012
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class PlanetLabSweep {
+
+	/** The VM allocation policies, with their parameter. */
+	private static final String[][] VM_ALLOCATION_POLICIES = {
+			{ "iqr", "1.5" }, // the safety parameter of the IQR policy
+			{ "mad", "2.5" }, // the safety parameter of the MAD policy
+			{ "lr", "1.2" }, // the safety parameter of the LR policy
+			{ "lrr", "1.2" }, // the safety parameter of the LRR policy
+			{ "thr", "0.8" } // the static utilization threshold
+	};
+
+	/** The VM selection policies. */
+	private static final String[] VM_SELECTION_POLICIES = { "mc", "mmt", "mu", "rs" };
+
+	/** The heap needed by an experiment, in bytes. */
+	private static final long MEMORY_PER_EXPERIMENT = 256L * 1024 * 1024;
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the workload and the output file, both optional
+	 * @throws Exception the exception
+	 */
+	public static void main(String[] args) throws Exception {
+		String workloadArg = args.length >= 1 ? args[0] : "20110303"; // PlanetLab workload
+		File workloadPath = new File(workloadArg);
+		String inputFolder = workloadPath.exists()
+				? workloadPath.getAbsoluteFile().getParent()
+				: PlanetLabSweep.class.getClassLoader().getResource("workload/planetlab").getPath();
+		String workload = workloadPath.getName();
+
+		List<SweepRunner.Experiment> experiments = new ArrayList<>();
+		for (String[] vmAllocationPolicy : VM_ALLOCATION_POLICIES) {
+			for (String vmSelectionPolicy : VM_SELECTION_POLICIES) {
+				String name = workload + "_" + vmAllocationPolicy[0] + "_" + vmSelectionPolicy + "_"
+						+ vmAllocationPolicy[1];
+				experiments.add(SweepRunner.experiment(name, () -> new PlanetLabRunner().run(
+						inputFolder,
+						workload,
+						vmAllocationPolicy[0],
+						vmSelectionPolicy,
+						vmAllocationPolicy[1])));
+			}
+		}
+
+		Log.disable();
+		SweepRunner runner = new SweepRunner(0, MEMORY_PER_EXPERIMENT);
+		System.err.println("Running " + experiments.size() + " experiments, " + runner.getParallelism()
+				+ " at a time");
+		long start = System.currentTimeMillis();
+		int failures;
+		if (args.length >= 2) {
+			try (Writer output = new BufferedWriter(new FileWriter(args[1]))) {
+				failures = runner.run(experiments, output);
+			}
+		} else {
+			failures = runner.run(experiments, System.out);
+		}
+		System.err.printf("Finished in %.1f sec, %d failed%n", (System.currentTimeMillis() - start) / 1000.0,
+				failures);
+	}
+
+}
@@ -0,0 +1,66 @@
+package org.cloudbus.cloudsim.examples;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regression testsuite that checks that the examples in cloudsim-examples produce exactly the same
+ * results as before the datacenter stopped updating all its hosts at each processing. Unlike
+ * {@link CloudSimExampleTest}, the results are compared without any tolerance, since any change in
+ * the order or the times the hosts are updated affects the truncation of the cloudlet progress.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class ExampleRegressionTest {
+    private static final String[] empty = new String[0];
+
+    @Test
+    public void runCloudSimExample7() {
+        assertDoesNotThrow(() -> CloudSimExample7.main(empty));
+        assertEquals(10, CloudSimExample7.broker.getCloudletReceivedList().size());
+        for (Cloudlet cl : CloudSimExample7.broker.getCloudletReceivedList()) {
+            assertEquals(Cloudlet.CloudletStatus.SUCCESS, cl.getStatus());
+            assertEquals(0.01, cl.getExecStartTime(), 0);
+            assertEquals(319.998, cl.getActualCPUTime(), 0);
+            assertEquals(320.008, cl.getExecFinishTime(), 0);
+        }
+    }
+
+    @Test
+    public void runCloudSimExample9() {
+        assertDoesNotThrow(() -> CloudSimExample9.main(empty));
+        assertEquals(6, CloudSimExample9.broker.getCloudletReceivedList().size());
+        for (Cloudlet cl : CloudSimExample9.broker.getCloudletReceivedList()) {
+            assertEquals(Cloudlet.CloudletStatus.SUCCESS, cl.getStatus());
+            switch (cl.getCloudletId()) {
+                case 0 -> {
+                    assertEquals(29.998, cl.getActualCPUTime(), 0);
+                    assertEquals(30.008000000000003, cl.getExecFinishTime(), 0);
+                }
+                case 1 -> {
+                    assertEquals(209.998, cl.getActualCPUTime(), 0);
+                    assertEquals(210.00799999999998, cl.getExecFinishTime(), 0);
+                }
+                case 2 -> {
+                    assertEquals(1110.0, cl.getActualCPUTime(), 0);
+                    assertEquals(1110.01, cl.getExecFinishTime(), 0);
+                }
+                case 3 -> {
+                    assertEquals(10.0, cl.getActualCPUTime(), 0);
+                    assertEquals(10.01, cl.getExecFinishTime(), 0);
+                }
+                case 4 -> {
+                    assertEquals(99.99999999999999, cl.getActualCPUTime(), 0);
+                    assertEquals(110.00999999999999, cl.getExecFinishTime(), 0);
+                }
+                case 5 -> {
+                    assertEquals(1000.0, cl.getActualCPUTime(), 0);
+                    assertEquals(1110.01, cl.getExecFinishTime(), 0);
+                }
+                default -> fail("Unknown cloudlet id");
+            }
+        }
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Keeps the cloudlets executed by a {@link CloudletScheduler} in the order of their completion,
+ * when each of them gets the same capacity for each of its PEs, as in time-shared and
+ * space-shared scheduling.
+ * <p>
+ * The progress of the cloudlets is measured in virtual time: the MI executed so far by a PE
+ * getting the {@link CloudletScheduler#getCurrentCapacity() current capacity}. A cloudlet is
+ * keyed by the virtual time at which it completes, which does not change when the capacity or
+ * the number of cloudlets changes, so the keys are kept in a min-heap which only needs re-keying
+ * when the length of a cloudlet changes. Since the cloudlets record their progress in whole
+ * instructions and their remaining length in whole MI, a key is a lower bound of the actual
+ * completion within {@link #KEY_TOLERANCE}, and the next completion is found among the
+ * cloudlets at the top of the heap, with the same result as estimating all of them.
+ * <p>
+ * The cloudlets are identified by their position in the exec list of the scheduler, and the
+ * queue is kept aligned with the list while the scheduler updates it.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+class CloudletCompletionQueue implements Serializable {
+
+	/** The tolerance of the keys, in MI per PE. */
+	private static final double KEY_TOLERANCE = 2;
+
+	/** The cloudlet at each position of the exec list, or null if it is not tracked. */
+	private Cloudlet[] cloudlets = new Cloudlet[16];
+
+	/** The total length of each cloudlet when it has been keyed. */
+	private long[] lengths = new long[16];
+
+	/** The virtual time at which each cloudlet completes. */
+	private double[] keys = new double[16];
+
+	/** The heap of the tracked cloudlets, as positions in the exec list. */
+	private int[] heap = new int[16];
+
+	/** The position of each cloudlet in the {@link #heap}, or -1 if it is not in the heap. */
+	private int[] heapPositions = filled(new int[16], 0);
+
+	/** The number of positions of the exec list covered by the queue. */
+	private int size;
+
+	/** The number of cloudlets in the heap. */
+	private int heapSize;
+
+	/** The current virtual time. */
+	private double virtualTime;
+
+	/** The positions of the heap to visit when finding the next completion. */
+	private int[] stack = new int[17];
+
+	/** The positions of the cloudlets to key again after finding the next completion. */
+	private int[] lagging = new int[16];
+
+	/**
+	 * Advances the virtual time.
+	 *
+	 * @param timeSpan the time since the last update
+	 * @param capacity the capacity of each PE during that time
+	 */
+	void advance(double timeSpan, double capacity) {
+		virtualTime += timeSpan * capacity;
+	}
+
+	/**
+	 * Makes room for a number of positions of the exec list.
+	 *
+	 * @param capacity the size of the exec list
+	 */
+	void ensureCapacity(int capacity) {
+		if (capacity <= cloudlets.length) {
+			return;
+		}
+		int oldLength = cloudlets.length;
+		int newLength = Math.max(capacity, 2 * oldLength);
+		cloudlets = Arrays.copyOf(cloudlets, newLength);
+		lengths = Arrays.copyOf(lengths, newLength);
+		keys = Arrays.copyOf(keys, newLength);
+		heap = Arrays.copyOf(heap, newLength);
+		heapPositions = filled(Arrays.copyOf(heapPositions, newLength), oldLength);
+		stack = new int[newLength + 1];
+		lagging = new int[newLength];
+	}
+
+	/**
+	 * Records the cloudlet at a position of the exec list, keying it if it is new at that
+	 * position or its length has changed.
+	 *
+	 * @param index the position in the exec list
+	 * @param cl the cloudlet
+	 */
+	void update(int index, Cloudlet cl) {
+		if (index >= size) {
+			size = index + 1;
+		}
+		long length = cl.getCloudletTotalLength();
+		if (cloudlets[index] == cl && lengths[index] == length) {
+			return;
+		}
+
+		cloudlets[index] = cl;
+		lengths[index] = length;
+		keys[index] = getCompletionKey(cl);
+		int position = heapPositions[index];
+		if (position < 0) {
+			heap[heapSize] = index;
+			heapPositions[index] = heapSize;
+			heapSize++;
+			siftUp(heapSize - 1);
+		} else {
+			siftDown(position);
+			siftUp(heapPositions[index]);
+		}
+	}
+
+	/**
+	 * Stops tracking the cloudlet at a position of the exec list, e.g. because it has finished.
+	 *
+	 * @param index the position in the exec list
+	 */
+	void remove(int index) {
+		if (index < size && heapPositions[index] >= 0) {
+			removeFromHeap(index);
+		}
+		if (index < size) {
+			cloudlets[index] = null;
+		}
+	}
+
+	/**
+	 * Moves the cloudlet at a position of the exec list to a former position, which is not
+	 * tracked anymore, as the exec list is compacted.
+	 *
+	 * @param from the current position
+	 * @param to the new position
+	 */
+	void move(int from, int to) {
+		if (from >= size || heapPositions[from] < 0) {
+			return;
+		}
+		int position = heapPositions[from];
+		cloudlets[to] = cloudlets[from];
+		lengths[to] = lengths[from];
+		keys[to] = keys[from];
+		heap[position] = to;
+		heapPositions[to] = position;
+		heapPositions[from] = -1;
+		cloudlets[from] = null;
+	}
+
+	/**
+	 * Stops tracking the positions of the exec list beyond its size.
+	 *
+	 * @param newSize the size of the exec list
+	 */
+	void truncate(int newSize) {
+		for (int index = newSize; index < size; index++) {
+			remove(index);
+		}
+		size = Math.min(size, newSize);
+	}
+
+	/**
+	 * Gets the earliest estimated finish time of the cloudlets, as given by
+	 * {@link CloudletScheduler#getEstimatedFinishTime(Cloudlet, double)}.
+	 *
+	 * @param scheduler the scheduler
+	 * @param currentTime the current simulation time
+	 * @return the earliest finish time, or {@link Double#MAX_VALUE} if there is none
+	 */
+	double getNextCompletionTime(CloudletScheduler scheduler, double currentTime) {
+		double nextCompletion = Double.MAX_VALUE;
+		double minKey = Double.MAX_VALUE;
+		int laggingCount = 0;
+
+		// depth-first walk of the heap, pruned by the smallest key of the visited cloudlets
+		int top = 0;
+		if (heapSize > 0) {
+			stack[top++] = 0;
+		}
+		while (top > 0) {
+			int position = stack[--top];
+			int index = heap[position];
+			if (keys[index] > minKey + KEY_TOLERANCE) {
+				continue;
+			}
+
+			Cloudlet cl = cloudlets[index];
+			double key = getCompletionKey(cl);
+			minKey = Math.min(minKey, key);
+			double finishTime = scheduler.getEstimatedFinishTime(cl, currentTime);
+			if (finishTime < nextCompletion) {
+				nextCompletion = finishTime;
+			}
+			if (key - keys[index] > KEY_TOLERANCE / 2) {
+				lagging[laggingCount++] = index;
+			}
+
+			int child = 2 * position + 1;
+			if (child < heapSize) {
+				stack[top++] = child;
+				if (child + 1 < heapSize) {
+					stack[top++] = child + 1;
+				}
+			}
+		}
+
+		// key again the cloudlets whose key has drifted from their progress, e.g. by rounding
+		for (int i = 0; i < laggingCount; i++) {
+			int index = lagging[i];
+			keys[index] = getCompletionKey(cloudlets[index]);
+			siftDown(heapPositions[index]);
+		}
+		return nextCompletion;
+	}
+
+	/**
+	 * Gets the virtual time at which a cloudlet completes, given its current progress.
+	 *
+	 * @param cl the cloudlet
+	 * @return the completion key
+	 */
+	private double getCompletionKey(Cloudlet cl) {
+		double remaining = (double) (cl.getCloudletTotalLength() * Consts.MILLION - cl.getCloudletFinishedSoFar())
+				/ Consts.MILLION;
+		return virtualTime + remaining / cl.getNumberOfPes();
+	}
+
+	private void removeFromHeap(int index) {
+		int position = heapPositions[index];
+		heapPositions[index] = -1;
+		heapSize--;
+		if (position == heapSize) {
+			return;
+		}
+
+		int last = heap[heapSize];
+		heap[position] = last;
+		heapPositions[last] = position;
+		siftDown(position);
+		siftUp(heapPositions[last]);
+	}
+
+	private void siftUp(int position) {
+		int index = heap[position];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (keys[heap[parent]] <= keys[index]) {
+				break;
+			}
+			heap[position] = heap[parent];
+			heapPositions[heap[position]] = position;
+			position = parent;
+		}
+		heap[position] = index;
+		heapPositions[index] = position;
+	}
+
+	private void siftDown(int position) {
+		int index = heap[position];
+		int half = heapSize >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			if (child + 1 < heapSize && keys[heap[child + 1]] < keys[heap[child]]) {
+				child++;
+			}
+			if (keys[index] <= keys[heap[child]]) {
+				break;
+			}
+			heap[position] = heap[child];
+			heapPositions[heap[position]] = position;
+			position = child;
+		}
+		heap[position] = index;
+		heapPositions[index] = position;
+	}
+
+	private static int[] filled(int[] positions, int from) {
+		Arrays.fill(positions, from, positions.length, -1);
+		return positions;
+	}
+}
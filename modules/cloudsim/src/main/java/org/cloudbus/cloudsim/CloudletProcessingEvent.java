@@ -0,0 +1,39 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event covering the periodic update of the processing of the cloudlets
+ * of a datacenter, and the completion of its finished cloudlets.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@Name("org.cloudbus.cloudsim.CloudletProcessing")
+@Label("Cloudlet Processing")
+@Category({ "CloudSim", "Datacenter" })
+@Description("Updates the processing of the cloudlets of a datacenter")
+class CloudletProcessingEvent extends jdk.jfr.Event {
+
+	@Label("Simulation Time")
+	double simulationTime;
+
+	@Label("Datacenter Id")
+	int datacenterId;
+
+	@Label("Hosts")
+	int hosts;
+
+	@Label("Guests")
+	int guests;
+}
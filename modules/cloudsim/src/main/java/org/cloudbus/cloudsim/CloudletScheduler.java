@@ -8,9 +8,11 @@
 
 package org.cloudbus.cloudsim;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.RandomAccess;
 
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.lists.CloudletList;
@@ -27,7 +29,7 @@ import org.cloudbus.cloudsim.lists.CloudletList;
  * @author Remo Andreoli
  * @since CloudSim Toolkit 1.0
  */
-public abstract class CloudletScheduler {
+public abstract class CloudletScheduler implements Serializable {
 
 	/** The previous time. */
 	private double previousTime;
@@ -58,6 +60,9 @@ public abstract class CloudletScheduler {
 	/** Buffer list of the latest finished cloudlets. */
 	protected List<Cloudlet> cloudletJustFinishedList;
 
+	/** The queue of the next cloudlet completions, if the capacity is shared by PEs. */
+	private CloudletCompletionQueue completionQueue;
+
 	/**
 	 * Creates a new CloudletScheduler object. 
 	 * A CloudletScheduler must be created before starting the actual simulation.
@@ -69,7 +74,7 @@ public abstract class CloudletScheduler {
 		setPreviousTime(0.0);
 
 		cloudletWaitingList = new LinkedList<>();
-		cloudletExecList = new LinkedList<>();
+		cloudletExecList = new ArrayList<>();
 		cloudletPausedList = new LinkedList<>();
 		cloudletFinishedList = new LinkedList<>();
 		cloudletFailedList = new LinkedList<>();
@@ -91,24 +96,42 @@ public abstract class CloudletScheduler {
 
 		double timeSpan = currentTime - getPreviousTime(); // time since last update
 
-		// Update cloudlets in exec list
-		for (Cloudlet cl : getCloudletExecList()) {
-			cl.updateCloudletFinishedSoFar((long) (timeSpan *
-					getTotalCurrentAllocatedMipsForCloudlet(cl, currentTime) * Consts.MILLION));
-			cl.updateCloudlet(null);
-		}
-
-		// Remove finished cloudlets
-		for (Cloudlet cl : getCloudletExecList()) {
-			if (cl.isFinished()) {
-				cloudletJustFinishedList.add(cl);
-				cloudletFinish(cl);
+		// Update cloudlets in exec list and remove the finished ones, in a single pass which
+		// keeps the unfinished cloudlets in their order
+		List<Cloudlet> execList = getCloudletExecList();
+		CloudletCompletionQueue queue = getCompletionQueue(execList, timeSpan);
+		int kept = 0;
+		if (execList instanceof RandomAccess) {
+			int size = execList.size();
+			for (int i = 0; i < size; i++) {
+				Cloudlet cl = execList.get(i);
+				if (updateCloudlet(cl, timeSpan, currentTime)) {
+					if (kept != i) {
+						execList.set(kept, cl);
+						if (queue != null) {
+							queue.move(i, kept);
+						}
+					}
+					if (queue != null) {
+						queue.update(kept, cl);
+					}
+					kept++;
+				} else if (queue != null) {
+					queue.remove(i);
+				}
+			}
+			if (kept < size) {
+				execList.subList(kept, size).clear();
 			}
+			if (queue != null) {
+				queue.truncate(kept);
+			}
+		} else {
+			execList.removeIf(cl -> !updateCloudlet(cl, timeSpan, currentTime));
 		}
-		getCloudletExecList().removeAll(cloudletJustFinishedList);
-
 
-		if (getCloudletExecList().isEmpty() && getCloudletWaitingList().isEmpty()) {
+		if (execList.isEmpty() && getCloudletWaitingList().isEmpty()) {
+			cloudletJustFinishedList.clear();
 			setPreviousTime(currentTime);
 			return 0.0;
 		}
@@ -120,20 +143,89 @@ public abstract class CloudletScheduler {
 
 		// estimate finish time of cloudlets in the execution queue
 		double nextEvent = Double.MAX_VALUE;
-		for (Cloudlet cl : getCloudletExecList()) {
-			double estimatedFinishTime = getEstimatedFinishTime(cl, currentTime);
-			if (estimatedFinishTime - currentTime < CloudSim.getMinTimeBetweenEvents()) {
-				estimatedFinishTime = currentTime + CloudSim.getMinTimeBetweenEvents();
+		if (queue != null) {
+			int size = execList.size();
+			queue.ensureCapacity(size);
+			for (int i = kept; i < size; i++) {
+				queue.update(i, execList.get(i));
 			}
-			if (estimatedFinishTime < nextEvent) {
-				nextEvent = estimatedFinishTime;
+			nextEvent = queue.getNextCompletionTime(this, currentTime);
+		} else {
+			for (int i = 0, size = execList.size(); i < size; i++) {
+				double estimatedFinishTime = getEstimatedFinishTime(execList.get(i), currentTime);
+				if (estimatedFinishTime < nextEvent) {
+					nextEvent = estimatedFinishTime;
+				}
 			}
 		}
+		if (nextEvent - currentTime < CloudSim.getMinTimeBetweenEvents()) {
+			nextEvent = currentTime + CloudSim.getMinTimeBetweenEvents();
+		}
 
 		setPreviousTime(currentTime);
 		return nextEvent;
 	}
 
+	/**
+	 * Gets the queue of the next cloudlet completions, advanced to the current time, if the
+	 * scheduler {@link #isCapacitySharedByPes() shares its capacity by PEs} and the cloudlets
+	 * progress.
+	 *
+	 * @param execList the exec list
+	 * @param timeSpan the time since the last update
+	 * @return the queue, or null if the finish time of each cloudlet has to be estimated
+	 */
+	private CloudletCompletionQueue getCompletionQueue(List<Cloudlet> execList, double timeSpan) {
+		double capacity = getCurrentCapacity();
+		if (!isCapacitySharedByPes() || !(execList instanceof RandomAccess) || !(capacity > 0)) {
+			completionQueue = null;
+			return null;
+		}
+
+		if (completionQueue == null) {
+			completionQueue = new CloudletCompletionQueue();
+		}
+		completionQueue.advance(timeSpan, capacity);
+		completionQueue.ensureCapacity(execList.size());
+		return completionQueue;
+	}
+
+	/**
+	 * Checks if each executing cloudlet is allocated the {@link #getCurrentCapacity() current
+	 * capacity} for each of its PEs, and if the exec list is only appended to while
+	 * {@link #updateWaitingCloudlets(double, Object) updating the waiting cloudlets}. Such a
+	 * scheduler finds its next cloudlet completion with a queue of the cloudlets ordered in virtual
+	 * time, instead of estimating the finish time of each cloudlet at every update.
+	 * Schedulers opt in by overriding this method, once they have been checked to allocate the
+	 * capacity this way; subclasses of such schedulers do not inherit it.
+	 *
+	 * @return true if the capacity is shared by PEs
+	 */
+	protected boolean isCapacitySharedByPes() {
+		return false;
+	}
+
+	/**
+	 * Updates the processing of a cloudlet of the exec list, finishing it if it has completed.
+	 *
+	 * @param cl the cloudlet
+	 * @param timeSpan the time since the last update
+	 * @param currentTime current simulation time
+	 * @return true if the cloudlet keeps executing, false if it has finished
+	 */
+	private boolean updateCloudlet(Cloudlet cl, double timeSpan, double currentTime) {
+		cl.updateCloudletFinishedSoFar((long) (timeSpan *
+				getTotalCurrentAllocatedMipsForCloudlet(cl, currentTime) * Consts.MILLION));
+		cl.updateCloudlet(null);
+
+		if (cl.isFinished()) {
+			cloudletJustFinishedList.add(cl);
+			cloudletFinish(cl);
+			return false;
+		}
+		return true;
+	}
+
 	@Deprecated
 	public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
 		return updateCloudletsProcessing(currentTime, mipsShare);
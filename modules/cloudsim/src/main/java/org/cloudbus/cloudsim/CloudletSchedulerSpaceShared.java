@@ -146,6 +146,15 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 		return cl;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * Only true for this very class, since subclasses may allocate the capacity differently.
+	 */
+	@Override
+	protected boolean isCapacitySharedByPes() {
+		return getClass() == CloudletSchedulerSpaceShared.class;
+	}
+
 	// Simple policy, there is no real scheduling involved
 	@Override
 	public double getTotalCurrentAvailableMipsForCloudlet(Cloudlet cl, List<Double> mipsShare) {
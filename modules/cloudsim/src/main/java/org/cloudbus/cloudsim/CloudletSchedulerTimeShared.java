@@ -67,6 +67,15 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 		return cl.getCloudletLength() / capacity;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * Only true for this very class, since subclasses may allocate the capacity differently.
+	 */
+	@Override
+	protected boolean isCapacitySharedByPes() {
+		return getClass() == CloudletSchedulerTimeShared.class;
+	}
+
 	// Simple policy, there is no real scheduling involved
 	@Override
 	public double getTotalCurrentAvailableMipsForCloudlet(Cloudlet cl, List<Double> mipsShare) {
@@ -53,6 +53,9 @@ public class Datacenter extends SimEntity {
 	/** The scheduling delay to process each datacenter received event. */
 	private double schedulingInterval;
 
+	/** The hosts whose cloudlet processing has to be updated, with their expected completion times. */
+	private HostCompletionHeap completionHeap;
+
 	/**
 	 * Allocates a new Datacenter object.
 	 * 
@@ -209,8 +212,17 @@ public class Datacenter extends SimEntity {
         } else if (tag == CloudActionTags.VM_DATA_DEL_ACK) {
             processDataDelete(ev, true);
         } else if (tag == CloudActionTags.VM_DATACENTER_EVENT) {
+            CloudletProcessingEvent processingEvent = new CloudletProcessingEvent();
+            processingEvent.begin();
             updateCloudletProcessing();
             checkCloudletCompletion();
+            if (processingEvent.shouldCommit()) {
+                processingEvent.simulationTime = CloudSim.clock();
+                processingEvent.datacenterId = getId();
+                processingEvent.hosts = getHostList().size();
+                processingEvent.guests = getVmList().size();
+                processingEvent.commit();
+            }
 
             // other unknown tags are processed by this method
         } else {
@@ -422,7 +434,8 @@ public class Datacenter extends SimEntity {
 
 			guest.updateCloudletsProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(guest).getGuestScheduler()
 					.getAllocatedMipsForGuest(guest));
-		} else {
+			markHostChanged(guest.getHost());
+		} else if (!Log.isDisabled()) {
 			Log.printlnConcat(CloudSim.clock(), ": Datacenter.guestAllocator: Couldn't find a host for ", guest.getClassName(), " #", guest.getId());
 		}
 	}
@@ -441,6 +454,7 @@ public class Datacenter extends SimEntity {
 	 */
 	protected void processVmDestroy(SimEvent ev, boolean ack) {
 		GuestEntity vm = (GuestEntity) ev.getData();
+		markHostChanged(vm.getHost());
 		getVmAllocationPolicy().deallocateHostForGuest(vm);
 
 		if (ack) {
@@ -476,6 +490,8 @@ public class Datacenter extends SimEntity {
 		HostEntity host = migrate.host();
 		
 		//destroy VM in src host
+		markHostChanged(vm.getHost());
+		markHostChanged(host);
 		getVmAllocationPolicy().deallocateHostForGuest(vm);
 		host.removeMigratingInGuest(vm);
 
@@ -495,11 +511,13 @@ public class Datacenter extends SimEntity {
 			sendNow(ev.getSourceId(), CloudActionTags.VM_CREATE_ACK, data);
 		}
 
-		Log.formatLine(
-				"%.2f: Migration of VM #%d to Host #%d is completed",
-				CloudSim.clock(),
-				vm.getId(),
-				host.getId());
+		if (!Log.isDisabled()) {
+			Log.formatLine(
+					"%.2f: Migration of VM #%d to Host #%d is completed",
+					CloudSim.clock(),
+					vm.getId(),
+					host.getId());
+		}
 		vm.setInMigration(false);
 	}
 
@@ -565,14 +583,18 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletMove(int[] receivedData, CloudActionTags tag) {
-		updateCloudletProcessing();
-
         int cloudletId = receivedData[0];
 		int userId = receivedData[1];
 		int vmId = receivedData[2];
 		int vmDestId = receivedData[3];
 		int destId = receivedData[4];
 
+		markHostChanged(getVmAllocationPolicy().getHost(vmId, userId));
+		if (destId == getId()) {
+			markHostChanged(getVmAllocationPolicy().getHost(vmDestId, userId));
+		}
+		updateCloudletProcessing();
+
 		// get the cloudlet
 		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
 				.getCloudletScheduler().cloudletCancel(cloudletId);
@@ -635,6 +657,10 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletSubmit(SimEvent ev, boolean ack) {
+		// the host of the cloudlet has to be up to date before the cloudlet joins it
+		if (ev.getData() instanceof Cloudlet cl) {
+			markHostChanged(getVmAllocationPolicy().getHost(cl.getGuestId(), cl.getUserId()));
+		}
 		updateCloudletProcessing();
 
 		try {
@@ -747,6 +773,7 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletResume(int cloudletId, int userId, int vmId, boolean ack) {
+		markHostChanged(getVmAllocationPolicy().getHost(vmId, userId));
 		double eventTime = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
 				.getCloudletScheduler().cloudletResume(cloudletId);
 
@@ -780,6 +807,7 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletPause(int cloudletId, int userId, int vmId, boolean ack) {
+		markHostChanged(getVmAllocationPolicy().getHost(vmId, userId));
 		boolean status = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
 				.getCloudletScheduler().cloudletPause(cloudletId);
 
@@ -803,6 +831,7 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletCancel(int cloudletId, int userId, int vmId) {
+		markHostChanged(getVmAllocationPolicy().getHost(vmId, userId));
 		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
 				.getCloudletScheduler().cloudletCancel(cloudletId);
 		sendNow(userId, CloudActionTags.CLOUDLET_CANCEL, cl);
@@ -812,45 +841,149 @@ public class Datacenter extends SimEntity {
 	 * Updates processing of each cloudlet running in this Datacenter. It is necessary because
 	 * Hosts and VirtualMachines are simple objects, not sim entities. So, they don't receive events and
 	 * updating cloudlets inside them must be called from the outside.
+	 * <p>
+	 * Only the hosts that have been changed (see {@link #markHostChanged(HostEntity)}), the ones
+	 * where a cloudlet is expected to finish and the ones with cloudlets to process (see
+	 * {@link #hasCloudletsToProcess(HostEntity)}) are updated. The other hosts are idle, so updating
+	 * them later, when they change, gives the same results.
+	 * Subclasses that modify the cloudlets or the guests of a host have to mark it as changed
+	 * before calling this method.
 	 * 
 	 * @pre $none
 	 * @post $none
 	 */
 	protected void updateCloudletProcessing() {
+		HostCompletionHeap heap = getCompletionHeap();
+		double clock = CloudSim.clock();
+
 		// if some time passed since last processing
 		// R: for term is to allow loop at simulation start. Otherwise, one initial
 		// simulation step is skipped and schedulers are not properly initialized
-		if (CloudSim.clock() < 0.111 || CloudSim.clock() >= getLastProcessTime() + CloudSim.getMinTimeBetweenEvents()) {
-			double smallerTime = Double.MAX_VALUE;
-			for (HostEntity host : getVmAllocationPolicy().getHostList()) {
-				// inform VMs to update processing
-				double time = host.updateCloudletsProcessing(CloudSim.clock());
-				// what time do we expect that the next cloudlet will finish?
-				if (time < smallerTime) {
-					smallerTime = time;
-				}
+		if (clock < 0.111 || clock >= getLastProcessTime() + CloudSim.getMinTimeBetweenEvents()) {
+			if (clock < 0.111) {
+				heap.markAllChanged();
+			} else {
+				heap.markCompletedBefore(clock + CloudSim.getMinTimeBetweenEvents());
+			}
+			for (int i = heap.nextChanged(0); i >= 0; i = heap.nextChanged(i + 1)) {
+				updateHost(heap, i, clock);
 			}
+
+			// what time do we expect that the next cloudlet will finish?
+			double smallerTime = heap.getEarliestCompletionTime();
 			// gurantees a minimal interval before scheduling the event
-			if (smallerTime < CloudSim.clock() + CloudSim.getMinTimeBetweenEvents() + 0.01) {
-				smallerTime = CloudSim.clock() + CloudSim.getMinTimeBetweenEvents() + 0.01;
+			if (smallerTime < clock + CloudSim.getMinTimeBetweenEvents() + 0.01) {
+				smallerTime = clock + CloudSim.getMinTimeBetweenEvents() + 0.01;
 			}
 			if (smallerTime != Double.MAX_VALUE) {
-				schedule(getId(), (smallerTime - CloudSim.clock()), CloudActionTags.VM_DATACENTER_EVENT);
+				schedule(getId(), (smallerTime - clock), CloudActionTags.VM_DATACENTER_EVENT);
+			}
+			setLastProcessTime(clock);
+		} else {
+			// the idle hosts left behind at the last processing are brought up to it before being modified
+			for (int i = heap.nextChanged(0); i >= 0; i = heap.nextChanged(i + 1)) {
+				if (heap.getUpdateTime(i) < getLastProcessTime()) {
+					updateHost(heap, i, getLastProcessTime());
+				}
 			}
-			setLastProcessTime(CloudSim.clock());
 		}
 	}
 
+	/**
+	 * Updates the processing of the cloudlets of a host. The host remains changed while it has
+	 * cloudlets to process, so that it is updated each time the other hosts are.
+	 * 
+	 * @param heap the hosts to update
+	 * @param index the position of the host
+	 * @param time the time to update the host to
+	 */
+	private void updateHost(HostCompletionHeap heap, int index, double time) {
+		HostEntity host = heap.getHost(index);
+		// inform VMs to update processing
+		double completionTime = host.updateCloudletsProcessing(time);
+		heap.updated(index, time, completionTime);
+		if (completionTime != Double.MAX_VALUE || hasCloudletsToProcess(host)) {
+			heap.markChanged(host, time);
+		}
+	}
+
+	/**
+	 * Checks if a host has cloudlets to process, i.e. some of its guests, or of their nested
+	 * guests, has cloudlets executing or waiting to execute. The progress of such cloudlets depends
+	 * on the times their host is updated at, so the host is updated each time the datacenter
+	 * processes its cloudlets.
+	 * 
+	 * @param host the host
+	 * @return true if the host has cloudlets to process; false if it is idle
+	 */
+	protected boolean hasCloudletsToProcess(HostEntity host) {
+		for (GuestEntity guest : host.getGuestList()) {
+			CloudletScheduler scheduler = guest.getCloudletScheduler();
+			if (scheduler.runningCloudlets() > 0 || !scheduler.getCloudletWaitingList().isEmpty()) {
+				return true;
+			}
+			if (guest instanceof HostEntity nestedHost && hasCloudletsToProcess(nestedHost)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Marks a host as changed, so that the processing of its cloudlets is updated the next times
+	 * {@link #updateCloudletProcessing()} is called, until the simulation time advances. It should
+	 * be called before modifying the cloudlets or guests of the host.
+	 * 
+	 * @param host the host, or a guest hosting other guests within it
+	 */
+	public void markHostChanged(HostEntity host) {
+		while (host instanceof VirtualEntity guest) {
+			host = guest.getHost();
+		}
+		if (host != null) {
+			getCompletionHeap().markChanged(host, CloudSim.clock());
+		}
+	}
+
+	/**
+	 * Marks a host whose cloudlet processing has been updated out of
+	 * {@link #updateCloudletProcessing()}, e.g. by a subclass updating all its hosts, so that its
+	 * finished cloudlets are returned upon the next {@link #checkCloudletCompletion()}.
+	 * 
+	 * @param host the host
+	 */
+	protected void markHostUpdated(HostEntity host) {
+		getCompletionHeap().markUnchecked(host);
+	}
+
+	/**
+	 * Gets the hosts to update, building them from the host list upon the first use
+	 * or if the host list has changed.
+	 * 
+	 * @return the hosts to update
+	 */
+	private HostCompletionHeap getCompletionHeap() {
+		List<HostEntity> hostList = getVmAllocationPolicy().getHostList();
+		if (completionHeap == null || !completionHeap.isFor(hostList)) {
+			completionHeap = new HostCompletionHeap(hostList);
+			completionHeap.markAllChanged();
+		}
+		return completionHeap;
+	}
+
 	/**
 	 * Verifies if some cloudlet inside this Datacenter already finished. 
-         * If yes, send it to the User/Broker
+         * If yes, send it to the User/Broker.
+	 * Only the hosts updated or changed since the last verification are visited,
+	 * in the order of the host list.
 	 * 
 	 * @pre $none
 	 * @post $none
 	 */
 	protected void checkCloudletCompletion() {
-		for (HostEntity host : getVmAllocationPolicy().getHostList()) {
-			for (GuestEntity vm : host.getGuestList()) {
+		HostCompletionHeap heap = getCompletionHeap();
+		for (int i = heap.nextUnchecked(0); i >= 0; i = heap.nextUnchecked(i + 1)) {
+			for (GuestEntity vm : heap.getHost(i).getGuestList()) {
 				while (vm.getCloudletScheduler().isFinishedCloudlets()) {
 					Cloudlet cl = vm.getCloudletScheduler().getNextFinishedCloudlet();
 					if (cl != null) {
@@ -859,6 +992,7 @@ public class Datacenter extends SimEntity {
 				}
 			}
 		}
+		heap.clearUnchecked();
 	}
 
 	/**
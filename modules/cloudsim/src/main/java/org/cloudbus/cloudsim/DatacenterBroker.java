@@ -8,15 +8,24 @@
 
 package org.cloudbus.cloudsim;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.cloudbus.cloudsim.core.*;
 import org.cloudbus.cloudsim.lists.CloudletList;
 import org.cloudbus.cloudsim.lists.VmList;
+import org.cloudbus.cloudsim.util.WorkloadJob;
+import org.cloudbus.cloudsim.util.WorkloadModel;
 
 /**
  * DatacentreBroker represents a broker acting on behalf of a user. It hides VM management, as vm
@@ -76,6 +85,43 @@ public class DatacenterBroker extends SimEntity {
 	/** Next guest to which send the cloudlet */
 	private int guestIndex = 0;
 
+	/** The model of the workload streamed by the broker, or <tt>null</tt> if there is none.
+	 * @see #submitWorkload(WorkloadModel, double)
+	 */
+	private WorkloadModel workloadModel;
+
+	/** The workload streamed by the broker, or <tt>null</tt> if there is none. It is not saved
+	 * with the broker, but streamed again from the {@link #workloadModel} upon restore.
+	 */
+	private transient Stream<WorkloadJob> workload;
+
+	/** The jobs of the {@link #workload} not submitted yet. */
+	private transient Iterator<WorkloadJob> workloadJobs;
+
+	/** The number of jobs read from the {@link #workload}, including the {@link #nextJob}. */
+	private long workloadJobsRead;
+
+	/** The next job of the {@link #workload} to submit, or <tt>null</tt> if there is none. */
+	private WorkloadJob nextJob;
+
+	/** The simulation time at which the {@link #workload} started, or -1 if it has not started yet. */
+	private double workloadStart = -1;
+
+	/** How long ahead of the simulation clock the jobs of the {@link #workload} are submitted. */
+	private double workloadLookahead;
+
+	/** Whether the received cloudlets are added to the {@link #cloudletReceivedList}. */
+	private boolean cloudletsKept = true;
+
+	/** The number of received cloudlets. */
+	private int cloudletsReceived;
+
+	/** The statistics of the response time of the received cloudlets, which are not
+	 * serializable and are saved by their count, minimum, maximum and sum.
+	 * @see #getCloudletResponseTimeStatistics()
+	 */
+	private transient DoubleSummaryStatistics cloudletResponseTimes = new DoubleSummaryStatistics();
+
 	/**
 	 * Created a new DatacenterBroker object.
 	 * 
@@ -133,6 +179,78 @@ public class DatacenterBroker extends SimEntity {
 		getCloudletList().addAll(list);
 	}
 
+	/**
+	 * Sets a workload whose cloudlets are submitted as they arrive, instead of being all sent at the
+	 * start of the simulation. Once the VMs are created, the broker reads the jobs of the workload
+	 * by their submit time, relative to that moment, and only sends the cloudlets that arrive
+	 * within the lookahead of the simulation clock. Hence, the workload does not have to be entirely
+	 * in memory, and the event queue only holds the next arrivals.
+	 * <p/>
+	 * Long workloads should be combined with {@link #setCloudletsKept(boolean) setCloudletsKept(false)},
+	 * so that the finished cloudlets are released as well.
+	 * <p/>
+	 * A {@link CloudSim#saveCheckpoint(java.io.OutputStream) checkpoint} saves the workload model
+	 * and the number of jobs read, rather than the jobs to come. Upon restore, the workload is
+	 * streamed again and the jobs already read are skipped.
+	 * 
+	 * @param workload the workload
+	 * @param lookahead how long ahead of the simulation clock the cloudlets are sent to the
+	 *            datacenters
+	 * @pre workload != null
+	 * @pre lookahead > 0
+	 * @post $none
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public void submitWorkload(WorkloadModel workload, double lookahead) {
+		if (lookahead <= 0) {
+			throw new IllegalArgumentException("The lookahead must be positive");
+		}
+		closeWorkload();
+		workloadModel = workload;
+		this.workload = workload.streamWorkload();
+		workloadJobs = this.workload.iterator();
+		workloadJobsRead = 0;
+		nextJob = readWorkloadJob();
+		workloadStart = -1;
+		workloadLookahead = lookahead;
+	}
+
+	/**
+	 * Sets whether the received cloudlets are added to the {@link #getCloudletReceivedList() cloudlet
+	 * received list}. Otherwise, they are only counted in the
+	 * {@link #getCloudletResponseTimeStatistics() response time statistics}, and they are not added
+	 * to the {@link #getCloudletSubmittedList() cloudlet submitted list} either. By default, the
+	 * cloudlets are kept.
+	 * 
+	 * @param cloudletsKept <code>true</code> to keep the cloudlets
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public void setCloudletsKept(boolean cloudletsKept) {
+		this.cloudletsKept = cloudletsKept;
+	}
+
+	/**
+	 * Checks whether the received cloudlets are added to the {@link #getCloudletReceivedList()
+	 * cloudlet received list}.
+	 * 
+	 * @return <code>true</code> if the cloudlets are kept
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public boolean isCloudletsKept() {
+		return cloudletsKept;
+	}
+
+	/**
+	 * Gets the statistics of the response time of the received cloudlets, i.e. the time between
+	 * their submission to a datacenter and their return.
+	 * 
+	 * @return the statistics of the response time
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public DoubleSummaryStatistics getCloudletResponseTimeStatistics() {
+		return cloudletResponseTimes;
+	}
+
 	/**
 	 * Specifies that a given cloudlet must run in a specific virtual machine.
 	 * 
@@ -165,6 +283,10 @@ public class DatacenterBroker extends SimEntity {
         } else if (tag == CloudActionTags.CLOUDLET_RETURN) {
             processCloudletReturn(ev);
 
+            // The next cloudlets of the workload
+        } else if (tag == CloudActionTags.CLOUDLET_SUBMIT_BATCH) {
+            submitWorkloadBatch();
+
             // if the simulation finishes
         } else if (tag == CloudActionTags.END_OF_SIMULATION) {
             shutdownEntity();
@@ -276,11 +398,18 @@ public class DatacenterBroker extends SimEntity {
 	 */
 	protected void processCloudletReturn(SimEvent ev) {
 		Cloudlet cloudlet = (Cloudlet) ev.getData();
-		getCloudletReceivedList().add(cloudlet);
+		cloudletsReceived++;
+		cloudletResponseTimes.accept(CloudSim.clock() - cloudlet.getSubmissionTime());
+		if (isCloudletsKept()) {
+			getCloudletReceivedList().add(cloudlet);
+		}
 		Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": ", cloudlet.getClass().getSimpleName(), " #", cloudlet.getCloudletId(),
 				" return received");
-		Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": The number of finished Cloudlets is:", getCloudletReceivedList().size());
+		Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": The number of finished Cloudlets is:", cloudletsReceived);
 		cloudletsSubmitted--;
+		if (nextJob != null) { // the workload has more cloudlets to come
+			return;
+		}
 		if (getCloudletList().isEmpty() && cloudletsSubmitted == 0) { // all cloudlets executed
 			Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": All Cloudlets executed. Finishing...");
 			clearDatacenters();
@@ -354,43 +483,120 @@ public class DatacenterBroker extends SimEntity {
 	protected void submitCloudlets() {
 		List<Cloudlet> successfullySubmitted = new ArrayList<>();
 		for (Cloudlet cloudlet : getCloudletList()) {
-			GuestEntity vm;
-			// if user didn't bind this cloudlet and it has not been executed yet
-			if (cloudlet.getGuestId() == -1) {
-				vm = getGuestsCreatedList().get(guestIndex);
-			} else { // submit to the specific vm
-				vm = VmList.getById(getGuestsCreatedList(), cloudlet.getGuestId());
-				if (vm == null) { // vm was not created
-					vm = VmList.getById(getGuestList(), cloudlet.getGuestId()); // check if exists in the submitted list
-
-					if(!Log.isDisabled()) {
-						if (vm != null) {
-							Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": Postponing execution of cloudlet ",
-									cloudlet.getCloudletId(), ": bount ", vm.getClassName(), " #", vm.getId(), " not available");
-						} else {
-							Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": Postponing execution of cloudlet ",
-									cloudlet.getCloudletId(), ": bount guest entity of id ", cloudlet.getGuestId(), " doesn't exist");
-						}
+			if (submitCloudlet(cloudlet, 0)) {
+				successfullySubmitted.add(cloudlet);
+			}
+		}
+
+		// remove submitted cloudlets from waiting list
+		getCloudletList().removeAll(successfullySubmitted);
+
+		if (nextJob != null && workloadStart < 0) {
+			workloadStart = CloudSim.clock();
+			submitWorkloadBatch();
+		}
+	}
+
+	/**
+	 * Sends a cloudlet to its VM, or to the next created VM if it is not bound to any.
+	 * 
+	 * @param cloudlet the cloudlet
+	 * @param delay how long from the current simulation time the cloudlet is sent
+	 * @return <code>false</code> if the cloudlet is bound to a VM which is not available, in which case it
+	 *         is not sent
+	 * @since CloudSim Toolkit 7.0
+	 */
+	protected boolean submitCloudlet(Cloudlet cloudlet, double delay) {
+		GuestEntity vm;
+		// if user didn't bind this cloudlet and it has not been executed yet
+		if (cloudlet.getGuestId() == -1) {
+			vm = getGuestsCreatedList().get(guestIndex);
+		} else { // submit to the specific vm
+			vm = VmList.getById(getGuestsCreatedList(), cloudlet.getGuestId());
+			if (vm == null) { // vm was not created
+				vm = VmList.getById(getGuestList(), cloudlet.getGuestId()); // check if exists in the submitted list
+
+				if(!Log.isDisabled()) {
+					if (vm != null) {
+						Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": Postponing execution of cloudlet ",
+								cloudlet.getCloudletId(), ": bount ", vm.getClassName(), " #", vm.getId(), " not available");
+					} else {
+						Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": Postponing execution of cloudlet ",
+								cloudlet.getCloudletId(), ": bount guest entity of id ", cloudlet.getGuestId(), " doesn't exist");
 					}
-					continue;
 				}
+				return false;
 			}
+		}
 
-			if (!Log.isDisabled()) {
-				Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": Sending ", cloudlet.getClass().getSimpleName(),
-						" #", cloudlet.getCloudletId(), " to " + vm.getClassName() + " #", vm.getId());
-			}
-			
-			cloudlet.setGuestId(vm.getId());
-			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudActionTags.CLOUDLET_SUBMIT, cloudlet);
-			cloudletsSubmitted++;
-			guestIndex = (guestIndex + 1) % getGuestsCreatedList().size();
+		if (!Log.isDisabled()) {
+			Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": Sending ", cloudlet.getClass().getSimpleName(),
+					" #", cloudlet.getCloudletId(), " to " + vm.getClassName() + " #", vm.getId());
+		}
+
+		cloudlet.setGuestId(vm.getId());
+		send(getVmsToDatacentersMap().get(vm.getId()), delay, CloudActionTags.CLOUDLET_SUBMIT, cloudlet);
+		cloudletsSubmitted++;
+		guestIndex = (guestIndex + 1) % getGuestsCreatedList().size();
+		if (isCloudletsKept()) {
 			getCloudletSubmittedList().add(cloudlet);
-			successfullySubmitted.add(cloudlet);
 		}
+		return true;
+	}
 
-		// remove submitted cloudlets from waiting list
-		getCloudletList().removeAll(successfullySubmitted);
+	/**
+	 * Sends the cloudlets of the {@link #workload} arriving within the lookahead of the simulation
+	 * clock, and schedules the next batch for when the following cloudlet enters the lookahead. The
+	 * cloudlets belong to this broker. Those bound to a VM which is not available are added to the
+	 * {@link #getCloudletList() cloudlet list}, to be sent with the postponed cloudlets. Those whose
+	 * submit time has already passed are sent immediately.
+	 * 
+	 * @see #submitWorkload(WorkloadModel, double)
+	 */
+	protected void submitWorkloadBatch() {
+		double clock = CloudSim.clock();
+		while (nextJob != null && workloadStart + nextJob.getSubmitTime() <= clock + workloadLookahead) {
+			Cloudlet cloudlet = nextJob.getCloudlet();
+			cloudlet.setUserId(getId());
+			// a job read after later ones, e.g. too late for the reordering of a trace, is sent right away
+			if (!submitCloudlet(cloudlet, Math.max(0, workloadStart + nextJob.getSubmitTime() - clock))) {
+				getCloudletList().add(cloudlet);
+			}
+			nextJob = readWorkloadJob();
+		}
+
+		if (nextJob != null) {
+			schedule(getId(), workloadStart + nextJob.getSubmitTime() - workloadLookahead - clock,
+					CloudActionTags.CLOUDLET_SUBMIT_BATCH);
+		} else {
+			closeWorkload();
+		}
+	}
+
+	/**
+	 * Reads the next job of the {@link #workload}.
+	 *
+	 * @return the job, or <tt>null</tt> if there is none
+	 */
+	private WorkloadJob readWorkloadJob() {
+		if (!workloadJobs.hasNext()) {
+			return null;
+		}
+		workloadJobsRead++;
+		return workloadJobs.next();
+	}
+
+	/**
+	 * Closes the {@link #workload}, if any.
+	 */
+	private void closeWorkload() {
+		if (workload != null) {
+			workload.close();
+			workload = null;
+			workloadJobs = null;
+			nextJob = null;
+		}
+		workloadModel = null;
 	}
 
 	/**
@@ -418,6 +624,12 @@ public class DatacenterBroker extends SimEntity {
 		sendNow(getId(), CloudActionTags.END_OF_SIMULATION);
 	}
 
+	@Override
+	public void shutdownEntity() {
+		closeWorkload();
+		super.shutdownEntity();
+	}
+
 	@Override
 	public void startEntity() {
 		super.startEntity();
@@ -664,4 +876,30 @@ public class DatacenterBroker extends SimEntity {
 		this.datacenterRequestedIdsList = datacenterRequestedIdsList;
 	}
 
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeLong(cloudletResponseTimes.getCount());
+		out.writeDouble(cloudletResponseTimes.getMin());
+		out.writeDouble(cloudletResponseTimes.getMax());
+		out.writeDouble(cloudletResponseTimes.getSum());
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		cloudletResponseTimes = new DoubleSummaryStatistics(in.readLong(), in.readDouble(), in.readDouble(),
+				in.readDouble());
+
+		// the workload is streamed again, skipping the jobs already read; the next job has been saved
+		if (workloadModel != null) {
+			workload = workloadModel.streamWorkload();
+			workloadJobs = workload.iterator();
+			for (long i = 0; i < workloadJobsRead; i++) {
+				if (!workloadJobs.hasNext()) {
+					workload.close();
+					throw new InvalidObjectException("The workload has less jobs than the broker had read");
+				}
+				workloadJobs.next();
+			}
+		}
+	}
 }
@@ -12,6 +12,7 @@ import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Properties;
+import java.util.function.Supplier;
 import java.util.logging.*;
 
 /**
@@ -131,6 +132,33 @@ public class CustomLog {
         print(DEFAULT_LEVEL, message);
     }
 
+    /**
+     * Prints the message given by a supplier, which is only called if the
+     * level is high enough. Should be preferred when the message is costly to
+     * build, e.g. when it concatenates or formats values.
+     * 
+     * @param level
+     *            - the level to use. If null the default level is used.
+     * @param message
+     *            - the supplier of the message.
+     */
+    public static void printLazy(final Level level, final Supplier<?> message) {
+        if (isLevelHighEnough(level)) {
+            LOGGER.log(level == null ? DEFAULT_LEVEL : level, String.valueOf(message.get()));
+        }
+    }
+
+    /**
+     * Prints the message given by a supplier, which is only called if the
+     * default level is high enough.
+     * 
+     * @param message
+     *            - the supplier of the message.
+     */
+    public static void printLazy(final Supplier<?> message) {
+        printLazy(DEFAULT_LEVEL, message);
+    }
+
     /**
      * Prints the concatenated messages.
      * 
@@ -227,9 +255,17 @@ public class CustomLog {
         }
     }
 
+    /**
+     * Checks if messages of a level are logged, i.e. if the level is at least
+     * the configured one and logging has not been turned off with
+     * {@link Log#ENABLED}.
+     * 
+     * @param level
+     *            - the level. If null the default level is used.
+     * @return if messages of the level are logged.
+     */
     public static boolean isLevelHighEnough(final Level level) {
-        return (level == null && DEFAULT_LEVEL.intValue() >= granularityLevel.intValue())
-                || (level != null && level.intValue() >= granularityLevel.intValue());
+        return Log.ENABLED && (level == null ? DEFAULT_LEVEL : level).intValue() >= granularityLevel.intValue();
     }
 
     /**
@@ -241,7 +277,7 @@ public class CustomLog {
      * @param args
      */
     public static void printf(final String format, final Object... args) {
-        printf(DEFAULT_LEVEL, String.format(format, args));
+        printf(DEFAULT_LEVEL, format, args);
     }
 
     /**
@@ -17,8 +17,10 @@ import java.util.concurrent.Future;
  * CloudSim makes heavy use of static data, experiments can not be run in
  * multiple threads within the same JVM. With this utility class one can spawn
  * multiple independent JVM process, redirect their standard outputs to a single
- * place and synchronize with their ends.
- * 
+ * place and synchronize with their ends. Experiments which keep their state in
+ * a {@link org.cloudbus.cloudsim.core.SimulationContext} can instead be run in
+ * the threads of a single JVM with the {@link SweepRunner}.
+ *
  * <br>
  * <br>
  * Each experiment is specified by a class with a main method and an output
@@ -1,7 +1,9 @@
 package org.cloudbus.cloudsim.EX.util;
 
 import org.cloudbus.cloudsim.*;
+import org.cloudbus.cloudsim.core.SimulationContext;
 
+import java.io.Serializable;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -17,16 +19,22 @@ import java.util.Set;
  */
 public final class Id {
 
-    private static final Map<Class<?>, Integer> COUNTERS = new LinkedHashMap<>();
-    private static final Set<Class<?>> NO_COUNTERS = new HashSet<>();
-    private static int globalCounter = 1;
+    /**
+     * The counters of a simulation context, so that the ids of the simulations running
+     * in different contexts are independent of each other.
+     */
+    private static final class Counters implements Serializable {
+        private final Map<Class<?>, Integer> counters = new LinkedHashMap<>();
+        private final Set<Class<?>> noCounters = new HashSet<>();
+        private int globalCounter = 1;
 
-    static {
-        COUNTERS.put(Cloudlet.class, 1);
-        COUNTERS.put(Vm.class, 1);
-        COUNTERS.put(Host.class, 1);
-        COUNTERS.put(DatacenterBroker.class, 1);
-        COUNTERS.put(Pe.class, 1);
+        private Counters() {
+            counters.put(Cloudlet.class, 1);
+            counters.put(Vm.class, 1);
+            counters.put(Host.class, 1);
+            counters.put(DatacenterBroker.class, 1);
+            counters.put(Pe.class, 1);
+        }
     }
 
     private Id() {
@@ -39,12 +47,19 @@ public final class Id {
      *            - the class of the object to get an id for. Must not be null.
      * @return a valid id for the specified class.
      */
-    public static synchronized int pollId(final Class<?> clazz) {
+    public static int pollId(final Class<?> clazz) {
+        Counters state = SimulationContext.current().getAttribute(Counters.class, Counters::new);
+        synchronized (state) {
+            return pollId(state, clazz);
+        }
+    }
+
+    private static int pollId(final Counters state, final Class<?> clazz) {
         Class<?> matchClass = null;
-        if (COUNTERS.containsKey(clazz)) {
+        if (state.counters.containsKey(clazz)) {
             matchClass = clazz;
-        } else if (!NO_COUNTERS.contains(clazz)) {
-            for (Class<?> key : COUNTERS.keySet()) {
+        } else if (!state.noCounters.contains(clazz)) {
+            for (Class<?> key : state.counters.keySet()) {
                 if (key.isAssignableFrom(clazz)) {
                     matchClass = key;
                     break;
@@ -54,11 +69,11 @@ public final class Id {
 
         int result = -1;
         if (matchClass == null) {
-            NO_COUNTERS.add(clazz);
-            result = pollGlobalId();
+            state.noCounters.add(clazz);
+            result = state.globalCounter++;
         } else {
-            result = COUNTERS.get(matchClass);
-            COUNTERS.put(matchClass, result + 1);
+            result = state.counters.get(matchClass);
+            state.counters.put(matchClass, result + 1);
         }
 
         if (result < 0) {
@@ -69,8 +84,4 @@ public final class Id {
         return result;
     }
 
-    private static synchronized int pollGlobalId() {
-        return globalCounter++;
-    }
-
 }
@@ -0,0 +1,223 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.EX.util;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.util.TraceCache;
+
+/**
+ * A utility that runs a set of experiments, e.g. the combinations of the parameters of a parameter
+ * sweep, as parallel tasks of the current JVM. Unlike the {@link ExperimentsRunner}, it does not
+ * spawn a JVM per experiment: each experiment runs in its own {@link SimulationContext}, so the
+ * read-only data of the experiments, such as the workload traces of the {@link TraceCache}, is
+ * loaded only once.
+ *
+ * <br>
+ * <br>
+ * The number of experiments running at the same time is bounded by the number of processors and by
+ * the heap of the JVM. Each experiment returns a row of results, which is appended to a single CSV
+ * output as soon as the experiment is finished.
+ *
+ * <br>
+ * <br>
+ * The experiments must not use static mutable data, other than the one kept per
+ * {@link SimulationContext} by CloudSim. Since the {@link org.cloudbus.cloudsim.Log} is shared by
+ * all of them, it should be disabled.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class SweepRunner {
+
+    /**
+     * An experiment of a sweep.
+     */
+    public interface Experiment {
+
+        /**
+         * Gets the name of the experiment, used as the first column of its row of results.
+         *
+         * @return the name of the experiment
+         */
+        String getName();
+
+        /**
+         * Runs the experiment in the calling thread, whose {@link SimulationContext} is not used by
+         * any other experiment.
+         *
+         * @return the results, by column name, in the order of the columns
+         * @throws Exception if the experiment fails
+         */
+        Map<String, ?> run() throws Exception;
+    }
+
+    /** The name of the first column of the output. */
+    public static final String EXPERIMENT_COLUMN = "experiment";
+
+    /** The maximum number of experiments running at the same time. */
+    private final int parallelism;
+
+    /** The columns of the output, set by the first row. */
+    private List<String> columns;
+
+    /**
+     * Creates an experiment.
+     *
+     * @param name
+     *            - the name of the experiment.
+     * @param task
+     *            - runs the experiment and returns its results.
+     * @return the experiment.
+     */
+    public static Experiment experiment(final String name, final Callable<? extends Map<String, ?>> task) {
+        return new Experiment() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Map<String, ?> run() throws Exception {
+                return task.call();
+            }
+        };
+    }
+
+    /**
+     * Creates a runner.
+     *
+     * @param numFreeCPUs
+     *            - number of processors to leave unused, as in
+     *            {@link ExperimentsRunner#runExperiments(List, int)}.
+     * @param memoryPerExperiment
+     *            - the heap needed by an experiment, in bytes, or 0 if the heap
+     *            should not limit the number of experiments running at the same
+     *            time.
+     */
+    public SweepRunner(final int numFreeCPUs, final long memoryPerExperiment) {
+        if (numFreeCPUs < 0) {
+            throw new IllegalArgumentException("The number of free CPUs must be non-negative");
+        } else if (memoryPerExperiment < 0) {
+            throw new IllegalArgumentException("The memory per experiment must be non-negative");
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        int coresToUse = cores <= numFreeCPUs ? 1 : cores - numFreeCPUs;
+        if (memoryPerExperiment > 0) {
+            long maxMemory = Runtime.getRuntime().maxMemory();
+            coresToUse = (int) Math.max(1, Math.min(coresToUse, maxMemory / memoryPerExperiment));
+        }
+        parallelism = coresToUse;
+    }
+
+    /**
+     * Gets the maximum number of experiments running at the same time.
+     *
+     * @return the maximum number of experiments running at the same time
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Runs a set of experiments, and waits until they are all finished. The rows of results are
+     * written to the output in the order the experiments finish, after a header line. The failed
+     * experiments are reported to the standard error, and do not stop the others.
+     *
+     * @param experiments
+     *            - the experiments.
+     * @param output
+     *            - where the rows of results are written, as CSV.
+     * @return the number of failed experiments.
+     * @throws InterruptedException
+     *             - if the calling thread is interrupted while waiting for the
+     *             experiments, which are then cancelled.
+     */
+    public synchronized int run(final List<? extends Experiment> experiments, final Appendable output)
+            throws InterruptedException {
+        columns = null;
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism,
+                experiments.size())));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (final Experiment experiment : experiments) {
+                futures.add(pool.submit(() -> {
+                    try {
+                        Map<String, ?> row = new SimulationContext().call(experiment::run);
+                        writeRow(experiment.getName(), row, output);
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                        System.err.println("!!! Experiment " + experiment.getName() + " has failed!!!");
+                        e.printStackTrace();
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            // the tasks catch all their exceptions
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return failures.get();
+    }
+
+    /**
+     * Writes a row of results, preceded by the header if it is the first row. The values of the
+     * columns missing from the first row are not written.
+     */
+    private void writeRow(final String name, final Map<String, ?> row, final Appendable output)
+            throws IOException {
+        synchronized (output) {
+            if (columns == null) {
+                columns = new ArrayList<>(row.keySet());
+                StringBuilder header = new StringBuilder(EXPERIMENT_COLUMN);
+                for (String column : columns) {
+                    header.append(',').append(escape(column));
+                }
+                output.append(header).append(System.lineSeparator());
+            }
+
+            StringBuilder line = new StringBuilder(escape(name));
+            for (String column : columns) {
+                Object value = row.get(column);
+                line.append(',');
+                if (value != null) {
+                    line.append(escape(value.toString()));
+                }
+            }
+            output.append(line).append(System.lineSeparator());
+            if (output instanceof Flushable) {
+                ((Flushable) output).flush();
+            }
+        }
+    }
+
+    private static String escape(final String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
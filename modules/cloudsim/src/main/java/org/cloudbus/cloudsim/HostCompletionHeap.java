@@ -0,0 +1,298 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.core.HostEntity;
+
+/**
+ * Keeps track of the hosts of a {@link Datacenter} whose cloudlet processing has to be updated:
+ * the ones that have been changed (e.g., a cloudlet has been submitted to one of their guests)
+ * and the ones where a cloudlet is expected to finish. The expected completion time of each host
+ * is kept in an indexed min-heap, so that finding the hosts whose completion time has been reached
+ * takes O(log n) per host, instead of updating all the hosts of the datacenter.
+ * <p>
+ * The hosts are identified by their position in the host list of the datacenter, and the changed
+ * hosts are always visited in that order. The hosts changed or updated since the last collection
+ * of finished cloudlets are tracked as well, so that only those hosts are visited to collect them.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+class HostCompletionHeap implements Serializable {
+
+	/** The host list the heap has been built for. */
+	private final List<? extends HostEntity> hostList;
+
+	/** The hosts, in the order of the host list. */
+	private final HostEntity[] hosts;
+
+	/** The position of each host in {@link #hosts}. */
+	private final Map<HostEntity, Integer> indexes;
+
+	/** The expected completion time of each host, or {@link Double#MAX_VALUE} if there is none. */
+	private final double[] completionTimes;
+
+	/** The last time each host has been updated, or -1 if never. */
+	private final double[] updateTimes;
+
+	/** The heap of the hosts with an expected completion time, as positions in {@link #hosts}. */
+	private final int[] heap;
+
+	/** The position of each host in the {@link #heap}, or -1 if it is not in the heap. */
+	private final int[] heapPositions;
+
+	/** The number of hosts in the heap. */
+	private int heapSize;
+
+	/** The hosts that have been changed since their last update. */
+	private final BitSet changed;
+
+	/** The last time each host has been marked as changed, or -1 if never. */
+	private final double[] changeTimes;
+
+	/** The hosts that have been updated or changed since their finished cloudlets were last collected. */
+	private final BitSet unchecked;
+
+	/**
+	 * Creates the heap for a list of hosts, all of them initially unchanged and without
+	 * an expected completion time.
+	 *
+	 * @param hostList the host list of the datacenter
+	 */
+	HostCompletionHeap(List<? extends HostEntity> hostList) {
+		int size = hostList.size();
+		this.hostList = hostList;
+		hosts = hostList.toArray(new HostEntity[0]);
+		indexes = new IdentityHashMap<>(size);
+		for (int i = 0; i < size; i++) {
+			indexes.put(hosts[i], i);
+		}
+		completionTimes = new double[size];
+		Arrays.fill(completionTimes, Double.MAX_VALUE);
+		updateTimes = new double[size];
+		Arrays.fill(updateTimes, -1);
+		heap = new int[size];
+		heapPositions = new int[size];
+		Arrays.fill(heapPositions, -1);
+		changed = new BitSet(size);
+		changeTimes = new double[size];
+		Arrays.fill(changeTimes, -1);
+		unchecked = new BitSet(size);
+	}
+
+	/**
+	 * Checks if the heap has been built for a given host list. Hosts are not expected to be
+	 * replaced in the host list, so only the list and its size are checked.
+	 *
+	 * @param hostList the host list
+	 * @return true if the heap tracks the hosts of the list
+	 */
+	boolean isFor(List<? extends HostEntity> hostList) {
+		return hostList == this.hostList && hostList.size() == hosts.length;
+	}
+
+	/**
+	 * Gets the number of hosts.
+	 *
+	 * @return the number of hosts
+	 */
+	int size() {
+		return hosts.length;
+	}
+
+	/**
+	 * Gets a host.
+	 *
+	 * @param index the position of the host in the host list
+	 * @return the host
+	 */
+	HostEntity getHost(int index) {
+		return hosts[index];
+	}
+
+	/**
+	 * Marks a host as changed, so that it is updated the next times the datacenter updates the
+	 * processing of its cloudlets. Since the host is usually changed right after being updated,
+	 * it remains changed until it is updated at a later time than the given one. The host is
+	 * also marked as unchecked.
+	 *
+	 * @param host the host; it is ignored if it is not in the host list
+	 * @param time the current simulation time
+	 */
+	void markChanged(HostEntity host, double time) {
+		Integer index = host == null ? null : indexes.get(host);
+		if (index != null) {
+			changed.set(index);
+			changeTimes[index] = time;
+			unchecked.set(index);
+		}
+	}
+
+	/**
+	 * Marks all the hosts as changed.
+	 */
+	void markAllChanged() {
+		changed.set(0, hosts.length);
+	}
+
+	/**
+	 * Marks as changed the hosts whose expected completion time is before a given time, removing
+	 * them from the heap.
+	 *
+	 * @param time the time
+	 */
+	void markCompletedBefore(double time) {
+		while (heapSize > 0 && completionTimes[heap[0]] < time) {
+			int index = heap[0];
+			removeFromHeap(index);
+			changed.set(index);
+		}
+	}
+
+	/**
+	 * Gets the first changed host from a given position of the host list.
+	 *
+	 * @param fromIndex the position to start from
+	 * @return the position of the changed host, or -1 if there is none
+	 */
+	int nextChanged(int fromIndex) {
+		return changed.nextSetBit(fromIndex);
+	}
+
+	/**
+	 * Marks a host as unchecked, i.e. it may have finished cloudlets that have not been collected.
+	 * Hosts are marked as unchecked when they are changed or updated.
+	 *
+	 * @param host the host; it is ignored if it is not in the host list
+	 */
+	void markUnchecked(HostEntity host) {
+		Integer index = host == null ? null : indexes.get(host);
+		if (index != null) {
+			unchecked.set(index);
+		}
+	}
+
+	/**
+	 * Gets the first unchecked host from a given position of the host list.
+	 *
+	 * @param fromIndex the position to start from
+	 * @return the position of the unchecked host, or -1 if there is none
+	 */
+	int nextUnchecked(int fromIndex) {
+		return unchecked.nextSetBit(fromIndex);
+	}
+
+	/**
+	 * Marks all the hosts as checked, after their finished cloudlets have been collected.
+	 */
+	void clearUnchecked() {
+		unchecked.clear();
+	}
+
+	/**
+	 * Gets the last time a host has been updated.
+	 *
+	 * @param index the position of the host
+	 * @return the update time, or -1 if the host has never been updated
+	 */
+	double getUpdateTime(int index) {
+		return updateTimes[index];
+	}
+
+	/**
+	 * Records the update of a host, clearing its changed mark unless it has been marked
+	 * at the update time.
+	 *
+	 * @param index the position of the host
+	 * @param time the update time
+	 * @param completionTime the new expected completion time of the host, or
+	 *        {@link Double#MAX_VALUE} if no cloudlet is expected to finish
+	 */
+	void updated(int index, double time, double completionTime) {
+		if (changeTimes[index] < time) {
+			changed.clear(index);
+		}
+		unchecked.set(index);
+		updateTimes[index] = time;
+		if (heapPositions[index] >= 0) {
+			removeFromHeap(index);
+		}
+		completionTimes[index] = completionTime;
+		if (completionTime != Double.MAX_VALUE) {
+			heap[heapSize] = index;
+			heapPositions[index] = heapSize;
+			heapSize++;
+			siftUp(heapSize - 1);
+		}
+	}
+
+	/**
+	 * Gets the earliest expected completion time among all the hosts.
+	 *
+	 * @return the completion time, or {@link Double#MAX_VALUE} if there is none
+	 */
+	double getEarliestCompletionTime() {
+		return heapSize == 0 ? Double.MAX_VALUE : completionTimes[heap[0]];
+	}
+
+	private void removeFromHeap(int index) {
+		int position = heapPositions[index];
+		heapPositions[index] = -1;
+		heapSize--;
+		if (position == heapSize) {
+			return;
+		}
+
+		int last = heap[heapSize];
+		heap[position] = last;
+		heapPositions[last] = position;
+		siftDown(position);
+		siftUp(heapPositions[last]);
+	}
+
+	private void siftUp(int position) {
+		int index = heap[position];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (completionTimes[heap[parent]] <= completionTimes[index]) {
+				break;
+			}
+			heap[position] = heap[parent];
+			heapPositions[heap[position]] = position;
+			position = parent;
+		}
+		heap[position] = index;
+		heapPositions[index] = position;
+	}
+
+	private void siftDown(int position) {
+		int index = heap[position];
+		int half = heapSize >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			if (child + 1 < heapSize && completionTimes[heap[child + 1]] < completionTimes[heap[child]]) {
+				child++;
+			}
+			if (completionTimes[index] <= completionTimes[heap[child]]) {
+				break;
+			}
+			heap[position] = heap[child];
+			heapPositions[heap[position]] = position;
+			position = child;
+		}
+		heap[position] = index;
+		heapPositions[index] = position;
+	}
+}
@@ -10,10 +10,16 @@ package org.cloudbus.cloudsim;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.function.Supplier;
 
 /**
  * Logger used for performing logging of the simulation process. It provides the ability to
  * substitute the output stream by any OutputStream subclass.
+ * <p/>
+ * Messages which are costly to build can be passed as a {@link Supplier} to
+ * {@link #printLazy(Supplier)} and {@link #printlnLazy(Supplier)}, which only call it
+ * if the logger is enabled, and logging in hot loops is guarded by {@link #isDisabled()}, so that
+ * nothing is computed nor allocated when the logger is disabled.
  * 
  * @author Anton Beloglazov
  * @author Remo Andreoli
@@ -24,6 +30,13 @@ public class Log {
 	/** The Constant LINE_SEPARATOR. */
 	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
 
+	/**
+	 * Indicates if logging is available at all, false if the system property
+	 * <tt>cloudsim.log.disabled</tt> is set to true. Since it is a constant, the logging code
+	 * guarded by {@link #isDisabled()} is removed by the JIT compiler when it is false.
+	 */
+	public static final boolean ENABLED = !Boolean.getBoolean("cloudsim.log.disabled");
+
 	/** The stream where the log will the outputted. */
 	private static OutputStream output;
 
@@ -31,8 +44,8 @@ public class Log {
          the call for any print method has no effect. */
 	private static boolean disabled;
 	
-	/** Buffer to avoid creating new string builder upon every print. */
-	private static final StringBuilder buffer = new StringBuilder();
+	/** Buffer to avoid creating new string builder upon every print, one per thread running a simulation. */
+	private static final ThreadLocal<StringBuilder> buffer = ThreadLocal.withInitial(StringBuilder::new);
 
 	/**
 	 * Prints a message.
@@ -60,6 +73,17 @@ public class Log {
 		}
 	}
 
+	/**
+	 * Prints the message given by a supplier, which is only called if the logger is enabled.
+	 *
+	 * @param message the supplier of the message
+	 */
+	public static void printLazy(Supplier<?> message) {
+		if (!isDisabled()) {
+			print(String.valueOf(message.get()));
+		}
+	}
+
 	/**
 	 * Prints a message and a new line.
 	 * 
@@ -94,6 +118,7 @@ public class Log {
 	 */
 	public static void printConcat(Object... messages) {
 		if (!isDisabled()) {
+			StringBuilder buffer = Log.buffer.get();
 			buffer.setLength(0); // Clear the buffer		    
             for (Object message : messages) {
                 buffer.append(message);
@@ -109,6 +134,7 @@ public class Log {
 	 */
 	public static void printlnConcat(Object... messages) {
 		if (!isDisabled()) {
+			StringBuilder buffer = Log.buffer.get();
 			buffer.setLength(0); // Clear the buffer		    
             for (Object message : messages) {
                 buffer.append(message);
@@ -134,6 +160,18 @@ public class Log {
 
 	@Deprecated
 	public static void printLine(Object message) { println(message); }
+
+	/**
+	 * Prints the message given by a supplier and a new line. The supplier is only called if the
+	 * logger is enabled.
+	 *
+	 * @param message the supplier of the message
+	 */
+	public static void printlnLazy(Supplier<?> message) {
+		if (!isDisabled()) {
+			println(String.valueOf(message.get()));
+		}
+	}
 	
 	
 	/**
@@ -191,12 +229,13 @@ public class Log {
 	}
 
 	/**
-	 * Checks if the output is disabled.
+	 * Checks if the output is disabled, either by {@link #disable()} or by the
+	 * <tt>cloudsim.log.disabled</tt> system property.
 	 * 
 	 * @return true, if is disable
 	 */
 	public static boolean isDisabled() {
-		return disabled;
+		return !ENABLED || disabled;
 	}
 
 	/**
@@ -54,9 +54,18 @@ public class NetworkTopology {
 
         /**
          * A matrix containing the bandwidth between every pair of nodes in the network.
+         * It is null if the network has more pairs of nodes than
+         * {@link DelayMatrix_Float#MAX_MATRIX_ENTRIES}, the bandwidths being only stored
+         * for the links then.
          */
 	protected static double[][] bwMatrix = null;
 
+	/**
+	 * The bandwidth of the links of the network when there are too many nodes for {@link #bwMatrix},
+	 * where each key packs the ids of the source and destination nodes of a link.
+	 */
+	private static Map<Long, Double> bwLinks = null;
+
         /**
          * The Topological Graph of the network.
          */
@@ -103,7 +112,7 @@ public class NetworkTopology {
 		delayMatrix = new DelayMatrix_Float(graph, false);
 
 		// creates the bw matrix
-		bwMatrix = createBwMatrix(graph, false);
+		createBwMatrix(graph, false);
 
 		networkEnabled = true;
 	}
@@ -145,43 +154,91 @@ public class NetworkTopology {
 		}
 
 		// generate a new link
-		graph.addLink(new TopologicalLink(map.get(srcId), map.get(destId), (float) lat, (float) bw));
+		TopologicalLink link = new TopologicalLink(map.get(srcId), map.get(destId), (float) lat, (float) bw);
+		graph.addLink(link);
 
-		generateMatrices();
+		if (delayMatrix == null) {
+			generateMatrices();
+		} else {
+			// only the paths through the new link change
+			delayMatrix.addLink(link.getSrcNodeID(), link.getDestNodeID(), link.getLinkDelay());
+			if (bwMatrix != null && bwMatrix.length < graph.getNumberOfNodes()) {
+				createBwMatrix(graph, false);
+			} else {
+				addBw(link, false);
+			}
+		}
 
 	}
 
 	/**
-	 * Creates the matrix containing the available bandwidth between every pair of nodes.
+	 * Creates the matrix containing the available bandwidth between every pair of nodes, or
+	 * the map of the bandwidth of each link if the topology has too many nodes for a matrix.
 	 * 
 	 * @param graph topological graph describing the topology
 	 * @param directed true if the graph is directed; false otherwise
-	 * @return the bandwidth graph
 	 */
-	private static double[][] createBwMatrix(TopologicalGraph graph, boolean directed) {
+	private static void createBwMatrix(TopologicalGraph graph, boolean directed) {
 		int nodes = graph.getNumberOfNodes();
-
-		double[][] mtx = new double[nodes][nodes];
-
-		// cleanup matrix
-		for (int i = 0; i < nodes; i++) {
-			for (int j = 0; j < nodes; j++) {
-				mtx[i][j] = 0.0;
-			}
+		if ((long) nodes * nodes <= DelayMatrix_Float.MAX_MATRIX_ENTRIES) {
+			bwMatrix = new double[nodes][nodes];
+			bwLinks = null;
+		} else {
+			bwMatrix = null;
+			bwLinks = new HashMap<>();
 		}
 
 		Iterator<TopologicalLink> iter = graph.getLinkIterator();
 		while (iter.hasNext()) {
-			TopologicalLink edge = iter.next();
+			addBw(iter.next(), directed);
+		}
+	}
 
-			mtx[edge.getSrcNodeID()][edge.getDestNodeID()] = edge.getLinkBw();
+	/**
+	 * Stores the bandwidth of a link.
+	 * 
+	 * @param edge the link
+	 * @param directed true if the graph is directed; false otherwise
+	 */
+	private static void addBw(TopologicalLink edge, boolean directed) {
+		setBw(edge.getSrcNodeID(), edge.getDestNodeID(), edge.getLinkBw());
 
-			if (!directed) {
-				mtx[edge.getDestNodeID()][edge.getSrcNodeID()] = edge.getLinkBw();
-			}
+		if (!directed) {
+			setBw(edge.getDestNodeID(), edge.getSrcNodeID(), edge.getLinkBw());
 		}
+	}
+
+	private static void setBw(int srcNodeID, int destNodeID, double bw) {
+		if (bwMatrix != null) {
+			bwMatrix[srcNodeID][destNodeID] = bw;
+		} else {
+			bwLinks.put(getLinkKey(srcNodeID, destNodeID), bw);
+		}
+	}
 
-		return mtx;
+	private static long getLinkKey(int srcNodeID, int destNodeID) {
+		return ((long) srcNodeID << 32) | (destNodeID & 0xffffffffL);
+	}
+
+	/**
+	 * Gets the bandwidth of the link between two nodes.
+	 * 
+	 * @param srcID ID of the CloudSim entity that represents the link's source node
+	 * @param destID ID of the CloudSim entity that represents the link's destination node
+	 * @return the bandwidth of the link, or 0 if the nodes are not linked
+	 */
+	public static double getBw(int srcID, int destID) {
+		if (networkEnabled) {
+			Integer src = map.get(srcID);
+			Integer dest = map.get(destID);
+			if (src != null && dest != null) {
+				if (bwMatrix != null) {
+					return bwMatrix[src][dest];
+				}
+				return bwLinks.getOrDefault(getLinkKey(src, dest), 0.0);
+			}
+		}
+		return 0.0;
 	}
 
 	/**
@@ -10,6 +10,8 @@ package org.cloudbus.cloudsim;
 
 import org.cloudbus.cloudsim.provisioners.PeProvisioner;
 
+import java.io.Serializable;
+
 /**
  * Pe (Processing Element) class represents a CPU core of a physical machine (PM),
  * defined in terms of Millions Instructions Per Second (MIPS) rating.<br/>
@@ -21,7 +23,7 @@ import org.cloudbus.cloudsim.provisioners.PeProvisioner;
  * //@TODO Pe statuses have to be defined using an enum
  * @since CloudSim Toolkit 1.0
  */
-public class Pe {
+public class Pe implements Serializable {
 
     /**
      * Denotes Pe is FREE for allocation.
@@ -28,15 +28,7 @@ public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 	public UtilizationModelPlanetLabInMemory(String inputPath, double schedulingInterval)
 			throws NumberFormatException,
 			IOException {
-		data = new double[289];
-		setSchedulingInterval(schedulingInterval);
-		BufferedReader input = new BufferedReader(new FileReader(inputPath));
-		int n = data.length;
-		for (int i = 0; i < n - 1; i++) {
-			data[i] = Integer.parseInt(input.readLine()) / 100.0;
-		}
-		data[n - 1] = data[n - 2];
-		input.close();
+		this(inputPath, schedulingInterval, 289);
 	}
 	
 	/**
@@ -51,15 +43,47 @@ public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 	public UtilizationModelPlanetLabInMemory(String inputPath, double schedulingInterval, int dataSamples)
 			throws NumberFormatException,
 			IOException {
+		this(readData(inputPath, dataSamples), schedulingInterval);
+	}
+
+	/**
+	 * Instantiates a new PlanetLab resource utilization model with already read data samples,
+	 * e.g. samples shared with other models through the {@link org.cloudbus.cloudsim.util.TraceCache}.
+	 * The samples are used as they are, and must not be modified afterward.
+	 *
+	 * @param data the utilization samples, between 0 and 1
+	 * @param schedulingInterval the time between two samples
+	 * @see #readData(String, int)
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public UtilizationModelPlanetLabInMemory(double[] data, double schedulingInterval) {
 		setSchedulingInterval(schedulingInterval);
-		data = new double[dataSamples];
-		BufferedReader input = new BufferedReader(new FileReader(inputPath));
-		int n = data.length;
-		for (int i = 0; i < n - 1; i++) {
-			data[i] = Integer.parseInt(input.readLine()) / 100.0;
+		this.data = data;
+	}
+
+	/**
+	 * Reads the utilization samples of a PlanetLab datacenter trace. The trace has one sample less
+	 * than requested, the last sample being a copy of the previous one.
+	 *
+	 * @param inputPath The path of a PlanetLab datacenter trace.
+	 * @param dataSamples number of samples
+	 * @return the utilization samples, between 0 and 1
+	 * @throws NumberFormatException the number format exception
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static double[] readData(String inputPath, int dataSamples)
+			throws NumberFormatException,
+			IOException {
+		double[] data = new double[dataSamples];
+		try (BufferedReader input = new BufferedReader(new FileReader(inputPath))) {
+			int n = data.length;
+			for (int i = 0; i < n - 1; i++) {
+				data[i] = Integer.parseInt(input.readLine()) / 100.0;
+			}
+			data[n - 1] = data[n - 2];
 		}
-		data[n - 1] = data[n - 2];
-		input.close();
+		return data;
 	}
 
 	@Override
@@ -0,0 +1,92 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import org.cloudbus.cloudsim.util.PlanetLabTraceFile;
+
+/**
+ * Defines the resource utilization model based on a trace of a
+ * <a href="https://www.planet-lab.org">PlanetLab</a> workload packed in a {@link PlanetLabTraceFile}.
+ * It behaves as the {@link UtilizationModelPlanetLabInMemory} of the original trace file, but its
+ * samples are read from the memory-mapped file shared by all the models of the workload, instead of
+ * being copied to the heap.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class UtilizationModelPlanetLabMapped implements UtilizationModel {
+
+	/** The traces of the workload. */
+	private final PlanetLabTraceFile traceFile;
+
+	/** The position of the trace of this model in the {@link #traceFile}. */
+	private final int trace;
+
+	/** The scheduling interval. */
+	private final double schedulingInterval;
+
+	/**
+	 * Instantiates a new PlanetLab resource utilization model from a trace of a workload.
+	 *
+	 * @param traceFile the traces of the workload
+	 * @param trace the position of the trace in the workload
+	 * @param schedulingInterval the time between two samples
+	 * @throws IndexOutOfBoundsException if there is no such trace
+	 */
+	public UtilizationModelPlanetLabMapped(PlanetLabTraceFile traceFile, int trace, double schedulingInterval) {
+		if (trace < 0 || trace >= traceFile.getTraceCount()) {
+			throw new IndexOutOfBoundsException("Trace " + trace + " out of " + traceFile.getTraceCount());
+		}
+		this.traceFile = traceFile;
+		this.trace = trace;
+		this.schedulingInterval = schedulingInterval;
+	}
+
+	@Override
+	public double getUtilization(double time) {
+		if (time % schedulingInterval == 0) {
+			return getSample((int) time / (int) schedulingInterval);
+		}
+		int time1 = (int) Math.floor(time / schedulingInterval);
+		int time2 = (int) Math.ceil(time / schedulingInterval);
+		double utilization1 = getSample(time1);
+		double utilization2 = getSample(time2);
+		double delta = (utilization2 - utilization1) / ((time2 - time1) * schedulingInterval);
+		return utilization1 + delta * (time - time1 * schedulingInterval);
+	}
+
+	/**
+	 * Gets a sample of the trace. As with the {@link UtilizationModelPlanetLabInMemory}, the sample
+	 * following the last one is a copy of it.
+	 *
+	 * @param index the position of the sample
+	 * @return the utilization, between 0 and 1
+	 */
+	private double getSample(int index) {
+		int last = traceFile.getSampleCount() - 1;
+		return traceFile.getUtilization(trace, index == last + 1 ? last : index);
+	}
+
+	/**
+	 * Gets the scheduling interval.
+	 *
+	 * @return the scheduling interval
+	 */
+	public double getSchedulingInterval() {
+		return schedulingInterval;
+	}
+
+	/**
+	 * Gets the position of the trace of this model in the workload.
+	 *
+	 * @return the position of the trace
+	 */
+	public int getTrace() {
+		return trace;
+	}
+}
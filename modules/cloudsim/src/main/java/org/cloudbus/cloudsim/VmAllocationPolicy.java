@@ -11,10 +11,11 @@ package org.cloudbus.cloudsim;
 import org.cloudbus.cloudsim.container.core.Container;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.GuestMap;
 import org.cloudbus.cloudsim.core.HostEntity;
 
+import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -29,7 +30,7 @@ import java.util.Map;
  * @author Remo Andreoli
  * @since CloudSim Toolkit 1.0
  */
-public abstract class VmAllocationPolicy {
+public abstract class VmAllocationPolicy implements Serializable {
 
 	public record GuestMapping (
 		GuestEntity vm,
@@ -37,7 +38,7 @@ public abstract class VmAllocationPolicy {
 		Container container,
 		int datacenterId,
         boolean NewEventRequired,
-        boolean NewVmRequired)
+        boolean NewVmRequired) implements Serializable
 	{
 		public GuestMapping(GuestEntity vm, HostEntity host, Container container, boolean newEvReq, boolean newVmReq) {
 			this(vm, host, container, host.getDatacenter().getId(), newEvReq, newVmReq);
@@ -54,9 +55,9 @@ public abstract class VmAllocationPolicy {
 	private List<? extends HostEntity> hostList;
 
 	/** The map between each guest and its allocated host.
-	 * The map key is a guest UID and the value is the allocated host for that VM.
+	 * The map key is a guest {@link GuestEntity#getKey() key} and the value is the allocated host for that VM.
 	 */
-	private Map<String, HostEntity> guestTable;
+	private final GuestMap<HostEntity> guestHostMap = new GuestMap<>();
 
 	/**
 	 * Creates a new VmAllocationPolicy object.
@@ -67,7 +68,6 @@ public abstract class VmAllocationPolicy {
 	 */
 	public VmAllocationPolicy(List<? extends HostEntity> list) {
 		setHostList(list);
-		setGuestTable(new HashMap<>());
 	}
 
 	/**
@@ -112,7 +112,7 @@ public abstract class VmAllocationPolicy {
 		}
 
 		if (host.guestCreate(guest)) { // if vm has been successfully created in the host
-			getGuestTable().put(guest.getUid(), host);
+			getGuestHostMap().put(guest, host);
 			Log.printlnConcat(CloudSim.clock(), ": ", datacenterName, ".guestAllocator: ", guest.getClassName(), " #", guest.getId(), " has been allocated to ", host.getClassName(), " #", host.getId());
 			return true;
 		}
@@ -145,7 +145,7 @@ public abstract class VmAllocationPolicy {
 	 * @post $none
 	 */
 	public void deallocateHostForGuest(GuestEntity guest) {
-		HostEntity host = getGuestTable().remove(guest.getUid());
+		HostEntity host = getGuestHostMap().remove(guest);
 		if (host != null) {
 			host.guestDestroy(guest);
 		}
@@ -166,8 +166,31 @@ public abstract class VmAllocationPolicy {
 	public Host findHostForVm(Vm vm) { return (Host) findHostForGuest(vm); }
 
 
-	public Map<String, HostEntity> getGuestTable() { return guestTable; }
-	protected void setGuestTable(Map<String, HostEntity> guestTable) { this.guestTable = guestTable; }
+	/**
+	 * Gets the map between each guest and its allocated host.
+	 *
+	 * @return the map, keyed by guest UID; it is a view of the {@link #getGuestHostMap() guest host map}
+	 */
+	public Map<String, HostEntity> getGuestTable() { return guestHostMap.asUidMap(); }
+
+	/**
+	 * Replaces the allocated hosts of all the guests.
+	 *
+	 * @param guestTable the map between each guest UID and its allocated host
+	 */
+	protected void setGuestTable(Map<String, HostEntity> guestTable) {
+		Map<String, HostEntity> table = getGuestTable();
+		table.clear();
+		table.putAll(guestTable);
+	}
+
+	/**
+	 * Gets the map between each guest and its allocated host.
+	 *
+	 * @return the map
+	 * @since CloudSim Toolkit 7.0
+	 */
+	protected GuestMap<HostEntity> getGuestHostMap() { return guestHostMap; }
 
 	/**
 	 * Get the host that is executing the given VM.
@@ -177,10 +200,10 @@ public abstract class VmAllocationPolicy {
 	 * @pre $none
 	 * @post $none
 	 */
-	public HostEntity getHost(GuestEntity guest) { return getGuestTable().get(guest.getUid()); }
+	public HostEntity getHost(GuestEntity guest) { return getGuestHostMap().get(guest); }
 
 	@Deprecated
-	public Host getHost(Vm vm) { return (Host) getGuestTable().get(vm.getUid()); }
+	public Host getHost(Vm vm) { return (Host) getGuestHostMap().get(vm); }
 
 	/**
 	 * Get the host that is executing the given VM belonging to the given user.
@@ -191,7 +214,7 @@ public abstract class VmAllocationPolicy {
 	 * @pre $none
 	 * @post $none
 	 */
-	public HostEntity getHost(int vmId, int userId) { return getGuestTable().get(GuestEntity.getUid(userId, vmId)); };
+	public HostEntity getHost(int vmId, int userId) { return getGuestHostMap().get(GuestEntity.getKey(userId, vmId)); };
 
 	/**
 	 * Sets the host list.
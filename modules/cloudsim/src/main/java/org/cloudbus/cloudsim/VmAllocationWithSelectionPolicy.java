@@ -1,8 +1,11 @@
 package org.cloudbus.cloudsim;
 
+import org.cloudbus.cloudsim.selectionPolicies.ScoredSelectionPolicy;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
+import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.util.CapacityIndex;
 
 import java.util.*;
 
@@ -15,6 +18,24 @@ public class VmAllocationWithSelectionPolicy extends VmAllocationPolicy {
 
     private Set<HostEntity> excludedHostCandidates;
 
+    /** The dimensions of the {@link #hostIndex}: the MIPS of a PE, the free MIPS, RAM and BW, and the score. */
+    private static final int PE_MIPS = 0, FREE_MIPS = 1, FREE_RAM = 2, FREE_BW = 3, SCORE = 4;
+
+    /** Whether the hosts are found with the {@link #hostIndex}. */
+    private boolean hostIndexEnabled;
+
+    /**
+     * The index of the free resources and of the score of the hosts, by position in the host list,
+     * or <tt>null</tt> if it is not built yet.
+     */
+    private CapacityIndex hostIndex;
+
+    /** The position of each host in the host list, for the {@link #hostIndex}. */
+    private Map<HostEntity, Integer> hostPositions;
+
+    /** The simulation time when the {@link #hostIndex} was built. */
+    private double hostIndexTime;
+
     public VmAllocationWithSelectionPolicy(List<? extends HostEntity> list, SelectionPolicy<HostEntity> selectionPolicy) {
         super(list);
         setExcludedHostCandidates(new HashSet<>());
@@ -22,14 +43,42 @@ public class VmAllocationWithSelectionPolicy extends VmAllocationPolicy {
     }
 
     public SelectionPolicy<HostEntity> getSelectionPolicy() { return selectionPolicy; }
-    public void setSelectionPolicy(SelectionPolicy<HostEntity> selectionPolicy) { this.selectionPolicy = selectionPolicy; }
+    public void setSelectionPolicy(SelectionPolicy<HostEntity> selectionPolicy) {
+        this.selectionPolicy = selectionPolicy;
+        hostIndex = null; // the scores depend on the policy
+    }
 
     public Set<HostEntity> getExcludedHostCandidates() { return excludedHostCandidates; }
     public void setExcludedHostCandidates(Set<HostEntity> excludedHostCandidates) { this.excludedHostCandidates = excludedHostCandidates; }
 
+    /**
+     * Enables the index of the hosts, so that a host is found for a guest in logarithmic time instead
+     * of checking the hosts one by one. It requires a {@link ScoredSelectionPolicy}, and the same
+     * host is found as without the index.
+     * <p/>
+     * The index is updated when the policy allocates or deallocates a guest, and built again when the
+     * simulation clock advances, as the resources and the score of the hosts may change then, e.g.
+     * when a {@link HostDynamicWorkload} updates the processing of its guests. If the hosts are changed
+     * otherwise between two allocations at the same time, {@link #updateHostIndex(HostEntity)} must
+     * be called. The hosts must check whether a guest is suitable as
+     * {@link HostEntity#isSuitableForGuest(GuestEntity)}. It is disabled by default.
+     *
+     * @param hostIndexEnabled $true to find the hosts with the index
+     */
+    public void setHostIndexEnabled(boolean hostIndexEnabled) {
+        this.hostIndexEnabled = hostIndexEnabled;
+        hostIndex = null;
+    }
+
+    public boolean isHostIndexEnabled() { return hostIndexEnabled; }
+
     @Override
     public HostEntity findHostForGuest(GuestEntity guest) {
         clearExcludedHostCandidates();
+        if (isHostIndexEnabled() && guest.getHost() == null
+                && getSelectionPolicy() instanceof ScoredSelectionPolicy<HostEntity> scoredPolicy) {
+            return findHostForGuest(guest, scoredPolicy);
+        }
         int tries = 0;
 
         do{
@@ -48,6 +97,123 @@ public class VmAllocationWithSelectionPolicy extends VmAllocationPolicy {
         return null;
     }
 
+    /**
+     * Finds a host for a guest with the {@link #hostIndex}: the suitable host a scan of the host list
+     * would select, in logarithmic time as long as the hosts with enough free resources are suitable.
+     *
+     * @param guest the guest
+     * @param scoredPolicy the selection policy
+     * @return the host found, or $null if there is none
+     */
+    private HostEntity findHostForGuest(GuestEntity guest, ScoredSelectionPolicy<HostEntity> scoredPolicy) {
+        CapacityIndex index = getHostIndex();
+        double[] demand = new double[SCORE + 1];
+        demand[PE_MIPS] = guest.getCurrentRequestedMaxMips();
+        demand[FREE_MIPS] = guest.getCurrentRequestedTotalMips();
+        demand[FREE_RAM] = Math.min(guest.getCurrentRequestedRam(), guest.getRam());
+        demand[FREE_BW] = guest.getCurrentRequestedBw();
+        demand[SCORE] = Math.nextUp(scoredPolicy.getMinScore());
+
+        List<Integer> unsuitable = new ArrayList<>();
+        try {
+            for (int position = index.bestFit(demand, SCORE); position >= 0; position = index.bestFit(demand, SCORE)) {
+                HostEntity host = getHostList().get(position);
+                if (updateHostIndex(host, position)) {
+                    continue; // the host changed, it may not be the best one anymore
+                }
+                if (host.isSuitableForGuest(guest)) {
+                    return host;
+                }
+                // skipped until the end of the search, as excluded from the candidates of a scan
+                index.set(position, SCORE, Double.NEGATIVE_INFINITY);
+                unsuitable.add(position);
+            }
+            return null;
+        } finally {
+            for (int position : unsuitable) {
+                updateHostIndex(getHostList().get(position), position);
+            }
+        }
+    }
+
+    /**
+     * Gets the index of the hosts, building it if the simulation clock advanced since it was built.
+     *
+     * @return the host index
+     */
+    private CapacityIndex getHostIndex() {
+        List<HostEntity> hostList = getHostList();
+        if (hostIndex == null || hostIndexTime != CloudSim.clock() || hostIndex.size() != hostList.size()) {
+            hostIndex = new CapacityIndex(hostList.size(), SCORE + 1);
+            hostPositions = new HashMap<>();
+            hostIndexTime = CloudSim.clock();
+            for (int i = 0; i < hostList.size(); i++) {
+                hostPositions.put(hostList.get(i), i);
+                updateHostIndex(hostList.get(i), i);
+            }
+        }
+        return hostIndex;
+    }
+
+    /**
+     * Updates the free resources and the score of a host in the index of the hosts, if it is built.
+     *
+     * @param host the host
+     */
+    protected void updateHostIndex(HostEntity host) {
+        if (hostIndex != null) {
+            Integer position = hostPositions.get(host);
+            if (position != null) {
+                updateHostIndex(host, position);
+            }
+        }
+    }
+
+    /**
+     * Updates the free resources and the score of a host in the {@link #hostIndex}.
+     *
+     * @param host the host
+     * @param position the position of the host in the host list
+     * @return $true if a value of the host changed
+     */
+    private boolean updateHostIndex(HostEntity host, int position) {
+        boolean changed = false;
+        changed |= updateHostIndex(position, PE_MIPS, host.getGuestScheduler().getPeCapacity());
+        changed |= updateHostIndex(position, FREE_MIPS, host.getGuestScheduler().getAvailableMips());
+        changed |= updateHostIndex(position, FREE_RAM, host.getGuestRamProvisioner().getAvailableRam());
+        changed |= updateHostIndex(position, FREE_BW, host.getGuestBwProvisioner().getAvailableBw());
+        @SuppressWarnings("unchecked")
+        ScoredSelectionPolicy<HostEntity> scoredPolicy = (ScoredSelectionPolicy<HostEntity>) getSelectionPolicy();
+        changed |= updateHostIndex(position, SCORE, scoredPolicy.getScore(host));
+        return changed;
+    }
+
+    private boolean updateHostIndex(int position, int dimension, double value) {
+        if (Double.compare(hostIndex.get(position, dimension), value) == 0) {
+            return false;
+        }
+        hostIndex.set(position, dimension, value);
+        return true;
+    }
+
+    @Override
+    public boolean allocateHostForGuest(GuestEntity guest, HostEntity host) {
+        boolean result = super.allocateHostForGuest(guest, host);
+        if (result) {
+            updateHostIndex(host);
+        }
+        return result;
+    }
+
+    @Override
+    public void deallocateHostForGuest(GuestEntity guest) {
+        HostEntity host = getHost(guest);
+        super.deallocateHostForGuest(guest);
+        if (host != null) {
+            updateHostIndex(host);
+        }
+    }
+
     public void clearExcludedHostCandidates() {
         excludedHostCandidates.clear();
     }
@@ -7,6 +7,7 @@
 
 package org.cloudbus.cloudsim;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -27,7 +28,7 @@ import org.cloudbus.cloudsim.lists.PeList;
  * @author Remo Andreoli
  * @since CloudSim Toolkit 1.0
  */
-public abstract class VmScheduler {
+public abstract class VmScheduler implements Serializable {
 
 	/** The PEs of the host where the scheduler is associated. */
 	private List<? extends Pe> peList;
@@ -99,6 +100,22 @@ public abstract class VmScheduler {
 		deallocatePesForGuest(vm);
 	}
 
+	/**
+	 * Checks if the PEs could be allocated for the current requested MIPS of a VM, when part of
+	 * the available MIPS is reserved for other VMs, e.g. the VMs a policy plans to place on the
+	 * host. Nothing is allocated.
+	 *
+	 * @param guest the vm
+	 * @param reservedMips the available MIPS reserved for other VMs; it is negative when other
+	 *        VMs are planned to release MIPS
+	 * @return $true if the VM fits in the PEs, $false otherwise
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public boolean isSuitableForGuest(GuestEntity guest, double reservedMips) {
+		return getPeCapacity() >= guest.getCurrentRequestedMaxMips()
+				&& getAvailableMips() - reservedMips >= guest.getCurrentRequestedTotalMips();
+	}
+
 	/**
 	 * Releases PEs allocated to all the VMs of the host the VmScheduler is associated to.
          * After that, all PEs will be available to be used on demand for requesting VMs.
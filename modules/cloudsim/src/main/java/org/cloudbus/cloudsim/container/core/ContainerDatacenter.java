@@ -122,6 +122,7 @@ public class ContainerDatacenter extends Datacenter {
                 }
 
                 container.updateCloudletsProcessing(CloudSim.clock(), getContainerAllocationPolicy().getHost(container).getGuestScheduler().getAllocatedMipsForGuest(container));
+                markHostChanged(container.getHost());
             } else {
                 Log.println(String.format("Datacenter.containerAllocator: Couldn't find a vm to host the container #%s", container.getUid()));
             }
@@ -203,6 +204,8 @@ public class ContainerDatacenter extends Datacenter {
         Container container = migrate.container();
         HostEntity containerVm = (HostEntity) migrate.vm();
 
+        markHostChanged(container.getHost());
+        markHostChanged(containerVm);
         getContainerAllocationPolicy().deallocateHostForGuest(container);
         if(containerVm.getGuestsMigratingIn().contains(container)){
             containerVm.removeMigratingInGuest(container);}
@@ -302,8 +305,6 @@ public class ContainerDatacenter extends Datacenter {
      * @post $none
      */
     protected void processCloudletMove(int[] receivedData, CloudActionTags tag) {
-        updateCloudletProcessing();
-
         int[] array = receivedData;
         int cloudletId = array[0];
         int userId = array[1];
@@ -314,6 +315,12 @@ public class ContainerDatacenter extends Datacenter {
         int destId = array[6];
         HostEntity containerVm;
 
+        markHostChanged(getVmAllocationPolicy().getHost(vmId, userId));
+        if (destId == getId()) {
+            markHostChanged(getVmAllocationPolicy().getHost(vmDestId, userId));
+        }
+        updateCloudletProcessing();
+
         // get the cloudlet
         containerVm = (HostEntity) getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId, userId);
         Cloudlet cl = containerVm.getGuest(containerId, userId)
@@ -375,6 +382,9 @@ public class ContainerDatacenter extends Datacenter {
      * @post $none
      */
     protected void processCloudletSubmit(SimEvent ev, boolean ack) {
+        if (ev.getData() instanceof Cloudlet cl) {
+            markHostChanged(getVmAllocationPolicy().getHost(cl.getGuestId(), cl.getUserId()));
+        }
         updateCloudletProcessing();
 
         try {
@@ -459,6 +469,7 @@ public class ContainerDatacenter extends Datacenter {
      * @post $none
      */
     protected void processCloudletResume(int cloudletId, int userId, int vmId, int containerId, boolean ack) {
+        markHostChanged(getVmAllocationPolicy().getHost(vmId, userId));
         double eventTime = ((VirtualEntity) getVmAllocationPolicy().getHost(vmId, userId)
                             .getGuest(vmId, userId))
                             .getGuest(containerId, userId)
@@ -496,6 +507,7 @@ public class ContainerDatacenter extends Datacenter {
      * @post $none
      */
     protected void processCloudletPause(int cloudletId, int userId, int vmId, int containerId, boolean ack) {
+        markHostChanged(getVmAllocationPolicy().getHost(vmId, userId));
         VirtualEntity containerVm = (VirtualEntity) getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId, userId);
         boolean status = containerVm.getGuest(containerId, userId)
                 .getCloudletScheduler().cloudletPause(cloudletId);
@@ -523,6 +535,7 @@ public class ContainerDatacenter extends Datacenter {
      * @post $none
      */
     protected void processCloudletCancel(int cloudletId, int userId, int vmId, int containerId) {
+        markHostChanged(getVmAllocationPolicy().getHost(vmId, userId));
         HostEntity containerVm = (HostEntity) getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId, userId);
         Cloudlet cl = containerVm.getGuest(containerId, userId)
                 .getCloudletScheduler().cloudletCancel(cloudletId);
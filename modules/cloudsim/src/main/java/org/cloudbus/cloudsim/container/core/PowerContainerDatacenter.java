@@ -85,9 +85,9 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
         containerMigrationAddress = String.format("%s/ContainerMigration/%s/%s.csv",getLogAddress(), getExperimentName().substring(0,index) ,getExperimentName());
         String energyConsumptionAddress = String.format("%s/EnergyConsumption/%s/%s.csv", getLogAddress(), getExperimentName().substring(0,index) ,getExperimentName()) ;
         vmMigrationAddress = String.format("%s/ContainerMigration/%s/VM-%s.csv", getLogAddress(), getExperimentName().substring(0,index) ,getExperimentName());
-        setContainerMigrationWriter(new CustomCSVWriter(containerMigrationAddress));
-        setVmMigrationWriter(new CustomCSVWriter(vmMigrationAddress));
-        setDatacenterEnergyWriter(new CustomCSVWriter(energyConsumptionAddress));
+        setContainerMigrationWriter(new CustomCSVWriter(containerMigrationAddress, true));
+        setVmMigrationWriter(new CustomCSVWriter(vmMigrationAddress, true));
+        setDatacenterEnergyWriter(new CustomCSVWriter(energyConsumptionAddress, true));
         setPower(0.0);
         setDisableVmMigrations(false);
         setCloudletSubmitted(-1);
@@ -120,7 +120,7 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
 
         // if some time passed since last processing
         if (currentTime > getLastProcessTime()) {
-            Log.print(currentTime + " ");
+            Log.printLazy(() -> currentTime + " ");
 
             double minTime = updateCloudetProcessingWithoutSchedulingFutureEventsForce();
 
@@ -134,19 +134,21 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
                         PowerHost targetHost = (PowerHost) migrate.host();
                         PowerHost oldHost = vm.getHost();
 
-                        if (oldHost == null) {
-                            Log.formatLine(
-                                    "%.2f: Migration of VM #%d to Host #%d is started",
-                                    currentTime,
-                                    vm.getId(),
-                                    targetHost.getId());
-                        } else {
-                            Log.formatLine(
-                                    "%.2f: Migration of VM #%d from Host #%d to Host #%d is started",
-                                    currentTime,
-                                    vm.getId(),
-                                    oldHost.getId(),
-                                    targetHost.getId());
+                        if (!Log.isDisabled()) {
+                            if (oldHost == null) {
+                                Log.formatLine(
+                                        "%.2f: Migration of VM #%d to Host #%d is started",
+                                        currentTime,
+                                        vm.getId(),
+                                        targetHost.getId());
+                            } else {
+                                Log.formatLine(
+                                        "%.2f: Migration of VM #%d from Host #%d to Host #%d is started",
+                                        currentTime,
+                                        vm.getId(),
+                                        oldHost.getId(),
+                                        targetHost.getId());
+                            }
                         }
                         targetHost.addMigratingInGuest(vm);
                         incrementMigrationCount();
@@ -163,7 +165,9 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
                     }
 
                 }
-                Log.printlnConcat(CloudSim.clock(), ": The number of Migrations is:  ", getVmMigrationCount() - previousMigrationCount);
+                if (!Log.isDisabled()) {
+                    Log.printlnConcat(CloudSim.clock(), ": The number of Migrations is:  ", getVmMigrationCount() - previousMigrationCount);
+                }
 //                String[] msg={Double.toString (CloudSim.clock()), Integer.toString (getVmMigrationCount() - previousMigrationCount)  } ;                   // <--declared statement
 //                try {
 //                    getVmMigrationWriter().writeTofile(msg);
@@ -208,29 +212,38 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
         double timeDiff = currentTime - getLastProcessTime();
         double timeFrameDatacenterEnergy = 0.0;
 
-        Log.println("\n\n--------------------------------------------------------------\n\n");
-        Log.formatLine("Power data center: New resource usage for the time frame starting at %.2f:", currentTime);
+        boolean logging = !Log.isDisabled();
+        if (logging) {
+            Log.println("\n\n--------------------------------------------------------------\n\n");
+            Log.formatLine("Power data center: New resource usage for the time frame starting at %.2f:", currentTime);
+        }
 
         for (PowerHost host : this.<PowerHost>getHostList()) {
-            Log.println();
+            if (logging) {
+                Log.println();
+            }
 
             double time = host.updateCloudletsProcessing(currentTime); // inform VMs to update processing
             if (time < minTime) {
                 minTime = time;
             }
 
-            Log.formatLine(
-                    "%.2f: [Host #%d] utilization is %.2f%%",
-                    currentTime,
-                    host.getId(),
-                    host.getUtilizationOfCpu() * 100);
+            if (logging) {
+                Log.formatLine(
+                        "%.2f: [Host #%d] utilization is %.2f%%",
+                        currentTime,
+                        host.getId(),
+                        host.getUtilizationOfCpu() * 100);
+            }
         }
 
         if (timeDiff > 0) {
-            Log.formatLine(
-                    "\nEnergy consumption for the last time frame from %.2f to %.2f:",
-                    getLastProcessTime(),
-                    currentTime);
+            if (logging) {
+                Log.formatLine(
+                        "\nEnergy consumption for the last time frame from %.2f to %.2f:",
+                        getLastProcessTime(),
+                        currentTime);
+            }
 
             for (PowerHost host : this.<PowerHost>getHostList()) {
                 double previousUtilizationOfCpu = host.getPreviousUtilizationOfCpu();
@@ -241,25 +254,29 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
                         timeDiff);
                 timeFrameDatacenterEnergy += timeFrameHostEnergy;
 
-                Log.println();
-                Log.formatLine(
-                        "%.2f: [Host #%d] utilization at %.2f was %.2f%%, now is %.2f%%",
-                        currentTime,
-                        host.getId(),
-                        getLastProcessTime(),
-                        previousUtilizationOfCpu * 100,
-                        utilizationOfCpu * 100);
+                if (logging) {
+                    Log.println();
+                    Log.formatLine(
+                            "%.2f: [Host #%d] utilization at %.2f was %.2f%%, now is %.2f%%",
+                            currentTime,
+                            host.getId(),
+                            getLastProcessTime(),
+                            previousUtilizationOfCpu * 100,
+                            utilizationOfCpu * 100);
+                    Log.formatLine(
+                            "%.2f: [Host #%d] energy is %.2f W*sec",
+                            currentTime,
+                            host.getId(),
+                            timeFrameHostEnergy);
+                }
+            }
+
+            if (logging) {
                 Log.formatLine(
-                        "%.2f: [Host #%d] energy is %.2f W*sec",
+                        "\n%.2f: Data center's energy is %.2f W*sec\n",
                         currentTime,
-                        host.getId(),
-                        timeFrameHostEnergy);
+                        timeFrameDatacenterEnergy);
             }
-
-            Log.formatLine(
-                    "\n%.2f: Data center's energy is %.2f W*sec\n",
-                    currentTime,
-                    timeFrameDatacenterEnergy);
             getDatacenterEnergyList().add(timeFrameDatacenterEnergy);
 
         }
@@ -282,7 +299,7 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
             for (GuestEntity vm : host.getCompletedVms()) {
                 getVmAllocationPolicy().deallocateHostForGuest(vm);
                 getVmList().remove(vm);
-                Log.println(String.format("VM #%d has been deallocated from host #%d", vm.getId(), host.getId()));
+                Log.printlnLazy(() -> String.format("VM #%d has been deallocated from host #%d", vm.getId(), host.getId()));
             }
             if(!host.getGuestList().isEmpty()){
                 numberOfActiveHosts ++;
@@ -294,12 +311,14 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
         getActiveVmList().add((double) numberOfActiveVms);
         int numberOfContainers = getNumberOfContainers();
         /** Check how many containers are in the system up and running*/
-        Log.print(String.format("The number of Containers Up and running is %d", numberOfContainers));
-        Log.println();
-        Log.print(String.format("The number of Vms Up and running is %d", numberOfActiveVms));
-        Log.println();
-        Log.print(String.format("The number of Hosts Up and running is %d", numberOfActiveHosts));
-        Log.println();
+        if (logging) {
+            Log.print(String.format("The number of Containers Up and running is %d", numberOfContainers));
+            Log.println();
+            Log.print(String.format("The number of Vms Up and running is %d", numberOfActiveVms));
+            Log.println();
+            Log.print(String.format("The number of Hosts Up and running is %d", numberOfActiveHosts));
+            Log.println();
+        }
 
         setLastProcessTime(currentTime);
         return minTime;
@@ -345,6 +364,33 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
         setCloudletSubmitted(CloudSim.clock());
     }
 
+    /**
+     * Closes the result writers, writing the rows they still buffer.
+     */
+    @Override
+    public void shutdownEntity() {
+        super.shutdownEntity();
+        closeWriter(getContainerMigrationWriter());
+        closeWriter(getVmMigrationWriter());
+        closeWriter(getDatacenterEnergyWriter());
+    }
+
+    /**
+     * Closes a result writer, if any.
+     *
+     * @param writer the writer
+     */
+    protected void closeWriter(CustomCSVWriter writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Gets the power.
      *
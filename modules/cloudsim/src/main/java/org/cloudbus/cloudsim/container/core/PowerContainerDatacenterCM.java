@@ -44,7 +44,7 @@ public class PowerContainerDatacenterCM extends PowerContainerDatacenter {
         String newlyCreatedVmsAddress;
         int index = getExperimentName().lastIndexOf("_");
         newlyCreatedVmsAddress = String.format("%s/NewlyCreatedVms/%s/%s.csv", getLogAddress(), getExperimentName().substring(0, index), getExperimentName());
-        setNewlyCreatedVmWriter(new CustomCSVWriter(newlyCreatedVmsAddress));
+        setNewlyCreatedVmWriter(new CustomCSVWriter(newlyCreatedVmsAddress, true));
         setNewlyCreatedVms(0);
         setDisableMigrations(false);
         setNewlyCreatedVmsList(new ArrayList<>());
@@ -265,6 +265,12 @@ public class PowerContainerDatacenterCM extends PowerContainerDatacenter {
 
     }
 
+    @Override
+    public void shutdownEntity() {
+        super.shutdownEntity();
+        closeWriter(getNewlyCreatedVmWriter());
+    }
+
     /**
      * Increment migration count.
      */
@@ -157,7 +157,9 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
                 break;
             }
 
-            Log.printlnConcat("Under-utilized host: host #", underUtilizedHost.getId(), "\n");
+            if (!Log.isDisabled()) {
+                Log.printlnConcat("Under-utilized host: host #", underUtilizedHost.getId(), "\n");
+            }
 
             excludedHostsForFindingUnderUtilizedHost.add(underUtilizedHost);
             excludedHostsForFindingNewVmPlacement.add(underUtilizedHost);
@@ -306,7 +308,9 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
             PowerHost allocatedHost = findHostForGuest(vm, excludedHosts);
             if (allocatedHost != null) {
                 allocatedHost.guestCreate(vm);
-                Log.printlnConcat("VM #", vm.getId(), " allocated to host #", allocatedHost.getId());
+                if (!Log.isDisabled()) {
+                    Log.printlnConcat("VM #", vm.getId(), " allocated to host #", allocatedHost.getId());
+                }
 
                 GuestMapping migrate = new GuestMapping(vm, allocatedHost);
                 migrationMap.add(migrate);
@@ -331,7 +335,9 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
             PowerHost allocatedHost = findHostForGuest(vm, excludedHosts);
             if (allocatedHost != null) {
                 allocatedHost.guestCreate(vm);
-                Log.printlnConcat("VM #", vm.getId(), " allocated to host #", allocatedHost.getId());
+                if (!Log.isDisabled()) {
+                    Log.printlnConcat("VM #", vm.getId(), " allocated to host #", allocatedHost.getId());
+                }
 
                 GuestMapping migrate = new GuestMapping(vm, allocatedHost);
                 migrationMap.add(migrate);
@@ -555,10 +561,12 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
             ContainerVm vm = (ContainerVm) map.vm();
             PowerHost host = (PowerHost) map.host();
             if (!host.guestCreate(vm)) {
-                Log.printlnConcat("Couldn't restore VM #", vm.getId(), " on host #", host.getId());
+                if (!Log.isDisabled()) {
+                    Log.printlnConcat("Couldn't restore VM #", vm.getId(), " on host #", host.getId());
+                }
                 System.exit(0);
             }
-            getGuestTable().put(vm.getUid(), host);
+            getGuestHostMap().put(vm, host);
         }
     }
 
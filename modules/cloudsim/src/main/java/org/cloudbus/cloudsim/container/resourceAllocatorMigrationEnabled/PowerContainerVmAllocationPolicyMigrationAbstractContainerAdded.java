@@ -126,7 +126,9 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
                 break;
             }
 
-            Log.printlnConcat("Under-utilized host: host #", underUtilizedHost.getId(), "\n");
+            if (!Log.isDisabled()) {
+                Log.printlnConcat("Under-utilized host: host #", underUtilizedHost.getId(), "\n");
+            }
 
             excludedHostsForFindingUnderUtilizedHost.add(underUtilizedHost);
             excludedHostsForFindingNewContainerPlacement.add(underUtilizedHost);
@@ -193,7 +195,9 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
 
             if (allocationMap != null && allocationMap.host() != null && allocationMap.vm() != null) {
                 ContainerVm vm = (ContainerVm) allocationMap.vm();
-                Log.printlnConcat("Container #", container.getId(), " allocated to host #", (allocationMap.host()).getId(), "The VM ID is #", vm.getId());
+                if (!Log.isDisabled()) {
+                    Log.printlnConcat("Container #", container.getId(), " allocated to host #", (allocationMap.host()).getId(), "The VM ID is #", vm.getId());
+                }
                 migrationMap.add(new GuestMapping(vm, allocationMap.host(), (Container)container));
             } else {
                 migrationMap.add(new GuestMapping(null, null, null, 0, false, true));
@@ -274,7 +278,9 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
                 GuestMapping allocationMap = findAvailableHostForContainer(container, createdVmMap);
                 if (allocationMap != null && allocationMap.host() != null && allocationMap.vm() != null) {
                     ContainerVm vm = (ContainerVm) allocationMap.vm();
-                    Log.printlnConcat("Container #", container.getId(), " allocated to host #", (allocationMap.host()).getId(), "The VM ID is #", vm.getId());
+                    if (!Log.isDisabled()) {
+                        Log.printlnConcat("Container #", container.getId(), " allocated to host #", (allocationMap.host()).getId(), "The VM ID is #", vm.getId());
+                    }
                     // vm.setInWaiting(true);
                     newMigrationMap.add(new GuestMapping(vm, allocationMap.host(), container, true, false));
                 }
@@ -303,7 +309,9 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
             }
             
             if(allocateHostForGuest(vm, host)){
-                Log.println("The vm ID #" + vm.getId() + "will be created ");
+                if (!Log.isDisabled()) {
+                    Log.println("The vm ID #" + vm.getId() + "will be created ");
+                }
                 vm.setInWaiting(vmStatus);
                 return vm;
             }
@@ -313,7 +321,9 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
     }
 
     protected List<GuestMapping> findMapInSwitchedOffHosts(List<Container> containerList) {
-        Log.print(String.format(" %s :  Find Placement in the switched of hosts", CloudSim.clock()));
+        if (!Log.isDisabled()) {
+            Log.print(String.format(" %s :  Find Placement in the switched of hosts", CloudSim.clock()));
+        }
         List<PowerHost> switchedOffHostsList = getSwitchedOffHosts();
         List<GuestMapping> newMigrationMap = new ArrayList<>();
 
@@ -663,11 +673,13 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
             PowerHost host = (PowerHost) map.host();
             if (!host.getGuestList().contains(vm)) {
                 if (!host.guestCreate(vm)) {
-                    Log.printlnConcat("Couldn't restore VM #", vm.getId(), " on host #", host.getId());
+                    if (!Log.isDisabled()) {
+                        Log.printlnConcat("Couldn't restore VM #", vm.getId(), " on host #", host.getId());
+                    }
                     System.exit(0);
                 }
 
-                getGuestTable().put(vm.getUid(), host);
+                getGuestHostMap().put(vm, host);
             }
 //            vm.containerDestroyAll();
 //            vm.reallocateMigratingInContainers();
@@ -681,7 +693,9 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
 
                 if (!vm.getGuestList().contains(container)) {
                     if (!vm.guestCreate(container)) {
-                        Log.printlnConcat("Couldn't restore Container #", container.getId(), " on vm #", vm.getId());
+                        if (!Log.isDisabled()) {
+                            Log.printlnConcat("Couldn't restore Container #", container.getId(), " on vm #", vm.getId());
+                        }
                         System.exit(0);
                     }
                 } else {
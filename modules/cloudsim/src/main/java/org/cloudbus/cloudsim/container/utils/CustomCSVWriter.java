@@ -1,23 +1,60 @@
 package org.cloudbus.cloudsim.container.utils;
 
 import com.opencsv.CSVWriter;
-import org.cloudbus.cloudsim.Log;
 
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 
 /**
+ * Writes rows of comma-separated values to a file.
+ * <p>
+ * The file is kept open between the rows, which are written through a single {@link FileChannel}.
+ * By default, each row is flushed to the file as soon as it is written. A buffered writer instead
+ * batches the rows, which are then only guaranteed to be in the file once the writer has been
+ * {@link #flush() flushed} or {@link #close() closed}; the datacenters using buffered writers
+ * close them when the simulation finishes.
+ * <p>
+ * The rows are flushed when the writer is serialized with a checkpoint of the simulation, and
+ * the file is opened again in append mode when rows are written after the checkpoint is restored.
+ *
  * Created by sareh on 30/07/15.
  * Modified by Remo Andreoli, Jun 2024.
  */
-public class CustomCSVWriter {
+public class CustomCSVWriter implements Closeable, Serializable {
+    /** The size of the buffer in which the rows are batched, in chars. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
     String fileAddress;
     boolean newFileCreated = false;
 
-    CSVWriter writer;
+    /** Whether the rows are kept in the buffer until the writer is flushed or closed. */
+    private final boolean buffered;
+
+    transient CSVWriter writer;
 
     public CustomCSVWriter(String fileAddress) throws IOException {
+        this(fileAddress, false);
+    }
+
+    /**
+     * Creates a writer to a file, creating the file and its directory if needed.
+     *
+     * @param fileAddress the path of the file
+     * @param buffered whether the rows are kept in the buffer until the writer is
+     *                 {@link #flush() flushed} or {@link #close() closed}, instead of being
+     *                 flushed after each row
+     * @throws IOException if the file cannot be created
+     */
+    public CustomCSVWriter(String fileAddress, boolean buffered) throws IOException {
+        this.buffered = buffered;
         File f = new File(fileAddress);
         File parentF = f.getParentFile();
 
@@ -36,22 +73,69 @@ public class CustomCSVWriter {
         writeTofile(entries, true);
     }
 
+    /**
+     * Writes a row to the file.
+     *
+     * @param entries the values of the row
+     * @param appendMode whether to append the row to the file, or to replace its content with it
+     * @throws IOException if the file cannot be opened
+     */
     public void writeTofile(String[] entries, boolean appendMode) throws IOException {
-        // feed in your array (or convert your data to an array)
-        try {
-            writer = new CSVWriter(new FileWriter(fileAddress, appendMode),
-                    ',',
-                    CSVWriter.NO_QUOTE_CHARACTER,
-                    CSVWriter.DEFAULT_ESCAPE_CHARACTER,
-                    CSVWriter.DEFAULT_LINE_END);
-
-        } catch (IOException e) {
-            Log.printlnConcat("Couldn't find the file to write to: ", fileAddress);
+        if (writer == null || !appendMode) {
+            open(appendMode);
         }
-
         writer.writeNext(entries);
-        writer.flush();
-        writer.close();
+        if (!buffered) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Writes the buffered rows to the file.
+     *
+     * @throws IOException if the rows cannot be written
+     */
+    public void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Writes the buffered rows to the file and closes it. The file is opened again if more rows
+     * are written afterwards.
+     *
+     * @throws IOException if the rows cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            CSVWriter csvWriter = writer;
+            writer = null;
+            csvWriter.close();
+        }
+    }
+
+    private void open(boolean appendMode) throws IOException {
+        close();
+        FileChannel channel = FileChannel.open(new File(fileAddress).toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                appendMode ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+        writer = new CSVWriter(new BufferedWriter(Channels.newWriter(channel, Charset.defaultCharset()), BUFFER_SIZE),
+                ',',
+                CSVWriter.NO_QUOTE_CHARACTER,
+                CSVWriter.DEFAULT_ESCAPE_CHARACTER,
+                CSVWriter.DEFAULT_LINE_END);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        flush();
+        out.defaultWriteObject();
+    }
+
+    public boolean isBuffered() {
+        return buffered;
     }
 
     public boolean fileExistedAlready() {
@@ -0,0 +1,689 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * A {@link FutureQueue} implemented as a calendar queue, which gives amortised O(1) insertion
+ * and removal of the earliest event when the event times are reasonably spread, as opposed to the
+ * O(log n) of the binary heap used by {@link EventQueue}.
+ * <p>
+ * The time axis is divided into "days" of fixed width, which are mapped in a round-robin fashion
+ * onto an array of buckets (the "year"). Each bucket keeps its events grouped by time, with the
+ * groups sorted by time and the events of each group sorted by serial, so the queue returns the
+ * events in exactly the same order as {@link EventQueue}. Since the events scheduled at the same
+ * time are usually added in serial order, both insertion and removal take constant time even when
+ * thousands of events share the same timestamp, as it happens at each scheduling interval.
+ * The number of buckets and the day width are recomputed whenever the queue grows or shrinks by
+ * a factor of two, sampling the events at the head of the queue.
+ * <p>
+ * Events scheduled more than one year ahead of the current day (e.g., the estimated finish time
+ * of long cloudlets) are kept in an overflow heap and moved into the buckets when the calendar
+ * reaches their year, so that they do not slow down the insertions in the buckets of the
+ * near future.
+ * <p>
+ * It can be selected as the future event list of the simulation through
+ * {@link CloudSim#init(int, java.util.Calendar, boolean, java.util.function.Supplier)}.
+ *
+ * @see <a href="https://doi.org/10.1145/63039.63045">R. Brown, "Calendar queues: a fast O(1)
+ * priority queue implementation for the simulation event set problem", Communications of the ACM,
+ * 31(10), 1988</a>
+ * @since CloudSim Toolkit 7.0
+ */
+public class CalendarQueue implements FutureQueue {
+
+	/** The minimum (and initial) number of buckets. Must be a power of two. */
+	private static final int MIN_BUCKETS = 16;
+
+	/** The number of distinct head event times sampled to estimate the day width upon a resize. */
+	private static final int SAMPLE_SIZE = 25;
+
+	/** The buckets of the calendar, their number is always a power of two. */
+	private Bucket[] buckets;
+
+	/** Mask used to map a day to its bucket, i.e., <tt>buckets.length - 1</tt>. */
+	private int mask;
+
+	/** The time width of each day. */
+	private double width;
+
+	/** The day of the earliest event; no event in the queue belongs to a day before it. */
+	private long currentDay;
+
+	/** The events scheduled beyond the year starting at the current day. */
+	private final PriorityQueue<SimEvent> overflow = new PriorityQueue<>();
+
+	/** The number of events in the queue, including the overflow ones. */
+	private int size;
+
+	/** The size above which the number of buckets is doubled. */
+	private int topThreshold;
+
+	/** The size below which the number of buckets is halved. */
+	private int bottomThreshold;
+
+	/** Indicates if the queue is allowed to resize. */
+	private boolean resizeEnabled;
+
+	/** A incremental number used for event attribute */
+	private long serial = 0;
+
+	/** The number of structural modifications, used to make the iterators fail-fast. */
+	private int modCount;
+
+	/**
+	 * Creates a new, empty calendar queue.
+	 */
+	public CalendarQueue() {
+		this(1.0);
+	}
+
+	/**
+	 * Creates a new, empty calendar queue with a given initial day width.
+	 * The width is adapted to the actual event times when the queue resizes.
+	 *
+	 * @param initialWidth the initial time width of each day
+	 */
+	public CalendarQueue(double initialWidth) {
+		if (initialWidth <= 0 || Double.isInfinite(initialWidth) || Double.isNaN(initialWidth)) {
+			throw new IllegalArgumentException("The width of the calendar days should be positive, but is:" + initialWidth);
+		}
+		init(MIN_BUCKETS, initialWidth);
+		resizeEnabled = true;
+	}
+
+	@Override
+	public void addEvent(SimEvent newEvent) {
+		newEvent.setSerial(serial++);
+		enqueue(newEvent);
+	}
+
+	@Override
+	public void addEventFirst(SimEvent newEvent) {
+		newEvent.setSerial(0);
+		enqueue(newEvent);
+	}
+
+	@Override
+	public SimEvent peek() {
+		Bucket bucket = locateFirst();
+		return bucket == null ? null : bucket.peek();
+	}
+
+	@Override
+	public SimEvent poll() {
+		if (!CloudSim.running()) {
+			return null;
+		}
+		Bucket bucket = locateFirst();
+		if (bucket == null) {
+			return null;
+		}
+
+		SimEvent event = bucket.poll();
+		removed();
+		return event;
+	}
+
+	@Override
+	public boolean remove(SimEvent event) {
+		if (size == 0) {
+			return false;
+		}
+
+		if (!buckets[(int) (dayOf(event.eventTime()) & mask)].remove(event) && !overflow.remove(event)) {
+			return false;
+		}
+		removed();
+		return true;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void clear() {
+		init(MIN_BUCKETS, width);
+		overflow.clear();
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Returns an iterator over the events of the queue, in no particular order.
+	 * The iterator supports {@link Iterator#remove()}.
+	 */
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return new Itr();
+	}
+
+	/**
+	 * Gets the current time width of each calendar day.
+	 *
+	 * @return the day width
+	 */
+	public double getWidth() {
+		return width;
+	}
+
+	/**
+	 * Gets the current number of buckets of the calendar.
+	 *
+	 * @return the number of buckets
+	 */
+	public int getNumberOfBuckets() {
+		return buckets.length;
+	}
+
+	/**
+	 * Inserts an event whose serial has already been assigned.
+	 *
+	 * @param event the event
+	 */
+	private void enqueue(SimEvent event) {
+		long day = dayOf(event.eventTime());
+		if (size == 0 || day < currentDay) {
+			currentDay = day;
+		}
+
+		if (day - currentDay < buckets.length) {
+			buckets[(int) (day & mask)].insert(event);
+		} else {
+			overflow.add(event);
+		}
+		size++;
+		modCount++;
+		if (size > topThreshold) {
+			resize(buckets.length * 2);
+		}
+	}
+
+	/**
+	 * Updates the state of the queue after an event has been removed.
+	 */
+	private void removed() {
+		size--;
+		modCount++;
+		if (size < bottomThreshold) {
+			resize(buckets.length / 2);
+		}
+	}
+
+	/**
+	 * Finds the bucket whose head is the earliest event of the queue, moving the
+	 * current day forward to the day of such event.
+	 *
+	 * @return the bucket, or <tt>null</tt> if the queue is empty
+	 */
+	private Bucket locateFirst() {
+		if (size == 0) {
+			return null;
+		}
+
+		while (true) {
+			long end = currentDay + buckets.length;
+			for (long day = currentDay; day < end; day++) {
+				Bucket bucket = buckets[(int) (day & mask)];
+				if (!bucket.isEmpty() && dayOf(bucket.peek().eventTime()) <= day) {
+					advanceTo(day);
+					return bucket;
+				}
+			}
+
+			// nothing in the current year: jump directly to the day of the earliest event
+			SimEvent first = overflow.peek();
+			Bucket firstBucket = null;
+			for (Bucket bucket : buckets) {
+				if (!bucket.isEmpty() && (first == null || bucket.peek().compareTo(first) < 0)) {
+					first = bucket.peek();
+					firstBucket = bucket;
+				}
+			}
+			advanceTo(dayOf(first.eventTime()));
+			if (firstBucket != null) {
+				return firstBucket;
+			}
+		}
+	}
+
+	/**
+	 * Moves the current day forward, bringing the overflow events of the new year into
+	 * the calendar. Hence, the overflow events are always beyond the current year and they
+	 * are moved in order, after any event of the same time already in the calendar.
+	 *
+	 * @param day the new current day
+	 */
+	private void advanceTo(long day) {
+		currentDay = day;
+		long end = day + buckets.length;
+		while (!overflow.isEmpty() && dayOf(overflow.peek().eventTime()) < end) {
+			SimEvent event = overflow.poll();
+			buckets[(int) (dayOf(event.eventTime()) & mask)].insert(event);
+		}
+	}
+
+	/**
+	 * Gets the day a given time belongs to.
+	 *
+	 * @param time the time
+	 * @return the day
+	 */
+	private long dayOf(double time) {
+		return (long) (time / width);
+	}
+
+	/**
+	 * Initialises an empty calendar.
+	 *
+	 * @param numberOfBuckets the number of buckets, a power of two
+	 * @param width the day width
+	 */
+	private void init(int numberOfBuckets, double width) {
+		buckets = new Bucket[numberOfBuckets];
+		for (int i = 0; i < numberOfBuckets; i++) {
+			buckets[i] = new Bucket();
+		}
+		mask = numberOfBuckets - 1;
+		this.width = width;
+		currentDay = 0;
+		topThreshold = 2 * numberOfBuckets;
+		bottomThreshold = numberOfBuckets > MIN_BUCKETS ? numberOfBuckets / 2 - 2 : -1;
+	}
+
+	/**
+	 * Rebuilds the calendar with a new number of buckets and a day width estimated
+	 * from the events at the head of the queue.
+	 *
+	 * @param numberOfBuckets the new number of buckets
+	 */
+	private void resize(int numberOfBuckets) {
+		if (!resizeEnabled || numberOfBuckets < MIN_BUCKETS) {
+			return;
+		}
+
+		// drain the queue in order, so that the events are appended to the new buckets
+		resizeEnabled = false;
+		int count = size;
+		SimEvent[] events = new SimEvent[count];
+		for (int i = 0; i < count; i++) {
+			events[i] = poll();
+		}
+
+		init(numberOfBuckets, estimateWidth(events));
+		for (SimEvent event : events) {
+			enqueue(event);
+		}
+		resizeEnabled = true;
+	}
+
+	/**
+	 * Estimates the day width as three times the average separation between the first distinct
+	 * event times, ignoring the separations much larger than the average.
+	 *
+	 * @param events the events of the queue, in order
+	 * @return the new day width, or the current width if it cannot be estimated
+	 */
+	private double estimateWidth(SimEvent[] events) {
+		double[] separations = new double[SAMPLE_SIZE - 1];
+		int count = 0;
+		double total = 0;
+		for (int i = 1; i < events.length && count < separations.length; i++) {
+			double separation = events[i].eventTime() - events[i - 1].eventTime();
+			if (separation > 0) {
+				separations[count++] = separation;
+				total += separation;
+			}
+		}
+		if (count == 0) {
+			return width;
+		}
+
+		double average = total / count;
+		double sum = 0;
+		int used = 0;
+		for (int i = 0; i < count; i++) {
+			if (separations[i] <= 2 * average) {
+				sum += separations[i];
+				used++;
+			}
+		}
+		return 3 * sum / used;
+	}
+
+	/**
+	 * A bucket of the calendar: the events grouped by time, with the groups sorted by time.
+	 * The emptied groups are recycled.
+	 */
+	private static final class Bucket implements Serializable {
+
+		/** The groups, lazily allocated; the ones in the bucket are in [head, tail). */
+		private Group[] groups;
+
+		/** The position of the first group. */
+		private int head;
+
+		/** The position after the last group. */
+		private int tail;
+
+		/** The number of events in the bucket. */
+		private int size;
+
+		/** An emptied group, ready to be reused. */
+		private Group spare;
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		SimEvent peek() {
+			return groups[head].get(0);
+		}
+
+		SimEvent poll() {
+			Group group = groups[head];
+			SimEvent event = group.poll();
+			size--;
+			if (group.size == 0) {
+				removeGroupAt(head);
+			}
+			return event;
+		}
+
+		void insert(SimEvent event) {
+			double time = event.eventTime();
+			Group group;
+			if (head == tail || groups[tail - 1].time < time) {
+				group = newGroupAt(tail, time);
+			} else if (groups[tail - 1].time == time) {
+				group = groups[tail - 1];
+			} else {
+				int index = search(time);
+				group = index < tail && groups[index].time == time ? groups[index] : newGroupAt(index, time);
+			}
+			group.add(event);
+			size++;
+		}
+
+		boolean remove(SimEvent event) {
+			int index = search(event.eventTime());
+			if (index == tail || groups[index].time != event.eventTime()) {
+				return false;
+			}
+			int position = groups[index].indexOf(event);
+			if (position < 0) {
+				return false;
+			}
+			removeAt(index, position);
+			return true;
+		}
+
+		/**
+		 * Removes an event.
+		 *
+		 * @param index the position of the group of the event
+		 * @param position the position of the event within the group
+		 * @return true if the group has been removed as well
+		 */
+		boolean removeAt(int index, int position) {
+			Group group = groups[index];
+			group.removeAt(position);
+			size--;
+			if (group.size == 0) {
+				removeGroupAt(index);
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Searches the position of the first group whose time is not before a given time.
+		 *
+		 * @param time the time
+		 * @return the position of the group, or <tt>tail</tt> if there is no such group
+		 */
+		private int search(double time) {
+			int low = head;
+			int high = tail;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (groups[mid].time < time) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		private Group newGroupAt(int index, double time) {
+			Group group = spare;
+			if (group == null) {
+				group = new Group();
+			} else {
+				spare = null;
+			}
+			group.time = time;
+
+			if (groups == null) {
+				groups = new Group[4];
+			}
+			if (index == head && head > 0) {
+				groups[--head] = group;
+				return group;
+			}
+			if (tail == groups.length) {
+				int count = tail - head;
+				int offset = index - head;
+				if (count * 2 <= groups.length) {
+					System.arraycopy(groups, head, groups, 0, count);
+					Arrays.fill(groups, count, tail, null);
+				} else {
+					groups = Arrays.copyOfRange(groups, head, head + groups.length * 2);
+				}
+				head = 0;
+				tail = count;
+				index = offset;
+			}
+			System.arraycopy(groups, index, groups, index + 1, tail - index);
+			groups[index] = group;
+			tail++;
+			return group;
+		}
+
+		private void removeGroupAt(int index) {
+			spare = groups[index];
+			if (index == head) {
+				groups[head++] = null;
+			} else {
+				System.arraycopy(groups, index + 1, groups, index, tail - index - 1);
+				groups[--tail] = null;
+			}
+			if (head == tail) {
+				head = tail = 0;
+			}
+		}
+	}
+
+	/**
+	 * The events of a bucket scheduled at the same time, sorted by serial in a circular array.
+	 * New events are usually appended at the tail.
+	 */
+	private static final class Group implements Serializable {
+
+		/** The time of the events. */
+		private double time;
+
+		/** The events. Its length is always a power of two. */
+		private SimEvent[] items = new SimEvent[4];
+
+		/** The position of the first event. */
+		private int head;
+
+		/** The number of events in the group. */
+		private int size;
+
+		SimEvent get(int index) {
+			return items[(head + index) & (items.length - 1)];
+		}
+
+		private void set(int index, SimEvent event) {
+			items[(head + index) & (items.length - 1)] = event;
+		}
+
+		void add(SimEvent event) {
+			if (size == items.length) {
+				SimEvent[] grown = new SimEvent[items.length * 2];
+				for (int i = 0; i < size; i++) {
+					grown[i] = get(i);
+				}
+				items = grown;
+				head = 0;
+			}
+
+			if (size == 0 || get(size - 1).compareTo(event) < 0) {
+				set(size, event);
+			} else if (get(0).compareTo(event) > 0) {
+				head = (head - 1) & (items.length - 1);
+				items[head] = event;
+			} else {
+				int i = size;
+				while (i > 0 && get(i - 1).compareTo(event) > 0) {
+					set(i, get(i - 1));
+					i--;
+				}
+				set(i, event);
+			}
+			size++;
+		}
+
+		SimEvent poll() {
+			SimEvent event = items[head];
+			items[head] = null;
+			head = (head + 1) & (items.length - 1);
+			size--;
+			return event;
+		}
+
+		int indexOf(SimEvent event) {
+			for (int i = 0; i < size; i++) {
+				if (get(i) == event) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		void removeAt(int index) {
+			for (int i = index; i < size - 1; i++) {
+				set(i, get(i + 1));
+			}
+			set(size - 1, null);
+			size--;
+		}
+	}
+
+	/**
+	 * Iterator over the events of the queue, bucket by bucket and then over the overflow ones.
+	 */
+	private final class Itr implements Iterator<SimEvent> {
+
+		/** The bucket, the group within it and the position within the group of the next event. */
+		private int bucket, group, position;
+
+		/** The bucket, group and position of the last returned event. */
+		private int lastBucket = -1, lastGroup, lastPosition;
+
+		/** The iterator over the overflow events, once the buckets are exhausted. */
+		private Iterator<SimEvent> overflowIterator;
+
+		/** The expected modification count. */
+		private int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() {
+			while (bucket < buckets.length) {
+				Bucket current = buckets[bucket];
+				group = Math.max(group, current.head);
+				while (group < current.tail) {
+					if (position < current.groups[group].size) {
+						return true;
+					}
+					group++;
+					position = 0;
+				}
+				bucket++;
+				group = 0;
+				position = 0;
+			}
+			if (overflowIterator == null) {
+				overflowIterator = overflow.iterator();
+			}
+			return overflowIterator.hasNext();
+		}
+
+		@Override
+		public SimEvent next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			lastBucket = bucket;
+			if (bucket < buckets.length) {
+				lastGroup = group;
+				lastPosition = position;
+				return buckets[bucket].groups[group].get(position++);
+			}
+			return overflowIterator.next();
+		}
+
+		@Override
+		public void remove() {
+			if (lastBucket < 0) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+
+			if (lastBucket < buckets.length) {
+				if (buckets[lastBucket].removeAt(lastGroup, lastPosition)) {
+					// the following groups have been shifted back
+					group = lastGroup;
+					position = 0;
+				} else {
+					position = lastPosition;
+				}
+			} else {
+				overflowIterator.remove();
+			}
+			lastBucket = -1;
+
+			// do not resize in the middle of the iteration
+			size--;
+			modCount++;
+			expectedModCount = modCount;
+		}
+	}
+}
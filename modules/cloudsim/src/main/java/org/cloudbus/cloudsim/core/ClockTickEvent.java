@@ -0,0 +1,41 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event covering a clock tick of the simulation: running the entities
+ * which got events in the previous tick, then dispatching the events of the next time.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@Name("org.cloudbus.cloudsim.ClockTick")
+@Label("Clock Tick")
+@Category({ "CloudSim", "Kernel" })
+@Description("Runs the ready entities and dispatches the events of the next simulation time")
+class ClockTickEvent extends jdk.jfr.Event {
+
+	@Label("Simulation Time")
+	@Description("The simulation time of the dispatched events")
+	double simulationTime;
+
+	@Label("Entities Run")
+	int entitiesRun;
+
+	@Label("Events Dispatched")
+	int eventsDispatched;
+
+	@Label("Future Queue Size")
+	@Description("The number of events left in the future event queue")
+	int futureQueueSize;
+}
@@ -148,6 +148,12 @@ public enum CloudActionTags implements CloudSimTags {
 	 */
 	CLOUDLET_SUBMIT_ACK,
 
+	/**
+	 * Denotes that a broker submits the next cloudlets of the workload it streams. This tag is
+	 * normally sent by a broker to itself.
+	 */
+	CLOUDLET_SUBMIT_BATCH,
+
 	/** Cancels a Cloudlet submitted in the CloudResource entity. */
 	CLOUDLET_CANCEL,
 
@@ -253,5 +259,16 @@ public enum CloudActionTags implements CloudSimTags {
 
 	NETWORK_PKT_DOWN,
 
-    NETWORK_PKT_REACHED_HOST
+    NETWORK_PKT_REACHED_HOST,
+
+	/**
+	 * Denotes the computation of the rates of the flows of a {@link org.cloudbus.cloudsim.network.datacenter.FlowNetwork},
+	 * after flows have started or ended.
+	 */
+	NETWORK_FLOW_UPDATE,
+
+	/**
+	 * Denotes the end of the transmission of a flow of a {@link org.cloudbus.cloudsim.network.datacenter.FlowNetwork}.
+	 */
+	NETWORK_FLOW_COMPLETED
 }
@@ -8,25 +8,35 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Supplier;
 
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.predicates.Predicate;
 import org.cloudbus.cloudsim.core.predicates.PredicateAny;
 import org.cloudbus.cloudsim.core.predicates.PredicateNone;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
  *
  * The main class of the simulation.
  * It provides all the methods to start, pause and stop simulated entities.
  * It stores and dispatches all the discrete events to be processed at run-time by the entities.
+ * <p>
+ * The state of the simulation is kept in the {@link SimulationContext} bound to the calling thread,
+ * so that different threads can run independent simulations at the same time.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
@@ -38,30 +48,9 @@ public class CloudSim {
 	/** The Constant CLOUDSIM_VERSION_STRING. */
 	private static final String CLOUDSIM_VERSION_STRING = "7.0";
 
-	/** The id of CIS entity. */
-	private static int cisId = -1;
-
-	/** The id of CloudSimShutdown entity. */
-	private static int shutdownId = -1;
-
-	/** The CIS object. */
-	private static CloudInformationService cis = null;
-
 	/** The Constant NOT_FOUND. */
 	private static final int NOT_FOUND = -1;
 
-	/** The trace flag. */
-	private static boolean traceFlag = false;
-
-	/** The calendar. */
-	private static Calendar calendar = null;
-
-	/** The termination time. */
-	private static double terminateAt = -1;
-
-	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
-	private static double minTimeBetweenEvents = 0.01;
-	
 	/**
 	 * Initialises all the common attributes.
 	 * 
@@ -75,21 +64,22 @@ public class CloudSim {
 	 */
 	private static void initCommonVariable(Calendar _calendar, boolean _traceFlag, int numUser)
 			throws Exception {
+		SimulationContext ctx = SimulationContext.current();
 		initialize();
 		// NOTE: the order for the below 3 lines are important
-		traceFlag = _traceFlag;
+		ctx.traceFlag = _traceFlag;
 
 		// Set the current Wall clock time as the starting time of
 		// simulation
 		if (_calendar == null) {
-			calendar = Calendar.getInstance();
+			ctx.calendar = Calendar.getInstance();
 		} else {
-			calendar = _calendar;
+			ctx.calendar = _calendar;
 		}
 
 		// creates a CloudSimShutdown object
 		CloudSimShutdown shutdown = new CloudSimShutdown("CloudSimShutdown", numUser);
-		shutdownId = shutdown.getId();
+		ctx.shutdownId = shutdown.getId();
 	}
 
 	/**
@@ -114,14 +104,46 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static void init(int numUser, Calendar cal, boolean traceFlag) {
+		init(numUser, cal, traceFlag, EventQueue::new);
+	}
+
+	/**
+	 * Initialises CloudSim parameters, using a given implementation of the future event queue.
+	 * This method should be called before creating any entities.
+	 * <p>
+	 * The default future event queue is the binary heap {@link EventQueue}; simulations with a
+	 * large number of pending events may benefit from a {@link CalendarQueue}, e.g.:
+	 * <pre>
+	 * CloudSim.init(1, Calendar.getInstance(), false, CalendarQueue::new);
+	 * </pre>
+	 *
+	 * @param numUser the number of User Entities created. This parameters indicates that
+	 *            {@link CloudSimShutdown} first waits for all user entities's
+	 *            END_OF_SIMULATION signal before issuing terminate signal to other entities
+	 * @param cal starting time for this simulation. If it is <tt>null</tt>, then the time will be
+	 *            taken from <tt>Calendar.getInstance()</tt>
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @param futureQueueFactory the factory of the future event queue
+	 * @see FutureQueue
+	 * @pre numUser >= 0
+	 * @pre futureQueueFactory != null
+	 * @post $none
+	 */
+	public static void init(int numUser, Calendar cal, boolean traceFlag, Supplier<? extends FutureQueue> futureQueueFactory) {
+		SimulationContext ctx = SimulationContext.current();
+		if (futureQueueFactory == null) {
+			throw new IllegalArgumentException("The future event queue factory can't be null.");
+		}
+		ctx.futureQueueFactory = futureQueueFactory;
+
 		try {
 			initCommonVariable(cal, traceFlag, numUser);
 
 			// create a GIS object
-			cis = new CloudInformationService("CloudInformationService");
+			ctx.cis = new CloudInformationService("CloudInformationService");
 
 			// set all the above entity IDs
-			cisId = cis.getId();
+			ctx.cisId = ctx.cis.getId();
 		} catch (Exception s) {
 			Log.println("CloudSim.init(): The simulation has been terminated due to an unexpected error");
 			Log.println(s.getMessage());
@@ -152,12 +174,13 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static void init(int numUser, Calendar cal, boolean traceFlag, double minTimeBetweenEvents) {
+		SimulationContext ctx = SimulationContext.current();
 	    if (minTimeBetweenEvents <= 0) {
 		throw new IllegalArgumentException("The minimal time between events should be positive, but is:" + minTimeBetweenEvents);
 	    }
 	    
 	    init(numUser, cal, traceFlag);
-	    CloudSim.minTimeBetweenEvents = minTimeBetweenEvents;
+	    ctx.minTimeBetweenEvents = minTimeBetweenEvents;
 	}
 	
 	
@@ -180,13 +203,14 @@ public class CloudSim {
 		Log.printlnConcat("Starting CloudSim version ", CLOUDSIM_VERSION_STRING);
 		try {
 			double clock = run();
+			SimulationContext ctx = SimulationContext.current();
 
-			// reset all static variables
-			cisId = -1;
-			shutdownId = -1;
-			cis = null;
-			calendar = null;
-			traceFlag = false;
+			// reset the state of the simulation context
+			ctx.cisId = -1;
+			ctx.shutdownId = -1;
+			ctx.cis = null;
+			ctx.calendar = null;
+			ctx.traceFlag = false;
 
 			return clock;
 		} catch (IllegalArgumentException e) {
@@ -222,7 +246,8 @@ public class CloudSim {
 	 * @return true, if successful; false otherwise.
 	 */
 	public static void terminateSimulation() {
-		running = false;
+		SimulationContext ctx = SimulationContext.current();
+		ctx.running = false;
 		printMessage("Simulation: Reached termination time.");
 	}
 
@@ -233,10 +258,11 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean terminateSimulation(double time) {
-		if (time <= clock) {
+		SimulationContext ctx = SimulationContext.current();
+		if (time <= ctx.clock) {
 			return false;
 		} else {
-			terminateAt = time;
+			ctx.terminateAt = time;
 		}
 		return true;
 	}
@@ -247,7 +273,27 @@ public class CloudSim {
 	 * @return the minimum time between events.
 	 */
 	public static double getMinTimeBetweenEvents() {
-	    return minTimeBetweenEvents;
+	    return SimulationContext.current().minTimeBetweenEvents;
+	}
+
+	/**
+	 * Profiles the events processed by the entities during the simulation. This method should
+	 * be called after {@link #init(int, Calendar, boolean)}, which detaches any previous profiler,
+	 * and the profiler is detached when the simulation finishes, once the profile is written.
+	 *
+	 * @param profiler the profiler, or null to stop profiling
+	 */
+	public static void setEventProfiler(EventProfiler profiler) {
+		SimulationContext.current().profiler = profiler;
+	}
+
+	/**
+	 * Gets the profiler of the events processed by the entities.
+	 *
+	 * @return the profiler, or null if the simulation is not profiled
+	 */
+	public static EventProfiler getEventProfiler() {
+		return SimulationContext.current().profiler;
 	}
 
 	/**
@@ -258,10 +304,11 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static Calendar getSimulationCalendar() {
+		SimulationContext ctx = SimulationContext.current();
 		// make a new copy
-		Calendar clone = calendar;
-		if (calendar != null) {
-			clone = (Calendar) calendar.clone();
+		Calendar clone = ctx.calendar;
+		if (ctx.calendar != null) {
+			clone = (Calendar) ctx.calendar.clone();
 		}
 
 		return clone;
@@ -275,7 +322,7 @@ public class CloudSim {
 	 * @post $result >= -1
 	 */
 	public static int getCloudInfoServiceEntityId() {
-		return cisId;
+		return SimulationContext.current().cisId;
 	}
 
 	/**
@@ -288,58 +335,38 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static List<Integer> getCloudResourceList() {
-		if (cis == null) {
+		SimulationContext ctx = SimulationContext.current();
+		if (ctx.cis == null) {
 			return null;
 		}
 
-		return cis.getList();
+		return ctx.cis.getList();
 	}
 
 	// ======== SIMULATION METHODS ===============//
 
-	/** The entities. */
-	private static List<SimEntity> entities;
-
-	/** The future event queue. */
-	protected static EventQueue future;
-
-
-	/** 
-         * The current simulation clock.
-         */
-	private static double clock;
-
-	/** Flag for checking if the simulation is running. */
-	private static boolean running;
-
-	/** The entities by name. */
-	private static Map<String, SimEntity> entitiesByName;
-
-	// The predicates used in entity wait methods
-	/** The wait predicates. */
-	private static Map<Integer, Predicate> waitPredicates;
-
-	/** The paused. */
-	private static boolean paused = false;
-
-	/** The pause at. */
-	private static long pauseAt = -1;
-
-	/** The abrupt terminate. */
-	private static boolean abruptTerminate = false;
+	/** The minimum number of cancelled events in the future queue before purging them. */
+	private static final int PURGE_THRESHOLD = 1024;
 
 	/**
 	 * Initialise the simulation for stand alone simulations. This function should be called at the
 	 * start of the simulation.
 	 */
 	protected static void initialize() {
+		SimulationContext ctx = SimulationContext.current();
 		Log.println("Initialising...");
-		entities = new ArrayList<>();
-		entitiesByName = new LinkedHashMap<>();
-		future = new EventQueue();
-		waitPredicates = new HashMap<>();
-		clock = 0;
-		running = false;
+		ctx.entities = new ArrayList<>();
+		ctx.entitiesByName = new LinkedHashMap<>();
+		ctx.future = ctx.futureQueueFactory.get();
+		ctx.futureIndex = new FutureEventIndex();
+		ctx.cancelledEvents = 0;
+		ctx.readyEntities = new int[16];
+		ctx.runningEntities = new int[16];
+		ctx.readyCount = 0;
+		ctx.waitPredicates = new HashMap<>();
+		ctx.clock = 0;
+		ctx.running = false;
+		ctx.profiler = null;
 	}
 
 	// The two standard predicates
@@ -358,7 +385,7 @@ public class CloudSim {
 	 * @return the simulation time
 	 */
 	public static double clock() {
-		return clock;
+		return SimulationContext.current().clock;
 	}
 
 	/**
@@ -367,7 +394,7 @@ public class CloudSim {
 	 * @return The number of entities
 	 */
 	public static int getNumEntities() {
-		return entities.size();
+		return SimulationContext.current().entities.size();
 	}
 
 	/**
@@ -377,7 +404,7 @@ public class CloudSim {
 	 * @return The entity, or if it could not be found
 	 */
 	public static SimEntity getEntity(int id) {
-		return entities.get(id);
+		return SimulationContext.current().entities.get(id);
 	}
 
 	/**
@@ -387,7 +414,7 @@ public class CloudSim {
 	 * @return The entity
 	 */
 	public static SimEntity getEntity(String name) {
-		return entitiesByName.get(name);
+		return SimulationContext.current().entitiesByName.get(name);
 	}
 
 	/**
@@ -397,7 +424,8 @@ public class CloudSim {
 	 * @return The entity's unique id number
 	 */
 	public static int getEntityId(String name) {
-		SimEntity obj = entitiesByName.get(name);
+		SimulationContext ctx = SimulationContext.current();
+		SimEntity obj = ctx.entitiesByName.get(name);
 		if (obj == null) {
 			return NOT_FOUND;
 		} else {
@@ -442,9 +470,10 @@ public class CloudSim {
 	 * @return the entity iterator
 	 */
 	public static List<SimEntity> getEntityList() {
+		SimulationContext ctx = SimulationContext.current();
 		// create a new list to prevent the user from changing
 		// the list of entities used by Simulation
-		List<SimEntity> list = new LinkedList<>(entities);
+		List<SimEntity> list = new LinkedList<>(ctx.entities);
 		return list;
 	}
 
@@ -457,17 +486,18 @@ public class CloudSim {
 	 * @param e The new entity
 	 */
 	public static void addEntity(SimEntity e) {
+		SimulationContext ctx = SimulationContext.current();
 		SimEvent evt;
-		if (running) {
+		if (ctx.running) {
 			// Post an event to make this entity
-			evt = new SimEvent(SimEvent.CREATE, clock, 1, 0, CloudActionTags.BLANK, e);
-			future.addEvent(evt);
+			evt = new SimEvent(SimEvent.CREATE, ctx.clock, 1, 0, CloudActionTags.BLANK, e);
+			addFutureEvent(ctx, evt);
 		}
 		if (e.getId() == -1) { // Only add once!
-			int id = entities.size();
+			int id = ctx.entities.size();
 			e.setId(id);
-			entities.add(e);
-			entitiesByName.put(e.getName(), e);
+			ctx.entities.add(e);
+			ctx.entitiesByName.put(e.getName(), e);
 		}
 	}
 
@@ -490,28 +520,60 @@ public class CloudSim {
 	 * Internal method used to run one tick of the simulation. This method should <b>not</b> be
 	 * called in simulations.
 	 * 
-	 * @return true if there are events to be processed, false if event queue is empty
+	 * @param ctx the context of the simulation
+	 * @param until the time after which the events are not dispatched
+	 * @return true if there are events to be processed, false if event queue is empty or the
+	 * next events are after the given time
 	 */
-	private static boolean runClockTick() {
+	private static boolean runClockTick(SimulationContext ctx, double until) {
+		ClockTickEvent tickEvent = new ClockTickEvent();
+		tickEvent.begin();
+
+		// run the entities that got events in the last tick, in the same order as their ids
+		int count = ctx.readyCount;
+		int[] ready = ctx.readyEntities;
+		ctx.readyEntities = ctx.runningEntities;
+		ctx.runningEntities = ready;
+		ctx.readyCount = 0;
+		if (count > 1) {
+			Arrays.sort(ready, 0, count);
+		}
+
 		SimEntity ent;
-		for (int i = 0; i < entities.size(); i++) {
-			ent = entities.get(i);
+		ctx.runningEntitiesOfTick = true;
+		for (int i = 0; i < count; i++) {
+			ent = ctx.entities.get(ready[i]);
+			ent.ready = false;
 			if (ent.getState() == SimEntity.EntityStatus.RUNNABLE) {
 				ent.run();
 			}
 		}
+		ctx.runningEntitiesOfTick = false;
 
-		if (future.isEmpty()) {
-			running = false;
+		SimEvent first = peekFutureEvent(ctx);
+		if (first == null) {
+			ctx.running = false;
 			printMessage(CloudSim.clock()+": Simulation: No more future events");
 			return false;
 		}
 
-		double clk = future.peek().eventTime();
-		while (!future.isEmpty() && future.peek().eventTime() == clk) {
-			dispatchEvent(future.poll());
+		double clk = first.eventTime();
+		if (clk > until) {
+			return false;
+		}
+		int dispatched = 0;
+		while ((first = peekFutureEvent(ctx)) != null && first.eventTime() == clk) {
+			dispatchEvent(ctx, pollFutureEvent(ctx));
+			dispatched++;
 		}
 
+		if (tickEvent.shouldCommit()) {
+			tickEvent.simulationTime = clk;
+			tickEvent.entitiesRun = count;
+			tickEvent.eventsDispatched = dispatched;
+			tickEvent.futureQueueSize = ctx.future.size();
+			tickEvent.commit();
+		}
 		return true;
 	}
 
@@ -529,9 +591,10 @@ public class CloudSim {
 	 * @param delay the delay
 	 */
 	public static void pause(int srcId, double delay) {
-		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, srcId);
-		future.addEvent(e);
-		entities.get(srcId).setState(SimEntity.EntityStatus.HOLDING);
+		SimulationContext ctx = SimulationContext.current();
+		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, ctx.clock + delay, srcId);
+		addFutureEvent(ctx, e);
+		ctx.entities.get(srcId).setState(SimEntity.EntityStatus.HOLDING);
 	}
 
 	/**
@@ -542,8 +605,10 @@ public class CloudSim {
 	 * @param delay the delay
 	 * @param tag the tag
 	 * @param data the data
+	 * @return the scheduled event, which can be cancelled through {@link #cancel(SimEvent)}
 	 */
-	public static void send(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
+	public static SimEvent send(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
+		SimulationContext ctx = SimulationContext.current();
 		if (delay < 0) {
 			throw new IllegalArgumentException("Send delay can't be negative.");
 		}
@@ -551,8 +616,9 @@ public class CloudSim {
 			throw new RuntimeException("Send delay can't be infinite.");
 		}
 
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, srcId, dstId, tag, data);
-		future.addEvent(e);
+		SimEvent e = new SimEvent(SimEvent.SEND, ctx.clock + delay, srcId, dstId, tag, data);
+		addFutureEvent(ctx, e);
+		return e;
 	}
 
 	/**
@@ -563,14 +629,18 @@ public class CloudSim {
 	 * @param delay the delay
 	 * @param tag the tag
 	 * @param data the data
+	 * @return the scheduled event, which can be cancelled through {@link #cancel(SimEvent)}
 	 */
-	public static void sendFirst(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
+	public static SimEvent sendFirst(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
+		SimulationContext ctx = SimulationContext.current();
 		if (delay < 0) {
 			throw new IllegalArgumentException("Send delay can't be negative.");
 		}
 
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, srcId, dstId, tag, data);
-		future.addEventFirst(e);
+		SimEvent e = new SimEvent(SimEvent.SEND, ctx.clock + delay, srcId, dstId, tag, data);
+		ctx.future.addEventFirst(e);
+		ctx.futureIndex.add(e);
+		return e;
 	}
 
 	/**
@@ -582,73 +652,214 @@ public class CloudSim {
 	 * @param p the p
 	 */
 	public static void wait(int srcId, Predicate p) {
-		entities.get(srcId).setState(SimEntity.EntityStatus.WAITING);
+		SimulationContext ctx = SimulationContext.current();
+		ctx.entities.get(srcId).setState(SimEntity.EntityStatus.WAITING);
 		if (p != SIM_ANY) {
 			// If a predicate has been used store it in order to check it
-			waitPredicates.put(srcId, p);
+			ctx.waitPredicates.put(srcId, p);
 		}
 	}
 
 	/**
 	 * Removes an event from the event queue.
+	 * When the predicate is a {@link PredicateType}, only the events scheduled by the given
+	 * entity with the predicate's tags are inspected, and the one scheduled first is cancelled.
 	 * 
 	 * @param srcId the entity source id
 	 * @param p the p
 	 * @return the sim event
 	 */
 	public static SimEvent cancel(int srcId, Predicate p) {
-		SimEvent ev;
-		Iterator<SimEvent> iter = future.iterator();
-		while (iter.hasNext()) {
-			ev = iter.next();
-			if (ev.getSourceId() == srcId && p.match(ev)) {
-				iter.remove();
-				return ev;
+		SimulationContext ctx = SimulationContext.current();
+		SimEvent ev = null;
+		if (p instanceof PredicateType predicate) {
+			for (CloudSimTags tag : predicate.getTags()) {
+				SimEvent first = ctx.futureIndex.first(srcId, tag);
+				if (first != null && (ev == null || first.getSerial() < ev.getSerial())) {
+					ev = first;
+				}
+			}
+		} else {
+			for (SimEvent event : ctx.future) {
+				if (!event.isCancelled() && event.getSourceId() == srcId && p.match(event)) {
+					ev = event;
+					break;
+				}
 			}
 		}
-		return null;
+
+		if (ev != null) {
+			markCancelled(ctx, ev);
+			purgeCancelledEvents(ctx);
+		}
+		return ev;
 	}
 
 	/**
 	 * Removes all events that match a given predicate from the future event queue returns true if
 	 * at least one event has been cancelled; false otherwise.
+	 * When the predicate is a {@link PredicateType}, it takes time proportional to the number of
+	 * cancelled events, instead of the size of the future event queue.
 	 * 
 	 * @param srcId the entity source id
 	 * @param p the p
 	 * @return true, if successful
 	 */
 	public static boolean cancelAll(int srcId, Predicate p) {
-		SimEvent ev;
-		int previousSize = future.size();
-		Iterator<SimEvent> iter = future.iterator();
-		while (iter.hasNext()) {
-			ev = iter.next();
-			if (ev.getSourceId() == srcId && p.match(ev)) {
-				iter.remove();
+		SimulationContext ctx = SimulationContext.current();
+		int previousCancelled = ctx.cancelledEvents;
+		if (p instanceof PredicateType predicate) {
+			for (CloudSimTags tag : predicate.getTags()) {
+				SimEvent ev;
+				while ((ev = ctx.futureIndex.first(srcId, tag)) != null) {
+					markCancelled(ctx, ev);
+				}
+			}
+		} else {
+			for (SimEvent ev : ctx.future) {
+				if (!ev.isCancelled() && ev.getSourceId() == srcId && p.match(ev)) {
+					markCancelled(ctx, ev);
+				}
 			}
 		}
-		return previousSize < future.size();
+
+		boolean cancelled = ctx.cancelledEvents > previousCancelled;
+		purgeCancelledEvents(ctx);
+		return cancelled;
+	}
+
+	/**
+	 * Cancels an event that has been scheduled but not yet dispatched, such as the one
+	 * returned by {@link SimEntity#schedule(int, double, CloudSimTags, Object)}.
+	 * 
+	 * @param ev the event
+	 * @return true if the event has been cancelled; false if it has already been dispatched
+	 * or cancelled
+	 */
+	public static boolean cancel(SimEvent ev) {
+		SimulationContext ctx = SimulationContext.current();
+		if (ev == null || !ctx.futureIndex.remove(ev)) {
+			return false;
+		}
+		ev.cancel();
+		ctx.cancelledEvents++;
+		purgeCancelledEvents(ctx);
+		return true;
 	}
 
 	//
 	// Private internal methods
 	//
 
+	/**
+	 * Adds an event to the future event queue and to its index.
+	 * 
+	 * @param ctx the context of the simulation
+	 * @param e the event
+	 */
+	private static void addFutureEvent(SimulationContext ctx, SimEvent e) {
+		ctx.future.addEvent(e);
+		ctx.futureIndex.add(e);
+	}
+
+	/**
+	 * Gets the earliest event of the future event queue that has not been cancelled,
+	 * discarding the cancelled events before it.
+	 * 
+	 * @param ctx the context of the simulation
+	 * @return the event, or <tt>null</tt> if there is none
+	 */
+	private static SimEvent peekFutureEvent(SimulationContext ctx) {
+		SimEvent first = ctx.future.peek();
+		while (first != null && first.isCancelled()) {
+			if (ctx.future.poll() == null) {
+				return null;
+			}
+			ctx.cancelledEvents--;
+			first = ctx.future.peek();
+		}
+		return first;
+	}
+
+	/**
+	 * Removes the earliest event from the future event queue, to dispatch it.
+	 * 
+	 * @param ctx the context of the simulation
+	 * @return the event
+	 */
+	private static SimEvent pollFutureEvent(SimulationContext ctx) {
+		SimEvent e = ctx.future.poll();
+		if (e != null) {
+			ctx.futureIndex.remove(e);
+		}
+		return e;
+	}
+
+	/**
+	 * Adds an entity to the ones to run in the next clock tick, if it is not already there.
+	 * 
+	 * @param ctx the context of the simulation
+	 * @param ent the entity
+	 */
+	private static void markReady(SimulationContext ctx, SimEntity ent) {
+		if (ent.ready) {
+			return;
+		}
+		ent.ready = true;
+		if (ctx.readyCount == ctx.readyEntities.length) {
+			ctx.readyEntities = Arrays.copyOf(ctx.readyEntities, ctx.readyCount * 2);
+		}
+		ctx.readyEntities[ctx.readyCount++] = ent.getId();
+	}
+
+	/**
+	 * Marks an event of the future event queue as cancelled, leaving it in the queue.
+	 * 
+	 * @param ctx the context of the simulation
+	 * @param ev the event
+	 */
+	private static void markCancelled(SimulationContext ctx, SimEvent ev) {
+		ctx.futureIndex.remove(ev);
+		ev.cancel();
+		ctx.cancelledEvents++;
+	}
+
+	/**
+	 * Removes the cancelled events from the future event queue when they are at least half of it,
+	 * so that the cost of purging them is amortised over the cancellations.
+	 * 
+	 * @param ctx the context of the simulation
+	 */
+	private static void purgeCancelledEvents(SimulationContext ctx) {
+		if (ctx.cancelledEvents < PURGE_THRESHOLD || ctx.cancelledEvents < ctx.future.size() / 2) {
+			return;
+		}
+
+		Iterator<SimEvent> iter = ctx.future.iterator();
+		while (iter.hasNext()) {
+			if (iter.next().isCancelled()) {
+				iter.remove();
+			}
+		}
+		ctx.cancelledEvents = 0;
+	}
+
 	/**
 	 * Dispatch event to destination entity
 	 * 
+	 * @param ctx the context of the simulation
 	 * @param e the e
 	 */
-	private static void dispatchEvent(SimEvent e) {
+	private static void dispatchEvent(SimulationContext ctx, SimEvent e) {
 		int dstId = e.getDestinationId();
 		int srcId = e.getSourceId();
-		SimEntity destEnt = entities.get(dstId);
+		SimEntity destEnt = ctx.entities.get(dstId);
 
 		// Update the system's clock
-		if (e.eventTime() < clock) {
+		if (e.eventTime() < ctx.clock) {
 			throw new IllegalArgumentException("Past event detected.");
 		}
-		clock = e.eventTime();
+		ctx.clock = e.eventTime();
 
 		// Ok now process it
 		switch (e.getType()) {
@@ -658,16 +869,24 @@ public class CloudSim {
 			}
 			case SimEvent.SEND -> {
                 if (destEnt.getState() == SimEntity.EntityStatus.WAITING) { // NOTE: this branch is never used
-                    Predicate p = waitPredicates.get(dstId);
+                    Predicate p = ctx.waitPredicates.get(dstId);
 
                     if ((p == null) || (p.match(e))) {
                         destEnt.setState(SimEntity.EntityStatus.RUNNABLE);
-                        waitPredicates.remove(dstId);
+                        ctx.waitPredicates.remove(dstId);
                     }
                 }
 				destEnt.getIncomingEvents().add(e);
+				markReady(ctx, destEnt);
+				if (ctx.profiler != null) {
+					ctx.profiler.eventDispatched(destEnt, e, ctx.future.size());
+				}
             }
-			case SimEvent.HOLD_DONE -> entities.get(srcId).setState(SimEntity.EntityStatus.RUNNABLE);
+			case SimEvent.HOLD_DONE -> {
+				SimEntity srcEnt = ctx.entities.get(srcId);
+				srcEnt.setState(SimEntity.EntityStatus.RUNNABLE);
+				markReady(ctx, srcEnt);
+			}
 			default -> {
 			}
 		}
@@ -678,9 +897,10 @@ public class CloudSim {
 	 * simulations.
 	 */
 	public static void runStart() {
-		running = true;
+		SimulationContext ctx = SimulationContext.current();
+		ctx.running = true;
 		// Start all the entities
-		for (SimEntity ent : entities) {
+		for (SimEntity ent : ctx.entities) {
 			ent.startEntity();
 		}
 
@@ -694,7 +914,7 @@ public class CloudSim {
 	 * @return if the simulation is still running, otherwise
 	 */
 	public static boolean running() {
-		return running;
+		return SimulationContext.current().running;
 	}
 
 	/**
@@ -703,8 +923,9 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation() {
-		paused = true;
-		return paused;
+		SimulationContext ctx = SimulationContext.current();
+		ctx.paused = true;
+		return ctx.paused;
 	}
 
 	/**
@@ -714,10 +935,11 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation(long time) {
-		if (time <= clock) {
+		SimulationContext ctx = SimulationContext.current();
+		if (time <= ctx.clock) {
 			return false;
 		} else {
-			pauseAt = time;
+			ctx.pauseAt = time;
 		}
 		return true;
 	}
@@ -728,13 +950,14 @@ public class CloudSim {
 	 * @return if the simulation has been restarted or or otherwise.
 	 */
 	public static boolean resumeSimulation() {
-		paused = false;
+		SimulationContext ctx = SimulationContext.current();
+		ctx.paused = false;
 
-		if (pauseAt <= clock) {
-			pauseAt = -1;
+		if (ctx.pauseAt <= ctx.clock) {
+			ctx.pauseAt = -1;
 		}
 
-		return !paused;
+		return !ctx.paused;
 	}
 
 	/**
@@ -744,29 +967,70 @@ public class CloudSim {
 	 * @return the last clock value
 	 */
 	public static double run() {
-		if (!running) {
+		return runUntil(Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Runs the simulation until a given time, starting it if it is not running yet. The events up
+	 * to that time are processed and the clock is set to that time, but the simulation is left
+	 * running: it can then be saved with {@link #saveCheckpoint(OutputStream)}, or continued with
+	 * {@link #startSimulation()} or another call to this method, e.g. to warm up a simulation
+	 * once and fork several variants of it from a checkpoint. If the simulation finishes before
+	 * that time, it is finished as by {@link #startSimulation()}.
+	 *
+	 * @param time the time until which the simulation runs
+	 * @return the clock, i.e. the given time, or the last clock value if the simulation finished
+	 */
+	public static double runUntil(double time) {
+		SimulationContext ctx = SimulationContext.current();
+		if (!ctx.running) {
 			runStart();
 		}
+		if (!runClockTicks(ctx, time)) {
+			ctx.clock = Math.max(ctx.clock, time);
+			return ctx.clock;
+		}
+
+		double clock = ctx.clock;
+
+		finishSimulation(ctx);
+		runStop();
+
+		return clock;
+	}
+
+	/**
+	 * Runs the clock ticks of the simulation until it finishes or its next events are after a given
+	 * time.
+	 *
+	 * @param ctx the context of the simulation
+	 * @param until the time after which the events are not dispatched
+	 * @return true if the simulation has finished; false if it has reached the given time
+	 */
+	private static boolean runClockTicks(SimulationContext ctx, double until) {
 		while (true) {
-			if (!runClockTick() || abruptTerminate) {
-				break;
+			if (!runClockTick(ctx, until) || ctx.abruptTerminate) {
+				SimEvent next = peekFutureEvent(ctx);
+				return next == null || next.eventTime() <= until || ctx.abruptTerminate;
 			}
 
 			// this block allows termination of simulation at a specific time
-			if (terminateAt > 0.0 && clock >= terminateAt) {
+			if (ctx.terminateAt > 0.0 && ctx.clock >= ctx.terminateAt) {
 				terminateSimulation();
-				clock = terminateAt;
-				break;
+				ctx.clock = ctx.terminateAt;
+				return true;
 			}
 
-			if (pauseAt != -1
-					&& ((!future.isEmpty() && clock <= pauseAt && pauseAt <= future.peek()
-							.eventTime()) || future.isEmpty() && pauseAt <= clock)) {
-				pauseSimulation();
-				clock = pauseAt;
+			if (ctx.pauseAt != -1) {
+				SimEvent next = peekFutureEvent(ctx);
+				if ((next != null && ctx.clock <= ctx.pauseAt && ctx.pauseAt <= next.eventTime())
+						|| next == null && ctx.pauseAt <= ctx.clock) {
+					pauseSimulation();
+					ctx.clock = ctx.pauseAt;
+				}
 			}
 
-			while (paused) {
+			while (ctx.paused) {
 				try {
 					Thread.sleep(100);
 				} catch (InterruptedException e) {
@@ -774,52 +1038,128 @@ public class CloudSim {
 				}
 			}
 		}
+	}
 
-		double clock = clock();
+	/**
+	 * Saves the state of the simulation, e.g. after running it until a given time with
+	 * {@link #runUntil(double)}, so that it can be restored later with
+	 * {@link #restoreCheckpoint(InputStream)}, possibly many times. The checkpoint holds the state of
+	 * the kernel (clock, future and deferred events, entities) and, through the entities and the
+	 * events, all the objects of the simulation, such as hosts, VMs, cloudlets, schedulers,
+	 * provisioners and policies with their histories. It is written with Java serialization,
+	 * compressed, so all these objects must be serializable. The static state of a simulation,
+	 * such as the {@link org.cloudbus.cloudsim.NetworkTopology}, is not saved.
+	 * <p>
+	 * The simulation cannot be saved while its entities are processing events.
+	 *
+	 * @param out where to write the checkpoint, left open
+	 * @throws IOException if the checkpoint cannot be written, e.g. an object of the simulation is
+	 * not serializable
+	 * @throws IllegalStateException if CloudSim has not been initialised or the entities are
+	 * processing events
+	 */
+	public static void saveCheckpoint(OutputStream out) throws IOException {
+		SimulationContext ctx = SimulationContext.current();
+		if (ctx.entities == null) {
+			throw new IllegalStateException("CloudSim has not been initialised.");
+		}
+		if (ctx.runningEntitiesOfTick) {
+			throw new IllegalStateException("The simulation can't be saved while the entities process events.");
+		}
+		SimulationCheckpoint.save(ctx, out);
+	}
 
-		finishSimulation();
-		runStop();
+	/**
+	 * Saves the state of the simulation to a file.
+	 *
+	 * @param file the file of the checkpoint
+	 * @throws IOException if the checkpoint cannot be written
+	 * @see #saveCheckpoint(OutputStream)
+	 */
+	public static void saveCheckpoint(Path file) throws IOException {
+		try (OutputStream out = Files.newOutputStream(file)) {
+			saveCheckpoint(out);
+		}
+	}
 
-		return clock;
+	/**
+	 * Restores a simulation saved by {@link #saveCheckpoint(OutputStream)}, replacing the
+	 * simulation of the {@link SimulationContext} bound to the calling thread, if any. The restored
+	 * simulation is continued with {@link #startSimulation()} or {@link #runUntil(double)}, and its
+	 * entities are found with {@link #getEntity(String)}, e.g. to change the policies of a
+	 * datacenter before continuing. Restoring the same checkpoint in several contexts forks
+	 * independent copies of the simulation, which can run at the same time.
+	 *
+	 * @param in where to read the checkpoint from, left open
+	 * @throws IOException if the checkpoint cannot be read
+	 */
+	public static void restoreCheckpoint(InputStream in) throws IOException {
+		SimulationCheckpoint.restore(SimulationContext.current(), in);
+	}
+
+	/**
+	 * Restores a simulation saved to a file.
+	 *
+	 * @param file the file of the checkpoint
+	 * @throws IOException if the checkpoint cannot be read
+	 * @see #restoreCheckpoint(InputStream)
+	 */
+	public static void restoreCheckpoint(Path file) throws IOException {
+		try (InputStream in = Files.newInputStream(file)) {
+			restoreCheckpoint(in);
+		}
 	}
 
 	/**
 	 * Internal method that allows the entities to terminate. This method should <b>not</b> be used
 	 * in user simulations.
+	 * 
+	 * @param ctx the context of the simulation
 	 */
-	private static void finishSimulation() {
+	private static void finishSimulation(SimulationContext ctx) {
 		// Allow all entities to exit their body method
-		if (!abruptTerminate) {
-			for (SimEntity ent : entities) {
+		if (!ctx.abruptTerminate) {
+			for (SimEntity ent : ctx.entities) {
 				if (ent.getState() != SimEntity.EntityStatus.FINISHED) {
 					ent.run();
 				}
 			}
 		}
 
-		for (SimEntity ent : entities) {
+		for (SimEntity ent : ctx.entities) {
 			ent.shutdownEntity();
 		}
 
-		// reset all static variables
-		// Private data members
-		entities = null;
-		entitiesByName = null;
-		future = null;
-		clock = 0L;
-		running = false;
+		if (ctx.profiler != null) {
+			ctx.profiler.simulationFinished();
+			ctx.profiler = null;
+		}
 
-		waitPredicates = null;
-		paused = false;
-		pauseAt = -1;
-		abruptTerminate = false;
+		// reset the state of the simulation context
+		// Private data members
+		ctx.entities = null;
+		ctx.entitiesByName = null;
+		ctx.future = null;
+		ctx.futureIndex = null;
+		ctx.cancelledEvents = 0;
+		ctx.readyEntities = null;
+		ctx.runningEntities = null;
+		ctx.readyCount = 0;
+		ctx.clock = 0L;
+		ctx.running = false;
+
+		ctx.waitPredicates = null;
+		ctx.paused = false;
+		ctx.pauseAt = -1;
+		ctx.abruptTerminate = false;
 	}
 
 	/**
 	 * Abruptally terminate.
 	 */
 	public static void abruptallyTerminate() {
-		abruptTerminate = true;
+		SimulationContext ctx = SimulationContext.current();
+		ctx.abruptTerminate = true;
 	}
 
 	/**
@@ -837,7 +1177,7 @@ public class CloudSim {
 	 * @return true, if is paused
 	 */
 	public static boolean isPaused() {
-		return paused;
+		return SimulationContext.current().paused;
 	}
 
 }
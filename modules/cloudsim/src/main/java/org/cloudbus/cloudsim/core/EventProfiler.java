@@ -0,0 +1,249 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.Log;
+
+/**
+ * Profiles the events processed by the entities of a simulation. For each class of entity and
+ * each event tag, it records the number of events processed, the wall-clock time spent
+ * processing them, and the largest sizes of the deferred queue of the entity and of the future
+ * event queue when such an event was processed or dispatched.
+ * <p>
+ * The profiler is enabled with {@link CloudSim#setEventProfiler(EventProfiler)} once the
+ * simulation has been initialised. When the simulation finishes, the profile is written to the
+ * files given to the constructor, if any, as a table and as folded stacks which can be turned
+ * into a flame graph, and the profiler is detached from the simulation. Without a profiler, the
+ * kernel only checks its absence for each event.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class EventProfiler {
+
+	/** The statistics of the events of a tag processed by a class of entity. */
+	private static class Entry {
+		final Class<?> entityClass;
+		final CloudSimTags tag;
+		long count;
+		long nanos;
+		int maxDeferredQueueSize;
+		int maxFutureQueueSize;
+
+		Entry(Class<?> entityClass, CloudSimTags tag) {
+			this.entityClass = entityClass;
+			this.tag = tag;
+		}
+	}
+
+	/** The statistics by class of entity and event tag. */
+	private final Map<Class<?>, Map<CloudSimTags, Entry>> entries = new HashMap<>();
+
+	/** The file the table is written to when the simulation finishes, or null. */
+	private final Path tableFile;
+
+	/** The file the folded stacks are written to when the simulation finishes, or null. */
+	private final Path foldedStacksFile;
+
+	/**
+	 * Creates a profiler which keeps the profile in memory only.
+	 */
+	public EventProfiler() {
+		this(null, null);
+	}
+
+	/**
+	 * Creates a profiler which writes the profile when the simulation finishes.
+	 *
+	 * @param tableFile the file of the table, or null
+	 * @param foldedStacksFile the file of the folded stacks, or null
+	 */
+	public EventProfiler(Path tableFile, Path foldedStacksFile) {
+		this.tableFile = tableFile;
+		this.foldedStacksFile = foldedStacksFile;
+	}
+
+	/**
+	 * Records an event dispatched to an entity.
+	 *
+	 * @param ent the destination entity
+	 * @param ev the event
+	 * @param futureQueueSize the size of the future event queue
+	 */
+	void eventDispatched(SimEntity ent, SimEvent ev, int futureQueueSize) {
+		Entry entry = getEntry(ent.getClass(), ev.getTag());
+		entry.maxFutureQueueSize = Math.max(entry.maxFutureQueueSize, futureQueueSize + 1);
+	}
+
+	/**
+	 * Makes an entity process an event, recording the time it takes.
+	 *
+	 * @param ent the entity
+	 * @param ev the event
+	 */
+	void processEvent(SimEntity ent, SimEvent ev) {
+		Entry entry = getEntry(ent.getClass(), ev.getTag());
+		entry.maxDeferredQueueSize = Math.max(entry.maxDeferredQueueSize, ent.getIncomingEvents().size() + 1);
+		long start = System.nanoTime();
+		try {
+			ent.processEvent(ev);
+		} finally {
+			entry.nanos += System.nanoTime() - start;
+			entry.count++;
+		}
+	}
+
+	private Entry getEntry(Class<?> entityClass, CloudSimTags tag) {
+		Map<CloudSimTags, Entry> byTag = entries.computeIfAbsent(entityClass, k -> new HashMap<>());
+		Entry entry = byTag.get(tag);
+		if (entry == null) {
+			entry = new Entry(entityClass, tag);
+			byTag.put(tag, entry);
+		}
+		return entry;
+	}
+
+	private Entry findEntry(Class<? extends SimEntity> entityClass, CloudSimTags tag) {
+		Map<CloudSimTags, Entry> byTag = entries.get(entityClass);
+		return byTag == null ? null : byTag.get(tag);
+	}
+
+	/**
+	 * Gets the number of events of a tag processed by a class of entity.
+	 *
+	 * @param entityClass the class of the entity
+	 * @param tag the tag of the events
+	 * @return the number of events
+	 */
+	public long getEventCount(Class<? extends SimEntity> entityClass, CloudSimTags tag) {
+		Entry entry = findEntry(entityClass, tag);
+		return entry == null ? 0 : entry.count;
+	}
+
+	/**
+	 * Gets the wall-clock time spent by a class of entity processing the events of a tag.
+	 *
+	 * @param entityClass the class of the entity
+	 * @param tag the tag of the events
+	 * @return the processing time, in nanoseconds
+	 */
+	public long getProcessingTime(Class<? extends SimEntity> entityClass, CloudSimTags tag) {
+		Entry entry = findEntry(entityClass, tag);
+		return entry == null ? 0 : entry.nanos;
+	}
+
+	/**
+	 * Gets the largest size of the deferred queue of an entity of a class, including the event,
+	 * when it processed an event of a tag.
+	 *
+	 * @param entityClass the class of the entity
+	 * @param tag the tag of the events
+	 * @return the largest size of the deferred queue
+	 */
+	public int getMaxDeferredQueueSize(Class<? extends SimEntity> entityClass, CloudSimTags tag) {
+		Entry entry = findEntry(entityClass, tag);
+		return entry == null ? 0 : entry.maxDeferredQueueSize;
+	}
+
+	/**
+	 * Gets the largest size of the future event queue, including the event, when an event of a
+	 * tag was dispatched to an entity of a class. The size includes the cancelled events which
+	 * have not been purged yet.
+	 *
+	 * @param entityClass the class of the entity
+	 * @param tag the tag of the events
+	 * @return the largest size of the future event queue
+	 */
+	public int getMaxFutureQueueSize(Class<? extends SimEntity> entityClass, CloudSimTags tag) {
+		Entry entry = findEntry(entityClass, tag);
+		return entry == null ? 0 : entry.maxFutureQueueSize;
+	}
+
+	/**
+	 * Writes the profile as a table, from the most to the least time-consuming class of entity
+	 * and tag.
+	 *
+	 * @param out where to write the table
+	 * @throws IOException if the table cannot be written
+	 */
+	public void writeTable(Appendable out) throws IOException {
+		out.append(String.format(Locale.ROOT, "%-40s %-40s %12s %14s %12s %12s %12s%n",
+				"Entity", "Tag", "Events", "Time (ms)", "Mean (us)", "Max deferred", "Max future"));
+		for (Entry entry : getSortedEntries()) {
+			out.append(String.format(Locale.ROOT, "%-40s %-40s %12d %14.3f %12.3f %12d %12d%n",
+					getEntityName(entry), getTagName(entry), entry.count, entry.nanos / 1e6,
+					entry.count == 0 ? 0 : entry.nanos / 1e3 / entry.count,
+					entry.maxDeferredQueueSize, entry.maxFutureQueueSize));
+		}
+	}
+
+	/**
+	 * Writes the processing times as folded stacks, one line per class of entity and tag of the
+	 * form {@code CloudSim;entity;tag nanoseconds}, which flame graph tools take as input.
+	 *
+	 * @param out where to write the folded stacks
+	 * @throws IOException if the folded stacks cannot be written
+	 */
+	public void writeFoldedStacks(Appendable out) throws IOException {
+		for (Entry entry : getSortedEntries()) {
+			out.append("CloudSim;").append(getEntityName(entry)).append(';').append(getTagName(entry))
+					.append(' ').append(Long.toString(entry.nanos)).append(System.lineSeparator());
+		}
+	}
+
+	/**
+	 * Writes the profile to the files given to the constructor, when the simulation finishes.
+	 */
+	void simulationFinished() {
+		try {
+			if (tableFile != null) {
+				try (Writer out = Files.newBufferedWriter(tableFile)) {
+					writeTable(out);
+				}
+			}
+			if (foldedStacksFile != null) {
+				try (Writer out = Files.newBufferedWriter(foldedStacksFile)) {
+					writeFoldedStacks(out);
+				}
+			}
+		} catch (IOException e) {
+			Log.println("Couldn't write the event profile: " + e.getMessage());
+		}
+	}
+
+	private List<Entry> getSortedEntries() {
+		List<Entry> sorted = new ArrayList<>();
+		for (Map<CloudSimTags, Entry> byTag : entries.values()) {
+			sorted.addAll(byTag.values());
+		}
+		sorted.sort(Comparator.comparingLong((Entry entry) -> entry.nanos).reversed()
+				.thenComparing(EventProfiler::getEntityName)
+				.thenComparing(EventProfiler::getTagName));
+		return sorted;
+	}
+
+	private static String getEntityName(Entry entry) {
+		String name = entry.entityClass.getSimpleName();
+		return name.isEmpty() ? entry.entityClass.getName() : name;
+	}
+
+	private static String getTagName(Entry entry) {
+		return entry.tag == null ? "NONE" : entry.tag.toString();
+	}
+}
@@ -14,13 +14,15 @@ import java.util.Iterator;
 import java.util.PriorityQueue;
 
 /**
- * This class implements the event queue used by {@link CloudSim}.
+ * This class implements the event queue used by {@link CloudSim} as a binary heap.
+ * It is the default {@link FutureQueue} of the simulation and it is also used as the deferred
+ * queue of each {@link SimEntity}.
  *
  * @author Remo Andreoli
  * @since CloudSim Toolkit 7.0
  *
  */
-public class EventQueue extends PriorityQueue<SimEvent> {
+public class EventQueue extends PriorityQueue<SimEvent> implements FutureQueue {
 	/** A incremental number used for event attribute */
 	private long serial = 0;
 
@@ -30,6 +32,7 @@ public class EventQueue extends PriorityQueue<SimEvent> {
 	 * 
 	 * @param newEvent The event to be put in the queue.
 	 */
+	@Override
 	public void addEvent(SimEvent newEvent) {
 		newEvent.setSerial(serial++);
 		this.add(newEvent);
@@ -40,11 +43,17 @@ public class EventQueue extends PriorityQueue<SimEvent> {
 	 * 
 	 * @param newEvent The event to be put in the queue.
 	 */
+	@Override
 	public void addEventFirst(SimEvent newEvent) {
 		newEvent.setSerial(0);
 		this.add(newEvent);
 	}
 
+	@Override
+	public boolean remove(SimEvent event) {
+		return super.remove(event);
+	}
+
 	@Override
 	public SimEvent poll() {
 		if (!CloudSim.running()) {
@@ -0,0 +1,163 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the events of the future queue by source entity and tag, used by {@link CloudSim} to
+ * cancel the events scheduled by an entity without scanning the whole future queue.
+ * The events with the same source and tag are kept in a doubly linked list threaded through the
+ * events themselves, so that adding and removing an event takes constant time and no allocation.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+final class FutureEventIndex {
+
+	/** The chains of each source entity, by tag, indexed by the entity id. */
+	private final List<Map<CloudSimTags, Chain>> sources = new ArrayList<>();
+
+	/**
+	 * Adds an event that has been put in the future queue.
+	 *
+	 * @param event the event
+	 */
+	void add(SimEvent event) {
+		int source = event.getSourceId();
+		if (source < 0) {
+			return;
+		}
+
+		while (sources.size() <= source) {
+			sources.add(null);
+		}
+		Map<CloudSimTags, Chain> chains = sources.get(source);
+		if (chains == null) {
+			chains = new HashMap<>();
+			sources.set(source, chains);
+		}
+		Chain chain = chains.get(event.getTag());
+		if (chain == null) {
+			chain = new Chain();
+			chains.put(event.getTag(), chain);
+		}
+		chain.append(event);
+	}
+
+	/**
+	 * Removes an event, either because it has been dispatched or cancelled.
+	 *
+	 * @param event the event
+	 * @return true if the event was indexed; false otherwise
+	 */
+	boolean remove(SimEvent event) {
+		Chain chain = event.chain;
+		if (chain == null) {
+			return false;
+		}
+		chain.unlink(event);
+		return true;
+	}
+
+	/**
+	 * Gets the first indexed event, in scheduling order, with a given source and tag.
+	 *
+	 * @param source the id of the source entity
+	 * @param tag the tag
+	 * @return the event, or <tt>null</tt> if there is none
+	 */
+	SimEvent first(int source, CloudSimTags tag) {
+		if (source < 0 || source >= sources.size() || sources.get(source) == null) {
+			return null;
+		}
+		Chain chain = sources.get(source).get(tag);
+		return chain == null ? null : chain.first;
+	}
+
+	/**
+	 * Gets the indexed events, each chain in scheduling order, so that adding them again to an
+	 * empty index builds the same chains.
+	 *
+	 * @return the events
+	 */
+	List<SimEvent> getEvents() {
+		List<SimEvent> events = new ArrayList<>();
+		for (Map<CloudSimTags, Chain> chains : sources) {
+			if (chains != null) {
+				for (Chain chain : chains.values()) {
+					for (SimEvent event = chain.first; event != null; event = event.nextInChain) {
+						events.add(event);
+					}
+				}
+			}
+		}
+		return events;
+	}
+
+	/**
+	 * Removes all the events from the index.
+	 */
+	void clear() {
+		for (Map<CloudSimTags, Chain> chains : sources) {
+			if (chains != null) {
+				for (Chain chain : chains.values()) {
+					while (chain.first != null) {
+						chain.unlink(chain.first);
+					}
+				}
+			}
+		}
+		sources.clear();
+	}
+
+	/**
+	 * The events with the same source and tag, in scheduling order.
+	 */
+	static final class Chain {
+
+		/** The first event. */
+		private SimEvent first;
+
+		/** The last event. */
+		private SimEvent last;
+
+		private void append(SimEvent event) {
+			event.chain = this;
+			event.previousInChain = last;
+			event.nextInChain = null;
+			if (last == null) {
+				first = event;
+			} else {
+				last.nextInChain = event;
+			}
+			last = event;
+		}
+
+		private void unlink(SimEvent event) {
+			SimEvent previous = event.previousInChain;
+			SimEvent next = event.nextInChain;
+			if (previous == null) {
+				first = next;
+			} else {
+				previous.nextInChain = next;
+			}
+			if (next == null) {
+				last = previous;
+			} else {
+				next.previousInChain = previous;
+			}
+			event.chain = null;
+			event.previousInChain = null;
+			event.nextInChain = null;
+		}
+	}
+}
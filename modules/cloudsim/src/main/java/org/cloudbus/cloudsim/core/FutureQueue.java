@@ -0,0 +1,84 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.Serializable;
+
+/**
+ * The future event list used by {@link CloudSim} to store the events that have been
+ * scheduled but not yet dispatched. Implementations must return the events in ascending
+ * order of {@link SimEvent#eventTime()}, breaking ties by the serial number assigned when
+ * the event was added (see {@link SimEvent#compareTo(SimEvent)}).
+ *
+ * @see EventQueue
+ * @see CalendarQueue
+ * @see CloudSim#init(int, java.util.Calendar, boolean, java.util.function.Supplier)
+ * @since CloudSim Toolkit 7.0
+ */
+public interface FutureQueue extends Iterable<SimEvent>, Serializable {
+
+	/**
+	 * Adds a new event to the queue. Adding a new event to the queue preserves the temporal order of
+	 * the events in the queue.
+	 *
+	 * @param newEvent The event to be put in the queue.
+	 */
+	void addEvent(SimEvent newEvent);
+
+	/**
+	 * Adds a new event to the head of the queue, i.e., before all the other events
+	 * scheduled at the same time.
+	 *
+	 * @param newEvent The event to be put in the queue.
+	 */
+	void addEventFirst(SimEvent newEvent);
+
+	/**
+	 * Retrieves, but does not remove, the earliest event of the queue.
+	 *
+	 * @return the earliest event, or <tt>null</tt> if the queue is empty
+	 */
+	SimEvent peek();
+
+	/**
+	 * Retrieves and removes the earliest event of the queue. No event is removed while the
+	 * simulation is not running.
+	 *
+	 * @return the earliest event, or <tt>null</tt> if the queue is empty or the simulation is not
+	 * running
+	 */
+	SimEvent poll();
+
+	/**
+	 * Removes a given event from the queue.
+	 *
+	 * @param event the event to remove
+	 * @return true if the event was in the queue; false otherwise
+	 */
+	boolean remove(SimEvent event);
+
+	/**
+	 * Gets the number of events in the queue.
+	 *
+	 * @return the number of events
+	 */
+	int size();
+
+	/**
+	 * Checks if the queue is empty.
+	 *
+	 * @return true if there are no events in the queue; false otherwise
+	 */
+	boolean isEmpty();
+
+	/**
+	 * Removes all the events from the queue.
+	 */
+	void clear();
+}
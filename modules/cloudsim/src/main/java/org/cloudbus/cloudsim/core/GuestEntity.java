@@ -193,6 +193,31 @@ public interface GuestEntity extends CoreAttributes {
         return userId + "-" + vmId;
     }
 
+    /**
+     * Gets the key of the guest entity: the ids of its owner and of the guest,
+     * packed in a long. It identifies the guest like its {@link #getUid() uid},
+     * without building a String.
+     *
+     * @return the key
+     * @since CloudSim Toolkit 7.0
+     */
+    default long getKey() {
+        return getKey(getUserId(), getId());
+    }
+
+    /**
+     * Generate the key of a guest entity.
+     *
+     * @param userId the user id
+     * @param vmId the vm id
+     * @return the key
+     * @see #getKey()
+     * @since CloudSim Toolkit 7.0
+     */
+    static long getKey(int userId, int vmId) {
+        return ((long) userId << 32) | (vmId & 0xffffffffL);
+    }
+
     /** The mips allocation history.
      * @TODO Instead of using a list, this attribute would be
      * a map, where the key can be the history time
@@ -0,0 +1,368 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map whose keys are guest entities, identified by their {@link GuestEntity#getKey() packed user
+ * and guest ids}. Unlike a map keyed by {@link GuestEntity#getUid() UIDs}, it neither builds nor
+ * hashes a String to find the value of a guest, and it does not allocate an entry per guest: the
+ * keys and values are kept in two arrays, with open addressing.
+ * <p/>
+ * The values can not be <tt>null</tt>. The map is not thread-safe.
+ *
+ * @param <V> the type of the values
+ * @since CloudSim Toolkit 7.0
+ */
+public class GuestMap<V> implements Serializable {
+
+	/** The initial number of slots. */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** The keys, at the slots of their values. */
+	private long[] keys;
+
+	/** The values, or <tt>null</tt> for the free slots. */
+	private Object[] values;
+
+	/** The number of values. */
+	private int size;
+
+	/** The number of slots minus one, which is a power of two minus one. */
+	private int mask;
+
+	/** The UID view of this map, created on demand. */
+	private Map<String, V> uidMap;
+
+	/**
+	 * Creates an empty map.
+	 */
+	public GuestMap() {
+		allocate(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Gets the value of a guest.
+	 *
+	 * @param guest the guest
+	 * @return the value, or <tt>null</tt> if there is none
+	 */
+	public V get(GuestEntity guest) {
+		return get(guest.getKey());
+	}
+
+	/**
+	 * Gets the value of a guest.
+	 *
+	 * @param key the {@link GuestEntity#getKey(int, int) key} of the guest
+	 * @return the value, or <tt>null</tt> if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		for (int i = slot(key); values[i] != null; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				return (V) values[i];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether a guest has a value.
+	 *
+	 * @param guest the guest
+	 * @return <tt>true</tt> if the guest has a value
+	 */
+	public boolean containsKey(GuestEntity guest) {
+		return get(guest.getKey()) != null;
+	}
+
+	/**
+	 * Sets the value of a guest.
+	 *
+	 * @param guest the guest
+	 * @param value the value
+	 * @return the previous value, or <tt>null</tt> if there was none
+	 */
+	public V put(GuestEntity guest, V value) {
+		return put(guest.getKey(), value);
+	}
+
+	/**
+	 * Sets the value of a guest.
+	 *
+	 * @param key the {@link GuestEntity#getKey(int, int) key} of the guest
+	 * @param value the value
+	 * @return the previous value, or <tt>null</tt> if there was none
+	 * @throws NullPointerException if the value is <tt>null</tt>
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		if (value == null) {
+			throw new NullPointerException("The value of guest " + key + " is null");
+		}
+		int i = slot(key);
+		for (; values[i] != null; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				V previous = (V) values[i];
+				values[i] = value;
+				return previous;
+			}
+		}
+		keys[i] = key;
+		values[i] = value;
+		if (++size > (mask + 1) / 2) {
+			resize();
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the value of a guest.
+	 *
+	 * @param guest the guest
+	 * @return the removed value, or <tt>null</tt> if there was none
+	 */
+	public V remove(GuestEntity guest) {
+		return remove(guest.getKey());
+	}
+
+	/**
+	 * Removes the value of a guest.
+	 *
+	 * @param key the {@link GuestEntity#getKey(int, int) key} of the guest
+	 * @return the removed value, or <tt>null</tt> if there was none
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		for (int i = slot(key); values[i] != null; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				V previous = (V) values[i];
+				delete(i);
+				return previous;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the number of guests with a value.
+	 *
+	 * @return the size of the map
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks whether no guest has a value.
+	 *
+	 * @return <tt>true</tt> if the map is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes all the values.
+	 */
+	public void clear() {
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	/**
+	 * Gets a view of this map whose keys are the {@link GuestEntity#getUid() UIDs} of the guests,
+	 * for the code written for String-keyed maps. Finding a value in the view parses the UID.
+	 * Removing the entries while iterating over the view is not supported.
+	 *
+	 * @return the UID view
+	 */
+	public Map<String, V> asUidMap() {
+		if (uidMap == null) {
+			uidMap = new UidMap();
+		}
+		return uidMap;
+	}
+
+	/**
+	 * Gets the slot where the search for a key starts.
+	 *
+	 * @param key the key
+	 * @return the slot
+	 */
+	private int slot(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+
+	/**
+	 * Frees a slot, moving back the following keys which would not be found anymore.
+	 *
+	 * @param free the slot
+	 */
+	private void delete(int free) {
+		for (int i = (free + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+			int home = slot(keys[i]);
+			// the key can fill the free slot if it is not between its home slot and its slot
+			if (((i - home) & mask) >= ((i - free) & mask)) {
+				keys[free] = keys[i];
+				values[free] = values[i];
+				free = i;
+			}
+		}
+		values[free] = null;
+		size--;
+	}
+
+	/**
+	 * Doubles the number of slots.
+	 */
+	private void resize() {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(2 * oldValues.length);
+		for (int j = 0; j < oldValues.length; j++) {
+			if (oldValues[j] != null) {
+				int i = slot(oldKeys[j]);
+				while (values[i] != null) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+	/**
+	 * Allocates the slots.
+	 *
+	 * @param capacity the number of slots, a power of two
+	 */
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 * Parses a guest UID, as built by {@link GuestEntity#getUid(int, int)}.
+	 *
+	 * @param uid the UID
+	 * @return the {@link GuestEntity#getKey(int, int) key} of the guest, or <tt>null</tt> if the
+	 *         object is not a UID
+	 */
+	private static Long parseUid(Object uid) {
+		if (!(uid instanceof String s)) {
+			return null;
+		}
+		int separator = s.indexOf('-', 1);
+		if (separator < 0) {
+			return null;
+		}
+		try {
+			return GuestEntity.getKey(Integer.parseInt(s, 0, separator, 10),
+					Integer.parseInt(s, separator + 1, s.length(), 10));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * The view of the map by UID.
+	 */
+	private final class UidMap extends AbstractMap<String, V> implements Serializable {
+
+		@Override
+		public V get(Object uid) {
+			Long key = parseUid(uid);
+			return key == null ? null : GuestMap.this.get(key);
+		}
+
+		@Override
+		public boolean containsKey(Object uid) {
+			return get(uid) != null;
+		}
+
+		@Override
+		public V put(String uid, V value) {
+			Long key = parseUid(uid);
+			if (key == null) {
+				throw new IllegalArgumentException("Invalid guest UID " + uid);
+			}
+			return GuestMap.this.put(key, value);
+		}
+
+		@Override
+		public V remove(Object uid) {
+			Long key = parseUid(uid);
+			return key == null ? null : GuestMap.this.remove(key);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public void clear() {
+			GuestMap.this.clear();
+		}
+
+		@Override
+		public Set<Entry<String, V>> entrySet() {
+			return new AbstractSet<>() {
+				@Override
+				public Iterator<Entry<String, V>> iterator() {
+					return new Iterator<>() {
+						private int next = advance(0);
+
+						private int advance(int i) {
+							while (i < values.length && values[i] == null) {
+								i++;
+							}
+							return i;
+						}
+
+						@Override
+						public boolean hasNext() {
+							return next < values.length;
+						}
+
+						@Override
+						@SuppressWarnings("unchecked")
+						public Entry<String, V> next() {
+							if (!hasNext()) {
+								throw new NoSuchElementException();
+							}
+							long key = keys[next];
+							V value = (V) values[next];
+							next = advance(next + 1);
+							return new SimpleImmutableEntry<>(GuestEntity.getUid((int) (key >> 32), (int) key),
+									value);
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+			};
+		}
+	}
+}
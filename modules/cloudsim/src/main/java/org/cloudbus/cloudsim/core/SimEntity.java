@@ -12,6 +12,7 @@ import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.NetworkTopology;
 import org.cloudbus.cloudsim.core.predicates.Predicate;
 
+import java.io.Serializable;
 import java.util.Iterator;
 
 /**
@@ -31,7 +32,7 @@ import java.util.Iterator;
  * @author Remo Andreoli
  * @since CloudSim Toolkit 1.0
  */
-public abstract class SimEntity implements Cloneable {
+public abstract class SimEntity implements Cloneable, Serializable {
 	/** Entity states */
 	public enum EntityStatus {
 		RUNNABLE,
@@ -45,6 +46,12 @@ public abstract class SimEntity implements Cloneable {
 	private EntityStatus state;
 	protected EventQueue incomingEvents;
 
+	/**
+	 * Indicates if the entity is in the list of entities that {@link CloudSim} runs
+	 * in the next clock tick, i.e., the ones which received events or woke up.
+	 */
+	boolean ready;
+
 	/**
 	 * Creates a new entity.
 	 * 
@@ -149,12 +156,13 @@ public abstract class SimEntity implements Cloneable {
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the scheduled event, or <tt>null</tt> if the simulation is not running
 	 */
-	public void schedule(int dstId, double delay, CloudSimTags tag, Object data) {
+	public SimEvent schedule(int dstId, double delay, CloudSimTags tag, Object data) {
 		if (!CloudSim.running()) {
-			return;
+			return null;
 		}
-		CloudSim.send(id, dstId, delay, tag, data);
+		return CloudSim.send(id, dstId, delay, tag, data);
 	}
 
 	/**
@@ -163,9 +171,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param dstId The unique id number of the destination entity
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
+	 * @return the scheduled event, or <tt>null</tt> if the simulation is not running
 	 */
-	public void schedule(int dstId, double delay, CloudSimTags tag) {
-		schedule(dstId, delay, tag, null);
+	public SimEvent schedule(int dstId, double delay, CloudSimTags tag) {
+		return schedule(dstId, delay, tag, null);
 	}
 
 	/**
@@ -175,9 +184,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the scheduled event, or <tt>null</tt> if the simulation is not running
 	 */
-	public void schedule(String dstName, double delay, CloudSimTags tag, Object data) {
-		schedule(CloudSim.getEntityId(dstName), delay, tag, data);
+	public SimEvent schedule(String dstName, double delay, CloudSimTags tag, Object data) {
+		return schedule(CloudSim.getEntityId(dstName), delay, tag, data);
 	}
 
 	/**
@@ -186,9 +196,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param dstName The name of the port to send the event through
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
+	 * @return the scheduled event, or <tt>null</tt> if the simulation is not running
 	 */
-	public void schedule(String dstName, double delay, CloudSimTags tag) {
-		schedule(dstName, delay, tag, null);
+	public SimEvent schedule(String dstName, double delay, CloudSimTags tag) {
+		return schedule(dstName, delay, tag, null);
 	}
 
 	/**
@@ -197,9 +208,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param dstId The unique id number of the destination entity
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the scheduled event, or <tt>null</tt> if the simulation is not running
 	 */
-	public void scheduleNow(int dstId, CloudSimTags tag, Object data) {
-		schedule(dstId, 0, tag, data);
+	public SimEvent scheduleNow(int dstId, CloudSimTags tag, Object data) {
+		return schedule(dstId, 0, tag, data);
 	}
 
 	/**
@@ -208,9 +220,10 @@ public abstract class SimEntity implements Cloneable {
 	 * 
 	 * @param dstId The unique id number of the destination entity
 	 * @param tag event type.
+	 * @return the scheduled event, or <tt>null</tt> if the simulation is not running
 	 */
-	public void scheduleNow(int dstId, CloudSimTags tag) {
-		schedule(dstId, 0, tag, null);
+	public SimEvent scheduleNow(int dstId, CloudSimTags tag) {
+		return schedule(dstId, 0, tag, null);
 	}
 
 	/**
@@ -220,9 +233,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param dstName The name of the port to send the event through
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the scheduled event, or <tt>null</tt> if the simulation is not running
 	 */
-	public void scheduleNow(String dstName, CloudSimTags tag, Object data) {
-		schedule(CloudSim.getEntityId(dstName), 0, tag, data);
+	public SimEvent scheduleNow(String dstName, CloudSimTags tag, Object data) {
+		return schedule(CloudSim.getEntityId(dstName), 0, tag, data);
 	}
 
 	/**
@@ -231,9 +245,10 @@ public abstract class SimEntity implements Cloneable {
 	 * 
 	 * @param dstName The name of the port to send the event through
 	 * @param tag event type.
+	 * @return the scheduled event, or <tt>null</tt> if the simulation is not running
 	 */
-	public void scheduleNow(String dstName, CloudSimTags tag) {
-		schedule(dstName, 0, tag, null);
+	public SimEvent scheduleNow(String dstName, CloudSimTags tag) {
+		return schedule(dstName, 0, tag, null);
 	}
 
 	/**
@@ -243,12 +258,13 @@ public abstract class SimEntity implements Cloneable {
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the scheduled event, or <tt>null</tt> if the simulation is not running
 	 */
-	public void scheduleFirst(int dstId, double delay, CloudSimTags tag, Object data) {
+	public SimEvent scheduleFirst(int dstId, double delay, CloudSimTags tag, Object data) {
 		if (!CloudSim.running()) {
-			return;
+			return null;
 		}
-		CloudSim.sendFirst(id, dstId, delay, tag, data);
+		return CloudSim.sendFirst(id, dstId, delay, tag, data);
 	}
 
 	/**
@@ -257,9 +273,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param dstId The unique id number of the destination entity
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
+	 * @return the scheduled event, or <tt>null</tt> if the simulation is not running
 	 */
-	public void scheduleFirst(int dstId, double delay, CloudSimTags tag) {
-		scheduleFirst(dstId, delay, tag, null);
+	public SimEvent scheduleFirst(int dstId, double delay, CloudSimTags tag) {
+		return scheduleFirst(dstId, delay, tag, null);
 	}
 
 	/**
@@ -269,9 +286,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the scheduled event, or <tt>null</tt> if the simulation is not running
 	 */
-	public void scheduleFirst(String dstName, double delay, CloudSimTags tag, Object data) {
-		scheduleFirst(CloudSim.getEntityId(dstName), delay, tag, data);
+	public SimEvent scheduleFirst(String dstName, double delay, CloudSimTags tag, Object data) {
+		return scheduleFirst(CloudSim.getEntityId(dstName), delay, tag, data);
 	}
 
 	/**
@@ -281,9 +299,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param dstName The name of the port to send the event through
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
+	 * @return the scheduled event, or <tt>null</tt> if the simulation is not running
 	 */
-	public void scheduleFirst(String dstName, double delay, CloudSimTags tag) {
-		scheduleFirst(dstName, delay, tag, null);
+	public SimEvent scheduleFirst(String dstName, double delay, CloudSimTags tag) {
+		return scheduleFirst(dstName, delay, tag, null);
 	}
 
 	/**
@@ -293,9 +312,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param dstId The unique id number of the destination entity
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the scheduled event, or <tt>null</tt> if the simulation is not running
 	 */
-	public void scheduleFirstNow(int dstId, CloudSimTags tag, Object data) {
-		scheduleFirst(dstId, 0, tag, data);
+	public SimEvent scheduleFirstNow(int dstId, CloudSimTags tag, Object data) {
+		return scheduleFirst(dstId, 0, tag, data);
 	}
 
 	/**
@@ -304,9 +324,10 @@ public abstract class SimEntity implements Cloneable {
 	 * 
 	 * @param dstId The unique id number of the destination entity
 	 * @param tag event type.
+	 * @return the scheduled event, or <tt>null</tt> if the simulation is not running
 	 */
-	public void scheduleFirstNow(int dstId, CloudSimTags tag) {
-		scheduleFirst(dstId, 0, tag, null);
+	public SimEvent scheduleFirstNow(int dstId, CloudSimTags tag) {
+		return scheduleFirst(dstId, 0, tag, null);
 	}
 
 	/**
@@ -316,9 +337,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param dstName The name of the port to send the event through
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the scheduled event, or <tt>null</tt> if the simulation is not running
 	 */
-	public void scheduleFirstNow(String dstName, CloudSimTags tag, Object data) {
-		scheduleFirst(CloudSim.getEntityId(dstName), 0, tag, data);
+	public SimEvent scheduleFirstNow(String dstName, CloudSimTags tag, Object data) {
+		return scheduleFirst(CloudSim.getEntityId(dstName), 0, tag, data);
 	}
 
 	/**
@@ -327,9 +349,10 @@ public abstract class SimEntity implements Cloneable {
 	 * 
 	 * @param dstName The name of the port to send the event through
 	 * @param tag event type.
+	 * @return the scheduled event, or <tt>null</tt> if the simulation is not running
 	 */
-	public void scheduleFirstNow(String dstName, CloudSimTags tag) {
-		scheduleFirst(dstName, 0, tag, null);
+	public SimEvent scheduleFirstNow(String dstName, CloudSimTags tag) {
+		return scheduleFirst(dstName, 0, tag, null);
 	}
 
 	/**
@@ -382,6 +405,20 @@ public abstract class SimEntity implements Cloneable {
 		return CloudSim.cancel(id, p);
 	}
 
+	/**
+	 * Cancels an event scheduled by this entity which has not been dispatched yet.
+	 * 
+	 * @param ev the event, as returned by the schedule methods
+	 * @return true if the event has been cancelled; false otherwise
+	 */
+	public boolean cancelEvent(SimEvent ev) {
+		if (!CloudSim.running() || ev == null || ev.getSourceId() != id) {
+			return false;
+		}
+
+		return CloudSim.cancel(ev);
+	}
+
 	/**
 	 * Gets the first event matching a predicate from the deferred queue, or if none match, wait for
 	 * a matching event to arrive.
@@ -448,9 +485,14 @@ public abstract class SimEntity implements Cloneable {
 	 */
 	public void run() {
 		SimEvent ev =  incomingEvents.poll();
+		EventProfiler profiler = ev == null ? null : SimulationContext.current().profiler;
 
 		while (ev != null) {
-			processEvent(ev);
+			if (profiler == null) {
+				processEvent(ev);
+			} else {
+				profiler.processEvent(this, ev);
+			}
 			if (state != EntityStatus.RUNNABLE) {
 				break;
 			}
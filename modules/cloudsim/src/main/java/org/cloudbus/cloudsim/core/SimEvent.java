@@ -8,13 +8,15 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.io.Serializable;
+
 /**
  * This class represents a simulation event which is passed between the entities in the simulation.
  * 
  * @author Costas Simatos
  * @see SimEntity
  */
-public class SimEvent implements Cloneable, Comparable<SimEvent> {
+public class SimEvent implements Cloneable, Comparable<SimEvent>, Serializable {
 
 	/** Internal event type. **/
 	private final int etype;
@@ -52,6 +54,21 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
          */
 	private long serial = -1;
 
+	/** Indicates if the event has been cancelled while waiting in the future queue. */
+	private boolean cancelled;
+
+	/**
+	 * The chain of the {@link FutureEventIndex} the event belongs to, if it is in the future queue.
+	 * The chains are not serialized, since the index is built again when a simulation is restored.
+	 */
+	transient FutureEventIndex.Chain chain;
+
+	/** The previous event of the {@link #chain}. */
+	transient SimEvent previousInChain;
+
+	/** The next event of the {@link #chain}. */
+	transient SimEvent nextInChain;
+
 	// Internal event types
 
 	public static final int ENULL = 0;
@@ -81,6 +98,18 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 		this.serial = serial;
 	}
 
+	long getSerial() {
+		return serial;
+	}
+
+	/**
+	 * Marks the event as cancelled. The event is left in the future queue and
+	 * discarded when it reaches the head of the queue.
+	 */
+	void cancel() {
+		cancelled = true;
+	}
+
 	/**
 	 * Sets the time that the event was removed from the queue to start service. 
 	 * 
@@ -191,6 +220,16 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 		return tag;
 	}
 
+	/**
+	 * Checks if the event has been cancelled before being dispatched.
+	 *
+	 * @return true if the event has been cancelled; false otherwise
+	 * @see CloudSim#cancel(SimEvent)
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
 	/**
 	 * Get the data passed in this event.
 	 * 
@@ -0,0 +1,148 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+
+/**
+ * The state of a simulation saved by {@link CloudSim#saveCheckpoint(OutputStream)}: the state
+ * of the kernel kept by a {@link SimulationContext} and, through the entities and the events,
+ * all the objects of the simulation. It is written with Java serialization, compressed.
+ * <p>
+ * The index of the future events is not saved, since it links the events together, but the
+ * events it holds are, in the order of its chains, so that it is built again identically.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+final class SimulationCheckpoint implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int cisId;
+	private final int shutdownId;
+	private final CloudInformationService cis;
+	private final boolean traceFlag;
+	private final Calendar calendar;
+	private final double terminateAt;
+	private final double minTimeBetweenEvents;
+	private final List<SimEntity> entities;
+	private final Map<String, SimEntity> entitiesByName;
+	private final FutureQueue future;
+	private final List<SimEvent> indexedEvents;
+	private final int cancelledEvents;
+	private final int[] readyEntities;
+	private final double clock;
+	private final boolean running;
+	private final Map<Integer, Predicate> waitPredicates;
+	private final long pauseAt;
+	private final Map<Class<?>, Object> attributes;
+
+	private SimulationCheckpoint(SimulationContext ctx) {
+		cisId = ctx.cisId;
+		shutdownId = ctx.shutdownId;
+		cis = ctx.cis;
+		traceFlag = ctx.traceFlag;
+		calendar = ctx.calendar;
+		terminateAt = ctx.terminateAt;
+		minTimeBetweenEvents = ctx.minTimeBetweenEvents;
+		entities = ctx.entities;
+		entitiesByName = ctx.entitiesByName;
+		future = ctx.future;
+		indexedEvents = ctx.futureIndex.getEvents();
+		cancelledEvents = ctx.cancelledEvents;
+		readyEntities = Arrays.copyOf(ctx.readyEntities, ctx.readyCount);
+		clock = ctx.clock;
+		running = ctx.running;
+		waitPredicates = ctx.waitPredicates;
+		pauseAt = ctx.pauseAt;
+		attributes = new HashMap<>(ctx.attributes);
+	}
+
+	/**
+	 * Saves the simulation of a context.
+	 *
+	 * @param ctx the context
+	 * @param out where to write the checkpoint, left open
+	 * @throws IOException if an object of the simulation is not serializable or the checkpoint cannot be written
+	 */
+	static void save(SimulationContext ctx, OutputStream out) throws IOException {
+		GZIPOutputStream zip = new GZIPOutputStream(new BufferedOutputStream(out, 1 << 16), 1 << 16);
+		ObjectOutputStream objects = new ObjectOutputStream(zip);
+		objects.writeObject(new SimulationCheckpoint(ctx));
+		objects.flush();
+		zip.finish();
+		zip.flush();
+	}
+
+	/**
+	 * Restores a simulation in a context, replacing its current simulation.
+	 *
+	 * @param ctx the context
+	 * @param in where to read the checkpoint from, left open
+	 * @throws IOException if the checkpoint cannot be read
+	 */
+	static void restore(SimulationContext ctx, InputStream in) throws IOException {
+		SimulationCheckpoint checkpoint;
+		ObjectInputStream objects = new ObjectInputStream(
+				new GZIPInputStream(new BufferedInputStream(in, 1 << 16), 1 << 16));
+		try {
+			checkpoint = (SimulationCheckpoint) objects.readObject();
+		} catch (ClassNotFoundException | ClassCastException e) {
+			throw new InvalidObjectException("Not a simulation checkpoint: " + e.getMessage());
+		}
+		checkpoint.restore(ctx);
+	}
+
+	private void restore(SimulationContext ctx) {
+		ctx.cisId = cisId;
+		ctx.shutdownId = shutdownId;
+		ctx.cis = cis;
+		ctx.traceFlag = traceFlag;
+		ctx.calendar = calendar;
+		ctx.terminateAt = terminateAt;
+		ctx.minTimeBetweenEvents = minTimeBetweenEvents;
+		ctx.entities = entities;
+		ctx.entitiesByName = entitiesByName;
+		ctx.future = future;
+		ctx.futureIndex = new FutureEventIndex();
+		for (SimEvent event : indexedEvents) {
+			ctx.futureIndex.add(event);
+		}
+		ctx.cancelledEvents = cancelledEvents;
+		ctx.readyEntities = Arrays.copyOf(readyEntities, Math.max(16, readyEntities.length));
+		ctx.readyCount = readyEntities.length;
+		ctx.runningEntities = new int[ctx.readyEntities.length];
+		ctx.clock = clock;
+		ctx.running = running;
+		ctx.waitPredicates = waitPredicates;
+		ctx.paused = false;
+		ctx.pauseAt = pauseAt;
+		ctx.abruptTerminate = false;
+		ctx.profiler = null;
+		ctx.attributes.clear();
+		ctx.attributes.putAll(attributes);
+	}
+}
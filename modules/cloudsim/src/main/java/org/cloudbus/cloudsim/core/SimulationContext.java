@@ -0,0 +1,225 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+
+/**
+ * The state of a simulation: its entities, future event queue, clock and so on. The static methods
+ * of {@link CloudSim} act on the context bound to the calling thread, or on a default context
+ * shared by all the other threads, so that existing simulations keep working unchanged.
+ * <p>
+ * Binding a different context to each thread allows running several independent simulations at
+ * the same time in the same JVM, e.g. the replications of an experiment:
+ * <pre>
+ * SimulationContext context = new SimulationContext();
+ * double lastClock = context.call(() -&gt; {
+ *     CloudSim.init(1, Calendar.getInstance(), false);
+ *     // create the datacenters, brokers, VMs and cloudlets
+ *     return CloudSim.startSimulation();
+ * });
+ * </pre>
+ * A context must not be used by two threads at the same time, and the objects of a simulation
+ * (entities, hosts, VMs, cloudlets...) must be created and used only while its context is bound.
+ * Read-only data, such as workload traces, can be shared by the simulations of all the contexts.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public final class SimulationContext {
+
+	/** The context used by the threads without a bound context. */
+	private static final SimulationContext DEFAULT = new SimulationContext();
+
+	/** The context bound to each thread, if any. */
+	private static final ThreadLocal<SimulationContext> BOUND = new ThreadLocal<>();
+
+	/** Whether a context has ever been bound to a thread; until then, {@link #BOUND} is not looked up. */
+	private static volatile boolean bindingUsed;
+
+	/** The per-context state of other classes, by key. */
+	final Map<Class<?>, Object> attributes = new ConcurrentHashMap<>();
+
+	// The state of the simulation kernel, managed by CloudSim
+
+	/** The id of CIS entity. */
+	int cisId = -1;
+
+	/** The id of CloudSimShutdown entity. */
+	int shutdownId = -1;
+
+	/** The CIS object. */
+	CloudInformationService cis;
+
+	/** The trace flag. */
+	boolean traceFlag;
+
+	/** The calendar. */
+	Calendar calendar;
+
+	/** The termination time. */
+	double terminateAt = -1;
+
+	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
+	double minTimeBetweenEvents = 0.01;
+
+	/** The factory of the future event queue, used when the simulation is initialised. */
+	Supplier<? extends FutureQueue> futureQueueFactory = EventQueue::new;
+
+	/** The entities. */
+	List<SimEntity> entities;
+
+	/** The future event queue. */
+	FutureQueue future;
+
+	/** The index of the events of the {@link #future} queue by source entity and tag. */
+	FutureEventIndex futureIndex;
+
+	/**
+	 * The number of cancelled events still in the {@link #future} queue. They are discarded
+	 * when they reach the head of the queue, or purged all at once when they are too many.
+	 */
+	int cancelledEvents;
+
+	/**
+	 * The ids of the entities that have received events, or have been woken up, since the last
+	 * clock tick. Only these entities may have something to process in the next tick.
+	 */
+	int[] readyEntities;
+
+	/** The number of ids in {@link #readyEntities}. */
+	int readyCount;
+
+	/** The array the ready entities of the current tick are moved to, reused across ticks. */
+	int[] runningEntities;
+
+	/** The current simulation clock. */
+	double clock;
+
+	/** Flag for checking if the simulation is running. */
+	boolean running;
+
+	/** The entities by name. */
+	Map<String, SimEntity> entitiesByName;
+
+	/** The predicates used in entity wait methods. */
+	Map<Integer, Predicate> waitPredicates;
+
+	/** The paused. */
+	boolean paused;
+
+	/** The pause at. */
+	long pauseAt = -1;
+
+	/** The abrupt terminate. */
+	boolean abruptTerminate;
+
+	/** Whether the entities are being run by a clock tick, when the simulation cannot be saved. */
+	boolean runningEntitiesOfTick;
+
+	/** The profiler of the events processed by the entities, or null. */
+	EventProfiler profiler;
+
+	/**
+	 * Gets the context the static methods of {@link CloudSim} act on in the calling thread.
+	 *
+	 * @return the context bound to the calling thread, or the default one if there is none
+	 */
+	public static SimulationContext current() {
+		if (bindingUsed) {
+			SimulationContext context = BOUND.get();
+			if (context != null) {
+				return context;
+			}
+		}
+		return DEFAULT;
+	}
+
+	/**
+	 * Runs a task with this context bound to the calling thread. The context previously bound to
+	 * the thread, if any, is restored afterward.
+	 *
+	 * @param task the task, usually a whole simulation
+	 * @param <T> the type of the result of the task
+	 * @return the result of the task
+	 * @throws Exception if the task throws an exception
+	 */
+	public <T> T call(Callable<T> task) throws Exception {
+		SimulationContext previous = BOUND.get();
+		bindingUsed = true;
+		BOUND.set(this);
+		try {
+			return task.call();
+		} finally {
+			if (previous == null) {
+				BOUND.remove();
+			} else {
+				BOUND.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * Runs a task with this context bound to the calling thread. The context previously bound to
+	 * the thread, if any, is restored afterward.
+	 *
+	 * @param task the task, usually a whole simulation
+	 */
+	public void run(Runnable task) {
+		try {
+			call(() -> {
+				task.run();
+				return null;
+			});
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			// a Runnable can only throw unchecked exceptions
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Gets the state a class keeps for each simulation, creating it upon the first access.
+	 * It allows classes with static methods, such as id generators, to keep separate state
+	 * for the simulations of different contexts.
+	 *
+	 * @param type the type of the state, also used as its key
+	 * @param factory creates the state upon the first access
+	 * @param <T> the type of the state
+	 * @return the state of this context
+	 */
+	public <T> T getAttribute(Class<T> type, Supplier<? extends T> factory) {
+		return type.cast(attributes.computeIfAbsent(type, k -> factory.get()));
+	}
+
+	/**
+	 * Checks if the simulation of this context is running.
+	 *
+	 * @return true if the simulation is running; false otherwise
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Gets the simulation time of this context.
+	 *
+	 * @return the simulation time
+	 */
+	public double getClock() {
+		return clock;
+	}
+}
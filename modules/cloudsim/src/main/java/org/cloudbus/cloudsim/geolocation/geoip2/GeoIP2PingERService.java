@@ -174,7 +174,8 @@ public class GeoIP2PingERService extends BaseGeolocationService implements IGeol
                 }
 
                 if (++lineCount % 1000 == 0) {
-                    CustomLog.printf(Level.FINER, "%d ping measurments definitions parsed", lineCount);
+                    int parsed = lineCount;
+                    CustomLog.printLazy(Level.FINER, () -> parsed + " ping measurments definitions parsed");
                 }
             }
         }
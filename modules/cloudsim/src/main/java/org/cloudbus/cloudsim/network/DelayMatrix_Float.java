@@ -8,19 +8,50 @@
 
 package org.cloudbus.cloudsim.network;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 /**
  * This class represents a delay matrix between every pair or nodes
  * inside a network topology, storing every distance between connected nodes.
- * 
+ * <p/>
+ * The shortest delays are computed by running Dijkstra's algorithm from each node over the
+ * links of the graph, which are usually sparse, instead of the O(n<sup>3</sup>)
+ * {@link FloydWarshall_Float}. Up to {@link #MAX_MATRIX_ENTRIES} pairs of nodes, all the rows are
+ * computed in parallel upon creation and stored in {@link #mDelayMatrix}; for larger graphs,
+ * e.g. BRITE topologies with tens of thousands of nodes, the rows are computed upon the first
+ * request and the most recently used ones are cached. Adding a link which shortens the delay
+ * between two nodes updates the matrix incrementally.
+ * <p/>
+ * As with {@link FloydWarshall_Float}, a link without delay does not connect its nodes and the last
+ * link between two nodes replaces the previous ones.
+ *
  * @author Thomas Hohnstein
  * @since CloudSim Toolkit 1.0
  */
 public class DelayMatrix_Float {
 
 	/**
-	 * Matrix holding delay information between any two nodes.
+	 * The maximum number of pairs of nodes whose delays are all computed upon creation, about
+	 * 4000 nodes or 64 MB.
+	 */
+	public static final long MAX_MATRIX_ENTRIES = 1L << 24;
+
+	/**
+	 * The number of rows of the delay matrix cached when they are computed upon request.
+	 */
+	public static final int CACHED_ROWS = 1024;
+
+	/**
+	 * Matrix holding delay information between any two nodes. It is null when the rows are
+	 * computed upon request.
+	 * <p/>
+	 * Each row is an array of its own rather than a slice of a single row-major array: the rows
+	 * are computed in parallel, they are also the unit of the cache when they are computed upon
+	 * request, and the header of a row only adds a few bytes to its floats.
 	 */
 	protected float[][] mDelayMatrix = null;
 
@@ -29,6 +60,21 @@ public class DelayMatrix_Float {
 	 */
 	protected int mTotalNodeNum = 0;
 
+	/** Whether the links only connect their source node to their destination node. */
+	private boolean directed;
+
+	/** The number of links from each node. */
+	private int[] mLinkCount;
+
+	/** The destination nodes of the links from each node. */
+	private int[][] mLinkDestinations;
+
+	/** The delays of the links from each node. */
+	private float[][] mLinkDelays;
+
+	/** The rows computed upon request, by least recent use. */
+	private Map<Integer, float[]> mCachedRows;
+
 	/**
 	 * Private constructor to ensure that only an correct initialized delay-matrix could be created.
 	 */
@@ -37,7 +83,7 @@ public class DelayMatrix_Float {
 
 	/**
 	 * Creates an correctly initialized Float-Delay-Matrix.
-	 * 
+	 *
 	 * @param graph the network topological graph
 	 * @param directed indicates if an directed matrix should be computed (true) or not (false)
 	 */
@@ -52,25 +98,72 @@ public class DelayMatrix_Float {
 
 	/**
          * Gets the delay between two nodes.
-         * 
+         *
 	 * @param srcID the id of the source node
 	 * @param destID the id of the destination node
 	 * @return the delay between the given two nodes
 	 */
 	public float getDelay(int srcID, int destID) {
 		// check the nodeIDs against internal array-boundarys
-		if (srcID > mTotalNodeNum || destID > mTotalNodeNum) {
+		if (srcID < 0 || destID < 0 || srcID >= mTotalNodeNum || destID >= mTotalNodeNum) {
 			throw new ArrayIndexOutOfBoundsException("srcID or destID is higher than highest stored node-ID!");
 		}
 
-		return mDelayMatrix[srcID][destID];
+		if (mDelayMatrix != null) {
+			return mDelayMatrix[srcID][destID];
+		}
+		return getRow(srcID)[destID];
+	}
+
+	/**
+	 * Gets the number of nodes.
+	 *
+	 * @return the number of nodes
+	 */
+	public int getNumberOfNodes() {
+		return mTotalNodeNum;
+	}
+
+	/**
+	 * Adds a link to the topology, updating the delays. If the link shortens the delay between
+	 * its nodes, only the delays of the paths through the link are updated, in O(n<sup>2</sup>)
+	 * instead of computing all the delays again.
+	 *
+	 * @param srcID the id of the source node, which may be a new node
+	 * @param destID the id of the destination node, which may be a new node
+	 * @param delay the delay of the link
+	 */
+	public void addLink(int srcID, int destID, float delay) {
+		if (srcID < 0 || destID < 0) {
+			throw new IllegalArgumentException("Invalid link from " + srcID + " to " + destID);
+		}
+		int nodes = Math.max(mTotalNodeNum, Math.max(srcID, destID) + 1);
+		if (nodes > mTotalNodeNum) {
+			addNodes(nodes);
+		}
+
+		float previous = setLink(srcID, destID, delay);
+		if (!directed) {
+			previous = Math.min(previous, setLink(destID, srcID, delay));
+		}
+
+		if (delay == 0 || delay > previous) { // the delays may increase
+			calculateShortestPath();
+		} else if (mDelayMatrix == null) {
+			mCachedRows.clear();
+		} else {
+			shortenPaths(srcID, destID, delay);
+			if (!directed) {
+				shortenPaths(destID, srcID, delay);
+			}
+		}
 	}
 
 	/**
-	 * Creates all internal necessary network-distance structures from the given graph. 
-         * For similarity, we assume all communication-distances are symmetrical, 
+	 * Creates all internal necessary network-distance structures from the given graph.
+         * For similarity, we assume all communication-distances are symmetrical,
          * thus leading to an undirected network.
-	 * 
+	 *
 	 * @param graph the network topological graph
 	 * @param directed indicates if an directed matrix should be computed (true) or not (false)
 	 */
@@ -78,15 +171,11 @@ public class DelayMatrix_Float {
 
 		// number of nodes inside the network
 		mTotalNodeNum = graph.getNumberOfNodes();
+		this.directed = directed;
 
-		mDelayMatrix = new float[mTotalNodeNum][mTotalNodeNum];
-
-		// cleanup the complete distance-matrix with "0"s
-		for (int row = 0; row < mTotalNodeNum; ++row) {
-			for (int col = 0; col < mTotalNodeNum; ++col) {
-				mDelayMatrix[row][col] = Float.MAX_VALUE;
-			}
-		}
+		mLinkCount = new int[mTotalNodeNum];
+		mLinkDestinations = new int[mTotalNodeNum][];
+		mLinkDelays = new float[mTotalNodeNum][];
 
 		Iterator<TopologicalLink> itr = graph.getLinkIterator();
 
@@ -94,24 +183,228 @@ public class DelayMatrix_Float {
 		while (itr.hasNext()) {
 			edge = itr.next();
 
-			mDelayMatrix[edge.getSrcNodeID()][edge.getDestNodeID()] = edge.getLinkDelay();
+			setLink(edge.getSrcNodeID(), edge.getDestNodeID(), edge.getLinkDelay());
 
 			if (!directed) {
 				// according to aproximity of symmetry to all communication-paths
-				mDelayMatrix[edge.getDestNodeID()][edge.getSrcNodeID()] = edge.getLinkDelay();
+				setLink(edge.getDestNodeID(), edge.getSrcNodeID(), edge.getLinkDelay());
 			}
 
 		}
 	}
 
 	/**
-	 * Calculates the shortest path between all pairs of nodes.
+	 * Calculates the shortest path between all pairs of nodes, or prepares the cache of rows if
+	 * there are too many nodes to store all of them.
 	 */
 	private void calculateShortestPath() {
-		FloydWarshall_Float floyd = new FloydWarshall_Float();
+		int n = mTotalNodeNum;
+		if ((long) n * n > MAX_MATRIX_ENTRIES) {
+			mDelayMatrix = null;
+			mCachedRows = new LinkedHashMap<>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Integer, float[]> eldest) {
+					return size() > CACHED_ROWS;
+				}
+			};
+			return;
+		}
+
+		float[][] matrix = new float[n][n];
+		IntStream.range(0, n).parallel().forEach(src -> calculateRow(src, matrix[src]));
+		mDelayMatrix = matrix;
+		mCachedRows = null;
+	}
 
-		floyd.initialize(mTotalNodeNum);
-		mDelayMatrix = floyd.allPairsShortestPaths(mDelayMatrix);
+	/**
+	 * Gets a row of the delay matrix when the rows are computed upon request.
+	 *
+	 * @param srcID the id of the source node
+	 * @return the delays from the source node
+	 */
+	private float[] getRow(int srcID) {
+		synchronized (mCachedRows) {
+			float[] row = mCachedRows.get(srcID);
+			if (row == null) {
+				row = new float[mTotalNodeNum];
+				calculateRow(srcID, row);
+				mCachedRows.put(srcID, row);
+			}
+			return row;
+		}
+	}
+
+	/**
+	 * Calculates the shortest delays from a node with Dijkstra's algorithm.
+	 *
+	 * @param src the source node
+	 * @param dist the array where the delays to each node are stored
+	 */
+	private void calculateRow(int src, float[] dist) {
+		Arrays.fill(dist, Float.MAX_VALUE);
+		dist[src] = 0;
+
+		// binary heap of the nodes reached, by delay, and the position of each node in the heap
+		int[] heap = new int[mTotalNodeNum];
+		int[] position = new int[mTotalNodeNum];
+		Arrays.fill(position, -1);
+		int size = 0;
+		heap[size] = src;
+		position[src] = size++;
+
+		while (size > 0) {
+			int node = heap[0];
+			position[node] = -2; // settled
+			int last = heap[--size];
+			if (size > 0) {
+				siftDown(heap, position, dist, size, last, 0);
+			}
+
+			int[] destinations = mLinkDestinations[node];
+			float[] delays = mLinkDelays[node];
+			for (int i = 0; i < mLinkCount[node]; i++) {
+				int dest = destinations[i];
+				if (delays[i] == 0 || position[dest] == -2) {
+					continue;
+				}
+				float delay = dist[node] + delays[i];
+				if (delay < dist[dest]) {
+					dist[dest] = delay;
+					if (position[dest] < 0) {
+						position[dest] = size++;
+					}
+					siftUp(heap, position, dist, dest, position[dest]);
+				}
+			}
+		}
+	}
+
+	private static void siftUp(int[] heap, int[] position, float[] dist, int node, int index) {
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (dist[heap[parent]] <= dist[node]) {
+				break;
+			}
+			heap[index] = heap[parent];
+			position[heap[index]] = index;
+			index = parent;
+		}
+		heap[index] = node;
+		position[node] = index;
+	}
+
+	private static void siftDown(int[] heap, int[] position, float[] dist, int size, int node, int index) {
+		while (true) {
+			int child = 2 * index + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && dist[heap[child + 1]] < dist[heap[child]]) {
+				child++;
+			}
+			if (dist[node] <= dist[heap[child]]) {
+				break;
+			}
+			heap[index] = heap[child];
+			position[heap[index]] = index;
+			index = child;
+		}
+		heap[index] = node;
+		position[node] = index;
+	}
+
+	/**
+	 * Updates the delays of the paths which are shorter through a new link, from the delays
+	 * before the link was added.
+	 *
+	 * @param srcID the source node of the link
+	 * @param destID the destination node of the link
+	 * @param delay the delay of the link
+	 */
+	private void shortenPaths(int srcID, int destID, float delay) {
+		int n = mTotalNodeNum;
+		float[] toSrc = new float[n];
+		for (int i = 0; i < n; i++) {
+			toSrc[i] = mDelayMatrix[i][srcID];
+		}
+		float[] fromDest = mDelayMatrix[destID].clone();
+
+		IntStream.range(0, n).parallel().forEach(i -> {
+			if (toSrc[i] == Float.MAX_VALUE) {
+				return;
+			}
+			float throughLink = toSrc[i] + delay;
+			float[] row = mDelayMatrix[i];
+			for (int j = 0; j < n; j++) {
+				if (fromDest[j] != Float.MAX_VALUE && i != j) {
+					float candidate = throughLink + fromDest[j];
+					if (candidate < row[j]) {
+						row[j] = candidate;
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Grows the topology to a given number of nodes, the new nodes being unconnected.
+	 *
+	 * @param nodes the new number of nodes
+	 */
+	private void addNodes(int nodes) {
+		int n = mTotalNodeNum;
+		mLinkCount = Arrays.copyOf(mLinkCount, nodes);
+		mLinkDestinations = Arrays.copyOf(mLinkDestinations, nodes);
+		mLinkDelays = Arrays.copyOf(mLinkDelays, nodes);
+		mTotalNodeNum = nodes;
+
+		if (mDelayMatrix != null && (long) nodes * nodes <= MAX_MATRIX_ENTRIES) {
+			float[][] matrix = new float[nodes][];
+			for (int i = 0; i < nodes; i++) {
+				matrix[i] = new float[nodes];
+				Arrays.fill(matrix[i], Float.MAX_VALUE);
+				if (i < n) {
+					System.arraycopy(mDelayMatrix[i], 0, matrix[i], 0, n);
+				} else {
+					matrix[i][i] = 0;
+				}
+			}
+			mDelayMatrix = matrix;
+		} else {
+			calculateShortestPath();
+		}
+	}
+
+	/**
+	 * Sets the delay of the link from a node to another, replacing the previous link.
+	 *
+	 * @param srcID the source node
+	 * @param destID the destination node
+	 * @param delay the delay of the link
+	 * @return the delay of the previous link, or {@link Float#MAX_VALUE} if there was none
+	 */
+	private float setLink(int srcID, int destID, float delay) {
+		int count = mLinkCount[srcID];
+		if (mLinkDestinations[srcID] == null) {
+			mLinkDestinations[srcID] = new int[4];
+			mLinkDelays[srcID] = new float[4];
+		}
+		int[] destinations = mLinkDestinations[srcID];
+		for (int i = 0; i < count; i++) {
+			if (destinations[i] == destID) {
+				float previous = mLinkDelays[srcID][i];
+				mLinkDelays[srcID][i] = delay;
+				return previous == 0 ? Float.MAX_VALUE : previous;
+			}
+		}
+		if (count == destinations.length) {
+			mLinkDestinations[srcID] = Arrays.copyOf(destinations, 2 * count);
+			mLinkDelays[srcID] = Arrays.copyOf(mLinkDelays[srcID], 2 * count);
+		}
+		mLinkDestinations[srcID][count] = destID;
+		mLinkDelays[srcID][count] = delay;
+		mLinkCount[srcID]++;
+		return Float.MAX_VALUE;
 	}
 
 	@Override
@@ -129,10 +422,11 @@ public class DelayMatrix_Float {
 			buffer.append("\n").append(row);
 
 			for (int col = 0; col < mTotalNodeNum; ++col) {
-				if (mDelayMatrix[row][col] == Float.MAX_VALUE) {
+				float delay = getDelay(row, col);
+				if (delay == Float.MAX_VALUE) {
 					buffer.append("\t" + "-");
 				} else {
-					buffer.append("\t").append(mDelayMatrix[row][col]);
+					buffer.append("\t").append(delay);
 				}
 			}
 		}
@@ -0,0 +1,332 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.core.CloudActionTags;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+/**
+ * FlowNetwork is the flow-level (fluid) model of the network of a {@link NetworkDatacenter}, an
+ * alternative to forwarding each {@link NetworkPacket} hop by hop through the {@link Switch}es.
+ * Each packet sent to another host becomes a flow over the links of its path: the egress of the
+ * sender guest, then the uplinks and downlinks of the switches up to the receiver host.
+ * <p/>
+ * The links are shared by the flows in a max-min fair way, computed by progressive filling: the
+ * rate of all the flows is raised together until a link is saturated, the flows of that link are
+ * frozen at their rate and the others keep rising. The rates are only computed again when a flow
+ * starts or ends, and each flow has one completion event, so that the number of events does not
+ * depend on the number of hops nor on the other flows sharing the links. Once transmitted, a
+ * packet reaches the receiver host after the switching delay of the switches of its path and the
+ * virtualization overhead.
+ * <p/>
+ * As in the packet model, the bandwidths are in bits per second and the data of the packets in
+ * bytes, and each switch is assumed to be connected to a single uplink switch: the paths go
+ * through the first uplink switch of the edge and aggregate switches.
+ *
+ * @see NetworkDatacenter#setFlowLevelNetwork(boolean)
+ * @since CloudSim Toolkit 7.0
+ */
+public class FlowNetwork implements Serializable {
+
+	/** A directed link, shared by the flows going through it. */
+	static class Link implements Serializable {
+		/** The bandwidth of the link. */
+		final double capacity;
+
+		/** The flows going through the link. */
+		final Set<Flow> flows = new LinkedHashSet<>();
+
+		/** The bandwidth not yet given to a flow, while the rates are computed. */
+		double remaining;
+
+		/** The number of flows whose rate is not set yet, while the rates are computed. */
+		int unfrozen;
+
+		/** The last computation of the rates the link was reset for. */
+		int round = -1;
+
+		Link(double capacity) {
+			this.capacity = capacity;
+		}
+	}
+
+	/** A packet being transmitted over the links of its path. */
+	static class Flow implements Serializable {
+		/** The packet transmitted. */
+		final NetworkPacket npkt;
+
+		/** The links of the path of the packet. */
+		final Link[] path;
+
+		/** The time from the end of the transmission to the arrival of the packet at the receiver host. */
+		final double latency;
+
+		/** The bits left to transmit, at {@link #lastUpdate}. */
+		double remaining;
+
+		/** The transmission rate. */
+		double rate;
+
+		/** The time of the last change of rate. */
+		double lastUpdate;
+
+		/** The event of the end of the transmission at the current rate, if the rate is not zero. */
+		SimEvent completion;
+
+		/** The max-min fair rate, while the rates are computed. */
+		double share;
+
+		/** Whether the rate is set, while the rates are computed. */
+		boolean frozen;
+
+		Flow(NetworkPacket npkt, Link[] path, double latency) {
+			this.npkt = npkt;
+			this.path = path;
+			this.latency = latency;
+			remaining = 8.0 * npkt.pkt.data;
+		}
+	}
+
+	/** The datacenter whose network is simulated. */
+	private final NetworkDatacenter dc;
+
+	/** The egress links of the guests. */
+	private final Map<GuestEntity, Link> guestLinks = new HashMap<>();
+
+	/** The uplinks of the switches, keyed by the ids of the switch and the uplink switch. */
+	private final Map<Long, Link> uplinks = new HashMap<>();
+
+	/** The downlinks of the switches, keyed by the ids of the switch and the downlink switch or host. */
+	private final Map<Long, Link> downlinks = new HashMap<>();
+
+	/** The flows being transmitted. */
+	private final Set<Flow> flows = new LinkedHashSet<>();
+
+	/** The number of times the rates have been computed. */
+	private int round;
+
+	/** Whether a computation of the rates is already scheduled at the current time. */
+	private boolean updatePending;
+
+	public FlowNetwork(NetworkDatacenter dc) {
+		this.dc = dc;
+	}
+
+	/**
+	 * Starts the transmission of a packet to another host. The rates of the flows are computed
+	 * again once all the flows starting at the current time have been added.
+	 *
+	 * @param host the host sending the packet
+	 * @param sender the guest sending the packet
+	 * @param npkt the packet
+	 */
+	public void startFlow(NetworkHost host, GuestEntity sender, NetworkPacket npkt) {
+		int receiverGuestId = npkt.getReceiverGuestId();
+		Switch edge = host.getSwitch();
+		Switch receiverEdge = dc.getSwitchList().get(dc.VmToSwitchid.get(receiverGuestId));
+		npkt.receiverHostId = dc.VmtoHostlist.get(receiverGuestId);
+
+		List<Link> path = new ArrayList<>();
+		path.add(guestLinks.computeIfAbsent(sender, k -> new Link(sender.getBw())));
+		double latency = npkt.pkt.accumulatedVirtualizationOverhead + edge.switchingDelay;
+		if (edge != receiverEdge) {
+			Switch aggr = edge.uplinkSwitches.getFirst();
+			path.add(getUplink(edge, aggr));
+			latency += aggr.switchingDelay;
+			if (!aggr.downlinkSwitches.contains(receiverEdge)) {
+				Switch root = aggr.uplinkSwitches.getFirst();
+				Switch receiverAggr = receiverEdge.uplinkSwitches.getFirst();
+				path.add(getUplink(aggr, root));
+				path.add(getDownlink(root, receiverAggr.getId()));
+				latency += root.switchingDelay + receiverAggr.switchingDelay;
+				aggr = receiverAggr;
+			}
+			path.add(getDownlink(aggr, receiverEdge.getId()));
+			latency += receiverEdge.switchingDelay;
+		}
+		path.add(getDownlink(receiverEdge, npkt.receiverHostId));
+
+		Flow flow = new Flow(npkt, path.toArray(new Link[0]), latency);
+		flow.lastUpdate = CloudSim.clock();
+		flows.add(flow);
+		for (Link link : flow.path) {
+			link.flows.add(flow);
+		}
+		requestUpdate();
+	}
+
+	/**
+	 * Forgets the egress link of a guest, and of the guests nested in it, once the guest is
+	 * destroyed or migrated to another host. The flows already started keep their links until
+	 * they complete; the next packets of a migrated guest start from a new link.
+	 *
+	 * @param guest the guest
+	 */
+	public void removeGuest(GuestEntity guest) {
+		guestLinks.remove(guest);
+		if (guest instanceof HostEntity host) {
+			for (GuestEntity nested : host.getGuestList()) {
+				removeGuest(nested);
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of guests whose egress link is kept.
+	 *
+	 * @return the number of guest links
+	 */
+	int getNumberOfGuestLinks() {
+		return guestLinks.size();
+	}
+
+	/**
+	 * Gets the number of flows being transmitted.
+	 *
+	 * @return the number of flows
+	 */
+	public int getNumberOfFlows() {
+		return flows.size();
+	}
+
+	/**
+	 * Processes the completion event of a flow, delivering its packet to the receiver host through
+	 * the receiver edge switch.
+	 *
+	 * @param ev the completion event
+	 */
+	protected void processFlowCompletion(SimEvent ev) {
+		Flow flow = (Flow) ev.getData();
+		if (!flows.remove(flow)) {
+			return;
+		}
+		for (Link link : flow.path) {
+			link.flows.remove(flow);
+		}
+		requestUpdate();
+
+		NetworkPacket npkt = flow.npkt;
+		Switch receiverEdge = dc.getSwitchList().get(dc.VmToSwitchid.get(npkt.getReceiverGuestId()));
+		NetworkHost hs = receiverEdge.getReceiverHost(npkt);
+		int virtOverhead = hs.getTotalVirtualizationOverhead(npkt.getReceiverGuestId(), hs.getGuestList().iterator(), 0);
+		CloudSim.send(dc.getId(), receiverEdge.getId(), flow.latency + virtOverhead,
+				CloudActionTags.NETWORK_PKT_REACHED_HOST, npkt);
+	}
+
+	/**
+	 * Computes the rates of the flows again, after flows have started or ended, and reschedules
+	 * the completion of the flows whose rate has changed.
+	 */
+	protected void updateRates() {
+		updatePending = false;
+		double clock = CloudSim.clock();
+		computeRates();
+		for (Flow flow : flows) {
+			if (flow.share == flow.rate) {
+				continue;
+			}
+			flow.remaining = Math.max(0, flow.remaining - flow.rate * (clock - flow.lastUpdate));
+			flow.lastUpdate = clock;
+			flow.rate = flow.share;
+			CloudSim.cancel(flow.completion);
+			flow.completion = flow.rate > 0
+					? CloudSim.send(dc.getId(), dc.getId(), flow.remaining / flow.rate, CloudActionTags.NETWORK_FLOW_COMPLETED, flow)
+					: null;
+		}
+	}
+
+	/**
+	 * Computes the max-min fair rates of the flows by progressive filling, storing them as the
+	 * {@link Flow#share share} of each flow. The links are saturated in increasing order of
+	 * their fair share, which can only rise as the flows of other links are frozen.
+	 */
+	void computeRates() {
+		round++;
+		List<Link> links = new ArrayList<>();
+		for (Flow flow : flows) {
+			flow.frozen = false;
+			flow.share = 0;
+			for (Link link : flow.path) {
+				if (link.round != round) {
+					link.round = round;
+					link.remaining = link.capacity;
+					link.unfrozen = 0;
+					links.add(link);
+				}
+				link.unfrozen++;
+			}
+		}
+
+		PriorityQueue<LinkShare> queue = new PriorityQueue<>(Math.max(1, links.size()));
+		for (Link link : links) {
+			queue.add(new LinkShare(link, link.remaining / link.unfrozen));
+		}
+		while (!queue.isEmpty()) {
+			LinkShare entry = queue.poll();
+			Link link = entry.link;
+			if (link.unfrozen == 0) {
+				continue;
+			}
+			double share = Math.max(0, link.remaining / link.unfrozen);
+			if (share > entry.share) { // other links have been saturated since
+				queue.add(new LinkShare(link, share));
+				continue;
+			}
+			for (Flow flow : link.flows) {
+				if (!flow.frozen) {
+					flow.frozen = true;
+					flow.share = share;
+					for (Link other : flow.path) {
+						other.remaining -= share;
+						other.unfrozen--;
+					}
+				}
+			}
+		}
+	}
+
+	/** A link in the queue of progressive filling, with its fair share when queued. */
+	private record LinkShare(Link link, double share) implements Comparable<LinkShare> {
+		@Override
+		public int compareTo(LinkShare o) {
+			return Double.compare(share, o.share);
+		}
+	}
+
+	private void requestUpdate() {
+		if (!updatePending) {
+			updatePending = true;
+			CloudSim.send(dc.getId(), dc.getId(), 0, CloudActionTags.NETWORK_FLOW_UPDATE, null);
+		}
+	}
+
+	private Link getUplink(Switch sw, Switch uplinkSwitch) {
+		return uplinks.computeIfAbsent(getLinkKey(sw.getId(), uplinkSwitch.getId()), k -> new Link(sw.uplinkBw));
+	}
+
+	private Link getDownlink(Switch sw, int downlinkId) {
+		return downlinks.computeIfAbsent(getLinkKey(sw.getId(), downlinkId), k -> new Link(sw.downlinkBw));
+	}
+
+	private static long getLinkKey(int id, int nextHopId) {
+		return ((long) id << 32) | (nextHopId & 0xffffffffL);
+	}
+}
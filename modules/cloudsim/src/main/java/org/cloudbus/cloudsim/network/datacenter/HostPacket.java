@@ -10,6 +10,8 @@ package org.cloudbus.cloudsim.network.datacenter;
 
 import org.cloudbus.cloudsim.core.CloudSim;
 
+import java.io.Serializable;
+
 /**
  * HostPacket represents the packet that travels through the virtual network within a Host.
  * It contains information about cloudlets which are communicating.
@@ -26,7 +28,7 @@ import org.cloudbus.cloudsim.core.CloudSim;
  * @since CloudSim Toolkit 1.0
  * //@TODO Attributes should be private
  */
-public class HostPacket {
+public class HostPacket implements Serializable {
 	/**
 	 * Id of the sender guest.
 	 */
@@ -17,6 +17,7 @@ import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.Storage;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.VmAllocationPolicy.GuestMapping;
 import org.cloudbus.cloudsim.core.*;
 
 /**
@@ -70,6 +71,12 @@ public class NetworkDatacenter extends Datacenter {
 	/** Total data transmitted through the network of this datacenter (in bytes) */
 	public double totalDataTransfer = 0;
 
+	/** The flow-level model of the network, or null if the packets are forwarded by the switches. */
+	private FlowNetwork flowNetwork;
+
+	/** Whether the packets sent over the same link in the same tick travel as a single event. */
+	private boolean packetBatching;
+
 	/**
 	 * Instantiates a new NetworkDatacenter object.
 	 * 
@@ -107,6 +114,87 @@ public class NetworkDatacenter extends Datacenter {
 
 	public Map<Integer, Switch> getSwitchList() { return SwitchList; }
 
+	/**
+	 * Sets whether the network is simulated at the flow level, where the packets sent between hosts
+	 * are flows sharing the links in a max-min fair way, instead of the packets being forwarded by
+	 * the switches hop by hop. The flow level needs much fewer events when many packets are in
+	 * flight; the packet level is kept to validate it. It must be set before the simulation starts.
+	 *
+	 * @param flowLevel true to simulate the network at the flow level, false (default) at the packet level
+	 * @see FlowNetwork
+	 */
+	public void setFlowLevelNetwork(boolean flowLevel) {
+		flowNetwork = flowLevel ? new FlowNetwork(this) : null;
+	}
+
+	public boolean isFlowLevelNetwork() { return flowNetwork != null; }
+
+	/**
+	 * Sets whether the packets sent by a host or a switch over the same link in the same tick
+	 * travel as a single {@link PacketBatch} event, instead of one event per packet. Each packet
+	 * keeps its own transmission delay, but the packets of a batch are processed together by the
+	 * receiver, so that the order of packets arriving at the same time from different links may
+	 * differ from the unbatched packet level. This has no effect on the flow-level network.
+	 *
+	 * @param packetBatching true to send the packets in batches, false (default) one by one
+	 */
+	public void setPacketBatching(boolean packetBatching) { this.packetBatching = packetBatching; }
+
+	public boolean isPacketBatching() { return packetBatching; }
+
+	/**
+	 * Gets the flow-level model of the network.
+	 *
+	 * @return the flow network, or null if the network is simulated at the packet level
+	 */
+	public FlowNetwork getFlowNetwork() { return flowNetwork; }
+
+	/**
+	 * Checks if a host has cloudlets to process, or packets waiting in the NICs of the host
+	 * or of its guests, which are sent or consumed upon the next updates of the host.
+	 *
+	 * @param host the host
+	 * @return true if the host has cloudlets or packets to process; false if it is idle
+	 */
+	@Override
+	protected boolean hasCloudletsToProcess(HostEntity host) {
+		return super.hasCloudletsToProcess(host) || hasPacketsToProcess(host);
+	}
+
+	/**
+	 * Checks if a host, or one of its nested guests, has packets waiting in its NICs.
+	 *
+	 * @param host the host
+	 * @return true if there are packets to send or to receive
+	 */
+	private boolean hasPacketsToProcess(HostEntity host) {
+		if (host instanceof NetworkedEntity networkedHost) {
+			for (NetworkInterfaceCard nic : networkedHost.getNics().values()) {
+				if (!nic.getPktsToSend().isEmpty() || !nic.getReceivedPkts().isEmpty()) {
+					return true;
+				}
+			}
+		}
+		for (GuestEntity guest : host.getGuestList()) {
+			if (guest instanceof HostEntity nestedHost && hasPacketsToProcess(nestedHost)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	protected void processOtherEvent(SimEvent ev) {
+		CloudSimTags tag = ev == null ? null : ev.getTag();
+		if (tag == CloudActionTags.NETWORK_FLOW_UPDATE) {
+			flowNetwork.updateRates();
+		} else if (tag == CloudActionTags.NETWORK_FLOW_COMPLETED) {
+			flowNetwork.processFlowCompletion(ev);
+		} else {
+			super.processOtherEvent(ev);
+		}
+	}
+
 	@Override
 	protected void processVmCreate(SimEvent ev, boolean ack) {
 		super.processVmCreate(ev, ack);
@@ -124,6 +212,22 @@ public class NetworkDatacenter extends Datacenter {
 		}
 	}
 
+	@Override
+	protected void processVmDestroy(SimEvent ev, boolean ack) {
+		if (flowNetwork != null) {
+			flowNetwork.removeGuest((GuestEntity) ev.getData());
+		}
+		super.processVmDestroy(ev, ack);
+	}
+
+	@Override
+	protected void processVmMigrate(SimEvent ev, boolean ack) {
+		if (flowNetwork != null && ev.getData() instanceof GuestMapping migrate) {
+			flowNetwork.removeGuest(migrate.vm());
+		}
+		super.processVmMigrate(ev, ack);
+	}
+
 	@Override
 	protected void processCloudletSubmit(SimEvent ev, boolean ack) {
 		super.processCloudletSubmit(ev, ack);
@@ -62,10 +62,9 @@ public class NetworkHost extends Host implements NetworkedEntity {
 	public double updateCloudletsProcessing(double currentTime) {
 		double smallerTime = super.updateCloudletsProcessing(currentTime);
 
-		// send the packets to other hosts/guests
-		sendPackets();
-
-		return smallerTime;
+		// send the packets to other hosts/guests; the guests receiving packets locally are updated
+		// again, and so may be their expected completion times
+		return Math.min(smallerTime, sendPacketsAndUpdateReceivers());
 	}
 
 	/**
@@ -73,6 +72,17 @@ public class NetworkHost extends Host implements NetworkedEntity {
          * VM hosted on other machine.
 	 */
     public void sendPackets() {
+		sendPacketsAndUpdateReceivers();
+	}
+
+	/**
+	 * Sends the packets, as {@link #sendPackets()}, and updates the processing of the guests
+	 * if some packets have been received locally.
+	 *
+	 * @return the expected completion time of the next cloudlet after the update, or
+	 *         {@link Double#MAX_VALUE} if no guest has been updated
+	 */
+	private double sendPacketsAndUpdateReceivers() {
 		boolean flag = false;
 
 		for (NetworkInterfaceCard nic : nics.values()) {
@@ -93,6 +103,13 @@ public class NetworkHost extends Host implements NetworkedEntity {
 		}
 
 		// send to edge switch, since destination guest is hosted on another host
+		NetworkDatacenter dc = (NetworkDatacenter) getDatacenter();
+		List<NetworkPacket> batch = null;
+		double[] batchDelays = null;
+		if (dc.isPacketBatching() && !dc.isFlowLevelNetwork() && !sendPktExternally.isEmpty()) {
+			batch = new ArrayList<>();
+			batchDelays = new double[sendPktExternally.values().stream().mapToInt(List::size).sum()];
+		}
 		for (Integer guestId : sendPktExternally.keySet()) {
 			GuestEntity sender = VmList.getById(this.getGuestList(), guestId);
 			if (sender == null) {
@@ -100,23 +117,44 @@ public class NetworkHost extends Host implements NetworkedEntity {
 			}
 
 			for (NetworkPacket npkt : sendPktExternally.get(guestId)) {
+				dc.totalDataTransfer += npkt.pkt.data;
+
+				// the flow-level network shares the links itself, from the guest to the receiver host
+				if (dc.isFlowLevelNetwork()) {
+					dc.getFlowNetwork().startFlow(this, sender, npkt);
+					continue;
+				}
+
 				// Assumption: no overprovisioning of guest's bandwidth
 				double avband = (double) sender.getBw() / sendPktExternally.get(guestId).size();
 				double delay = (8 * npkt.pkt.data / avband) + npkt.pkt.accumulatedVirtualizationOverhead;
 
-				((NetworkDatacenter) getDatacenter()).totalDataTransfer += npkt.pkt.data;
-
-				// send to switch with delay
-				CloudSim.send(getDatacenter().getId(), sw.getId(), delay, CloudActionTags.NETWORK_PKT_UP, npkt);
+				// send to switch with delay, or with the other packets of the batch
+				if (batch != null) {
+					batchDelays[batch.size()] = delay;
+					batch.add(npkt);
+				} else {
+					CloudSim.send(getDatacenter().getId(), sw.getId(), delay, CloudActionTags.NETWORK_PKT_UP, npkt);
+				}
 			}
 		}
 		sendPktExternally.clear();
 
+		if (batch != null) {
+			PacketBatch pktBatch = new PacketBatch(batch, batchDelays);
+			CloudSim.send(getDatacenter().getId(), sw.getId(), pktBatch.getDelay(), CloudActionTags.NETWORK_PKT_UP, pktBatch);
+		}
+
+		double smallerTime = Double.MAX_VALUE;
 		if (flag) {
 			for (GuestEntity guest : super.getGuestList()) {
-				guest.updateCloudletsProcessing(CloudSim.clock(), getGuestScheduler().getAllocatedMipsForGuest(guest));
+				double time = guest.updateCloudletsProcessing(CloudSim.clock(), getGuestScheduler().getAllocatedMipsForGuest(guest));
+				if (time > 0.0 && time < smallerTime) {
+					smallerTime = time;
+				}
 			}
 		}
+		return smallerTime;
 	}
 
 	public Map<Integer, NetworkInterfaceCard> getNics() {
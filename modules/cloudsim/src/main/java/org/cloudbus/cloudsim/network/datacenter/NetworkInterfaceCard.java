@@ -7,6 +7,7 @@
 
 package org.cloudbus.cloudsim.network.datacenter;
 
+import java.io.Serializable;
 import java.util.*;
 
 /**
@@ -16,7 +17,7 @@ import java.util.*;
  * @author Remo Andreoli
  * @since CloudSim Toolkit 7.0
  */
-public class NetworkInterfaceCard {
+public class NetworkInterfaceCard implements Serializable {
     private final List<HostPacket> pktsToSend;
 
     private final List<HostPacket> receivedPkts;
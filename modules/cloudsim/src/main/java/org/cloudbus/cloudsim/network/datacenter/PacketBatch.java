@@ -0,0 +1,135 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+/**
+ * PacketBatch is a set of {@link NetworkPacket}s sent over the same link in the same tick, e.g.
+ * from a host to its edge switch or from a switch to one of its next hops, which travels as a
+ * single event instead of one event per packet.
+ * <p/>
+ * Each packet keeps its own transmission delay. The event of the batch is scheduled at the
+ * arrival of the first packets; upon receipt, the packets which have arrived are
+ * {@link #poll() polled}, and the batch is {@link #forward(SimEvent) forwarded} to the receiver
+ * again at the arrival of the next ones. When the packets have the same size and bandwidth share,
+ * as in most transfers, a batch needs a single event.
+ *
+ * @see NetworkDatacenter#setPacketBatching(boolean)
+ * @since CloudSim Toolkit 7.0
+ */
+public class PacketBatch implements Serializable {
+	/** The packets, by increasing delay. */
+	private final NetworkPacket[] packets;
+
+	/** The transmission delay of each packet. */
+	private final double[] delays;
+
+	/** The delay of the packets arrived upon the last receipt. */
+	private double arrivedDelay = Double.NEGATIVE_INFINITY;
+
+	/** The index of the first packet which has not been polled. */
+	private int next;
+
+	/**
+	 * Creates a batch of packets, to be sent with its {@link #getDelay() delay}.
+	 *
+	 * @param packets the packets
+	 * @param delays the transmission delay of each packet
+	 */
+	public PacketBatch(List<NetworkPacket> packets, double[] delays) {
+		if (packets.isEmpty()) {
+			throw new IllegalArgumentException("A batch needs at least one packet");
+		}
+		if (packets.size() != delays.length) {
+			throw new IllegalArgumentException("There are " + packets.size() + " packets and " + delays.length + " delays");
+		}
+		this.packets = packets.toArray(new NetworkPacket[0]);
+		this.delays = delays;
+		for (int i = 1; i < delays.length; i++) {
+			if (delays[i] < delays[i - 1]) {
+				sortByDelay();
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Gets the delay the batch is sent with, the delay of its first packets.
+	 *
+	 * @return the delay of the first packets
+	 */
+	public double getDelay() {
+		return delays[0];
+	}
+
+	/**
+	 * Gets the number of packets.
+	 *
+	 * @return the number of packets
+	 */
+	public int size() {
+		return packets.length;
+	}
+
+	/**
+	 * Polls the next packet which has arrived at the receiver.
+	 *
+	 * @return the packet, or null if the remaining packets have not arrived yet
+	 */
+	public NetworkPacket poll() {
+		if (next == packets.length || delays[next] > arrivedDelay) {
+			return null;
+		}
+		return packets[next++];
+	}
+
+	/**
+	 * Receives the batch, to be called when its event is processed before {@link #poll() polling}
+	 * the packets. The event was scheduled at the arrival of the next packet.
+	 */
+	public void receive() {
+		if (next < packets.length) {
+			arrivedDelay = delays[next];
+		}
+	}
+
+	/**
+	 * Forwards the batch to its receiver again at the arrival of the next packets, if some have
+	 * not arrived yet.
+	 *
+	 * @param ev the event of the batch
+	 * @return true if some packets have not arrived yet
+	 */
+	public boolean forward(SimEvent ev) {
+		if (next == packets.length) {
+			return false;
+		}
+		CloudSim.send(ev.getSourceId(), ev.getDestinationId(), delays[next] - arrivedDelay, ev.getTag(), this);
+		return true;
+	}
+
+	private void sortByDelay() {
+		Integer[] order = new Integer[packets.length];
+		Arrays.setAll(order, i -> i);
+		Arrays.sort(order, Comparator.comparingDouble(i -> delays[i]));
+		NetworkPacket[] sortedPackets = packets.clone();
+		double[] sortedDelays = delays.clone();
+		for (int i = 0; i < order.length; i++) {
+			packets[i] = sortedPackets[order[i]];
+			delays[i] = sortedDelays[order[i]];
+		}
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event covering the forwarding of the packets processed by a
+ * {@link Switch} to the next switches and hosts.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@Name("org.cloudbus.cloudsim.PacketForwarding")
+@Label("Packet Forwarding")
+@Category({ "CloudSim", "Network" })
+@Description("Forwards the packets processed by a switch")
+class PacketForwardingEvent extends jdk.jfr.Event {
+
+	@Label("Simulation Time")
+	double simulationTime;
+
+	@Label("Switch Id")
+	int switchId;
+
+	@Label("Packets")
+	int packets;
+
+	@Label("Batches")
+	@Description("The number of packet batches sent, if the datacenter batches the packets")
+	int batches;
+}
@@ -145,7 +145,9 @@ public class Switch extends SimEntity {
 	public void processEvent(SimEvent ev) {
 		CloudSimTags tag = ev.getTag();
 
-        if (tag == CloudActionTags.NETWORK_PKT_UP) {
+        if (ev.getData() instanceof PacketBatch) {
+            processPacketBatch(ev);
+        } else if (tag == CloudActionTags.NETWORK_PKT_UP) {
             processPacketUp(ev);
         } else if (tag == CloudActionTags.NETWORK_PKT_DOWN) {
             processPacketDown(ev);
@@ -165,12 +167,15 @@ public class Switch extends SimEntity {
          * @param ev The packet sent.
          */
 	protected void storePacketInHost(SimEvent ev) {
-		NetworkPacket npkt = (NetworkPacket) ev.getData();
+		storePacketInHost((NetworkPacket) ev.getData());
+	}
 
+	private void storePacketInHost(NetworkPacket npkt) {
 		NetworkHost hs = hostList.get(npkt.receiverHostId);
 		NetworkInterfaceCard nic = hs.getNics().get(npkt.pkt.receiverCloudletId);
 
 		nic.getReceivedPkts().add(npkt.pkt);
+		dc.markHostChanged(hs);
 	}
 
 	/**
@@ -180,10 +185,12 @@ public class Switch extends SimEntity {
 	 * @param ev Event/packet to process
 	 */
 	protected void processPacketDown(SimEvent ev) {
-		NetworkPacket npkt = (NetworkPacket) ev.getData();
+		scheduleForward();
+		routePacketDown((NetworkPacket) ev.getData());
+	}
+
+	private void routePacketDown(NetworkPacket npkt) {
 		int recvVMid = npkt.pkt.receiverGuestId;
-		CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.NETWORK_PKT_FORWARD));
-		schedule(getId(), switchingDelay, CloudActionTags.NETWORK_PKT_FORWARD);
 
 		// packet is to be received by the host
 		if (level == SwitchLevel.EDGE_LEVEL) {
@@ -205,11 +212,12 @@ public class Switch extends SimEntity {
 	 * @param ev Event/packet to process
 	 */
 	protected void processPacketUp(SimEvent ev) {
-		NetworkPacket npkt = (NetworkPacket) ev.getData();
-		int recvVMid = npkt.pkt.receiverGuestId;
+		scheduleForward();
+		routePacketUp((NetworkPacket) ev.getData());
+	}
 
-		CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.NETWORK_PKT_FORWARD));
-		schedule(getId(), switchingDelay, CloudActionTags.NETWORK_PKT_FORWARD);
+	private void routePacketUp(NetworkPacket npkt) {
+		int recvVMid = npkt.pkt.receiverGuestId;
 
 		// Packet is to be sent from an host
 		if (level == SwitchLevel.EDGE_LEVEL) {
@@ -264,6 +272,42 @@ public class Switch extends SimEntity {
 		}
 	}
         
+	/**
+	 * Process a batch of packets coming from the same link, see {@link NetworkDatacenter#setPacketBatching(boolean)}.
+	 * The packets which have arrived are processed as if each had its own event, and the batch
+	 * comes again at the arrival of the next packets.
+	 *
+	 * @param ev Event/batch to process
+	 */
+	protected void processPacketBatch(SimEvent ev) {
+		PacketBatch batch = (PacketBatch) ev.getData();
+		CloudSimTags tag = ev.getTag();
+		if (tag != CloudActionTags.NETWORK_PKT_REACHED_HOST) {
+			scheduleForward();
+		}
+
+		batch.receive();
+		for (NetworkPacket npkt = batch.poll(); npkt != null; npkt = batch.poll()) {
+			if (tag == CloudActionTags.NETWORK_PKT_UP) {
+				routePacketUp(npkt);
+			} else if (tag == CloudActionTags.NETWORK_PKT_DOWN) {
+				routePacketDown(npkt);
+			} else {
+				storePacketInHost(npkt);
+			}
+		}
+		batch.forward(ev);
+	}
+
+	/**
+	 * Forwards the processed packets after the switching delay, postponing a forward already
+	 * scheduled.
+	 */
+	private void scheduleForward() {
+		CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.NETWORK_PKT_FORWARD));
+		schedule(getId(), switchingDelay, CloudActionTags.NETWORK_PKT_FORWARD);
+	}
+
 	/**
 	 * Register a host that is connected to the switch.
 	 * Resource characteristics answer (@TODO: not in use)
@@ -305,16 +349,33 @@ public class Switch extends SimEntity {
 	 *
 	 */
 	protected void forwardProcessedPackets() {
+		PacketForwardingEvent forwardingEvent = new PacketForwardingEvent();
+		forwardingEvent.begin();
+		boolean batching = dc.isPacketBatching();
+		int packets = 0;
+		int batches = 0;
+
 		// Iterate over the packets in the downlink switch
 		for (Entry<Integer, List<NetworkPacket>> es : pktsToDownlinkSwitches.entrySet()) {
 			int receiverSwitchId = es.getKey();
 			List<NetworkPacket> hspktlist = es.getValue();
 			if (!hspktlist.isEmpty()) {
+				packets += hspktlist.size();
 				double avband = (double) downlinkBw / hspktlist.size();
+				double[] delays = batching ? new double[hspktlist.size()] : null;
+				int i = 0;
 				for (NetworkPacket hspkt : hspktlist) {
 					double delay = 8 * hspkt.pkt.data / avband;
 
-					this.send(receiverSwitchId, delay, CloudActionTags.NETWORK_PKT_DOWN, hspkt);
+					if (batching) {
+						delays[i++] = delay;
+					} else {
+						this.send(receiverSwitchId, delay, CloudActionTags.NETWORK_PKT_DOWN, hspkt);
+					}
+				}
+				if (batching) {
+					batches++;
+					sendBatch(receiverSwitchId, CloudActionTags.NETWORK_PKT_DOWN, hspktlist, delays);
 				}
 				hspktlist.clear();
 			}
@@ -324,12 +385,23 @@ public class Switch extends SimEntity {
 			int receiverSwitchId = es.getKey();
 			List<NetworkPacket> hspktlist = es.getValue();
 			if (!hspktlist.isEmpty()) {
+				packets += hspktlist.size();
 				// sharing bandwidth between packets
 				double avband = (double) uplinkBw / hspktlist.size();
+				double[] delays = batching ? new double[hspktlist.size()] : null;
+				int i = 0;
 				for (NetworkPacket hspkt : hspktlist) {
 					double delay = 8 * hspkt.pkt.data / avband;
 
-					this.send(receiverSwitchId, delay, CloudActionTags.NETWORK_PKT_UP, hspkt);
+					if (batching) {
+						delays[i++] = delay;
+					} else {
+						this.send(receiverSwitchId, delay, CloudActionTags.NETWORK_PKT_UP, hspkt);
+					}
+				}
+				if (batching) {
+					batches++;
+					sendBatch(receiverSwitchId, CloudActionTags.NETWORK_PKT_UP, hspktlist, delays);
 				}
 				hspktlist.clear();
 			}
@@ -338,31 +410,74 @@ public class Switch extends SimEntity {
 		for (Entry<Integer, List<NetworkPacket>> es : pktsToHosts.entrySet()) {
 			List<NetworkPacket> hspktlist = es.getValue();
 			if (!hspktlist.isEmpty()) {
+				packets += hspktlist.size();
 				double avband = (double) downlinkBw / hspktlist.size();
+				double[] delays = batching ? new double[hspktlist.size()] : null;
+				int i = 0;
 				for (NetworkPacket npkt : hspktlist) {
-					NetworkHost hs = hostList.get(npkt.receiverHostId);
-
-					if (hs == null) { // nested virtualization edge-case
-						for (NetworkHost candidateHs: hostList.values()) {
-							if (candidateHs.getNics().get(npkt.pkt.receiverCloudletId) != null) {
-								hs = candidateHs;
-
-								// Replace packet host
-								npkt.receiverHostId = hs.getId();
-								break;
-							}
-						}
-					}
+					NetworkHost hs = getReceiverHost(npkt);
 
 					// simulate traversal overhead of the virtualization layers (host -> (nested) receiver guest)
                     assert hs != null;
                     int virtOverhead = hs.getTotalVirtualizationOverhead(npkt.getReceiverGuestId(), hs.getGuestList().iterator(), 0);
 					double delay = (8 * npkt.pkt.data / avband) + virtOverhead;
-					this.send(getId(), delay, CloudActionTags.NETWORK_PKT_REACHED_HOST, npkt);
+					if (batching) {
+						delays[i++] = delay;
+					} else {
+						this.send(getId(), delay, CloudActionTags.NETWORK_PKT_REACHED_HOST, npkt);
+					}
+				}
+				if (batching) {
+					batches++;
+					sendBatch(getId(), CloudActionTags.NETWORK_PKT_REACHED_HOST, hspktlist, delays);
 				}
 				hspktlist.clear();
 			}
 		}
+
+		if (forwardingEvent.shouldCommit()) {
+			forwardingEvent.simulationTime = CloudSim.clock();
+			forwardingEvent.switchId = getId();
+			forwardingEvent.packets = packets;
+			forwardingEvent.batches = batches;
+			forwardingEvent.commit();
+		}
+	}
+
+	/**
+	 * Sends the packets queued for a next hop as a single {@link PacketBatch}.
+	 *
+	 * @param receiverId the id of the next hop, or of this switch for the packets reaching a host
+	 * @param tag the tag of the packets
+	 * @param pkts the packets
+	 * @param delays the transmission delay of each packet
+	 */
+	private void sendBatch(int receiverId, CloudSimTags tag, List<NetworkPacket> pkts, double[] delays) {
+		PacketBatch batch = new PacketBatch(pkts, delays);
+		this.send(receiverId, batch.getDelay(), tag, batch);
+	}
+
+	/**
+	 * Gets the host, connected to this switch, which receives a packet.
+	 *
+	 * @param npkt the packet
+	 * @return the receiver host, or null if it is not connected to this switch
+	 */
+	protected NetworkHost getReceiverHost(NetworkPacket npkt) {
+		NetworkHost hs = hostList.get(npkt.receiverHostId);
+
+		if (hs == null) { // nested virtualization edge-case
+			for (NetworkHost candidateHs: hostList.values()) {
+				if (candidateHs.getNics().get(npkt.pkt.receiverCloudletId) != null) {
+					hs = candidateHs;
+
+					// Replace packet host
+					npkt.receiverHostId = hs.getId();
+					break;
+				}
+			}
+		}
+		return hs;
 	}
 
 	// @TODO: These are never used, remove?
@@ -8,6 +8,8 @@
 
 package org.cloudbus.cloudsim.network.datacenter;
 
+import java.io.Serializable;
+
 /**
  * TaskStage represents various stages a {@link NetworkCloudlet} can have during execution. 
  * Four stage types which are possible: EXECUTION, WAIT_SEND, WAIT_RECV,and FINISH.
@@ -23,7 +25,7 @@ package org.cloudbus.cloudsim.network.datacenter;
  * @author Remo Andreoli
  * @since CloudSim Toolkit 1.0
  */
-public class TaskStage {
+public class TaskStage implements Serializable {
 	public enum TaskStageStatus {
 		EXECUTION,
 		WAIT_SEND,
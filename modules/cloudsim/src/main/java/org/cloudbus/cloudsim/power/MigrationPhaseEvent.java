@@ -0,0 +1,51 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event covering a phase of the optimization of the VM allocation by
+ * {@link PowerVmAllocationPolicyMigrationAbstract}: finding the over-utilized hosts, selecting
+ * the VMs to migrate from them, placing these VMs, or consolidating the under-utilized hosts.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@Name("org.cloudbus.cloudsim.MigrationPhase")
+@Label("Migration Phase")
+@Category({ "CloudSim", "VM Allocation" })
+@Description("A phase of the optimization of the VM allocation")
+class MigrationPhaseEvent extends jdk.jfr.Event {
+
+	static final String OVERLOAD_DETECTION = "Overload detection";
+	static final String VM_SELECTION = "VM selection";
+	static final String VM_PLACEMENT = "VM placement";
+	static final String UNDERLOAD_CONSOLIDATION = "Underload consolidation";
+
+	@Label("Phase")
+	String phase;
+
+	@Label("Simulation Time")
+	double simulationTime;
+
+	@Label("Datacenter Id")
+	@Description("The id of the datacenter of the hosts, or -1 if it is not known")
+	int datacenterId;
+
+	@Label("Inputs")
+	@Description("The number of hosts or VMs the phase starts from")
+	int inputs;
+
+	@Label("Outputs")
+	@Description("The number of hosts, VMs or migrations the phase results in")
+	int outputs;
+}
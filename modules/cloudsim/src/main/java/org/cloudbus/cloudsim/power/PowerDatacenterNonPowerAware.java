@@ -113,6 +113,7 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 				if (time < minTime) {
 					minTime = time;
 				}
+				markHostUpdated(host);
 			}
 
 			setPower(getPower() + timeframePower);
@@ -14,10 +14,13 @@ import java.util.List;
 import org.cloudbus.cloudsim.HostDynamicWorkload;
 import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.VmScheduler;
+import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.PowerHostEntity;
 import org.cloudbus.cloudsim.power.models.PowerModel;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
+import org.cloudbus.cloudsim.util.HistoryStat;
+import org.cloudbus.cloudsim.util.MathUtil;
 
 /**
  * PowerHost class enables simulation of power-aware hosts.
@@ -43,6 +46,42 @@ public class PowerHost extends HostDynamicWorkload implements PowerHostEntity {
 	/** The power model used by the host. */
 	private PowerModel powerModel;
 
+	/**
+	 * The CPU utilization percentage history of the first {@link #historyGuestCount} guests of the
+	 * host, which is kept between calls until the history of one of these guests changes.
+	 */
+	private final double[] history = new double[PowerHostEntity.HISTORY_LENGTH];
+
+	/** The length of the {@link #history}. */
+	private int historyLength;
+
+	/** The number of guests summed in the {@link #history}. */
+	private int historyGuestCount;
+
+	/** The guests summed in the {@link #history}, with the state of their history at that time. */
+	private PowerVm[] historyGuests = new PowerVm[0];
+
+	/** The {@link HistoryStat#getModCount()} of the histories of the {@link #historyGuests}. */
+	private long[] historyModCounts = new long[0];
+
+	/** The MIPS of the {@link #historyGuests}. */
+	private double[] historyGuestMips = new double[0];
+
+	/** The MIPS of the host when the {@link #history} was summed. */
+	private double historyHostMips;
+
+	/** The history of all the guests, when some were added after the {@link #history} was summed. */
+	private final double[] extendedHistory = new double[PowerHostEntity.HISTORY_LENGTH];
+
+	/** The length of the {@link #extendedHistory}. */
+	private int extendedHistoryLength;
+
+	/** The MAD of the {@link #history}, or NaN if it has not been computed yet. */
+	private double historyMad = Double.NaN;
+
+	/** The IQR of the {@link #history}, or NaN if it has not been computed yet. */
+	private double historyIqr = Double.NaN;
+
 	/**
 	 * Instantiates a new PowerHost.
 	 * 
@@ -117,10 +156,175 @@ public class PowerHost extends HostDynamicWorkload implements PowerHostEntity {
 	 * @return the host CPU utilization percentage history
 	 */
 	public double[] getUtilizationHistory() {
-		double[] utilizationHistory = new double[PowerHostEntity.HISTORY_LENGTH];
+		return Arrays.copyOf(updateUtilizationHistory(), getUtilizationHistoryLength());
+	}
+
+	/**
+	 * Gets the length of the host CPU utilization percentage history.
+	 *
+	 * @return the number of values of the history
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public int getUtilizationHistoryLength() {
+		return updateUtilizationHistory() == history ? historyLength : extendedHistoryLength;
+	}
+
+	/**
+	 * Gets the length of the host CPU utilization percentage history without its trailing zeros.
+	 *
+	 * @return the position following the last value different from zero
+	 * @see MathUtil#countNonZeroBeginning(double[])
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public int getUtilizationHistoryTrimmedLength() {
+		double[] utilizationHistory = updateUtilizationHistory();
+		int i = utilizationHistory == history ? historyLength : extendedHistoryLength;
+		while (i > 0 && utilizationHistory[i - 1] == 0) {
+			i--;
+		}
+		return i;
+	}
+
+	/**
+	 * Gets a value of the host CPU utilization percentage history, without copying the history.
+	 *
+	 * @param index the position of the value, as in {@link #getUtilizationHistory()}
+	 * @return the CPU utilization percentage
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public double getUtilizationHistoryValue(int index) {
+		if (index < 0 || index >= getUtilizationHistoryLength()) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of " + getUtilizationHistoryLength());
+		}
+		return updateUtilizationHistory()[index];
+	}
+
+	/**
+	 * Gets the Median Absolute Deviation (MAD) of the host CPU utilization percentage history. It
+	 * is kept until the history changes.
+	 *
+	 * @return the MAD of the history
+	 * @see MathUtil#mad(double[])
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public double getUtilizationMad() {
+		if (updateUtilizationHistory() != history) {
+			return MathUtil.mad(Arrays.copyOf(extendedHistory, extendedHistoryLength));
+		}
+		if (Double.isNaN(historyMad)) {
+			historyMad = MathUtil.mad(Arrays.copyOf(history, historyLength));
+		}
+		return historyMad;
+	}
+
+	/**
+	 * Gets the Interquartile Range (IQR) of the host CPU utilization percentage history. It is kept
+	 * until the history changes.
+	 *
+	 * @return the IQR of the history
+	 * @see MathUtil#iqr(double[])
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public double getUtilizationIqr() {
+		if (updateUtilizationHistory() != history) {
+			return MathUtil.iqr(Arrays.copyOf(extendedHistory, extendedHistoryLength));
+		}
+		if (Double.isNaN(historyIqr)) {
+			historyIqr = MathUtil.iqr(Arrays.copyOf(history, historyLength));
+		}
+		return historyIqr;
+	}
+
+	/**
+	 * Sums the CPU utilization percentage history the host would have with other guests, e.g. the
+	 * guests a policy plans to leave on it, without changing the host. When the guests start with
+	 * the current guests of the host, only the other ones are added to its history.
+	 *
+	 * @param guests the guests
+	 * @param utilizationHistory the array where the history is written, of length
+	 *        {@link PowerHostEntity#HISTORY_LENGTH}
+	 * @return the length of the history
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public int getUtilizationHistory(List<? extends GuestEntity> guests, double[] utilizationHistory) {
+		updateUtilizationHistory();
+		boolean prefix = historyGuestCount <= guests.size();
+		for (int i = 0; prefix && i < historyGuestCount; i++) {
+			prefix = guests.get(i) == historyGuests[i];
+		}
+		if (!prefix) {
+			Arrays.fill(utilizationHistory, 0);
+			return sumUtilizationHistory(utilizationHistory, 0, guests, getTotalMips());
+		}
+		System.arraycopy(history, 0, utilizationHistory, 0, history.length);
+		return Math.max(historyLength,
+				sumUtilizationHistory(utilizationHistory, historyGuestCount, guests, getTotalMips()));
+	}
+
+	/**
+	 * Brings the host CPU utilization percentage history up to date. The history is the sum of the
+	 * histories of the guests, weighted by their share of the host MIPS, and it is only summed
+	 * again when the history of a guest changes or a guest is removed. The guests added since then,
+	 * e.g. when a policy checks whether a VM fits in the host, are added to a copy of it, in the same
+	 * order as a full sum.
+	 *
+	 * @return the {@link #history}, or the {@link #extendedHistory} if guests were added since it
+	 *         was summed
+	 */
+	private double[] updateUtilizationHistory() {
+		List<PowerVm> guests = getGuestList();
 		double hostMips = getTotalMips();
+		boolean valid = hostMips == historyHostMips && historyGuestCount <= guests.size();
+		for (int i = 0; valid && i < historyGuestCount; i++) {
+			PowerVm vm = guests.get(i);
+			valid = vm == historyGuests[i]
+					&& vm.getUtilizationHistory().getModCount() == historyModCounts[i]
+					&& vm.getMips() == historyGuestMips[i];
+		}
+
+		if (!valid) {
+			Arrays.fill(history, 0);
+			historyLength = sumUtilizationHistory(history, 0, guests, hostMips);
+			historyHostMips = hostMips;
+			historyGuestCount = guests.size();
+			if (historyGuests.length < historyGuestCount) {
+				historyGuests = new PowerVm[historyGuestCount];
+				historyModCounts = new long[historyGuestCount];
+				historyGuestMips = new double[historyGuestCount];
+			}
+			for (int i = 0; i < historyGuestCount; i++) {
+				PowerVm vm = guests.get(i);
+				historyGuests[i] = vm;
+				historyModCounts[i] = vm.getUtilizationHistory().getModCount();
+				historyGuestMips[i] = vm.getMips();
+			}
+			historyMad = Double.NaN;
+			historyIqr = Double.NaN;
+		}
+		if (historyGuestCount == guests.size()) {
+			return history;
+		}
+
+		System.arraycopy(history, 0, extendedHistory, 0, history.length);
+		extendedHistoryLength = Math.max(historyLength,
+				sumUtilizationHistory(extendedHistory, historyGuestCount, guests, hostMips));
+		return extendedHistory;
+	}
+
+	/**
+	 * Adds the CPU utilization percentage histories of guests to a host history.
+	 *
+	 * @param utilizationHistory the host history
+	 * @param from the position of the first guest to add
+	 * @param guests the guests of the host
+	 * @param hostMips the MIPS of the host
+	 * @return the length of the longest history added
+	 */
+	private static int sumUtilizationHistory(double[] utilizationHistory, int from,
+			List<? extends GuestEntity> guests, double hostMips) {
 		int maxlen = 0;
-		for (PowerVm vm : this.<PowerVm>getGuestList()) {
+		for (int j = from; j < guests.size(); j++) {
+			PowerVm vm = (PowerVm) guests.get(j);
 			double guestMips = vm.getMips();
 			int i = 0;
 			for (double u : vm.getUtilizationHistory()) {
@@ -129,6 +333,6 @@ public class PowerHost extends HostDynamicWorkload implements PowerHostEntity {
 			if (i > maxlen)
 				maxlen = i;
 		}
-		return Arrays.copyOf(utilizationHistory, maxlen);
+		return maxlen;
 	}
 }
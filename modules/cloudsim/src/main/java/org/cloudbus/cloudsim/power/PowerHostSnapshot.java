@@ -0,0 +1,352 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.VmScheduler;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.PowerHostEntity;
+import org.cloudbus.cloudsim.util.MathUtil;
+
+/**
+ * A what-if view of a {@link PowerHost}: the guests it would have after creating or destroying
+ * some guests, and the capacity and CPU utilization history that would follow. The changes are
+ * only counted, the host, its provisioners and its scheduler are not modified, so that a VM
+ * allocation policy can plan migrations without undoing them afterwards.
+ * <p/>
+ * Until a guest is created or destroyed, the snapshot reads the host directly. A snapshot is only
+ * valid while the host is not modified.
+ * <p/>
+ * The hosts no longer see the VMs tentatively placed on them. In the releases which planned on the
+ * hosts themselves, these placements grew the maps of the time-shared VM scheduler, which changed
+ * the order it spreads the MIPS of the VMs over the PEs in. That order now only depends on the VMs
+ * really created on the host. The total MIPS allocated to each VM are the same, but when the VMs
+ * keep running over several optimizations, the different PEs may lead to different placements
+ * later on, hence to different migrations and energy consumption.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class PowerHostSnapshot {
+
+	/**
+	 * The resources reserved for a guest created in the snapshot.
+	 *
+	 * @param mips the allocated MIPS
+	 * @param ram the allocated RAM
+	 * @param bw the allocated BW
+	 */
+	private record Reservation(double mips, int ram, long bw) {
+	}
+
+	/** The host. */
+	private final PowerHost host;
+
+	/** The guests, or <tt>null</tt> while they are the guests of the host. */
+	private List<GuestEntity> guestList;
+
+	/** The resources reserved for the guests created in the snapshot. */
+	private Map<GuestEntity, Reservation> reservations;
+
+	/** The MIPS reserved for the created guests, minus the MIPS of the destroyed ones. */
+	private double reservedMips;
+
+	/** The RAM reserved for the created guests, minus the RAM of the destroyed ones. */
+	private int reservedRam;
+
+	/** The BW reserved for the created guests, minus the BW of the destroyed ones. */
+	private long reservedBw;
+
+	/** The storage reserved for the created guests, minus the storage of the destroyed ones. */
+	private long reservedStorage;
+
+	/** The CPU utilization percentage history of the guests, summed on demand. */
+	private double[] utilizationHistory;
+
+	/** The length of the {@link #utilizationHistory}, or -1 if it has to be summed again. */
+	private int utilizationHistoryLength = -1;
+
+	/**
+	 * Creates a snapshot of a host, with its current guests.
+	 *
+	 * @param host the host
+	 */
+	public PowerHostSnapshot(PowerHost host) {
+		this.host = host;
+	}
+
+	/**
+	 * Creates a copy of a snapshot, which can be changed independently.
+	 *
+	 * @param snapshot the snapshot
+	 */
+	public PowerHostSnapshot(PowerHostSnapshot snapshot) {
+		host = snapshot.host;
+		if (snapshot.guestList != null) {
+			guestList = new ArrayList<>(snapshot.guestList);
+			reservations = new HashMap<>(snapshot.reservations);
+		}
+		reservedMips = snapshot.reservedMips;
+		reservedRam = snapshot.reservedRam;
+		reservedBw = snapshot.reservedBw;
+		reservedStorage = snapshot.reservedStorage;
+	}
+
+	/**
+	 * Gets the host.
+	 *
+	 * @return the host
+	 */
+	public PowerHost getHost() {
+		return host;
+	}
+
+	/**
+	 * Checks whether guests were created or destroyed in the snapshot.
+	 *
+	 * @return <tt>true</tt> if the guests are not the ones of the host anymore
+	 */
+	public boolean isChanged() {
+		return guestList != null;
+	}
+
+	/**
+	 * Gets the guests.
+	 *
+	 * @return the read-only list of guests
+	 */
+	public List<GuestEntity> getGuestList() {
+		return Collections.unmodifiableList(guestList != null ? guestList : host.getGuestList());
+	}
+
+	/**
+	 * Gets the guests which are not in migration.
+	 *
+	 * @return the migrable guests
+	 * @see PowerHost#getMigrableVms()
+	 */
+	public List<GuestEntity> getMigrableVms() {
+		List<GuestEntity> migrableVms = new ArrayList<>();
+		for (GuestEntity vm : getGuestList()) {
+			if (!vm.isInMigration()) {
+				migrableVms.add(vm);
+			}
+		}
+		return migrableVms;
+	}
+
+	/**
+	 * Checks if the host would have enough resources for a guest, as
+	 * {@link PowerHost#isSuitableForGuest(GuestEntity)}.
+	 *
+	 * @param guest the guest
+	 * @return true, if is suitable for guest
+	 */
+	public boolean isSuitableForGuest(GuestEntity guest) {
+		return host.getGuestScheduler().isSuitableForGuest(guest, reservedMips)
+				&& host.getGuestRamProvisioner().isSuitableForGuest(guest, guest.getCurrentRequestedRam(), reservedRam)
+				&& host.getGuestBwProvisioner().isSuitableForGuest(guest, guest.getCurrentRequestedBw(), reservedBw);
+	}
+
+	/**
+	 * Creates a guest in the snapshot, if the host would have enough resources for it, as
+	 * {@link PowerHost#guestCreate(GuestEntity)}.
+	 *
+	 * @param guest the guest
+	 * @return $true if the guest was created
+	 */
+	public boolean guestCreate(GuestEntity guest) {
+		if (host.getStorage() - reservedStorage < guest.getSize() || !isSuitableForGuest(guest)) {
+			return false;
+		}
+		double mips = 0;
+		for (double mipsShare : guest.getCurrentRequestedMips()) {
+			mips += mipsShare;
+		}
+		Reservation reservation = new Reservation(mips, guest.getCurrentRequestedRam(), guest.getCurrentRequestedBw());
+		reservedMips += reservation.mips();
+		reservedRam += reservation.ram();
+		reservedBw += reservation.bw();
+		reservedStorage += guest.getSize();
+		getChangedGuestList().add(guest);
+		reservations.put(guest, reservation);
+		return true;
+	}
+
+	/**
+	 * Destroys a guest in the snapshot, releasing its resources.
+	 *
+	 * @param guest the guest
+	 */
+	public void guestDestroy(GuestEntity guest) {
+		if (!getChangedGuestList().remove(guest)) {
+			return;
+		}
+		Reservation reservation = reservations.remove(guest);
+		if (reservation != null) {
+			reservedMips -= reservation.mips();
+			reservedRam -= reservation.ram();
+			reservedBw -= reservation.bw();
+		} else {
+			reservedMips -= host.getTotalAllocatedMipsForGuest(guest);
+			reservedRam -= host.getGuestRamProvisioner().getAllocatedRamForGuest(guest);
+			reservedBw -= host.getGuestBwProvisioner().getAllocatedBwForGuest(guest);
+		}
+		reservedStorage -= guest.getSize();
+	}
+
+	/**
+	 * Gets the total MIPS of the host.
+	 *
+	 * @return the total MIPS
+	 */
+	public double getTotalMips() {
+		return host.getTotalMips();
+	}
+
+	/**
+	 * Gets the MIPS of the host that would be available for other guests.
+	 *
+	 * @return the available MIPS
+	 * @see VmScheduler#isSuitableForGuest(GuestEntity, double)
+	 */
+	public double getAvailableMips() {
+		return host.getGuestScheduler().getAvailableMips() - reservedMips;
+	}
+
+	/**
+	 * Gets the RAM of the host that would be available for other guests.
+	 *
+	 * @return the available RAM
+	 */
+	public int getAvailableRam() {
+		return host.getGuestRamProvisioner().getAvailableRam() - reservedRam;
+	}
+
+	/**
+	 * Gets the MIPS allocated to a guest, or reserved for it if it was created in the snapshot.
+	 *
+	 * @param guest the guest
+	 * @return the total MIPS of the guest
+	 */
+	public double getTotalAllocatedMipsForGuest(GuestEntity guest) {
+		Reservation reservation = reservations != null ? reservations.get(guest) : null;
+		return reservation != null ? reservation.mips() : host.getTotalAllocatedMipsForGuest(guest);
+	}
+
+	/**
+	 * Gets the length of the CPU utilization percentage history of the guests.
+	 *
+	 * @return the number of values of the history
+	 * @see PowerHost#getUtilizationHistoryLength()
+	 */
+	public int getUtilizationHistoryLength() {
+		if (guestList == null) {
+			return host.getUtilizationHistoryLength();
+		}
+		return sumUtilizationHistory();
+	}
+
+	/**
+	 * Gets the length of the CPU utilization percentage history of the guests, without its
+	 * trailing zeros.
+	 *
+	 * @return the position following the last value different from zero
+	 * @see PowerHost#getUtilizationHistoryTrimmedLength()
+	 */
+	public int getUtilizationHistoryTrimmedLength() {
+		if (guestList == null) {
+			return host.getUtilizationHistoryTrimmedLength();
+		}
+		int i = sumUtilizationHistory();
+		while (i > 0 && utilizationHistory[i - 1] == 0) {
+			i--;
+		}
+		return i;
+	}
+
+	/**
+	 * Gets a value of the CPU utilization percentage history of the guests.
+	 *
+	 * @param index the position of the value
+	 * @return the CPU utilization percentage
+	 * @see PowerHost#getUtilizationHistoryValue(int)
+	 */
+	public double getUtilizationHistoryValue(int index) {
+		if (guestList == null) {
+			return host.getUtilizationHistoryValue(index);
+		}
+		if (index < 0 || index >= sumUtilizationHistory()) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of " + utilizationHistoryLength);
+		}
+		return utilizationHistory[index];
+	}
+
+	/**
+	 * Gets the Median Absolute Deviation (MAD) of the CPU utilization percentage history of the
+	 * guests.
+	 *
+	 * @return the MAD of the history
+	 * @see PowerHost#getUtilizationMad()
+	 */
+	public double getUtilizationMad() {
+		if (guestList == null) {
+			return host.getUtilizationMad();
+		}
+		return MathUtil.mad(Arrays.copyOf(utilizationHistory, sumUtilizationHistory()));
+	}
+
+	/**
+	 * Gets the Interquartile Range (IQR) of the CPU utilization percentage history of the guests.
+	 *
+	 * @return the IQR of the history
+	 * @see PowerHost#getUtilizationIqr()
+	 */
+	public double getUtilizationIqr() {
+		if (guestList == null) {
+			return host.getUtilizationIqr();
+		}
+		return MathUtil.iqr(Arrays.copyOf(utilizationHistory, sumUtilizationHistory()));
+	}
+
+	/**
+	 * Gets the guests, copying the guests of the host the first time they are changed.
+	 *
+	 * @return the modifiable list of guests
+	 */
+	private List<GuestEntity> getChangedGuestList() {
+		if (guestList == null) {
+			guestList = new ArrayList<>(host.getGuestList());
+			reservations = new HashMap<>();
+		}
+		utilizationHistoryLength = -1;
+		return guestList;
+	}
+
+	/**
+	 * Sums the CPU utilization percentage history of the guests, if they changed since it was
+	 * summed.
+	 *
+	 * @return the length of the history
+	 */
+	private int sumUtilizationHistory() {
+		if (utilizationHistoryLength < 0) {
+			if (utilizationHistory == null) {
+				utilizationHistory = new double[PowerHostEntity.HISTORY_LENGTH];
+			}
+			utilizationHistoryLength = host.getUtilizationHistory(guestList, utilizationHistory);
+		}
+		return utilizationHistoryLength;
+	}
+}
@@ -9,19 +9,23 @@
 package org.cloudbus.cloudsim.power;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import org.cloudbus.cloudsim.*;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.core.SimulationContext;
 import org.cloudbus.cloudsim.lists.VmList;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
+import org.cloudbus.cloudsim.util.CapacityIndex;
 import org.cloudbus.cloudsim.util.ExecutionTimeMeasurer;
 
 /**
@@ -49,6 +53,33 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	/** A list of maps between a VM and the host where it is place. */
 	private final List<GuestMapping> savedAllocation = new ArrayList<>();
 
+	/**
+	 * The snapshots of the hosts whose guests are changed by the migrations being planned, where
+	 * each key is a host and each value is the snapshot of that host.
+	 */
+	private final Map<HostEntity, PowerHostSnapshot> hostSnapshots = new HashMap<>();
+
+	/** Whether the migrations are being planned by {@link #optimizeAllocation(List)}. */
+	private boolean planning;
+
+	/**
+	 * The index of the free MIPS and RAM of the hosts while the migrations are planned, or
+	 * <tt>null</tt> if it is not built yet.
+	 */
+	private CapacityIndex capacityIndex;
+
+	/** The position of each host in the host list, for the {@link #capacityIndex}. */
+	private Map<HostEntity, Integer> hostPositions;
+
+	/** Whether the candidate hosts of a VM are evaluated in parallel. */
+	private boolean parallelHostEvaluation;
+
+	/**
+	 * Whether the class of the policy only overrides {@link #isHostOverUtilized(PowerHost)}, so that
+	 * the hosts are checked by placing the guests of their snapshots on them for real.
+	 */
+	private final boolean hostCheckedForReal = overridesOnlyPowerHostCheck(getClass());
+
 	private void growIfNeeded(List<List<Double>> l, int idx) {
 		for (int i = l.size(); i <= idx; i++)
 			l.add(null);
@@ -118,36 +149,79 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	@Override
 	public List<GuestMapping> optimizeAllocation(List<? extends GuestEntity> vmList) {
 		ExecutionTimeMeasurer.start("optimizeAllocationTotal");
+		planning = true;
 
 		ExecutionTimeMeasurer.start("optimizeAllocationHostSelection");
+		MigrationPhaseEvent phaseEvent = beginPhase();
 		List<PowerHost> overUtilizedHosts = getOverUtilizedHosts();
+		commitPhase(phaseEvent, MigrationPhaseEvent.OVERLOAD_DETECTION, getHostList().size(), overUtilizedHosts.size());
 		getExecutionTimeHistoryHostSelection().add(
 				ExecutionTimeMeasurer.end("optimizeAllocationHostSelection"));
 
 		printOverUtilizedHosts(overUtilizedHosts);
 
-		saveAllocation();
-
 		ExecutionTimeMeasurer.start("optimizeAllocationVmSelection");
+		phaseEvent = beginPhase();
 		List<GuestEntity> vmsToMigrate = getVmsToMigrateFromHosts(overUtilizedHosts);
+		commitPhase(phaseEvent, MigrationPhaseEvent.VM_SELECTION, overUtilizedHosts.size(), vmsToMigrate.size());
 		getExecutionTimeHistoryVmSelection().add(ExecutionTimeMeasurer.end("optimizeAllocationVmSelection"));
 
 		Log.println("Reallocation of VMs from the over-utilized hosts:");
 		ExecutionTimeMeasurer.start("optimizeAllocationVmReallocation");
+		phaseEvent = beginPhase();
 		List<GuestMapping> migrationMap = getNewVmPlacement(vmsToMigrate, new HashSet<>(overUtilizedHosts));
+		commitPhase(phaseEvent, MigrationPhaseEvent.VM_PLACEMENT, vmsToMigrate.size(), migrationMap.size());
 		getExecutionTimeHistoryVmReallocation().add(
 				ExecutionTimeMeasurer.end("optimizeAllocationVmReallocation"));
 		Log.println();
 
-		migrationMap.addAll(getMigrationMapFromUnderUtilizedHosts(overUtilizedHosts));
+		phaseEvent = beginPhase();
+		List<GuestMapping> consolidationMap = getMigrationMapFromUnderUtilizedHosts(overUtilizedHosts);
+		commitPhase(phaseEvent, MigrationPhaseEvent.UNDERLOAD_CONSOLIDATION, getHostList().size(), consolidationMap.size());
+		migrationMap.addAll(consolidationMap);
 
-		restoreAllocation();
+		hostSnapshots.clear();
+		capacityIndex = null;
+		hostPositions = null;
+		planning = false;
 
 		getExecutionTimeHistoryTotal().add(ExecutionTimeMeasurer.end("optimizeAllocationTotal"));
 
 		return migrationMap;
 	}
 
+	/**
+	 * Begins a phase of the optimization of the allocation.
+	 *
+	 * @return the flight recorder event of the phase
+	 */
+	private static MigrationPhaseEvent beginPhase() {
+		MigrationPhaseEvent event = new MigrationPhaseEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Ends a phase of the optimization of the allocation, recording it if the flight recorder
+	 * records such events.
+	 *
+	 * @param event the flight recorder event of the phase
+	 * @param phase the name of the phase
+	 * @param inputs the number of hosts or VMs the phase starts from
+	 * @param outputs the number of hosts, VMs or migrations the phase results in
+	 */
+	private void commitPhase(MigrationPhaseEvent event, String phase, int inputs, int outputs) {
+		if (event.shouldCommit()) {
+			event.phase = phase;
+			event.simulationTime = CloudSim.clock();
+			Datacenter datacenter = getHostList().isEmpty() ? null : getHostList().getFirst().getDatacenter();
+			event.datacenterId = datacenter == null ? -1 : datacenter.getId();
+			event.inputs = inputs;
+			event.outputs = outputs;
+			event.commit();
+		}
+	}
+
 	/**
 	 * Gets the migration map from under utilized hosts.
 	 * 
@@ -182,7 +256,9 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 				break;
 			}
 
-			Log.printlnConcat("Under-utilized host: host #", underUtilizedHost.getId(), "\n");
+			if (!Log.isDisabled()) {
+				Log.printlnConcat("Under-utilized host: host #", underUtilizedHost.getId(), "\n");
+			}
 
 			excludedHostsForFindingUnderUtilizedHost.add(underUtilizedHost);
 			excludedHostsForFindingNewVmPlacement.add(underUtilizedHost);
@@ -234,39 +310,180 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * Finds a PM that has enough resources to host a given VM
          * and that will not be overloaded after placing the VM on it.
          * The selected host will be that one with most efficient
-         * power usage for the given VM.
+         * power usage for the given VM. When several hosts are as efficient,
+         * the first one of the host list is selected, whether the hosts are
+         * evaluated in parallel or not.
 	 * 
 	 * @param vm the VM
 	 * @param excludedHosts the excluded hosts
 	 * @return the host found to host the VM
+	 * @see #setParallelHostEvaluation(boolean)
 	 */
 	public PowerHost findHostForGuest(GuestEntity vm, Set<? extends HostEntity> excludedHosts) {
+		List<PowerHost> hostList = getHostList();
+		int[] candidates = getCandidateHosts(vm, excludedHosts);
+		double[] powerDiffs = new double[candidates.length];
+		if (isParallelHostEvaluation() && !hostCheckedForReal && candidates.length > 1) {
+			prepareParallelEvaluation(vm, candidates);
+			// the hosts are evaluated in the workers of the common pool, which must see the simulation
+			SimulationContext context = SimulationContext.current();
+			IntStream.range(0, candidates.length).parallel().forEach(i -> context.run(() ->
+					powerDiffs[i] = getPowerDiffAfterAllocation(hostList.get(candidates[i]), vm)));
+		} else {
+			for (int i = 0; i < candidates.length; i++) {
+				powerDiffs[i] = getPowerDiffAfterAllocation(hostList.get(candidates[i]), vm);
+			}
+		}
+
 		double minPower = Double.MAX_VALUE;
 		PowerHost allocatedHost = null;
+		for (int i = 0; i < candidates.length; i++) {
+			if (powerDiffs[i] < minPower) {
+				minPower = powerDiffs[i];
+				allocatedHost = hostList.get(candidates[i]);
+			}
+		}
+		return allocatedHost;
+	}
 
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			if (excludedHosts.contains(host)) {
-				continue;
+	/**
+	 * Gets the increase of the power consumption of a host after placement of a candidate VM,
+	 * if the host has enough resources for the VM and is not over utilized afterward.
+         * The VM is not in fact placed at the host.
+	 * 
+	 * @param host the host
+	 * @param vm the candidate vm
+	 * @return the power difference, or {@link Double#MAX_VALUE} if the VM cannot be placed at the host
+	 */
+	protected double getPowerDiffAfterAllocation(PowerHost host, GuestEntity vm) {
+		PowerHostSnapshot snapshot = getHostSnapshot(host);
+		if (snapshot.isSuitableForGuest(vm)) {
+			if (getUtilizationOfCpuMips(snapshot) != 0 && isHostOverUtilizedAfterAllocation(snapshot, vm)) {
+				return Double.MAX_VALUE;
 			}
-			if (host.isSuitableForGuest(vm)) {
-				if (getUtilizationOfCpuMips(host) != 0 && isHostOverUtilizedAfterAllocation(host, vm)) {
-					continue;
+
+			try {
+				double powerAfterAllocation = getPowerAfterAllocation(snapshot, vm);
+				if (powerAfterAllocation != -1) {
+					return powerAfterAllocation - host.getPower();
 				}
+			} catch (Exception e) {
+			}
+		}
+		return Double.MAX_VALUE;
+	}
 
-				try {
-					double powerAfterAllocation = getPowerAfterAllocation(host, vm);
-					if (powerAfterAllocation != -1) {
-						double powerDiff = powerAfterAllocation - host.getPower();
-						if (powerDiff < minPower) {
-							minPower = powerDiff;
-							allocatedHost = host;
-						}
-					}
-				} catch (Exception e) {
+	/**
+	 * Gets the positions in the host list of the hosts that may receive a VM. While the migrations
+	 * are planned, the hosts without enough free MIPS or RAM for the VM are skipped with the
+	 * {@link #capacityIndex}, unless the VM runs on one of the hosts.
+	 * 
+	 * @param vm the VM
+	 * @param excludedHosts the excluded hosts
+	 * @return the positions of the candidate hosts, in ascending order
+	 */
+	private int[] getCandidateHosts(GuestEntity vm, Set<? extends HostEntity> excludedHosts) {
+		List<PowerHost> hostList = getHostList();
+		int[] candidates = new int[hostList.size()];
+		int count = 0;
+		// the resources already allocated to the VM on its host are not counted in the index
+		if (planning && (vm.getHost() == null || excludedHosts.contains(vm.getHost()))) {
+			double[] demand = {vm.getCurrentRequestedTotalMips(), Math.min(vm.getCurrentRequestedRam(), vm.getRam())};
+			int fits = getCapacityIndex().findFits(demand, candidates);
+			for (int i = 0; i < fits; i++) {
+				if (!excludedHosts.contains(hostList.get(candidates[i]))) {
+					candidates[count++] = candidates[i];
+				}
+			}
+		} else {
+			for (int i = 0; i < hostList.size(); i++) {
+				if (!excludedHosts.contains(hostList.get(i))) {
+					candidates[count++] = i;
 				}
 			}
 		}
-		return allocatedHost;
+		return Arrays.copyOf(candidates, count);
+	}
+
+	/**
+	 * Computes the requested resources of a VM and of the guests of the candidate hosts before
+	 * they are evaluated in parallel, as some cloudlet schedulers cache them upon the first request.
+	 * 
+	 * @param vm the VM
+	 * @param candidates the positions of the candidate hosts
+	 */
+	private void prepareParallelEvaluation(GuestEntity vm, int[] candidates) {
+		List<PowerHost> hostList = getHostList();
+		vm.getCurrentRequestedMips();
+		vm.getCurrentRequestedRam();
+		vm.getCurrentRequestedBw();
+		for (int candidate : candidates) {
+			for (GuestEntity guest : getHostSnapshot(hostList.get(candidate)).getGuestList()) {
+				guest.getCurrentRequestedMips();
+				guest.getCurrentRequestedRam();
+				guest.getCurrentRequestedBw();
+			}
+		}
+	}
+
+	/**
+	 * Gets the index of the free MIPS and RAM of the hosts, building it from their snapshots
+	 * upon the first request of the current optimization of the VM allocation.
+	 * 
+	 * @return the capacity index
+	 */
+	private CapacityIndex getCapacityIndex() {
+		if (capacityIndex == null) {
+			List<PowerHost> hostList = getHostList();
+			capacityIndex = new CapacityIndex(hostList.size(), 2);
+			hostPositions = new HashMap<>();
+			for (int i = 0; i < hostList.size(); i++) {
+				hostPositions.put(hostList.get(i), i);
+				updateCapacityIndex(getHostSnapshot(hostList.get(i)), i);
+			}
+		}
+		return capacityIndex;
+	}
+
+	/**
+	 * Updates the free MIPS and RAM of a host in the {@link #capacityIndex}.
+	 * 
+	 * @param snapshot the snapshot of the host
+	 * @param position the position of the host in the host list
+	 */
+	private void updateCapacityIndex(PowerHostSnapshot snapshot, int position) {
+		capacityIndex.set(position, 0, snapshot.getAvailableMips());
+		capacityIndex.set(position, 1, snapshot.getAvailableRam());
+	}
+
+	/**
+	 * Plans the placement of a VM on a host, in the snapshot of the host.
+	 * 
+	 * @param host the host
+	 * @param vm the VM
+	 * @return $true if the host has enough resources for the VM
+	 */
+	protected boolean createPlannedGuest(PowerHost host, GuestEntity vm) {
+		PowerHostSnapshot snapshot = getChangedHostSnapshot(host);
+		boolean result = snapshot.guestCreate(vm);
+		if (capacityIndex != null) {
+			updateCapacityIndex(snapshot, hostPositions.get(host));
+		}
+		return result;
+	}
+
+	/**
+	 * Plans the removal of a VM from a host, in the snapshot of the host.
+	 * 
+	 * @param host the host
+	 * @param vm the VM
+	 */
+	protected void destroyPlannedGuest(PowerHost host, GuestEntity vm) {
+		PowerHostSnapshot snapshot = getChangedHostSnapshot(host);
+		snapshot.guestDestroy(vm);
+		if (capacityIndex != null) {
+			updateCapacityIndex(snapshot, hostPositions.get(host));
+		}
 	}
 
 	/**
@@ -275,14 +492,24 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @param host the host to verify
 	 * @param vm the candidate vm 
 	 * @return true, if the host will be over utilized after VM placement; false otherwise
+	 * @deprecated use {@link #isHostOverUtilizedAfterAllocation(PowerHostSnapshot, GuestEntity)}
 	 */
+	@Deprecated
 	protected boolean isHostOverUtilizedAfterAllocation(PowerHost host, GuestEntity vm) {
-		boolean isHostOverUtilizedAfterAllocation = true;
-		if (host.guestCreate(vm)) {
-			isHostOverUtilizedAfterAllocation = isHostOverUtilized(host);
-			host.guestDestroy(vm);
-		}
-		return isHostOverUtilizedAfterAllocation;
+		return isHostOverUtilizedAfterAllocation(getHostSnapshot(host), vm);
+	}
+
+	/**
+	 * Checks if a host will be over utilized after placing of a candidate VM.
+         * The VM is not in fact placed at the host.
+	 * 
+	 * @param host the snapshot of the host to verify
+	 * @param vm the candidate vm 
+	 * @return true, if the host will be over utilized after VM placement; false otherwise
+	 */
+	protected boolean isHostOverUtilizedAfterAllocation(PowerHostSnapshot host, GuestEntity vm) {
+		PowerHostSnapshot hostAfterAllocation = new PowerHostSnapshot(host);
+		return !hostAfterAllocation.guestCreate(vm) || isHostOverUtilized(hostAfterAllocation);
 	}
 
 	@Override
@@ -323,8 +550,10 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 		for (GuestEntity vm : vmsToMigrate) {
 			PowerHost allocatedHost = findHostForGuest(vm, excludedHosts);
 			if (allocatedHost != null) {
-				allocatedHost.guestCreate(vm);
-				Log.printlnConcat("VM #", vm.getId(), " allocated to host #", allocatedHost.getId());
+				createPlannedGuest(allocatedHost, vm);
+				if (!Log.isDisabled()) {
+					Log.printlnConcat("VM #", vm.getId(), " allocated to host #", allocatedHost.getId());
+				}
 				migrationMap.add(new GuestMapping(vm, allocatedHost));
 			}
 		}
@@ -346,13 +575,15 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 		for (GuestEntity vm : vmsToMigrate) {
 			PowerHost allocatedHost = findHostForGuest(vm, excludedHosts);
 			if (allocatedHost != null) {
-				allocatedHost.guestCreate(vm);
-				Log.printlnConcat("VM #", vm.getId(), " allocated to host #", allocatedHost.getId());
+				createPlannedGuest(allocatedHost, vm);
+				if (!Log.isDisabled()) {
+					Log.printlnConcat("VM #", vm.getId(), " allocated to host #", allocatedHost.getId());
+				}
 				migrationMap.add(new GuestMapping(vm, allocatedHost));
 			} else {
 				Log.println("Not all VMs can be reallocated from the host, reallocation cancelled");
 				for (GuestMapping map : migrationMap) {
-					(map.host()).guestDestroy(map.vm());
+					destroyPlannedGuest((PowerHost) map.host(), map.vm());
 				}
 				migrationMap.clear();
 				break;
@@ -371,14 +602,15 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	  getVmsToMigrateFromHosts(List<PowerHost> overUtilizedHosts) {
 		List<GuestEntity> vmsToMigrate = new LinkedList<>();
 		for (PowerHost host : overUtilizedHosts) {
+			PowerHostSnapshot snapshot = getChangedHostSnapshot(host);
 			while (true) {
-				GuestEntity vm = getVmSelectionPolicy().select(host.getMigrableVms(), host, new HashSet<>());
+				GuestEntity vm = getVmSelectionPolicy().select(snapshot.getMigrableVms(), host, new HashSet<>());
 				if (vm == null) {
 					break;
 				}
 				vmsToMigrate.add(vm);
-				host.guestDestroy(vm);
-				if (!isHostOverUtilized(host)) {
+				destroyPlannedGuest(host, vm);
+				if (!isHostOverUtilized(snapshot)) {
 					break;
 				}
 			}
@@ -394,7 +626,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 */
 	protected List<? extends GuestEntity> getVmsToMigrateFromUnderUtilizedHost(PowerHost host) {
 		List<GuestEntity> vmsToMigrate = new LinkedList<>();
-		for (GuestEntity vm : host.getGuestList()) {
+		for (GuestEntity vm : getHostSnapshot(host).getGuestList()) {
 			if (!vm.isInMigration()) {
 				vmsToMigrate.add(vm);
 			}
@@ -462,7 +694,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @return true, if successful
 	 */
 	protected boolean areAllVmsMigratingOutOrAnyVmMigratingIn(PowerHost host) {
-		for (PowerVm vm : host.<PowerVm>getGuestList()) {
+		for (GuestEntity vm : getHostSnapshot(host).getGuestList()) {
 			if (!vm.isInMigration()) {
 				return false;
 			}
@@ -474,20 +706,91 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	}
 
 	/**
-	 * Checks if host is over utilized.
+	 * Checks if host is over utilized. Subclasses override either this method or
+	 * {@link #isHostOverUtilized(PowerHostSnapshot)}, which calls the other by default.
 	 * 
 	 * @param host the host
 	 * @return true, if the host is over utilized; false otherwise
 	 */
-	protected abstract boolean isHostOverUtilized(PowerHost host);
+	protected boolean isHostOverUtilized(PowerHost host) {
+		return isHostOverUtilized(getHostSnapshot(host));
+	}
+
+	/**
+	 * Checks if host is over utilized, with the guests of a snapshot of the host, e.g. after
+	 * placing or removing some VMs.
+	 * <p/>
+	 * By default, the guests of the snapshot are created on the host for real, the host is checked
+	 * with {@link #isHostOverUtilized(PowerHost)} and the guests of the host are restored, so that
+	 * subclasses only overriding that method keep working.
+	 * 
+	 * @param host the snapshot of the host
+	 * @return true, if the host is over utilized; false otherwise
+	 */
+	protected boolean isHostOverUtilized(PowerHostSnapshot host) {
+		PowerHost powerHost = host.getHost();
+		if (!host.isChanged()) {
+			return isHostOverUtilized(powerHost);
+		}
+
+		List<GuestEntity> destroyedGuests = new ArrayList<>(powerHost.getGuestList());
+		destroyedGuests.removeAll(host.getGuestList());
+		List<GuestEntity> createdGuests = new ArrayList<>(host.getGuestList());
+		createdGuests.removeAll(powerHost.getGuestList());
+		Map<GuestEntity, HostEntity> createdGuestHosts = new HashMap<>();
+		for (GuestEntity guest : destroyedGuests) {
+			powerHost.guestDestroy(guest);
+		}
+		for (GuestEntity guest : createdGuests) {
+			HostEntity guestHost = guest.getHost();
+			if (powerHost.guestCreate(guest)) {
+				createdGuestHosts.put(guest, guestHost);
+			}
+		}
+		try {
+			return isHostOverUtilized(powerHost);
+		} finally {
+			for (Map.Entry<GuestEntity, HostEntity> entry : createdGuestHosts.entrySet()) {
+				powerHost.guestDestroy(entry.getKey());
+				entry.getKey().setHost(entry.getValue());
+			}
+			for (GuestEntity guest : destroyedGuests) {
+				powerHost.guestCreate(guest);
+			}
+		}
+	}
+
+	/**
+	 * Checks if a policy class overrides {@link #isHostOverUtilized(PowerHost)}, but not
+	 * {@link #isHostOverUtilized(PowerHostSnapshot)}.
+	 * 
+	 * @param policyClass the class of the policy
+	 * @return true if only the check of the real host is overridden
+	 */
+	private static boolean overridesOnlyPowerHostCheck(Class<?> policyClass) {
+		for (Class<?> c = policyClass; c != PowerVmAllocationPolicyMigrationAbstract.class; c = c.getSuperclass()) {
+			try {
+				c.getDeclaredMethod("isHostOverUtilized", PowerHostSnapshot.class);
+				return false;
+			} catch (NoSuchMethodException e) {
+			}
+			try {
+				c.getDeclaredMethod("isHostOverUtilized", PowerHost.class);
+				return true;
+			} catch (NoSuchMethodException e) {
+			}
+		}
+		return false;
+	}
 
 	/**
-	 * Adds an entry for each history map of a host.
+	 * Adds an entry for each history map of a host. It is synchronized, as the
+	 * hosts may be checked in parallel.
 	 * 
 	 * @param host the host to add metric history entries
 	 * @param metric the metric to be added to the metric history map
 	 */
-	protected void addHistoryEntry(HostDynamicWorkload host, double metric) {
+	protected synchronized void addHistoryEntry(HostDynamicWorkload host, double metric) {
 		int hostId = host.getId();
 		growIfNeeded(timeHistory, hostId);
 		if (timeHistory.get(hostId) == null) {
@@ -511,7 +814,9 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	/**
 	 * Updates the list of maps between a VM and the host where it is place.
          * @see #savedAllocation
+	 * @deprecated the hosts are not changed while the migrations are planned, see {@link PowerHostSnapshot}
 	 */
+	@Deprecated
 	protected void saveAllocation() {
 		getSavedAllocation().clear();
 		for (HostEntity host : getHostList()) {
@@ -527,7 +832,9 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	/**
 	 * Restore VM allocation from the allocation history.
          * @see #savedAllocation
+	 * @deprecated the hosts are not changed while the migrations are planned, see {@link PowerHostSnapshot}
 	 */
+	@Deprecated
 	protected void restoreAllocation() {
 		for (HostEntity host : getHostList()) {
 			host.guestDestroyAll();
@@ -552,11 +859,26 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @param vm the candidate vm
 	 * 
 	 * @return the power after allocation
+	 * @deprecated use {@link #getPowerAfterAllocation(PowerHostSnapshot, GuestEntity)}
 	 */
+	@Deprecated
 	protected double getPowerAfterAllocation(PowerHost host, GuestEntity vm) {
+		return getPowerAfterAllocation(getHostSnapshot(host), vm);
+	}
+
+	/**
+	 * Gets the power consumption of a host after placement of a candidate VM.
+         * The VM is not in fact placed at the host.
+	 * 
+	 * @param host the snapshot of the host
+	 * @param vm the candidate vm
+	 * 
+	 * @return the power after allocation
+	 */
+	protected double getPowerAfterAllocation(PowerHostSnapshot host, GuestEntity vm) {
 		double power = 0;
 		try {
-			power = host.getPowerModel().getPower(getMaxUtilizationAfterAllocation(host, vm));
+			power = host.getHost().getPowerModel().getPower(getMaxUtilizationAfterAllocation(host, vm));
 		} catch (Exception e) {
 			e.printStackTrace();
 			System.exit(0);
@@ -567,15 +889,30 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	/**
 	 * Gets the max power consumption of a host after placement of a candidate VM.
          * The VM is not in fact placed at the host.
-         * We assume that load is balanced between PEs. The only
-	 * restriction is: VM's max MIPS < PE's MIPS
 	 * 
 	 * @param host the host
 	 * @param vm the vm
 	 * 
 	 * @return the power after allocation
+	 * @deprecated use {@link #getMaxUtilizationAfterAllocation(PowerHostSnapshot, GuestEntity)}
 	 */
+	@Deprecated
 	protected double getMaxUtilizationAfterAllocation(PowerHost host, GuestEntity vm) {
+		return getMaxUtilizationAfterAllocation(getHostSnapshot(host), vm);
+	}
+
+	/**
+	 * Gets the max power consumption of a host after placement of a candidate VM.
+         * The VM is not in fact placed at the host.
+         * We assume that load is balanced between PEs. The only
+	 * restriction is: VM's max MIPS < PE's MIPS
+	 * 
+	 * @param host the snapshot of the host
+	 * @param vm the vm
+	 * 
+	 * @return the power after allocation
+	 */
+	protected double getMaxUtilizationAfterAllocation(PowerHostSnapshot host, GuestEntity vm) {
 		double requestedTotalMips = vm.getCurrentRequestedTotalMips();
 		double hostUtilizationMips = getUtilizationOfCpuMips(host);
 		double hostPotentialUtilizationMips = hostUtilizationMips + requestedTotalMips;
@@ -588,11 +925,24 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @param host the host
 	 *
 	 * @return the utilization of the CPU in MIPS
+	 * @deprecated use {@link #getUtilizationOfCpuMips(PowerHostSnapshot)}
 	 */
+	@Deprecated
 	protected double getUtilizationOfCpuMips(PowerHost host) {
+		return getUtilizationOfCpuMips(getHostSnapshot(host));
+	}
+
+	/**
+	 * Gets the utilization of the CPU in MIPS for the current potentially allocated VMs.
+	 *
+	 * @param host the snapshot of the host
+	 *
+	 * @return the utilization of the CPU in MIPS
+	 */
+	protected double getUtilizationOfCpuMips(PowerHostSnapshot host) {
 		double hostUtilizationMips = 0;
 		for (GuestEntity vm2 : host.getGuestList()) {
-			if (host.getGuestsMigratingIn().contains(vm2)) {
+			if (host.getHost().getGuestsMigratingIn().contains(vm2)) {
 				// calculate additional potential CPU usage of a migrating in VM
 				hostUtilizationMips += host.getTotalAllocatedMipsForGuest(vm2) * 0.9 / 0.1;
 			}
@@ -605,11 +955,59 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * Gets the saved allocation.
 	 * 
 	 * @return the saved allocation
+	 * @deprecated the hosts are not changed while the migrations are planned, see {@link PowerHostSnapshot}
 	 */
+	@Deprecated
 	protected List<GuestMapping> getSavedAllocation() {
 		return savedAllocation;
 	}
 
+	/**
+	 * Gets the snapshot of a host, with the changes planned by the current optimization of the
+	 * VM allocation, if any.
+	 * 
+	 * @param host the host
+	 * @return the snapshot of the host
+	 */
+	protected PowerHostSnapshot getHostSnapshot(PowerHost host) {
+		PowerHostSnapshot snapshot = hostSnapshots.get(host);
+		return snapshot != null ? snapshot : new PowerHostSnapshot(host);
+	}
+
+	/**
+	 * Gets the snapshot of a host, to plan changes of its guests during the current optimization
+	 * of the VM allocation. The snapshots are discarded at the end of the optimization.
+	 * 
+	 * @param host the host
+	 * @return the snapshot of the host
+	 */
+	protected PowerHostSnapshot getChangedHostSnapshot(PowerHost host) {
+		return hostSnapshots.computeIfAbsent(host, h -> new PowerHostSnapshot(host));
+	}
+
+	/**
+	 * Sets whether the candidate hosts of a VM are evaluated in parallel, in the common fork-join
+	 * pool, when a host is searched for the VM. The host found is the same as with a sequential
+	 * evaluation. The {@link #isHostOverUtilized(PowerHostSnapshot)} method of the subclasses must
+	 * then be safe to call for several hosts at the same time. The subclasses only overriding
+	 * {@link #isHostOverUtilized(PowerHost)} are always evaluated sequentially, since their hosts
+	 * are checked by placing the VMs on them for real. It is disabled by default.
+	 * 
+	 * @param parallelHostEvaluation $true to evaluate the hosts in parallel
+	 */
+	public void setParallelHostEvaluation(boolean parallelHostEvaluation) {
+		this.parallelHostEvaluation = parallelHostEvaluation;
+	}
+
+	/**
+	 * Checks whether the candidate hosts of a VM are evaluated in parallel.
+	 * 
+	 * @return $true if the hosts are evaluated in parallel
+	 */
+	public boolean isParallelHostEvaluation() {
+		return parallelHostEvaluation;
+	}
+
 	/**
 	 * Sets the vm selection policy.
 	 * 
@@ -14,7 +14,6 @@ import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
-import org.cloudbus.cloudsim.util.MathUtil;
 
 /**
  * A VM allocation policy that uses Inter Quartile Range (IQR)  to compute
@@ -96,18 +95,18 @@ public class PowerVmAllocationPolicyMigrationInterQuartileRange extends
 	/**
 	 * Checks if the host is over utilized, based on CPU utilization.
 	 * 
-	 * @param host the host
+	 * @param host the snapshot of the host
 	 * @return true, if the host is over utilized; false otherwise
 	 */
 	@Override
-	protected boolean isHostOverUtilized(PowerHost host) {
+	protected boolean isHostOverUtilized(PowerHostSnapshot host) {
         double upperThreshold = 0;
 		try {
-			upperThreshold = 1 - getSafetyParameter() * getHostUtilizationIqr((PowerHost) host);
+			upperThreshold = 1 - getSafetyParameter() * getHostUtilizationIqr(host);
 		} catch (IllegalArgumentException e) {
 			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
 		}
-		addHistoryEntry(host, upperThreshold);
+		addHistoryEntry(host.getHost(), upperThreshold);
 		double totalRequestedMips = 0;
 		for (GuestEntity vm : host.getGuestList()) {
 			totalRequestedMips += vm.getCurrentRequestedTotalMips();
@@ -121,11 +120,22 @@ public class PowerVmAllocationPolicyMigrationInterQuartileRange extends
 	 * 
 	 * @param host the host
 	 * @return the host CPU utilization percentage IQR
+	 * @deprecated use {@link #getHostUtilizationIqr(PowerHostSnapshot)}
 	 */
+	@Deprecated
 	protected double getHostUtilizationIqr(PowerHost host) throws IllegalArgumentException {
-		double[] data = host.getUtilizationHistory();
-		if (MathUtil.countNonZeroBeginning(data) >= 12) { // 12 has been suggested as a safe value
-			return MathUtil.iqr(data);
+		return getHostUtilizationIqr(getHostSnapshot(host));
+	}
+
+	/**
+	 * Gets the host CPU utilization percentage IQR.
+	 * 
+	 * @param host the snapshot of the host
+	 * @return the host CPU utilization percentage IQR
+	 */
+	protected double getHostUtilizationIqr(PowerHostSnapshot host) throws IllegalArgumentException {
+		if (host.getUtilizationHistoryTrimmedLength() >= 12) { // 12 has been suggested as a safe value
+			return host.getUtilizationIqr();
 		}
 		throw new IllegalArgumentException();
 	}
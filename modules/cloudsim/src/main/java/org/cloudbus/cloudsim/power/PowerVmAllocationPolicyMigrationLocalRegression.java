@@ -103,19 +103,18 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 	/**
 	 * Checks if a host is over utilized.
 	 * 
-	 * @param host the host
+	 * @param host the snapshot of the host
 	 * @return true, if is host over utilized; false otherwise
 	 */
 	@Override
-	protected boolean isHostOverUtilized(PowerHost host) {
-        double[] utilizationHistory = host.getUtilizationHistory();
+	protected boolean isHostOverUtilized(PowerHostSnapshot host) {
 		int length = 10; // we use 10 to make the regression responsive enough to latest values
-		if (utilizationHistory.length < length) {
+		if (host.getUtilizationHistoryLength() < length) {
 			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
 		}
 		double[] utilizationHistoryReversed = new double[length];
 		for (int i = 0; i < length; i++) {
-			utilizationHistoryReversed[i] = utilizationHistory[length - i - 1];
+			utilizationHistoryReversed[i] = host.getUtilizationHistoryValue(length - i - 1);
 		}
 		double[] estimates = null;
 		try {
@@ -123,11 +122,11 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 		} catch (IllegalArgumentException e) {
 			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
 		}
-		double migrationIntervals = Math.ceil(getMaximumVmMigrationTime((PowerHost) host) / getSchedulingInterval());
+		double migrationIntervals = Math.ceil(getMaximumVmMigrationTime(host) / getSchedulingInterval());
 		double predictedUtilization = estimates[0] + estimates[1] * (length + migrationIntervals);
 		predictedUtilization *= getSafetyParameter();
 
-		addHistoryEntry(host, predictedUtilization);
+		addHistoryEntry(host.getHost(), predictedUtilization);
 
 		return predictedUtilization >= 1;
 	}
@@ -147,8 +146,20 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 	 * 
 	 * @param host the host
 	 * @return the maximum vm migration time
+	 * @deprecated use {@link #getMaximumVmMigrationTime(PowerHostSnapshot)}
 	 */
+	@Deprecated
 	protected double getMaximumVmMigrationTime(PowerHost host) {
+		return getMaximumVmMigrationTime(getHostSnapshot(host));
+	}
+
+	/**
+	 * Gets the maximum vm migration time.
+	 * 
+	 * @param host the snapshot of the host
+	 * @return the maximum vm migration time
+	 */
+	protected double getMaximumVmMigrationTime(PowerHostSnapshot host) {
 		int maxRam = Integer.MIN_VALUE;
 		for (GuestEntity vm : host.getGuestList()) {
 			int ram = vm.getRam();
@@ -156,7 +167,7 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 				maxRam = ram;
 			}
 		}
-		return maxRam / ((double) host.getBw() / (2 * 8000));
+		return maxRam / ((double) host.getHost().getBw() / (2 * 8000));
 	}
 
 	/**
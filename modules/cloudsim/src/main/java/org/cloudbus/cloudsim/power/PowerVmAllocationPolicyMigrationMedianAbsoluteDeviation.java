@@ -14,7 +14,6 @@ import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
-import org.cloudbus.cloudsim.util.MathUtil;
 
 /**
  * A VM allocation policy that uses Median Absolute Deviation (MAD) to compute
@@ -106,18 +105,18 @@ public class PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation extends
 	/**
 	 * Checks if a host is over utilized.
 	 * 
-	 * @param host the host
+	 * @param host the snapshot of the host
 	 * @return true, if the host is over utilized; false otherwise
 	 */
 	@Override
-	protected boolean isHostOverUtilized(PowerHost host) {
+	protected boolean isHostOverUtilized(PowerHostSnapshot host) {
         double upperThreshold = 0;
 		try {
     			upperThreshold = 1 - getSafetyParameter() * getHostUtilizationMad(host);
 		} catch (IllegalArgumentException e) {
 			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
 		}
-		addHistoryEntry(host, upperThreshold);
+		addHistoryEntry(host.getHost(), upperThreshold);
 		double totalRequestedMips = 0;
 		for (GuestEntity vm : host.getGuestList()) {
 			totalRequestedMips += vm.getCurrentRequestedTotalMips();
@@ -131,11 +130,22 @@ public class PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation extends
 	 * 
 	 * @param host the host
 	 * @return the host utilization MAD
+	 * @deprecated use {@link #getHostUtilizationMad(PowerHostSnapshot)}
 	 */
+	@Deprecated
 	protected double getHostUtilizationMad(PowerHost host) throws IllegalArgumentException {
-		double[] data = host.getUtilizationHistory();
-		if (MathUtil.countNonZeroBeginning(data) >= 12) { // 12 has been suggested as a safe value
-			return MathUtil.mad(data);
+		return getHostUtilizationMad(getHostSnapshot(host));
+	}
+
+	/**
+	 * Gets the host utilization MAD.
+	 * 
+	 * @param host the snapshot of the host
+	 * @return the host utilization MAD
+	 */
+	protected double getHostUtilizationMad(PowerHostSnapshot host) throws IllegalArgumentException {
+		if (host.getUtilizationHistoryTrimmedLength() >= 12) { // 12 has been suggested as a safe value
+			return host.getUtilizationMad();
 		}
 		throw new IllegalArgumentException();
 	}
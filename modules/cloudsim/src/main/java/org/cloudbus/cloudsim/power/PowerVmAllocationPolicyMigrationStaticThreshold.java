@@ -57,12 +57,12 @@ public class PowerVmAllocationPolicyMigrationStaticThreshold extends PowerVmAllo
 	/**
 	 * Checks if a host is over utilized, based on CPU usage.
 	 * 
-	 * @param host the host
+	 * @param host the snapshot of the host
 	 * @return true, if the host is over utilized; false otherwise
 	 */
 	@Override
-	protected boolean isHostOverUtilized(PowerHost host) {
-		addHistoryEntry(host, getUtilizationThreshold());
+	protected boolean isHostOverUtilized(PowerHostSnapshot host) {
+		addHistoryEntry(host.getHost(), getUtilizationThreshold());
 		double totalRequestedMips = 0;
 		for (GuestEntity vm : host.getGuestList()) {
 			totalRequestedMips += vm.getCurrentRequestedTotalMips();
@@ -11,6 +11,8 @@ package org.cloudbus.cloudsim.provisioners;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.GuestEntity;
 
+import java.io.Serializable;
+
 /**
  * BwProvisioner is an abstract class that represents the provisioning policy used by a host
  * to allocate bandwidth (bw) to virtual machines inside it. 
@@ -24,7 +26,7 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  * @author Remo Andreoli
  * @since CloudSim Toolkit 1.0
  */
-public abstract class BwProvisioner {
+public abstract class BwProvisioner implements Serializable {
 
 	/** The total bandwidth capacity from the host that the provisioner can allocate to VMs. */
 	private long bw;
@@ -106,6 +108,22 @@ public abstract class BwProvisioner {
 	 */
 	public abstract boolean isSuitableForGuest(GuestEntity guest, long bw);
 
+	/**
+	 * Checks if it is possible to change the current allocated BW for the VM
+	 * to a new amount, when part of the available BW is reserved for other VMs,
+	 * e.g. the VMs a policy plans to place on the host. Nothing is allocated.
+	 *
+	 * @param guest the vm to check
+	 * @param bw the new total amount of BW for the VM
+	 * @param reservedBw the amount of available BW reserved for other VMs; it is
+	 *        negative when other VMs are planned to release BW
+	 * @return true, if is suitable for vm
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public boolean isSuitableForGuest(GuestEntity guest, long bw, long reservedBw) {
+		return getAvailableBw() - reservedBw + getAllocatedBwForGuest(guest) >= bw;
+	}
+
 	@Deprecated
 	public boolean isSuitableForVm(Vm vm, long bw) { return isSuitableForGuest(vm, bw); }
 
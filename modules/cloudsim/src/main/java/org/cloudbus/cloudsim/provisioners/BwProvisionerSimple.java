@@ -8,10 +8,9 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
-import java.util.HashMap;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.GuestMap;
 
 /**
  * BwProvisionerSimple is an extension of {@link BwProvisioner} which uses a best-effort policy to
@@ -27,7 +26,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 	/** The BW map, where each key is a VM id and each value
          * is the amount of BW allocated to that VM. */
-	private Map<String, Long> bwTable;
+	private GuestMap<Long> bwTable;
 
 	/**
 	 * Instantiates a new bw provisioner simple.
@@ -36,7 +35,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 */
 	public BwProvisionerSimple(long bw) {
 		super(bw);
-		setBwTable(new HashMap<>());
+		setBwTable(new GuestMap<>());
 	}
 
 	@Override
@@ -45,7 +44,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 		if (getAvailableBw() + old_bw >= bw) {
 			setAvailableBw(getAvailableBw() + old_bw - bw);
-			bwTable.put(guest.getUid(), bw);
+			bwTable.put(guest, bw);
 			guest.setCurrentAllocatedBw(bw);
 			return true;
 		}
@@ -55,7 +54,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 	@Override
 	public long getAllocatedBwForGuest(GuestEntity guest) {
-		Long bw = bwTable.get(guest.getUid());
+		Long bw = bwTable.get(guest);
 		if (bw != null)
 			return bw;
 		else
@@ -64,7 +63,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 	@Override
 	public void deallocateBwForGuest(GuestEntity guest) {
-		Long allocatedBw = bwTable.remove(guest.getUid());
+		Long allocatedBw = bwTable.remove(guest);
 		if (allocatedBw != null)
 			setAvailableBw(getAvailableBw() + allocatedBw);
 		guest.setCurrentAllocatedBw(0);
@@ -78,13 +77,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 	@Override
 	public boolean isSuitableForGuest(GuestEntity guest, long bw) {
-		long allocatedBw = getAllocatedBwForGuest(guest);
-		boolean result = allocateBwForGuest(guest, bw);
-		deallocateBwForGuest(guest);
-		if (allocatedBw > 0) {
-			allocateBwForGuest(guest, allocatedBw);
-		}
-		return result;
+		return isSuitableForGuest(guest, bw, 0);
 	}
 
 	/**
@@ -92,7 +85,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 * 
 	 * @return the bw map
 	 */
-	protected Map<String, Long> getBwTable() {
+	protected GuestMap<Long> getBwTable() {
 		return bwTable;
 	}
 
@@ -101,7 +94,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 * 
 	 * @param bwTable the bw map
 	 */
-	protected void setBwTable(Map<String, Long> bwTable) {
+	protected void setBwTable(GuestMap<Long> bwTable) {
 		this.bwTable = bwTable;
 	}
 
@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
+import java.io.Serializable;
 import java.util.List;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 
@@ -27,7 +28,7 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 2.0
  */
-public abstract class PeProvisioner {
+public abstract class PeProvisioner implements Serializable {
 
 	/** The total mips capacity of the PE that the provisioner can allocate to VMs. */
 	private double mips;
@@ -11,6 +11,8 @@ package org.cloudbus.cloudsim.provisioners;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.GuestEntity;
 
+import java.io.Serializable;
+
 /**
  * RamProvisioner is an abstract class that represents the provisioning policy used by a host
  * to allocate memory to virtual machines inside it. 
@@ -22,7 +24,7 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 1.0
  */
-public abstract class RamProvisioner {
+public abstract class RamProvisioner implements Serializable {
 
 	/** The total ram capacity from the host that the provisioner can allocate to VMs. */
 	private int ram;
@@ -104,6 +106,22 @@ public abstract class RamProvisioner {
 	 */
 	public abstract boolean isSuitableForGuest(GuestEntity guest, int ram);
 
+	/**
+	 * Checks if it is possible to change the current allocated RAM for the VM
+	 * to a new amount, when part of the available RAM is reserved for other VMs,
+	 * e.g. the VMs a policy plans to place on the host. Nothing is allocated.
+	 *
+	 * @param guest the vm to check
+	 * @param ram the new total amount of RAM for the VM
+	 * @param reservedRam the amount of available RAM reserved for other VMs; it is
+	 *        negative when other VMs are planned to release RAM
+	 * @return true, if is suitable for vm
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public boolean isSuitableForGuest(GuestEntity guest, int ram, int reservedRam) {
+		return getAvailableRam() - reservedRam + getAllocatedRamForGuest(guest) >= ram;
+	}
+
 	@Deprecated
 	public boolean isSuitableForVm(Vm vm, int ram) { return isSuitableForGuest(vm, ram); }
 
@@ -8,11 +8,10 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.GuestMap;
 
 /**
  * RamProvisionerSimple is an extension of {@link RamProvisioner} which uses a best-effort policy to
@@ -27,7 +26,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 
 	/** The RAM map, where each key is a VM id and each value
          * is the amount of RAM allocated to that VM. */
-	private Map<String, Integer> ramTable;
+	private GuestMap<Integer> ramTable;
 
 	/**
 	 * Instantiates a new ram provisioner simple.
@@ -36,7 +35,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 */
 	public RamProvisionerSimple(int availableRam) {
 		super(availableRam);
-		setRamTable(new HashMap<>());
+		setRamTable(new GuestMap<>());
 	}
 
 	@Override
@@ -53,7 +52,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 
 		if (getAvailableRam() >= ram) {
 			setAvailableRam(getAvailableRam() - ram);
-			getRamTable().put(guest.getUid(), ram);
+			getRamTable().put(guest, ram);
 			guest.setCurrentAllocatedRam(getAllocatedRamForGuest(guest));
 			return true;
 		}
@@ -65,17 +64,15 @@ public class RamProvisionerSimple extends RamProvisioner {
 
 	@Override
 	public int getAllocatedRamForGuest(GuestEntity guest) {
-		if (getRamTable().containsKey(guest.getUid())) {
-			return getRamTable().get(guest.getUid());
-		}
-		return 0;
+		Integer ram = getRamTable().get(guest);
+		return ram == null ? 0 : ram;
 	}
 
 	@Override
 	public void deallocateRamForGuest(GuestEntity guest) {
 		int allocatedRam = getAllocatedRamForGuest(guest);
 		if (allocatedRam > 0) {
-			int amountFreed = getRamTable().remove(guest.getUid());
+			int amountFreed = getRamTable().remove(guest);
 			setAvailableRam(getAvailableRam() + amountFreed);
 			guest.setCurrentAllocatedRam(0);
 		}
@@ -89,13 +86,13 @@ public class RamProvisionerSimple extends RamProvisioner {
 
 	@Override
 	public boolean isSuitableForGuest(GuestEntity guest, int ram) {
-		int allocatedRam = getAllocatedRamForGuest(guest);
-		boolean result = allocateRamForGuest(guest, ram);
-		deallocateRamForGuest(guest);
-		if (allocatedRam > 0) {
-			allocateRamForGuest(guest, allocatedRam);
-		}
-		return result;
+		return isSuitableForGuest(guest, ram, 0);
+	}
+
+	@Override
+	public boolean isSuitableForGuest(GuestEntity guest, int ram, int reservedRam) {
+		// the same check as allocateRamForGuest, without allocating
+		return getAvailableRam() - reservedRam + getAllocatedRamForGuest(guest) >= Math.min(ram, guest.getRam());
 	}
 
 	/**
@@ -103,7 +100,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 * 
 	 * @return the ram map
 	 */
-	protected Map<String, Integer> getRamTable() {
+	protected GuestMap<Integer> getRamTable() {
 		return ramTable;
 	}
 
@@ -112,7 +109,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 * 
 	 * @param ramTable the ram map
 	 */
-	protected void setRamTable(Map<String, Integer> ramTable) {
+	protected void setRamTable(GuestMap<Integer> ramTable) {
 		this.ramTable = ramTable;
 	}
 
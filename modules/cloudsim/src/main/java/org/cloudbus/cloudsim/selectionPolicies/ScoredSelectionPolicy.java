@@ -0,0 +1,60 @@
+/*
+ * Title: CloudSim Toolkit Description: CloudSim (Cloud Simulation) Toolkit for Modeling and
+ * Simulation of Clouds Licence: GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.selectionPolicies;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A selection policy that selects the candidate with the highest score, the first one of the
+ * candidate list if several have the same score. Only the candidates whose score is higher than
+ * the {@link #getMinScore() minimum score} can be selected.
+ * <p/>
+ * As the score of a candidate does not depend on the other candidates, the selection can be
+ * answered by an index of the candidates, e.g. the host index of
+ * {@link org.cloudbus.cloudsim.VmAllocationWithSelectionPolicy}.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public interface ScoredSelectionPolicy<T> extends SelectionPolicy<T> {
+    /**
+     * Gets the score of a candidate.
+     *
+     * @param candidate the candidate
+     * @return the score of the candidate
+     */
+    double getScore(T candidate);
+
+    /**
+     * Gets the score candidates must exceed to be selected.
+     *
+     * @return the minimum score, exclusive
+     */
+    default double getMinScore() {
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    @Override
+    default T select(List<T> candidates, Object obj, Set<T> excludedCandidates) {
+        double maxScore = getMinScore();
+        T selectedCandidate = null;
+
+        for (T candidate : candidates) {
+            if (excludedCandidates.contains(candidate)) {
+                continue;
+            }
+
+            double score = getScore(candidate);
+            if (score > maxScore) {
+                maxScore = score;
+                selectedCandidate = candidate;
+            }
+        }
+        return selectedCandidate;
+    }
+}
@@ -20,7 +20,7 @@ import java.util.Set;
  * @since CloudSim toolkit 7.0
  */
 
-public class SelectionPolicyFirstFit<CandidateEntity> implements SelectionPolicy<CandidateEntity> {
+public class SelectionPolicyFirstFit<CandidateEntity> implements ScoredSelectionPolicy<CandidateEntity> {
     @Override
     public CandidateEntity select(List<CandidateEntity> candidates, Object obj, Set<CandidateEntity> excludedCandidates) {
         CandidateEntity selectedHost = null;
@@ -33,4 +33,12 @@ public class SelectionPolicyFirstFit<CandidateEntity> implements SelectionPolicy
         }
         return selectedHost;
     }
+
+    /**
+     * All the candidates have the same score, so that the first one is selected.
+     */
+    @Override
+    public double getScore(CandidateEntity candidate) {
+        return 0;
+    }
 }
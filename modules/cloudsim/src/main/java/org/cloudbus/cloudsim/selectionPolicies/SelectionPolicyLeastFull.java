@@ -10,38 +10,23 @@ package org.cloudbus.cloudsim.selectionPolicies;
 import org.cloudbus.cloudsim.core.HostEntity;
 import org.cloudbus.cloudsim.power.PowerHost;
 
-import java.util.List;
-import java.util.Set;
-
 /**
  * Created by Remo Andreoli (June 2024).
  * Least-Full policy.
  *
  * @since CloudSim toolkit 7.0
  */
-public class SelectionPolicyLeastFull<T extends HostEntity> implements SelectionPolicy<T> {
+public class SelectionPolicyLeastFull<T extends HostEntity> implements ScoredSelectionPolicy<T> {
     @Override
-    public T select(List<T> candidates, Object obj, Set<T> excludedCandidates) {
-        double maxAvailable = Double.MIN_VALUE;
-        T selectedHost = null;
-
-        for (T hostCandidate : candidates) {
-            if (excludedCandidates.contains(hostCandidate)) {
-                continue;
-            }
-
-            double hostAvailable;
-            if (hostCandidate instanceof PowerHost powerHost) {
-                hostAvailable = powerHost.getUtilizationOfCpu();
-            } else {
-                hostAvailable = hostCandidate.getGuestScheduler().getAvailableMips();
-            }
-
-            if (hostAvailable > maxAvailable) {
-                maxAvailable = hostAvailable;
-                selectedHost = hostCandidate;
-            }
+    public double getScore(T candidate) {
+        if (candidate instanceof PowerHost powerHost) {
+            return powerHost.getUtilizationOfCpu();
         }
-        return selectedHost;
+        return candidate.getGuestScheduler().getAvailableMips();
+    }
+
+    @Override
+    public double getMinScore() {
+        return Double.MIN_VALUE;
     }
 }
@@ -10,38 +10,27 @@ package org.cloudbus.cloudsim.selectionPolicies;
 import org.cloudbus.cloudsim.core.HostEntity;
 import org.cloudbus.cloudsim.power.PowerHost;
 
-import java.util.List;
-import java.util.Set;
-
 /**
  * Created by Remo Andreoli (June 2024).
  * Most-Full (aka Worst-Fit) policy.
  *
  * @since CloudSim toolkit 7.0
  */
-public class SelectionPolicyMostFull<T extends HostEntity> implements SelectionPolicy<T> {
+public class SelectionPolicyMostFull<T extends HostEntity> implements ScoredSelectionPolicy<T> {
+    /**
+     * The score is the opposite of the available resources, so that the host with the least
+     * available resources has the highest score.
+     */
     @Override
-    public T select(List<T> candidates, Object obj, Set<T> excludedCandidates) {
-        double minAvailable = Double.MAX_VALUE;
-        T selectedHost = null;
-
-        for (T hostCandidate : candidates) {
-            if (excludedCandidates.contains(hostCandidate)) {
-                continue;
-            }
-
-            double hostAvailable;
-            if (hostCandidate instanceof PowerHost powerHost) {
-                hostAvailable = powerHost.getUtilizationOfCpu();
-            } else {
-                hostAvailable = hostCandidate.getGuestScheduler().getAvailableMips();
-            }
-
-            if (hostAvailable < minAvailable ) {
-                minAvailable = hostAvailable;
-                selectedHost = hostCandidate;
-            }
+    public double getScore(T candidate) {
+        if (candidate instanceof PowerHost powerHost) {
+            return -powerHost.getUtilizationOfCpu();
         }
-        return selectedHost;
+        return -candidate.getGuestScheduler().getAvailableMips();
+    }
+
+    @Override
+    public double getMinScore() {
+        return -Double.MAX_VALUE;
     }
 }
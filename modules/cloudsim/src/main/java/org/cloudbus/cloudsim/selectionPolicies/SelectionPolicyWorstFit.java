@@ -20,7 +20,7 @@ import java.util.*;
  * @since CloudSim toolkit 7.0
  */
 
-public class SelectionPolicyWorstFit<T extends HostEntity> implements SelectionPolicy<T> {
+public class SelectionPolicyWorstFit<T extends HostEntity> implements ScoredSelectionPolicy<T> {
     /** The map between each VM and the number of Pes used.
      * The map key is a VM UID and the value is the number of used Pes for that VM. */
     private Map<String, Integer> usedPes;
@@ -29,21 +29,13 @@ public class SelectionPolicyWorstFit<T extends HostEntity> implements SelectionP
     private List<Integer> freePes;
 
     @Override
-    public T select(List<T> candidates, Object obj, Set<T> excludedCandidates) {
-        int moreFree = Integer.MIN_VALUE;
-        T selectedHost = null;
-
-        for (T hostCandidate : candidates) {
-            if (excludedCandidates.contains(hostCandidate)) {
-                continue;
-            }
-
-            if (hostCandidate.getNumberOfFreePes() > moreFree) {
-                selectedHost = hostCandidate;
-                moreFree = hostCandidate.getNumberOfFreePes();
-            }
-        }
-        return selectedHost;
+    public double getScore(T candidate) {
+        return candidate.getNumberOfFreePes();
+    }
+
+    @Override
+    public double getMinScore() {
+        return Integer.MIN_VALUE;
     }
 
     protected List<Integer> getFreePes() { return freePes; }
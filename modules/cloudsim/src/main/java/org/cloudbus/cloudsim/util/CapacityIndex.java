@@ -0,0 +1,260 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.Arrays;
+
+/**
+ * An index of the free capacity of a list of hosts, e.g. their free MIPS and RAM, to find the hosts
+ * where a guest may fit without checking all of them. The free capacities are kept in a tree of
+ * maximums over ranges of positions, so that whole ranges of hosts without enough capacity in any
+ * dimension are skipped.
+ * <p/>
+ * The index only tells which hosts have enough free capacity; the hosts it finds still have to be
+ * checked for the other conditions, e.g. the capacity of each PE. Positions without a capacity
+ * never fit.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class CapacityIndex {
+
+	/** The number of dimensions of the capacities. */
+	private final int dimensions;
+
+	/** The number of positions. */
+	private final int size;
+
+	/** The number of leaves of the tree, a power of two. */
+	private final int leaves;
+
+	/**
+	 * The maximum capacity of each dimension over the positions of each node of the tree. The
+	 * capacity of dimension <tt>d</tt> of node <tt>n</tt> is at <tt>n * dimensions + d</tt>; the
+	 * root is node 1 and the leaf of position <tt>p</tt> is node <tt>leaves + p</tt>.
+	 */
+	private final double[] tree;
+
+	/**
+	 * Creates an index where no position has a capacity yet.
+	 *
+	 * @param size the number of positions, usually the number of hosts
+	 * @param dimensions the number of dimensions of the capacities
+	 */
+	public CapacityIndex(int size, int dimensions) {
+		if (size < 0 || dimensions < 1) {
+			throw new IllegalArgumentException("Invalid index size " + size + " or dimensions " + dimensions);
+		}
+		this.size = size;
+		this.dimensions = dimensions;
+		int leaves = 1;
+		while (leaves < size) {
+			leaves <<= 1;
+		}
+		this.leaves = leaves;
+		tree = new double[2 * leaves * dimensions];
+		Arrays.fill(tree, Double.NEGATIVE_INFINITY);
+	}
+
+	/**
+	 * Gets the number of positions.
+	 *
+	 * @return the number of positions
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the capacity of a position.
+	 *
+	 * @param position the position
+	 * @param dimension the dimension of the capacity
+	 * @return the capacity
+	 */
+	public double get(int position, int dimension) {
+		return tree[(leaves + checkPosition(position)) * dimensions + dimension];
+	}
+
+	/**
+	 * Sets the capacity of a position, e.g. after a guest is placed on the host at that position.
+	 *
+	 * @param position the position
+	 * @param dimension the dimension of the capacity
+	 * @param capacity the new capacity
+	 */
+	public void set(int position, int dimension, double capacity) {
+		int node = leaves + checkPosition(position);
+		tree[node * dimensions + dimension] = capacity;
+		for (node >>= 1; node > 0; node >>= 1) {
+			double max = Math.max(tree[2 * node * dimensions + dimension],
+					tree[(2 * node + 1) * dimensions + dimension]);
+			if (tree[node * dimensions + dimension] == max) {
+				break;
+			}
+			tree[node * dimensions + dimension] = max;
+		}
+	}
+
+	/**
+	 * Finds the first position, from a given one, whose capacity is at least a demand in every
+	 * dimension.
+	 *
+	 * @param from the first position to consider
+	 * @param demand the demand of each dimension
+	 * @return the position found, or -1 if no position from the given one fits the demand
+	 */
+	public int nextFit(int from, double[] demand) {
+		if (demand.length != dimensions) {
+			throw new IllegalArgumentException("The demand has " + demand.length + " dimensions instead of " + dimensions);
+		}
+		if (from >= size) {
+			return -1;
+		}
+		return nextFit(1, 0, leaves, Math.max(from, 0), demand);
+	}
+
+	/**
+	 * Finds all the positions whose capacity is at least a demand in every dimension.
+	 *
+	 * @param demand the demand of each dimension
+	 * @param positions the array where the positions found are stored in ascending order; it must
+	 *        have room for all the positions
+	 * @return the number of positions found
+	 */
+	public int findFits(double[] demand, int[] positions) {
+		if (demand.length != dimensions) {
+			throw new IllegalArgumentException("The demand has " + demand.length + " dimensions instead of " + dimensions);
+		}
+		return size == 0 ? 0 : findFits(1, demand, positions, 0);
+	}
+
+	/**
+	 * Finds the position with the highest capacity in a dimension, among the positions whose
+	 * capacity is at least a demand in every dimension. It answers best-fit or worst-fit queries,
+	 * depending on the capacity stored in that dimension, e.g. the negated free MIPS or the free MIPS.
+	 *
+	 * @param demand the demand of each dimension
+	 * @param dimension the dimension to maximize
+	 * @return the position found, the first one if several have the same capacity, or -1 if no
+	 *         position fits the demand
+	 */
+	public int bestFit(double[] demand, int dimension) {
+		if (demand.length != dimensions) {
+			throw new IllegalArgumentException("The demand has " + demand.length + " dimensions instead of " + dimensions);
+		}
+		if (size == 0) {
+			return -1;
+		}
+		return bestFit(1, 0, demand, dimension, -1);
+	}
+
+	/**
+	 * Finds the first position, from a given one, in the range of a node of the tree whose
+	 * capacity is at least a demand in every dimension.
+	 *
+	 * @param node the node
+	 * @param low the first position of the node
+	 * @param high the position following the last position of the node
+	 * @param from the first position to consider
+	 * @param demand the demand of each dimension
+	 * @return the position found, or -1 if there is none
+	 */
+	private int nextFit(int node, int low, int high, int from, double[] demand) {
+		if (high <= from || !fits(node, demand)) {
+			return -1;
+		}
+		if (node >= leaves) {
+			return low;
+		}
+		int middle = (low + high) >>> 1;
+		int position = nextFit(2 * node, low, middle, from, demand);
+		return position >= 0 ? position : nextFit(2 * node + 1, middle, high, from, demand);
+	}
+
+	/**
+	 * Searches the positions of a node of the tree for a better position than the best one found
+	 * so far, visiting first the child with the highest capacity. The nodes which cannot hold a
+	 * better position are skipped.
+	 *
+	 * @param node the node
+	 * @param low the first position of the node
+	 * @param demand the demand of each dimension
+	 * @param dimension the dimension to maximize
+	 * @param best the best position found so far, or -1
+	 * @return the best position found
+	 */
+	private int bestFit(int node, int low, double[] demand, int dimension, int best) {
+		if (!fits(node, demand)) {
+			return best;
+		}
+		double capacity = tree[node * dimensions + dimension];
+		if (best >= 0) {
+			double bestCapacity = tree[(leaves + best) * dimensions + dimension];
+			// the positions of the node follow the best one, they are only better with a higher capacity
+			if (capacity < bestCapacity || capacity == bestCapacity && low > best) {
+				return best;
+			}
+		}
+		if (node >= leaves) {
+			return low;
+		}
+		int half = (leaves >>> (31 - Integer.numberOfLeadingZeros(node))) >>> 1;
+		int left = 2 * node;
+		int right = left + 1;
+		if (tree[right * dimensions + dimension] > tree[left * dimensions + dimension]) {
+			return bestFit(left, low, demand, dimension, bestFit(right, low + half, demand, dimension, best));
+		}
+		return bestFit(right, low + half, demand, dimension, bestFit(left, low, demand, dimension, best));
+	}
+
+	/**
+	 * Finds all the positions of a node of the tree whose capacity is at least a demand in every
+	 * dimension.
+	 *
+	 * @param node the node
+	 * @param demand the demand of each dimension
+	 * @param positions the array where the positions found are stored
+	 * @param count the number of positions already stored
+	 * @return the number of positions stored
+	 */
+	private int findFits(int node, double[] demand, int[] positions, int count) {
+		if (!fits(node, demand)) {
+			return count;
+		}
+		if (node >= leaves) {
+			positions[count++] = node - leaves;
+			return count;
+		}
+		return findFits(2 * node + 1, demand, positions, findFits(2 * node, demand, positions, count));
+	}
+
+	/**
+	 * Checks whether the maximum capacities of a node are at least a demand in every dimension.
+	 *
+	 * @param node the node
+	 * @param demand the demand of each dimension
+	 * @return $true if the node may have a position that fits the demand
+	 */
+	private boolean fits(int node, double[] demand) {
+		int offset = node * dimensions;
+		for (int dimension = 0; dimension < dimensions; dimension++) {
+			if (!(tree[offset + dimension] >= demand[dimension])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int checkPosition(int position) {
+		if (position < 0 || position >= size) {
+			throw new IndexOutOfBoundsException("Position " + position + " out of " + size);
+		}
+		return position;
+	}
+}
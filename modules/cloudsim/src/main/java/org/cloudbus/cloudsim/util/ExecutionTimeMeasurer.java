@@ -29,8 +29,10 @@ public class ExecutionTimeMeasurer {
          * //@TODO The name of the attribute doesn't match with what it stores.
          * It in fact stores the method/process start time,
          * no the time it spent executing.
+         * Each thread has its own map, so that simulations run by different
+         * threads can measure the same methods at the same time.
          */
-	private final static Map<String, Long> executionTimes = new HashMap<>();
+	private final static ThreadLocal<Map<String, Long>> executionTimes = ThreadLocal.withInitial(HashMap::new);
 
 	/**
 	 * Start measuring the execution time of a method/process.
@@ -58,13 +60,13 @@ public class ExecutionTimeMeasurer {
 	}
 
 	/**
-	 * Gets map the execution times.
+	 * Gets map the execution times of the calling thread.
 	 * 
 	 * @return the execution times map
          * @see #executionTimes
 	 */
 	public static Map<String, Long> getExecutionTimes() {
-		return executionTimes;
+		return executionTimes.get();
 	}
 
 }
@@ -13,6 +13,7 @@ import java.util.PriorityQueue;
 public class HistoryStat extends ArrayDeque<Double> {
     private final int max_size;
     private double sum = 0.0;
+    private long modCount = 0;
     private PriorityQueue<Double> lower;
     private PriorityQueue<Double> higher;
 
@@ -61,6 +62,7 @@ public class HistoryStat extends ArrayDeque<Double> {
         }
         boolean rv = super.offer(val);
         sum += val;
+        modCount++;
         if (lower != null)
             addHeaps(val);
         return rv;
@@ -85,4 +87,15 @@ public class HistoryStat extends ArrayDeque<Double> {
     public double getMean() {
         return sum / size();
     }
+
+    /**
+     * Gets the number of samples offered so far, which tells whether the history has changed
+     * since it was last read.
+     *
+     * @return the number of offered samples
+     * @since CloudSim Toolkit 7.0
+     */
+    public long getModCount() {
+        return modCount;
+    }
 }
@@ -0,0 +1,241 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A whole <a href="https://www.planet-lab.org">PlanetLab</a> workload, i.e. the traces of a folder
+ * with one file per VM, packed in a single binary file that is memory-mapped instead of parsed.
+ * The file is created once by {@link #convert(String, String)}, and can then be shared by all the
+ * simulations of a JVM, the utilization samples never being copied to the heap.
+ * <p>
+ * The traces are kept in the order the folder lists them, so that a simulation assigning them to
+ * its VMs in this order gets the same results with the folder and with the file, and they can be
+ * looked up by file name. The file starts with a header: the magic number, the format
+ * version, the number of traces and the number of samples per trace, as ints, followed by the name
+ * of each trace, as in {@link DataOutputStream#writeUTF(String)}. The samples follow, trace by
+ * trace, each of them a CPU utilization percentage stored in an unsigned byte.
+ *
+ * @see org.cloudbus.cloudsim.UtilizationModelPlanetLabMapped
+ * @since CloudSim Toolkit 7.0
+ */
+public final class PlanetLabTraceFile {
+
+	/** The magic number of the files ("PLTR"). */
+	private static final int MAGIC = 0x504C5452;
+
+	/** The version of the format. */
+	private static final int VERSION = 1;
+
+	/** The size of the header, without the names of the traces. */
+	private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+	/** The mapped samples of all the traces. */
+	private final ByteBuffer samples;
+
+	/** The number of samples of each trace. */
+	private final int sampleCount;
+
+	/** The names of the traces, in the order of the file. */
+	private final List<String> names;
+
+	/** The position of each trace, by name. */
+	private final Map<String, Integer> indexes;
+
+	private PlanetLabTraceFile(ByteBuffer samples, int sampleCount, List<String> names) {
+		this.samples = samples;
+		this.sampleCount = sampleCount;
+		this.names = names;
+		indexes = new HashMap<>(names.size() * 2);
+		for (int i = 0; i < names.size(); i++) {
+			indexes.put(names.get(i), i);
+		}
+	}
+
+	/**
+	 * Maps a file created by {@link #convert(String, String)}.
+	 *
+	 * @param path the path of the file
+	 * @return the mapped traces
+	 * @throws IOException if the file can not be read or is not in the expected format
+	 */
+	public static PlanetLabTraceFile open(String path) throws IOException {
+		MappedByteBuffer buffer;
+		try (RandomAccessFile file = new RandomAccessFile(path, "r");
+				FileChannel channel = file.getChannel()) {
+			// the mapping remains valid after the channel is closed
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if (buffer.limit() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+			throw new IOException(path + " is not a PlanetLab trace file");
+		}
+		int version = buffer.getInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported version " + version + " of PlanetLab trace file " + path);
+		}
+		int traceCount = buffer.getInt();
+		int sampleCount = buffer.getInt();
+
+		List<String> names = new ArrayList<>(traceCount);
+		for (int i = 0; i < traceCount; i++) {
+			byte[] name = new byte[buffer.getShort() & 0xFFFF];
+			buffer.get(name);
+			names.add(new String(name, StandardCharsets.UTF_8));
+		}
+		if (buffer.remaining() != (long) traceCount * sampleCount) {
+			throw new IOException("Truncated PlanetLab trace file " + path);
+		}
+		return new PlanetLabTraceFile(buffer.slice(), sampleCount, names);
+	}
+
+	/**
+	 * Packs the traces of a PlanetLab workload folder in a single file. All the traces must have
+	 * the same number of samples, each being an integer percentage on its own line.
+	 *
+	 * @param inputFolder the folder of the workload, with one trace file per VM
+	 * @param outputPath the path of the file to create
+	 * @throws IOException if a trace can not be read, or the file can not be written
+	 * @throws IllegalArgumentException if the traces are not valid
+	 */
+	public static void convert(String inputFolder, String outputPath) throws IOException {
+		File[] files = new File(inputFolder).listFiles(File::isFile);
+		if (files == null) {
+			throw new FileNotFoundException(inputFolder + " is not a folder");
+		}
+
+		List<byte[]> traces = new ArrayList<>(files.length);
+		for (File file : files) {
+			byte[] trace = readTrace(file);
+			if (!traces.isEmpty() && trace.length != traces.get(0).length) {
+				throw new IllegalArgumentException("The trace " + file + " has " + trace.length
+						+ " samples instead of " + traces.get(0).length);
+			}
+			traces.add(trace);
+		}
+
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(outputPath)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(files.length);
+			output.writeInt(traces.isEmpty() ? 0 : traces.get(0).length);
+			for (File file : files) {
+				output.writeUTF(file.getName());
+			}
+			for (byte[] trace : traces) {
+				output.write(trace);
+			}
+		}
+	}
+
+	private static byte[] readTrace(File file) throws IOException {
+		ByteArrayOutputStream trace = new ByteArrayOutputStream(512);
+		try (BufferedReader input = new BufferedReader(new FileReader(file))) {
+			String line;
+			while ((line = input.readLine()) != null) {
+				if (line.isBlank()) {
+					continue;
+				}
+				int utilization = Integer.parseInt(line.trim());
+				if (utilization < 0 || utilization > 255) {
+					throw new IllegalArgumentException("Invalid utilization " + utilization + " in " + file);
+				}
+				trace.write(utilization);
+			}
+		}
+		return trace.toByteArray();
+	}
+
+	/**
+	 * Converts a PlanetLab workload folder to a trace file.
+	 *
+	 * @param args the folder of the workload and the path of the file to create
+	 * @throws IOException if the conversion fails
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: PlanetLabTraceFile <workload folder> <output file>");
+			System.exit(1);
+		}
+		convert(args[0], args[1]);
+	}
+
+	/**
+	 * Gets the number of traces.
+	 *
+	 * @return the number of traces
+	 */
+	public int getTraceCount() {
+		return names.size();
+	}
+
+	/**
+	 * Gets the number of samples of each trace.
+	 *
+	 * @return the number of samples
+	 */
+	public int getSampleCount() {
+		return sampleCount;
+	}
+
+	/**
+	 * Gets the name of a trace, i.e. the name of its original file.
+	 *
+	 * @param trace the position of the trace
+	 * @return the name of the trace
+	 */
+	public String getName(int trace) {
+		return names.get(trace);
+	}
+
+	/**
+	 * Gets the position of a trace.
+	 *
+	 * @param name the name of the trace
+	 * @return the position of the trace, or -1 if there is none with this name
+	 */
+	public int indexOf(String name) {
+		Integer index = indexes.get(name);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Gets a utilization sample.
+	 *
+	 * @param trace the position of the trace
+	 * @param sample the position of the sample in the trace
+	 * @return the utilization, between 0 and 1
+	 */
+	public double getUtilization(int trace, int sample) {
+		if (sample < 0 || sample >= sampleCount) {
+			throw new IndexOutOfBoundsException("Sample " + sample + " out of " + sampleCount);
+		}
+		// the absolute get does not change the buffer, so it can be shared by several threads
+		return (samples.get(trace * sampleCount + sample) & 0xFF) / 100.0;
+	}
+}
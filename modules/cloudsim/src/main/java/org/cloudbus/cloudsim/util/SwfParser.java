@@ -0,0 +1,528 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * Parses the jobs of a trace in the <a href="http://www.cs.huji.ac.il/labs/parallel/workload/">
+ * Standard Workload Format</a> for the {@link WorkloadFileReader}. The trace is read in chunks of
+ * whole lines, which are parsed in parallel while the next chunks are read, at most a few chunks
+ * being in memory at the same time. The fields of the lines are parsed in place, without
+ * allocating a string per line or per field.
+ * <p>
+ * The lines are parsed as {@link WorkloadFileReader} has always done: a line is skipped if it is a
+ * comment, if it does not have exactly the expected number of fields, or if one of the used fields
+ * is not an integer.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+final class SwfParser {
+
+	/** The size of the chunks of the trace parsed in parallel. */
+	static final int CHUNK_SIZE = 1 << 20;
+
+	/** The field index meaning that the field is not in the trace. */
+	static final int IRRELEVANT = -1;
+
+	/** The value returned by {@link #parseLong(byte[], int[], int[], int)} for an invalid number. */
+	private static final long INVALID = Long.MIN_VALUE;
+
+	/** The indexes of the fields. */
+	private final int jobNum, submitTime, runTime, numProc, reqNumProc, reqRunTime, userId, groupId;
+
+	/** The number of fields of a line. */
+	private final int maxField;
+
+	/** The start of a comment line. */
+	private final byte[] comment;
+
+	/**
+	 * Creates a parser.
+	 *
+	 * @param jobNum the index of the job number field, or {@link #IRRELEVANT} to number the jobs
+	 * @param submitTime the index of the submit time field
+	 * @param runTime the index of the run time field
+	 * @param numProc the index of the number of processors field
+	 * @param reqNumProc the index of the requested number of processors field
+	 * @param reqRunTime the index of the requested run time field
+	 * @param userId the index of the user id field
+	 * @param groupId the index of the group id field
+	 * @param maxField the number of fields of a line
+	 * @param comment the start of a comment line
+	 */
+	SwfParser(int jobNum, int submitTime, int runTime, int numProc, int reqNumProc, int reqRunTime,
+			int userId, int groupId, int maxField, String comment) {
+		this.jobNum = jobNum;
+		this.submitTime = submitTime;
+		this.runTime = runTime;
+		this.numProc = numProc;
+		this.reqNumProc = reqNumProc;
+		this.reqRunTime = reqRunTime;
+		this.userId = userId;
+		this.groupId = groupId;
+		this.maxField = maxField;
+		this.comment = comment.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * The jobs parsed from a chunk of a trace, as columns.
+	 */
+	static final class Jobs {
+
+		/** The number of jobs. */
+		int size;
+
+		/** The job numbers, unused if the jobs are numbered by the reader. */
+		int[] ids;
+
+		/** The submit times. */
+		long[] submitTimes;
+
+		/** The run times, in seconds. */
+		int[] runTimes;
+
+		/** The numbers of processors. */
+		int[] numProcs;
+
+		Jobs(int capacity) {
+			ids = new int[capacity];
+			submitTimes = new long[capacity];
+			runTimes = new int[capacity];
+			numProcs = new int[capacity];
+		}
+
+		void add(int id, long submitTime, int runTime, int numProc) {
+			if (size == ids.length) {
+				int capacity = 2 * size;
+				ids = Arrays.copyOf(ids, capacity);
+				submitTimes = Arrays.copyOf(submitTimes, capacity);
+				runTimes = Arrays.copyOf(runTimes, capacity);
+				numProcs = Arrays.copyOf(numProcs, capacity);
+			}
+			ids[size] = id;
+			submitTimes[size] = submitTime;
+			runTimes[size] = runTime;
+			numProcs[size] = numProc;
+			size++;
+		}
+	}
+
+	/**
+	 * Parses whole lines of a trace.
+	 *
+	 * @param bytes the bytes of the trace
+	 * @param from the start of the first line
+	 * @param to the end of the last line
+	 * @return the parsed jobs
+	 */
+	Jobs parse(byte[] bytes, int from, int to) {
+		Jobs jobs = new Jobs(Math.max(16, (to - from) / 64));
+		int[] starts = new int[maxField];
+		int[] ends = new int[maxField];
+		int lineStart = from;
+		while (lineStart < to) {
+			int lineEnd = lineStart;
+			while (lineEnd < to && bytes[lineEnd] != '\n') {
+				lineEnd++;
+			}
+			parseLine(bytes, lineStart, lineEnd, starts, ends, jobs);
+			lineStart = lineEnd + 1;
+		}
+		return jobs;
+	}
+
+	/**
+	 * Parses a line, adding its job if it is valid.
+	 */
+	private void parseLine(byte[] bytes, int from, int to, int[] starts, int[] ends, Jobs jobs) {
+		if (isComment(bytes, from, to)) {
+			return;
+		}
+
+		int count = 0;
+		int i = from;
+		while (true) {
+			while (i < to && isWhitespace(bytes[i])) {
+				i++;
+			}
+			if (i == to) {
+				break;
+			}
+			if (count == maxField) {
+				return;
+			}
+			starts[count] = i;
+			while (i < to && !isWhitespace(bytes[i])) {
+				i++;
+			}
+			ends[count] = i;
+			count++;
+		}
+		if (count != maxField) {
+			return;
+		}
+
+		int id = 0;
+		if (jobNum != IRRELEVANT) {
+			long value = parseInt(bytes, starts, ends, jobNum);
+			if (value == INVALID) {
+				return;
+			}
+			id = (int) value;
+		}
+
+		long submit = parseLong(bytes, starts, ends, submitTime);
+		long reqRun = parseInt(bytes, starts, ends, reqRunTime);
+		long run = parseInt(bytes, starts, ends, runTime);
+		long user = parseInt(bytes, starts, ends, userId);
+		long group = parseInt(bytes, starts, ends, groupId);
+		long proc = parseInt(bytes, starts, ends, reqNumProc);
+		if (submit == INVALID || reqRun == INVALID || run == INVALID || user == INVALID || group == INVALID
+				|| proc == INVALID) {
+			return;
+		}
+
+		// according to the SWF manual, runtime of 0 is possible due
+		// to rounding down. E.g. runtime is 0.4 seconds -> runtime = 0
+		if (run <= 0) {
+			run = 1;
+		}
+
+		// if the required num of allocated processors field is ignored
+		// or zero, then use the actual field
+		if (proc == IRRELEVANT || proc == 0) {
+			proc = parseInt(bytes, starts, ends, numProc);
+			if (proc == INVALID) {
+				return;
+			}
+		}
+		if (proc <= 0) {
+			proc = 1;
+		}
+
+		jobs.add(id, (int) submit, (int) run, (int) proc);
+	}
+
+	private boolean isComment(byte[] bytes, int from, int to) {
+		if (to - from < comment.length) {
+			return false;
+		}
+		for (int i = 0; i < comment.length; i++) {
+			if (bytes[from + i] != comment[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** Checks if a byte is a whitespace, as in the \s regular expression. */
+	private static boolean isWhitespace(byte b) {
+		return b == ' ' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B || b == '\n';
+	}
+
+	private static long parseInt(byte[] bytes, int[] starts, int[] ends, int field) {
+		long value = parseLong(bytes, starts, ends, field);
+		return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? INVALID : value;
+	}
+
+	/**
+	 * Parses an integer field, as {@link Long#parseLong(String)}.
+	 *
+	 * @return the value, or {@link #INVALID} if it is not a valid number or the field does not exist
+	 */
+	private static long parseLong(byte[] bytes, int[] starts, int[] ends, int field) {
+		if (field < 0 || field >= starts.length) {
+			return INVALID;
+		}
+		int i = starts[field];
+		int end = ends[field];
+		boolean negative = false;
+		if (bytes[i] == '-' || bytes[i] == '+') {
+			negative = bytes[i] == '-';
+			i++;
+			if (i == end) {
+				return INVALID;
+			}
+		}
+		// accumulated negatively, as Long.parseLong, to reach Long.MIN_VALUE
+		long value = 0;
+		for (; i < end; i++) {
+			int digit = bytes[i] - '0';
+			if (digit < 0 || digit > 9 || value < (Long.MIN_VALUE + digit) / 10) {
+				return INVALID;
+			}
+			value = value * 10 - digit;
+		}
+		if (negative) {
+			return value;
+		}
+		return value == Long.MIN_VALUE ? INVALID : -value;
+	}
+
+	/**
+	 * Reads traces in chunks of whole lines and parses them in parallel, in the common fork-join
+	 * pool. The chunks are returned in the order of the traces.
+	 */
+	static final class Chunks implements Closeable {
+
+		private final SwfParser parser;
+
+		/** The traces to read, one after the other. */
+		private final Iterator<InputStream> inputs;
+
+		/** Released once all the traces are read, or the chunks are closed. */
+		private final Closeable resource;
+
+		/** The chunks being parsed, in order. */
+		private final Deque<CompletableFuture<Jobs>> parsing = new ArrayDeque<>();
+
+		/** The maximum number of chunks being parsed at the same time. */
+		private final int window = ForkJoinPool.getCommonPoolParallelism() + 2;
+
+		/** The trace being read, or null if there is none left. */
+		private InputStream input;
+
+		/** The start of the line read last from the current trace, to be parsed with the next chunk. */
+		private byte[] pending = new byte[0];
+
+		Chunks(SwfParser parser, Iterator<InputStream> inputs, Closeable resource) {
+			this.parser = parser;
+			this.inputs = inputs;
+			this.resource = resource;
+			input = inputs.hasNext() ? inputs.next() : null;
+		}
+
+		/**
+		 * Gets the jobs of the next chunk.
+		 *
+		 * @return the jobs, or null if all the traces have been read
+		 * @throws IOException if a trace can not be read
+		 */
+		Jobs next() throws IOException {
+			while (parsing.size() < window && input != null) {
+				readChunk();
+			}
+			if (parsing.isEmpty()) {
+				close();
+				return null;
+			}
+			try {
+				return parsing.removeFirst().join();
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+			}
+		}
+
+		/**
+		 * Reads the next chunk of the current trace, and starts parsing it.
+		 */
+		private void readChunk() throws IOException {
+			byte[] buffer = Arrays.copyOf(pending, Math.max(CHUNK_SIZE, 2 * pending.length));
+			int length = pending.length;
+			pending = new byte[0];
+
+			boolean end = false;
+			while (length < buffer.length) {
+				int read = input.read(buffer, length, buffer.length - length);
+				if (read < 0) {
+					end = true;
+					break;
+				}
+				length += read;
+			}
+
+			int chunkEnd = length;
+			if (end) {
+				input.close();
+				input = inputs.hasNext() ? inputs.next() : null;
+			} else {
+				int lastLine = length - 1;
+				while (lastLine >= 0 && buffer[lastLine] != '\n') {
+					lastLine--;
+				}
+				if (lastLine < 0) {
+					// a line longer than the buffer: read more of it with a larger buffer
+					pending = Arrays.copyOf(buffer, length);
+					return;
+				}
+				chunkEnd = lastLine + 1;
+				pending = Arrays.copyOfRange(buffer, chunkEnd, length);
+			}
+
+			if (chunkEnd > 0) {
+				int to = chunkEnd;
+				parsing.addLast(CompletableFuture.supplyAsync(() -> parser.parse(buffer, 0, to)));
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			for (CompletableFuture<Jobs> chunk : parsing) {
+				chunk.cancel(false);
+			}
+			parsing.clear();
+			try {
+				if (input != null) {
+					input.close();
+					input = null;
+				}
+			} finally {
+				resource.close();
+			}
+		}
+	}
+
+	/**
+	 * Iterates over the jobs of traces, in the order of the traces.
+	 */
+	static final class JobIterator implements Iterator<WorkloadJob>, Closeable {
+
+		private final Chunks chunks;
+
+		/** Creates the cloudlet of a job, given its job number, length and number of PEs. */
+		private final CloudletFactory factory;
+
+		/** The cloudlet PE rating, to get the length of the jobs from their run time. */
+		private final int rating;
+
+		/** Whether the jobs are numbered here, rather than by the job number field. */
+		private final boolean numbered;
+
+		/** The number of jobs returned. */
+		private int count;
+
+		/** The jobs of the current chunk. */
+		private Jobs current;
+
+		/** The position of the next job in {@link #current}. */
+		private int position;
+
+		JobIterator(Chunks chunks, int rating, boolean numbered, CloudletFactory factory) {
+			this.chunks = chunks;
+			this.rating = rating;
+			this.numbered = numbered;
+			this.factory = factory;
+		}
+
+		@Override
+		public boolean hasNext() {
+			try {
+				while (current == null || position == current.size) {
+					current = chunks.next();
+					position = 0;
+					if (current == null) {
+						return false;
+					}
+				}
+				return true;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public WorkloadJob next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			count++;
+			int id = numbered ? count : current.ids[position];
+			final int len = current.runTimes[position] * rating;
+			Cloudlet cloudlet = factory.create(id, len, current.numProcs[position]);
+			double submit = current.submitTimes[position];
+			position++;
+			return new WorkloadJob(cloudlet, submit);
+		}
+
+		@Override
+		public void close() throws IOException {
+			current = null;
+			chunks.close();
+		}
+	}
+
+	/** Creates the cloudlet of a job. */
+	@FunctionalInterface
+	interface CloudletFactory {
+
+		Cloudlet create(int id, long length, int numProc);
+	}
+
+	/**
+	 * Returns the jobs of another iterator in the order of their submit time, assuming that no job
+	 * is submitted before the ones preceding it by more than a given number of jobs, as in the
+	 * traces sorted by submit time. The jobs too far from their place are returned as soon as they
+	 * are found.
+	 */
+	static final class SortedIterator implements Iterator<WorkloadJob> {
+
+		private final Iterator<WorkloadJob> jobs;
+
+		private final int window;
+
+		/** The next jobs, in the order they are returned. */
+		private final PriorityQueue<Entry> next;
+
+		/** The number of jobs read from the other iterator. */
+		private long read;
+
+		SortedIterator(Iterator<WorkloadJob> jobs, int window) {
+			this.jobs = jobs;
+			this.window = window;
+			next = new PriorityQueue<>(window, Comparator.comparingDouble((Entry entry) -> entry.job.getSubmitTime())
+					.thenComparingLong(entry -> entry.position));
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (next.size() < window && jobs.hasNext()) {
+				next.add(new Entry(jobs.next(), read++));
+			}
+			return !next.isEmpty();
+		}
+
+		@Override
+		public WorkloadJob next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return next.poll().job;
+		}
+
+		/** A job, with its position in the other iterator to keep the order of equal times. */
+		private static final class Entry {
+
+			final WorkloadJob job;
+
+			final long position;
+
+			Entry(WorkloadJob job, long position) {
+				this.job = job;
+				this.position = position;
+			}
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory;
+
+/**
+ * A cache of the workload traces read by the simulations of a JVM, so that each trace file is
+ * read only once even when many simulations, e.g. the experiments of a parameter sweep, use it at
+ * the same time from different threads.
+ * <p>
+ * The cached data is shared by all its users and must never be modified. It is kept until
+ * {@link #clear()} is called.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public final class TraceCache {
+
+	/**
+	 * Reads the data of a trace file.
+	 *
+	 * @param <T> the type of the data
+	 */
+	@FunctionalInterface
+	public interface Loader<T> {
+
+		/**
+		 * Reads the data of a trace file.
+		 *
+		 * @param path the path of the file
+		 * @return the data, which must be immutable or never modified afterward
+		 * @throws IOException if the file can not be read
+		 */
+		T load(String path) throws IOException;
+	}
+
+	/** The cached data, by path and format of the file. */
+	private static final Map<List<Object>, Object> CACHE = new ConcurrentHashMap<>();
+
+	private TraceCache() {
+	}
+
+	/**
+	 * Gets the data of a trace file, reading it if it is not cached yet. Threads asking for the
+	 * same file at the same time wait for a single read.
+	 *
+	 * @param path the path of the file
+	 * @param format identifies the format of the data, and the options used to read it; the same
+	 *        file can be cached in several formats
+	 * @param loader reads the file if it is not cached yet
+	 * @param <T> the type of the data
+	 * @return the shared data, which must not be modified
+	 * @throws IOException if the file can not be read
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T get(String path, Object format, Loader<? extends T> loader) throws IOException {
+		List<Object> key = List.of(new File(path).getAbsolutePath(), format);
+		try {
+			return (T) CACHE.computeIfAbsent(key, k -> {
+				try {
+					return loader.load(path);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Gets the utilization samples of a PlanetLab trace file.
+	 *
+	 * @param path the path of the file
+	 * @param dataSamples the number of samples
+	 * @return the shared samples, which must not be modified
+	 * @throws IOException if the file can not be read
+	 * @see UtilizationModelPlanetLabInMemory#UtilizationModelPlanetLabInMemory(double[], double)
+	 */
+	public static double[] getPlanetLabData(String path, int dataSamples) throws IOException {
+		return get(path, List.of("planetlab", dataSamples),
+				p -> UtilizationModelPlanetLabInMemory.readData(p, dataSamples));
+	}
+
+	/**
+	 * Gets a memory-mapped PlanetLab workload.
+	 *
+	 * @param path the path of a file created by {@link PlanetLabTraceFile#convert(String, String)}
+	 * @return the shared workload
+	 * @throws IOException if the file can not be read
+	 */
+	public static PlanetLabTraceFile getPlanetLabTraceFile(String path) throws IOException {
+		return get(path, PlanetLabTraceFile.class, PlanetLabTraceFile::open);
+	}
+
+	/**
+	 * Gets the number of cached traces.
+	 *
+	 * @return the number of cached traces
+	 */
+	public static int size() {
+		return CACHE.size();
+	}
+
+	/**
+	 * Removes all the cached traces. The simulations still using them are not affected.
+	 */
+	public static void clear() {
+		CACHE.clear();
+	}
+}
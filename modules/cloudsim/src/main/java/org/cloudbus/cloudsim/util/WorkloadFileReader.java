@@ -8,14 +8,19 @@
 
 package org.cloudbus.cloudsim.util;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -35,7 +40,8 @@ import org.cloudbus.cloudsim.UtilizationModelFull;
  * <li>If you need to load multiple trace files, then you need to create multiple instances of this
  * class <tt>each with a unique entity name</tt>.
  * <li>If size of the trace file is huge or contains lots of traces, please increase the JVM heap
- * size accordingly by using <tt>java -Xmx</tt> option when running the simulation.
+ * size accordingly by using <tt>java -Xmx</tt> option when running the simulation, or read the
+ * jobs with {@link #streamWorkload()}, which keeps only a few chunks of the file in memory.
  * <li>The default job file size for sending to and receiving from a resource is
  * {@link gridsim.net.Link#DEFAULT_MTU}. However, you can specify the file size by using
  * {@link #setCloudletFileSize(int)}.
@@ -79,9 +85,10 @@ public class WorkloadFileReader implements WorkloadModel {
     private final int rating; 
 
     /**
-     * List of Cloudlets created from the trace {@link #file}.
+     * List of Cloudlets created from the trace {@link #file}. It is not saved with the reader,
+     * since it can be read again.
      */
-    private ArrayList<Cloudlet> jobs = null;
+    private transient ArrayList<Cloudlet> jobs = null;
 
     
     /* Index of fields from the Standard Workload Format. */
@@ -142,12 +149,23 @@ public class WorkloadFileReader implements WorkloadModel {
      * gotten from the trace file, but has to be generated by this workload generator
      * class.
      */
-    private static final int IRRELEVANT = -1; 
+    private static final int IRRELEVANT = SwfParser.IRRELEVANT; 
 
     /**
-     * A temp array storing all the fields read from a line of the trace file.
+     * The number of jobs {@link #streamWorkload()} looks ahead to return them in the order of
+     * their submit time.
      */
-    private String[] fieldArray = null; 
+    private static final int REORDER_WINDOW = 1024;
+
+    /**
+     * The size of the buffer of the decompressed traces.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Whether the jobs read from the trace file are kept in the {@link TraceCache}.
+     */
+    private boolean cached = false;
 
     /**
      * Create a new WorkloadFileReader object.
@@ -190,30 +208,72 @@ public class WorkloadFileReader implements WorkloadModel {
     @Override
     public ArrayList<Cloudlet> generateWorkload() {
             if (jobs == null) {
-                    jobs = new ArrayList<>();
-
-                    // create a temp array
-                    fieldArray = new String[MAX_FIELD];
-
-                    try {
-                            /*//@TODO It would be implemented
-                            using specific classes to avoid using ifs.
-                            If a new format is included, the code has to be
-                            changed to include another if*/
-                            if (file.getName().endsWith(".gz")) {
-                                    readGZIPFile(file);
-                            } else if (file.getName().endsWith(".zip")) {
-                                    readZipFile(file);
-                            } else {
-                                    readFile(file);
+                    if (cached) {
+                            try {
+                                    long[] trace = TraceCache.get(file.getPath(),
+                                                    List.of("swf", rating, JOB_NUM, SUBMIT_TIME, REQ_RUN_TIME,
+                                                                    REQ_NUM_PROC, MAX_FIELD, COMMENT),
+                                                    path -> toJobArray(readJobs()));
+                                    jobs = new ArrayList<>(trace.length / 3);
+                                    for (int i = 0; i < trace.length; i += 3) {
+                                            jobs.add(createJob((int) trace[i], trace[i + 1], (int) trace[i + 2]));
+                                    }
+                            } catch (final IOException | UncheckedIOException e) {
+                                    jobs = new ArrayList<>();
                             }
-                    } catch (final IOException e) {
+                    } else {
+                            jobs = readJobs();
                     }
             }
 
             return jobs;
     }
 
+    /**
+     * Reads the jobs of the trace file lazily, creating their cloudlets as they are consumed,
+     * so that only a few chunks of the file are in memory at the same time. The chunks are
+     * parsed in parallel while the previous jobs are consumed.
+     * <p/>
+     * The jobs are returned in the order of their submit time, as long as the trace file is nearly
+     * sorted by submit time, as the Standard Workload Format requires: a job listed more than
+     * {@link #REORDER_WINDOW} jobs after later ones is returned as soon as it is read.
+     * 
+     * @return the jobs of the trace file
+     * @throws UncheckedIOException if the trace file can not be read
+     * @since CloudSim Toolkit 7.0
+     */
+    @Override
+    public Stream<WorkloadJob> streamWorkload() {
+            final SwfParser.JobIterator iterator;
+            try {
+                    iterator = openJobs();
+            } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+            }
+            final Iterator<WorkloadJob> sorted = new SwfParser.SortedIterator(iterator, REORDER_WINDOW);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(sorted,
+                            Spliterator.ORDERED | Spliterator.NONNULL), false)
+                            .onClose(() -> {
+                                    try {
+                                            iterator.close();
+                                    } catch (final IOException e) {
+                                            throw new UncheckedIOException(e);
+                                    }
+                            });
+    }
+
+    /**
+     * Sets whether the jobs read from the trace file are kept in the {@link TraceCache}, so that
+     * the other readers of the same file, with the same settings, do not have to parse it again.
+     * Each reader still creates its own cloudlets. By default, the jobs are not cached.
+     * 
+     * @param cached <code>true</code> to use the cache
+     * @since CloudSim Toolkit 7.0
+     */
+    public void setCached(final boolean cached) {
+            this.cached = cached;
+    }
+
     /**
      * Sets the string that identifies the start of a comment line.
      * 
@@ -306,245 +366,100 @@ public class WorkloadFileReader implements WorkloadModel {
     // ------------------- PRIVATE METHODS -------------------
 
     /**
-     * Creates a Cloudlet with the given information and adds to the list of {@link #jobs}.
+     * Reads all the jobs of the trace file, in the order of the file.
      * 
-     * @param id a Cloudlet ID
-     * @param submitTime Cloudlet's submit time
-     * @param runTime The number of seconds the Cloudlet has to run. Considering that 
-     * and the {@link #rating}, the {@link Cloudlet#cloudletLength} is computed.
-     * @param numProc number of Cloudlet's PEs
-     * @param reqRunTime user estimated run time 
-     * (//@TODO the parameter is not being used and it is not clear what it is)
-     * @param userID user id
-     * @param groupID user's group id
-     * @pre id >= 0
-     * @pre submitTime >= 0
-     * @pre runTime >= 0
-     * @pre numProc > 0
-     * @post $none
-     * @see #rating
+     * @return the list of jobs, which is partial if the file can not be fully read
      */
-    private void createJob(
-                    final int id,
-                    final long submitTime,
-                    final int runTime,
-                    final int numProc,
-                    final int reqRunTime,
-                    final int userID,
-                    final int groupID) {
-            // create the cloudlet
-            final int len = runTime * rating;
-            UtilizationModel utilizationModel = new UtilizationModelFull();
-            final Cloudlet wgl = new Cloudlet(
-                            id,
-                            len,
-                            numProc,
-                            0,
-                            0,
-                            utilizationModel,
-                            utilizationModel,
-                            utilizationModel);
-            jobs.add(wgl);
-    }
-
-    /**
-     * Extracts relevant information from a given array of fields,
-     * representing a line from the trace file, and create a cloudlet 
-     * using this information.
-     * 
-     * @param array the array of fields generated from a line of the trace file.
-     * @param line the line number
-     * @pre array != null
-     * @pre line > 0
-     * //@TODO The name of the method doesn't describe what it in fact does.
-     */
-    private void extractField(final String[] array, final int line) {
-            try {
-                    Integer obj = null;
-
-                    // get the job number
-                    int id = 0;
-                    if (JOB_NUM == IRRELEVANT) {
-                            id = jobs.size() + 1;
-                    } else {
-                            obj = Integer.valueOf(array[JOB_NUM].trim());
-                            id = obj;
-                    }
-
-                    // get the submit time
-                    final long l = Long.parseLong(array[SUBMIT_TIME].trim());
-                    final long submitTime = (int) l;
-
-                    // get the user estimated run time
-                    obj = Integer.valueOf(array[REQ_RUN_TIME].trim());
-                    final int reqRunTime = obj;
-
-                    // if the required run time field is ignored, then use
-                    // the actual run time
-                    obj = Integer.valueOf(array[RUN_TIME].trim());
-                    int runTime = obj;
-
-                    final int userID = Integer.parseInt(array[USER_ID].trim());
-                    final int groupID = Integer.parseInt(array[GROUP_ID].trim());
-
-                    // according to the SWF manual, runtime of 0 is possible due
-                    // to rounding down. E.g. runtime is 0.4 seconds -> runtime = 0
-                    if (runTime <= 0) {
-                            runTime = 1; // change to 1 second
-                    }
-
-                    // get the number of allocated processors
-                    obj = Integer.valueOf(array[REQ_NUM_PROC].trim());
-                    int numProc = obj;
-
-                    // if the required num of allocated processors field is ignored
-                    // or zero, then use the actual field
-                    if (numProc == IRRELEVANT || numProc == 0) {
-                            obj = Integer.valueOf(array[NUM_PROC].trim());
-                            numProc = obj;
-                    }
-
-                    // finally, check if the num of PEs required is valid or not
-                    if (numProc <= 0) {
-                            numProc = 1;
+    private ArrayList<Cloudlet> readJobs() {
+            final ArrayList<Cloudlet> cloudlets = new ArrayList<>();
+            try (SwfParser.JobIterator iterator = openJobs()) {
+                    while (iterator.hasNext()) {
+                            cloudlets.add(iterator.next().getCloudlet());
                     }
-                    createJob(id, submitTime, runTime, numProc, reqRunTime, userID, groupID);
-            } catch (final Exception e) {
-
+            } catch (final IOException | UncheckedIOException e) {
             }
+            return cloudlets;
     }
 
     /**
-     * Breaks a line from the trace file into many fields into the
-     * {@link #fieldArray}.
+     * Opens the trace file.
      * 
-     * @param line a line from the trace file
-     * @param lineNum the line number
-     * @pre line != null
-     * @pre lineNum > 0
-     * @post $none
+     * @return the jobs of the file, in the order of the file
+     * @throws IOException if the file can not be opened
      */
-    private void parseValue(final String line, final int lineNum) {
-            // skip a comment line
-            if (line.startsWith(COMMENT)) {
-                    return;
-            }
-
-            final String[] sp = line.split("\\s+"); // split the fields based on a
-            // space
-            int len = 0; // length of a string
-            int index = 0; // the index of an array
-
-            // check for each field in the array
-            for (final String elem : sp) {
-                    len = elem.length(); // get the length of a string
-
-                    // if it is empty then ignore
-                    if (len == 0) {
-                            continue;
-                    }
-                    fieldArray[index] = elem;
-                    index++;
-            }
+    private SwfParser.JobIterator openJobs() throws IOException {
+            final SwfParser parser = new SwfParser(JOB_NUM, SUBMIT_TIME, RUN_TIME, NUM_PROC, REQ_NUM_PROC,
+                            REQ_RUN_TIME, USER_ID, GROUP_ID, MAX_FIELD, COMMENT);
+
+            /*//@TODO It would be implemented
+            using specific classes to avoid using ifs.
+            If a new format is included, the code has to be
+            changed to include another if*/
+            final SwfParser.Chunks chunks;
+            if (file.getName().endsWith(".gz")) {
+                    final InputStream input = new GZIPInputStream(new FileInputStream(file), BUFFER_SIZE);
+                    chunks = new SwfParser.Chunks(parser, List.of(input).iterator(), () -> {});
+            } else if (file.getName().endsWith(".zip")) {
+                    // ZipFile offers an Enumeration of all the files in the file
+                    final ZipFile zipFile = new ZipFile(file);
+                    final Iterator<? extends ZipEntry> entries = zipFile.stream().iterator();
+                    chunks = new SwfParser.Chunks(parser, new Iterator<InputStream>() {
+                            @Override
+                            public boolean hasNext() {
+                                    return entries.hasNext();
+                            }
 
-            if (index == MAX_FIELD) {
-                    extractField(fieldArray, lineNum);
+                            @Override
+                            public InputStream next() {
+                                    try {
+                                            return zipFile.getInputStream(entries.next());
+                                    } catch (final IOException e) {
+                                            throw new UncheckedIOException(e);
+                                    }
+                            }
+                    }, zipFile);
+            } else {
+                    final InputStream input = new FileInputStream(file);
+                    chunks = new SwfParser.Chunks(parser, List.of(input).iterator(), () -> {});
             }
+            return new SwfParser.JobIterator(chunks, rating, JOB_NUM == IRRELEVANT, this::createJob);
     }
 
     /**
-     * Reads traces from a text file, one line at a time.
+     * Packs the id, length and number of PEs of each job in an array, to be cached.
      * 
-     * @param fl a file name
-     * @return <code>true</code> if successful, <code>false</code> otherwise.
-     * @throws IOException if the there was any error reading the file
-     * @throws FileNotFoundException if the file was not found
+     * @param cloudlets the jobs
+     * @return the array, with 3 values per job
      */
-    private boolean readFile(final File fl) throws IOException, FileNotFoundException {
-            boolean success = false;
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(fl)))) {
-
-            // read one line at the time
-            int line = 1;
-            String readLine = null;
-            while (reader.ready() && (readLine = reader.readLine()) != null) {
-                parseValue(readLine, line);
-                line++;
+    private static long[] toJobArray(final List<Cloudlet> cloudlets) {
+            final long[] trace = new long[3 * cloudlets.size()];
+            int i = 0;
+            for (final Cloudlet cloudlet : cloudlets) {
+                    trace[i++] = cloudlet.getCloudletId();
+                    trace[i++] = cloudlet.getCloudletLength();
+                    trace[i++] = cloudlet.getNumberOfPes();
             }
-
-            reader.close();
-            success = true;
-        }
-
-            return success;
+            return trace;
     }
 
     /**
-     * Reads traces from a gzip file, one line at a time.
+     * Creates the Cloudlet of a job.
      * 
-     * @param fl a gzip file name
-     * @return <code>true</code> if successful; <code>false</code> otherwise.
-     * @throws IOException if the there was any error reading the file
-     * @throws FileNotFoundException if the file was not found
-     */
-    private boolean readGZIPFile(final File fl) throws IOException, FileNotFoundException {
-            boolean success = false;
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(fl))))) {
-
-            // read one line at the time
-            int line = 1;
-            String readLine = null;
-            while (reader.ready() && (readLine = reader.readLine()) != null) {
-                parseValue(readLine, line);
-                line++;
-            }
-
-            reader.close();
-            success = true;
-        }
-
-            return success;
-    }
-
-    /**
-     * Reads traces from a Zip file, one line at a time.
-     * 
-     * @param fl a zip file name
-     * @return <code>true</code> if reading a file is successful; <code>false</code> otherwise.
-     * @throws IOException if the there was any error reading the file
+     * @param id a Cloudlet ID
+     * @param len the Cloudlet length, i.e. the run time of the job multiplied by the {@link #rating}
+     * @param numProc number of Cloudlet's PEs
+     * @return the Cloudlet
      */
-    private boolean readZipFile(final File fl) throws IOException {
-            boolean success = false;
-            ZipFile zipFile = null;
-            try {
-                    BufferedReader reader = null;
-
-                    // ZipFile offers an Enumeration of all the files in the file
-                    zipFile = new ZipFile(fl);
-                    final Enumeration<? extends ZipEntry> e = zipFile.entries();
-                    while (e.hasMoreElements()) {
-                            success = false; // reset the value again
-                            final ZipEntry zipEntry = e.nextElement();
-
-                            reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(zipEntry)));
-
-                            // read one line at the time
-                            int line = 1;                       
-                            String readLine = null;
-                            while (reader.ready() && (readLine = reader.readLine()) != null)  {
-                                    parseValue(readLine, line);
-                                    line++;
-                            }
-
-                            reader.close();
-                            success = true;
-                    }
-            } finally {
-                    if (zipFile != null) {
-                            zipFile.close();
-                    }
-            }
-
-            return success;
+    private Cloudlet createJob(final int id, final long len, final int numProc) {
+            UtilizationModel utilizationModel = new UtilizationModelFull();
+            return new Cloudlet(
+                            id,
+                            len,
+                            numProc,
+                            0,
+                            0,
+                            utilizationModel,
+                            utilizationModel,
+                            utilizationModel);
     }
 }
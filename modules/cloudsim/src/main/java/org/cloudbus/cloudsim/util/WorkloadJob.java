@@ -0,0 +1,57 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.Serializable;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * A job of a workload streamed by {@link WorkloadModel#streamWorkload()}: a cloudlet and the time it
+ * is submitted.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public final class WorkloadJob implements Serializable {
+
+	/** The cloudlet. */
+	private final Cloudlet cloudlet;
+
+	/** The submit time of the cloudlet, relative to the start of the workload. */
+	private final double submitTime;
+
+	/**
+	 * Creates a job.
+	 *
+	 * @param cloudlet the cloudlet
+	 * @param submitTime the submit time of the cloudlet, relative to the start of the workload
+	 */
+	public WorkloadJob(Cloudlet cloudlet, double submitTime) {
+		this.cloudlet = cloudlet;
+		this.submitTime = submitTime;
+	}
+
+	/**
+	 * Gets the cloudlet.
+	 *
+	 * @return the cloudlet
+	 */
+	public Cloudlet getCloudlet() {
+		return cloudlet;
+	}
+
+	/**
+	 * Gets the submit time of the cloudlet.
+	 *
+	 * @return the submit time, relative to the start of the workload
+	 */
+	public double getSubmitTime() {
+		return submitTime;
+	}
+}
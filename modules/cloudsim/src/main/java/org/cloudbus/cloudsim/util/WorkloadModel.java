@@ -8,7 +8,9 @@
 
 package org.cloudbus.cloudsim.util;
 
+import java.io.Serializable;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.cloudbus.cloudsim.Cloudlet;
 
@@ -22,7 +24,7 @@ import org.cloudbus.cloudsim.Cloudlet;
  * @see Workload
  * @see WorkloadFileReader
  */
-public interface WorkloadModel {
+public interface WorkloadModel extends Serializable {
 
 	/**
 	 * Generates a list of jobs ({@link Cloudlet Cloudlets}) to be executed.
@@ -32,4 +34,26 @@ public interface WorkloadModel {
 	 */
 	List<Cloudlet> generateWorkload();
 
+	/**
+	 * Gets the jobs of the workload one at a time, in the order of their submit time, so that
+	 * they don't all have to be in memory at the same time. The stream should be closed once
+	 * it is no longer used, to release the resources of the workload, such as an open trace file.
+	 * <p>
+	 * The default implementation streams the {@link #generateWorkload() generated list}, all the
+	 * jobs being submitted at time 0.
+	 * <p>
+	 * Streaming the workload again has to give the same jobs in the same order, since a broker
+	 * restored from a checkpoint skips the jobs it had already read.
+	 *
+	 * @return the jobs of the workload
+	 * @since CloudSim Toolkit 7.0
+	 */
+	default Stream<WorkloadJob> streamWorkload() {
+		List<Cloudlet> cloudlets = generateWorkload();
+		if (cloudlets == null) {
+			return Stream.empty();
+		}
+		return cloudlets.stream().map(cloudlet -> new WorkloadJob(cloudlet, 0));
+	}
+
 }
@@ -183,7 +183,7 @@ public class WebSession {
                 && getEarliestIdealStartTime(dbServerCloudLets.peek()) <= currTime;
 
         if (cloudletsLeft != 0 && appCloudletFinished && !dbCloudletFinished) {
-            CustomLog.printf(Level.FINE, "Session %d in AS VM %d blocked in DB layer", getSessionId(), appVmId);
+            CustomLog.printLazy(Level.FINE, () -> String.format("Session %d in AS VM %d blocked in DB layer", getSessionId(), appVmId));
         }
 
         if (cloudletsLeft != 0 && appCloudletFinished && dbCloudletFinished && appServerNextReady && dbServerNextReady) {
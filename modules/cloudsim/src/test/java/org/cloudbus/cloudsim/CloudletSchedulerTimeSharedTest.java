@@ -0,0 +1,163 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class CloudletSchedulerTimeSharedTest {
+
+	private static final double MIPS = 1000;
+
+	private CloudletSchedulerTimeShared scheduler;
+
+	@BeforeEach
+	public void setUp() {
+		scheduler = new CloudletSchedulerTimeShared();
+		scheduler.setCurrentMipsShare(mipsShare());
+	}
+
+	/**
+	 * Only the time-shared and space-shared schedulers themselves find the next completion in
+	 * virtual time, since their subclasses may allocate the capacity differently.
+	 */
+	@Test
+	public void testCapacitySharedByPes() {
+		assertTrue(scheduler.isCapacitySharedByPes());
+		assertTrue(new CloudletSchedulerSpaceShared().isCapacitySharedByPes());
+		assertFalse(new CloudletSchedulerTimeShared() {}.isCapacitySharedByPes());
+		assertFalse(new CloudletSchedulerSpaceShared() {}.isCapacitySharedByPes());
+		assertFalse(new CloudletSchedulerDynamicWorkload(MIPS, 1).isCapacitySharedByPes());
+	}
+
+	/**
+	 * Cloudlets sharing a PE finish one after the other, the others keeping their order.
+	 */
+	@Test
+	public void testUpdateCloudletsProcessing() {
+		List<Cloudlet> cloudlets = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Cloudlet cl = createCloudlet(i, 1000L * (i % 2 == 0 ? 1 : 2));
+			cloudlets.add(cl);
+			scheduler.cloudletSubmit(cl);
+		}
+
+		// each cloudlet gets a fourth of the PE
+		assertEquals(4, scheduler.updateCloudletsProcessing(0, mipsShare()), 1e-9);
+
+		// the first and third cloudlets are finished
+		assertEquals(8, scheduler.updateCloudletsProcessing(4, mipsShare()), 1e-9);
+		assertEquals(List.of(cloudlets.get(1), cloudlets.get(3)), scheduler.getCloudletExecList());
+		assertSame(cloudlets.get(0), scheduler.getNextFinishedCloudlet());
+		assertSame(cloudlets.get(2), scheduler.getNextFinishedCloudlet());
+		assertEquals(1000, cloudlets.get(1).getRemainingCloudletLength());
+
+		// the two others get half of the PE each
+		assertEquals(0, scheduler.updateCloudletsProcessing(6, mipsShare()));
+		assertTrue(scheduler.getCloudletExecList().isEmpty());
+		for (Cloudlet cl : cloudlets) {
+			assertEquals(Cloudlet.CloudletStatus.SUCCESS, cl.getStatus());
+		}
+	}
+
+	/**
+	 * Compares the next completion found with the completion queue with the earliest estimated
+	 * finish time of the executing cloudlets, while cloudlets are submitted, canceled, paused and
+	 * resumed, and the mips share changes.
+	 */
+	@Test
+	public void testNextCompletionTime() {
+		Random random = new Random(0);
+		for (CloudletScheduler scheduler : List.of(new CloudletSchedulerTimeShared(), new CloudletSchedulerSpaceShared())) {
+			double time = 0;
+			int nextId = 0;
+			for (int step = 0; step < 2000; step++) {
+				List<Double> mipsShare = new ArrayList<>();
+				int pes = 2 + random.nextInt(3);
+				for (int pe = 0; pe < pes; pe++) {
+					mipsShare.add(step % 100 < 50 ? MIPS : MIPS / 3);
+				}
+				double nextCompletion = scheduler.updateCloudletsProcessing(time, mipsShare);
+				assertEquals(getEarliestFinishTime(scheduler, time), nextCompletion, "Step " + step);
+
+				int action = random.nextInt(10);
+				List<Cloudlet> execList = scheduler.getCloudletExecList();
+				if (action < 4) {
+					scheduler.cloudletSubmit(createCloudlet(nextId++, 10000L * (1 + random.nextInt(3)) + random.nextInt(2), 1 + random.nextInt(2)));
+				} else if (action == 4 && !execList.isEmpty()) {
+					scheduler.cloudletCancel(execList.get(random.nextInt(execList.size())).getCloudletId());
+				} else if (action == 5 && !execList.isEmpty()) {
+					scheduler.cloudletPause(execList.get(random.nextInt(execList.size())).getCloudletId());
+				} else if (action == 6 && !scheduler.getCloudletPausedList().isEmpty()) {
+					scheduler.cloudletResume(scheduler.getCloudletPausedList().getFirst().getCloudletId());
+				}
+				time += random.nextInt(3) == 0 ? 0.5 : random.nextDouble();
+			}
+		}
+	}
+
+	/**
+	 * The cloudlet whose remaining length per PE is the smallest is not always the first to
+	 * finish, since the remaining length is rounded to whole MI.
+	 */
+	@Test
+	public void testNextCompletionOfCloseCloudlets() {
+		List<Double> mipsShare = List.of(MIPS, MIPS, MIPS, MIPS);
+		Cloudlet cloudlet2Pes = createCloudlet(0, 1001, 2);
+		scheduler.cloudletSubmit(cloudlet2Pes);
+		scheduler.updateCloudletsProcessing(0, new ArrayList<>(mipsShare));
+		scheduler.updateCloudletsProcessing(0.0001, new ArrayList<>(mipsShare));
+
+		// 2001.6 MI remain on 2 PEs, 1000.9 MI remain on 1 PE
+		Cloudlet cloudlet1Pe = createCloudlet(1, 1001);
+		scheduler.cloudletSubmit(cloudlet1Pe);
+		double nextCompletion = scheduler.updateCloudletsProcessing(0.0002, new ArrayList<>(mipsShare));
+		assertEquals(0.0002 + 1000 / MIPS, nextCompletion, 1e-9);
+		assertEquals(scheduler.getEstimatedFinishTime(cloudlet1Pe, 0.0002), nextCompletion);
+	}
+
+	private static double getEarliestFinishTime(CloudletScheduler scheduler, double time) {
+		if (scheduler.getCloudletExecList().isEmpty() && scheduler.getCloudletWaitingList().isEmpty()) {
+			return 0;
+		}
+		double nextEvent = Double.MAX_VALUE;
+		for (Cloudlet cl : scheduler.getCloudletExecList()) {
+			nextEvent = Math.min(nextEvent, Math.max(scheduler.getEstimatedFinishTime(cl, time),
+					time + CloudSim.getMinTimeBetweenEvents()));
+		}
+		return nextEvent;
+	}
+
+	private static List<Double> mipsShare() {
+		List<Double> mipsShare = new ArrayList<>();
+		mipsShare.add(MIPS);
+		return mipsShare;
+	}
+
+	private static Cloudlet createCloudlet(int id, long length) {
+		return createCloudlet(id, length, 1);
+	}
+
+	private static Cloudlet createCloudlet(int id, long length, int pes) {
+		Cloudlet cl = new Cloudlet(id, length, pes, 300, 300,
+				new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+		cl.setResourceParameter(0, 0, 0);
+		return cl;
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.util.WorkloadFileReader;
+import org.cloudbus.cloudsim.util.WorkloadJob;
+import org.cloudbus.cloudsim.util.WorkloadModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class DatacenterBrokerTest {
+
+	private static final double[] SUBMIT_TIMES = { 0, 50, 50, 400, 10000 };
+
+	private DatacenterBroker broker;
+
+	@TempDir
+	Path folder;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		Log.disable();
+		CloudSim.init(1, Calendar.getInstance(), false);
+
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		List<Host> hostList = new ArrayList<>();
+		hostList.add(new Host(0, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 1000000,
+				peList, new VmSchedulerTimeShared(peList)));
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		new Datacenter("Datacenter_0", characteristics, new VmAllocationPolicySimple(hostList),
+				new LinkedList<Storage>(), 0);
+
+		broker = new DatacenterBroker("Broker");
+		List<Vm> vmList = new ArrayList<>();
+		vmList.add(new Vm(0, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerSpaceShared()));
+		broker.submitGuestList(vmList);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testSubmitWorkload() {
+		List<Cloudlet> cloudlets = new ArrayList<>();
+		WorkloadModel workload = new WorkloadModel() {
+			@Override
+			public List<Cloudlet> generateWorkload() {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public Stream<WorkloadJob> streamWorkload() {
+				List<WorkloadJob> jobs = new ArrayList<>();
+				for (int i = 0; i < SUBMIT_TIMES.length; i++) {
+					Cloudlet cloudlet = new Cloudlet(i, 10000, 1, 300, 300,
+							new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+					cloudlets.add(cloudlet);
+					jobs.add(new WorkloadJob(cloudlet, SUBMIT_TIMES[i]));
+				}
+				return jobs.stream();
+			}
+		};
+		broker.submitWorkload(workload, 100);
+		broker.setCloudletsKept(false);
+
+		CloudSim.startSimulation();
+
+		double start = cloudlets.get(0).getSubmissionTime();
+		for (int i = 0; i < SUBMIT_TIMES.length; i++) {
+			Cloudlet cloudlet = cloudlets.get(i);
+			assertEquals(Cloudlet.CloudletStatus.SUCCESS, cloudlet.getStatus());
+			assertEquals(start + SUBMIT_TIMES[i], cloudlet.getSubmissionTime(), 0.01);
+		}
+		// the third cloudlet waits for the second one
+		assertEquals(cloudlets.get(1).getExecFinishTime(), cloudlets.get(2).getExecStartTime(), 0.2);
+
+		assertTrue(broker.getCloudletReceivedList().isEmpty());
+		assertTrue(broker.getCloudletSubmittedList().isEmpty());
+		assertEquals(SUBMIT_TIMES.length, broker.getCloudletResponseTimeStatistics().getCount());
+		assertEquals(20, broker.getCloudletResponseTimeStatistics().getMax(), 0.2);
+	}
+
+	@Test
+	public void testSubmitWorkloadWithLateJob() throws Exception {
+		// the last job is listed after more than 1024 later ones, so the trace reader
+		// returns it long after its submit time has passed
+		StringBuilder trace = new StringBuilder();
+		for (int i = 1; i <= 1100; i++) {
+			trace.append(i).append(' ').append(10 * i).append(" 0 1 1 -1 -1 1 1 -1 1 1 1 -1 -1 -1 -1 -1\n");
+		}
+		trace.append("1101 0 0 1 1 -1 -1 1 1 -1 1 1 1 -1 -1 -1 -1 -1\n");
+		Path file = Files.writeString(folder.resolve("trace.swf"), trace);
+
+		broker.submitWorkload(new WorkloadFileReader(file.toString(), 1000), 5);
+
+		CloudSim.startSimulation();
+
+		List<Cloudlet> received = broker.getCloudletReceivedList();
+		assertEquals(1101, received.size());
+		// the submit times are relative to the first job
+		double start = received.get(0).getSubmissionTime();
+		for (Cloudlet cloudlet : received) {
+			assertEquals(Cloudlet.CloudletStatus.SUCCESS, cloudlet.getStatus());
+			if (cloudlet.getCloudletId() == 1101) {
+				assertTrue(cloudlet.getSubmissionTime() > start + 700);
+			} else {
+				assertEquals(start + 10 * (cloudlet.getCloudletId() - 1), cloudlet.getSubmissionTime(), 0.01);
+			}
+		}
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.EX.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class SweepRunnerTest {
+
+    @Test
+    public void testRun() throws Exception {
+        List<SweepRunner.Experiment> experiments = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            int parameter = i;
+            experiments.add(SweepRunner.experiment("exp" + i, () -> {
+                // each experiment has its own simulation and ids
+                CloudSim.init(1, Calendar.getInstance(), false);
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("parameter", parameter);
+                row.put("id", Id.pollId(Vm.class));
+                row.put("note", "a, \"b\"");
+                return row;
+            }));
+        }
+        experiments.add(SweepRunner.experiment("failing", () -> {
+            throw new IllegalStateException("expected failure");
+        }));
+
+        StringBuilder output = new StringBuilder();
+        SweepRunner runner = new SweepRunner(0, 0);
+        assertTrue(runner.getParallelism() >= 1);
+        assertEquals(1, runner.run(experiments, output));
+
+        String[] lines = output.toString().split(System.lineSeparator());
+        assertEquals("experiment,parameter,id,note", lines[0]);
+        String[] rows = Arrays.copyOfRange(lines, 1, lines.length);
+        Arrays.sort(rows);
+        assertArrayEquals(new String[] {
+                "exp0,0,1,\"a, \"\"b\"\"\"",
+                "exp1,1,1,\"a, \"\"b\"\"\"",
+                "exp2,2,1,\"a, \"\"b\"\"\"",
+                "exp3,3,1,\"a, \"\"b\"\"\"" }, rows);
+    }
+}
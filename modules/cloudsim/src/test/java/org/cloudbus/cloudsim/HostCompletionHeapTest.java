@@ -0,0 +1,128 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class HostCompletionHeapTest {
+
+	private static final int HOSTS = 8;
+
+	private List<HostEntity> hostList;
+
+	private HostCompletionHeap heap;
+
+	@BeforeEach
+	public void setUp() {
+		hostList = new ArrayList<>();
+		for (int i = 0; i < HOSTS; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			hostList.add(new Host(i, new RamProvisionerSimple(1024), new BwProvisionerSimple(10000), 1000000,
+					peList, new VmSchedulerTimeShared(peList)));
+		}
+		heap = new HostCompletionHeap(hostList);
+	}
+
+	private List<Integer> changed() {
+		List<Integer> changed = new ArrayList<>();
+		for (int i = heap.nextChanged(0); i >= 0; i = heap.nextChanged(i + 1)) {
+			changed.add(i);
+		}
+		return changed;
+	}
+
+	private List<Integer> unchecked() {
+		List<Integer> unchecked = new ArrayList<>();
+		for (int i = heap.nextUnchecked(0); i >= 0; i = heap.nextUnchecked(i + 1)) {
+			unchecked.add(i);
+		}
+		return unchecked;
+	}
+
+	@Test
+	public void testMarkChanged() {
+		assertTrue(heap.isFor(hostList));
+		assertEquals(List.of(), changed());
+
+		heap.markChanged(hostList.get(5), 0);
+		heap.markChanged(hostList.get(2), 0);
+		heap.markChanged(null, 0);
+		assertEquals(List.of(2, 5), changed());
+
+		heap.updated(2, 1, Double.MAX_VALUE);
+		heap.updated(5, 1, Double.MAX_VALUE);
+		assertEquals(List.of(), changed());
+		assertEquals(Double.MAX_VALUE, heap.getEarliestCompletionTime());
+	}
+
+	@Test
+	public void testChangedAtUpdateTime() {
+		heap.markChanged(hostList.get(3), 1);
+		heap.updated(3, 1, Double.MAX_VALUE);
+		assertEquals(List.of(3), changed());
+
+		heap.updated(3, 2, Double.MAX_VALUE);
+		assertEquals(List.of(), changed());
+	}
+
+	@Test
+	public void testMarkCompletedBefore() {
+		double[] times = {7, 3, Double.MAX_VALUE, 5, 1, 8, 3, 2};
+		heap.markAllChanged();
+		for (int i = 0; i < HOSTS; i++) {
+			heap.updated(i, 0, times[i]);
+		}
+		assertEquals(List.of(), changed());
+		assertEquals(1, heap.getEarliestCompletionTime());
+
+		heap.markCompletedBefore(3.5);
+		assertEquals(List.of(1, 4, 6, 7), changed());
+		assertEquals(5, heap.getEarliestCompletionTime());
+
+		heap.updated(4, 3.5, 4);
+		assertEquals(4, heap.getEarliestCompletionTime());
+
+		// an updated host leaves its previous position in the heap
+		heap.updated(0, 3.5, 9);
+		heap.markCompletedBefore(8.5);
+		assertEquals(List.of(1, 3, 4, 5, 6, 7), changed());
+		assertEquals(9, heap.getEarliestCompletionTime());
+	}
+
+	@Test
+	public void testUnchecked() {
+		assertEquals(List.of(), unchecked());
+
+		heap.markChanged(hostList.get(6), 0);
+		heap.updated(1, 0, 5);
+		heap.markUnchecked(hostList.get(3));
+		heap.markUnchecked(null);
+		assertEquals(List.of(1, 3, 6), unchecked());
+
+		// collecting the finished cloudlets does not affect the hosts to update
+		heap.clearUnchecked();
+		assertEquals(List.of(), unchecked());
+		assertEquals(List.of(6), changed());
+		assertEquals(5, heap.getEarliestCompletionTime());
+	}
+}
@@ -174,4 +174,20 @@ public class LogTest {
 		OUTPUT.reset();
 	}
 
+	@Test
+	public void testPrintSupplier() throws IOException {
+		Log.printLazy(() -> "test " + 123);
+		assertEquals("test 123", OUTPUT.toString());
+		OUTPUT.reset();
+
+		Log.printlnLazy(() -> "test " + 123);
+		assertEquals("test 123" + LINE_SEPARATOR, OUTPUT.toString());
+		OUTPUT.reset();
+
+		Log.disable();
+		Log.printlnLazy(() -> fail("The message is built while the log is disabled"));
+		assertEquals("", OUTPUT.toString());
+		Log.enable();
+	}
+
 }
@@ -1,9 +1,12 @@
 package org.cloudbus.cloudsim;
 
+import org.cloudbus.cloudsim.util.TraceCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class UtilizationModelPlanetLabInMemoryTest {
 
@@ -35,4 +38,16 @@ public class UtilizationModelPlanetLabInMemoryTest {
 				0.01);
 		assertEquals(0.51, utilizationModel.getUtilization(287 * SCHEDULING_INTERVAL), 0);
 	}
+
+	@Test
+	public void testCachedData() throws Exception {
+		String path = getClass().getClassLoader().getResource(FILE).getPath();
+		double[] data = TraceCache.getPlanetLabData(path, 289);
+		assertSame(data, TraceCache.getPlanetLabData(path, 289));
+		assertArrayEquals(utilizationModel.getData(), data, 0);
+
+		UtilizationModelPlanetLabInMemory shared = new UtilizationModelPlanetLabInMemory(data, SCHEDULING_INTERVAL);
+		assertEquals(utilizationModel.getUtilization(136.7 * SCHEDULING_INTERVAL),
+				shared.getUtilization(136.7 * SCHEDULING_INTERVAL), 0);
+	}
 }
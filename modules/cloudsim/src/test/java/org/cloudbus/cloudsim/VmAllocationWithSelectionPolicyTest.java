@@ -0,0 +1,97 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyFirstFit;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyLeastFull;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMostFull;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyWorstFit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class VmAllocationWithSelectionPolicyTest {
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+		CloudSim.init(1, Calendar.getInstance(), false);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testHostIndex() throws Exception {
+		assertSameHosts(new SelectionPolicyFirstFit<>());
+		assertSameHosts(new SelectionPolicyLeastFull<>());
+		assertSameHosts(new SelectionPolicyMostFull<>());
+		assertSameHosts(new SelectionPolicyWorstFit<>());
+	}
+
+	/**
+	 * Allocates and deallocates random VMs with the host index, checking that each host found is
+	 * the one found by a scan of the hosts.
+	 */
+	private void assertSameHosts(SelectionPolicy<HostEntity> selectionPolicy) throws Exception {
+		Random random = new Random(0);
+		List<Host> hostList = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			List<Pe> peList = new ArrayList<>();
+			int mips = 1000 * (1 + random.nextInt(2));
+			for (int j = random.nextInt(4); j >= 0; j--) {
+				peList.add(new Pe(j, new PeProvisionerSimple(mips)));
+			}
+			hostList.add(new Host(i, new RamProvisionerSimple(1024 * (1 + random.nextInt(4))),
+					new BwProvisionerSimple(10000), 1000000, peList, new VmSchedulerTimeShared(peList)));
+		}
+		VmAllocationWithSelectionPolicy policy = new VmAllocationWithSelectionPolicy(hostList, selectionPolicy);
+		policy.setHostIndexEnabled(true);
+		VmAllocationWithSelectionPolicy scan = new VmAllocationWithSelectionPolicy(hostList, selectionPolicy);
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		new Datacenter("Datacenter_" + selectionPolicy.getClass().getSimpleName(), characteristics, policy,
+				new LinkedList<Storage>(), 0);
+
+		List<Vm> allocated = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			if (!allocated.isEmpty() && random.nextInt(3) == 0) {
+				policy.deallocateHostForGuest(allocated.remove(random.nextInt(allocated.size())));
+				continue;
+			}
+			Vm vm = new Vm(i, 0, 250 * (1 + random.nextInt(8)), 1, 256 * (1 + random.nextInt(4)), 100, 1000,
+					"Xen", new CloudletSchedulerTimeShared());
+			HostEntity host = policy.findHostForGuest(vm);
+			assertSame(scan.findHostForGuest(vm), host);
+			if (host != null) {
+				assertTrue(policy.allocateHostForGuest(vm, host));
+				allocated.add(vm);
+			}
+		}
+	}
+}
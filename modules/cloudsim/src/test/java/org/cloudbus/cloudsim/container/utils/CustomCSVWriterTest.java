@@ -0,0 +1,47 @@
+package org.cloudbus.cloudsim.container.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CustomCSVWriterTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	public void testRowsAreFlushedByDefault() throws IOException {
+		Path file = dir.resolve("results.csv");
+		CustomCSVWriter writer = new CustomCSVWriter(file.toString());
+
+		writer.writeTofile(new String[] {"1", "a"});
+		writer.writeTofile(new String[] {"2", "b"});
+		assertEquals(List.of("1,a", "2,b"), Files.readAllLines(file));
+
+		writer.writeTofile(new String[] {"3", "c"}, false);
+		assertEquals(List.of("3,c"), Files.readAllLines(file));
+		writer.close();
+	}
+
+	@Test
+	public void testBufferedRowsAreWrittenUponFlush() throws IOException {
+		Path file = dir.resolve("results.csv");
+		CustomCSVWriter writer = new CustomCSVWriter(file.toString(), true);
+
+		writer.writeTofile(new String[] {"1", "a"});
+		assertEquals(List.of(), Files.readAllLines(file));
+
+		writer.flush();
+		assertEquals(List.of("1,a"), Files.readAllLines(file));
+
+		writer.writeTofile(new String[] {"2", "b"});
+		writer.close();
+		assertEquals(List.of("1,a", "2,b"), Files.readAllLines(file));
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class CalendarQueueTest {
+
+	private CalendarQueue queue;
+
+	private static SimEvent event(double time) {
+		return new SimEvent(SimEvent.SEND, time, 0, 0, CloudActionTags.BLANK, null);
+	}
+
+	@BeforeEach
+	public void setUp() {
+		queue = new CalendarQueue();
+		// the events are only polled while the simulation is running
+		SimulationContext.current().running = true;
+	}
+
+	@AfterEach
+	public void tearDown() {
+		SimulationContext.current().running = false;
+	}
+
+	@Test
+	public void testEmpty() {
+		assertTrue(queue.isEmpty());
+		assertEquals(0, queue.size());
+		assertNull(queue.peek());
+		assertNull(queue.poll());
+		assertFalse(queue.iterator().hasNext());
+	}
+
+	@Test
+	public void testNoPollWhileNotRunning() {
+		EventQueue reference = new EventQueue();
+		SimEvent ev = event(5);
+		queue.addEvent(ev);
+		reference.addEvent(ev);
+		SimulationContext.current().running = false;
+
+		// both future queues keep their events until the simulation runs
+		assertNull(queue.poll());
+		assertNull(reference.poll());
+		assertEquals(1, queue.size());
+		assertSame(ev, queue.peek());
+		assertSame(ev, reference.peek());
+	}
+
+	@Test
+	public void testSameTimeIsFifo() {
+		List<SimEvent> events = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			SimEvent ev = event(300.01);
+			events.add(ev);
+			queue.addEvent(ev);
+		}
+
+		for (SimEvent ev : events) {
+			assertSame(ev, queue.peek());
+			assertSame(ev, queue.poll());
+		}
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void testAddEventFirst() {
+		SimEvent a = event(5);
+		SimEvent b = event(5);
+		SimEvent first = event(5);
+		queue.addEvent(a);
+		queue.addEvent(b);
+		queue.addEventFirst(first);
+
+		assertSame(first, queue.poll());
+		assertSame(a, queue.poll());
+		assertSame(b, queue.poll());
+	}
+
+	@Test
+	public void testFarFutureEvents() {
+		SimEvent far = event(1e9);
+		SimEvent near = event(0.5);
+		queue.addEvent(far);
+		queue.addEvent(near);
+
+		assertSame(near, queue.poll());
+		assertSame(far, queue.poll());
+		assertNull(queue.poll());
+	}
+
+	@Test
+	public void testHoldModelMatchesHeapOrder() {
+		Random random = new Random(7);
+		PriorityQueue<SimEvent> reference = new PriorityQueue<>();
+		double clock = 0;
+
+		for (int i = 0; i < 5000; i++) {
+			SimEvent ev = event(nextTime(random, clock));
+			queue.addEvent(ev);
+			reference.add(ev);
+		}
+
+		for (int i = 0; i < 50000; i++) {
+			SimEvent actual = queue.poll();
+			assertSame(reference.poll(), actual);
+			clock = actual.eventTime();
+
+			// keep the queue size oscillating to exercise both grow and shrink
+			int inserts = (i / 10000) % 2 == 0 ? 2 : random.nextInt(2);
+			for (int j = 0; j < inserts; j++) {
+				SimEvent ev = event(nextTime(random, clock));
+				queue.addEvent(ev);
+				reference.add(ev);
+			}
+			assertEquals(reference.size(), queue.size());
+		}
+
+		while (!reference.isEmpty()) {
+			assertSame(reference.poll(), queue.poll());
+		}
+		assertTrue(queue.isEmpty());
+	}
+
+	/**
+	 * Mimics the delays of a power-aware simulation: same-time replies, scheduling interval
+	 * ticks and far away cloudlet completions.
+	 */
+	private static double nextTime(Random random, double clock) {
+		return switch (random.nextInt(8)) {
+			case 0, 1 -> clock;
+			case 2 -> clock + 300;
+			case 3 -> clock + 1e5 * random.nextDouble();
+			default -> clock + random.nextDouble() * 300;
+		};
+	}
+
+	@Test
+	public void testRemove() {
+		List<SimEvent> events = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			SimEvent ev = event(i % 37);
+			events.add(ev);
+			queue.addEvent(ev);
+		}
+
+		assertTrue(queue.remove(events.get(500)));
+		assertFalse(queue.remove(events.get(500)));
+		assertEquals(999, queue.size());
+
+		int removed = 0;
+		Iterator<SimEvent> iter = queue.iterator();
+		while (iter.hasNext()) {
+			if (iter.next().eventTime() == 3) {
+				iter.remove();
+				removed++;
+			}
+		}
+		assertEquals(27, removed);
+		assertEquals(999 - removed, queue.size());
+
+		double last = -1;
+		int polled = 0;
+		SimEvent ev;
+		while ((ev = queue.poll()) != null) {
+			assertTrue(ev.eventTime() >= last);
+			assertNotEquals(3, ev.eventTime());
+			last = ev.eventTime();
+			polled++;
+		}
+		assertEquals(999 - removed, polled);
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.cloudbus.cloudsim.Log;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class ClockTickEventTest {
+
+	/** An entity that sends events to itself on start. */
+	private static class Sender extends SimEntity {
+
+		Sender(String name) {
+			super(name);
+		}
+
+		@Override
+		public void startEntity() {
+			schedule(getId(), 5, CloudActionTags.BLANK);
+			schedule(getId(), 5, CloudActionTags.BLANK);
+			schedule(getId(), 10, CloudActionTags.BLANK);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+		}
+	}
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testRecording(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("recording.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("org.cloudbus.cloudsim.ClockTick").withThreshold(Duration.ZERO);
+			recording.start();
+
+			CloudSim.init(1, Calendar.getInstance(), false);
+			new Sender("sender");
+			CloudSim.startSimulation();
+
+			recording.stop();
+			recording.dump(file);
+		}
+
+		List<RecordedEvent> ticks = RecordingFile.readAllEvents(file);
+		RecordedEvent tickAt5 = ticks.stream()
+				.filter(event -> event.getDouble("simulationTime") == 5)
+				.findFirst().orElseThrow();
+		assertEquals(2, tickAt5.getInt("eventsDispatched"));
+		assertEquals(1, tickAt5.getInt("futureQueueSize"));
+		assertTrue(ticks.stream().anyMatch(event -> event.getDouble("simulationTime") == 10));
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.predicates.PredicateFrom;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class CloudSimCancelTest {
+
+	/** An entity that runs an action on start and records the events it receives. */
+	private static class Recorder extends SimEntity {
+
+		private final Consumer<Recorder> onStart;
+
+		private final List<SimEvent> received = new ArrayList<>();
+
+		Recorder(String name, Consumer<Recorder> onStart) {
+			super(name);
+			this.onStart = onStart;
+		}
+
+		@Override
+		public void startEntity() {
+			onStart.accept(this);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			received.add(ev);
+		}
+	}
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	private List<SimEvent> run(Consumer<Recorder> onStart) {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		Recorder recorder = new Recorder("recorder", onStart);
+		CloudSim.startSimulation();
+		return recorder.received;
+	}
+
+	@Test
+	public void testCancelByHandle() {
+		List<SimEvent> handles = new ArrayList<>();
+		List<SimEvent> received = run(entity -> {
+			SimEvent kept = entity.schedule(entity.getId(), 5, CloudActionTags.BLANK);
+			SimEvent cancelled = entity.schedule(entity.getId(), 10, CloudActionTags.BLANK);
+			handles.add(kept);
+			handles.add(cancelled);
+
+			assertTrue(entity.cancelEvent(cancelled));
+			assertFalse(entity.cancelEvent(cancelled));
+			assertTrue(cancelled.isCancelled());
+		});
+
+		assertEquals(List.of(handles.get(0)), received);
+		assertFalse(handles.get(0).isCancelled());
+		assertEquals(5, received.get(0).eventTime());
+	}
+
+	@Test
+	public void testCancelAllByType() {
+		List<SimEvent> received = run(entity -> {
+			int id = entity.getId();
+			for (int i = 1; i <= 3000; i++) {
+				entity.schedule(id, i, CloudActionTags.VM_DATACENTER_EVENT);
+			}
+			entity.schedule(id, 7, CloudActionTags.NETWORK_PKT_FORWARD);
+
+			assertTrue(CloudSim.cancelAll(id, new PredicateType(CloudActionTags.VM_DATACENTER_EVENT)));
+			assertFalse(CloudSim.cancelAll(id, new PredicateType(CloudActionTags.VM_DATACENTER_EVENT)));
+		});
+
+		assertEquals(1, received.size());
+		assertEquals(CloudActionTags.NETWORK_PKT_FORWARD, received.get(0).getTag());
+		assertEquals(7, received.get(0).eventTime());
+	}
+
+	@Test
+	public void testCancelFirst() {
+		List<SimEvent> received = run(entity -> {
+			int id = entity.getId();
+			entity.schedule(id, 3, CloudActionTags.VM_DATACENTER_EVENT);
+			entity.schedule(id, 1, CloudActionTags.VM_DATACENTER_EVENT);
+			entity.schedule(id, 2, CloudActionTags.NETWORK_PKT_FORWARD);
+
+			SimEvent cancelled = entity.cancelEvent(new PredicateType(CloudActionTags.VM_DATACENTER_EVENT));
+			assertEquals(3, cancelled.eventTime());
+			cancelled = entity.cancelEvent(new PredicateFrom(id));
+			assertNotNull(cancelled);
+			assertTrue(cancelled.isCancelled());
+		});
+
+		assertEquals(1, received.size());
+	}
+}
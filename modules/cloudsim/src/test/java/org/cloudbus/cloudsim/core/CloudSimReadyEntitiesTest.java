@@ -0,0 +1,134 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.Log;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks which entities the kernel runs at each clock tick: only the ones with pending or
+ * deferred events, in the order of their ids.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class CloudSimReadyEntitiesTest {
+
+	/** An entity that runs an action on start and records when it runs and what it processes. */
+	private static class Recorder extends SimEntity {
+
+		private final Consumer<Recorder> onStart;
+
+		private final List<String> log;
+
+		Recorder(String name, List<String> log, Consumer<Recorder> onStart) {
+			super(name);
+			this.log = log;
+			this.onStart = onStart;
+		}
+
+		@Override
+		public void startEntity() {
+			onStart.accept(this);
+		}
+
+		@Override
+		public void run() {
+			// all the entities are run once more when the simulation finishes
+			if (CloudSim.running()) {
+				log.add(CloudSim.clock() + ": " + getName() + " runs");
+			}
+			super.run();
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			log.add(CloudSim.clock() + ": " + getName() + " processes the event of " + ev.eventTime());
+		}
+	}
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+		CloudSim.init(1, Calendar.getInstance(), false);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testOnlyEntitiesWithEventsRun() {
+		List<String> log = new ArrayList<>();
+		Recorder first = new Recorder("first", log, entity -> {});
+		Recorder second = new Recorder("second", log, entity -> {});
+		new Recorder("idle", log, entity -> {
+			entity.schedule(first.getId(), 5, CloudActionTags.BLANK);
+			entity.schedule(first.getId(), 5, CloudActionTags.BLANK);
+			entity.schedule(second.getId(), 8, CloudActionTags.BLANK);
+		});
+
+		CloudSim.startSimulation();
+
+		assertEquals(List.of(
+				"5.0: first runs",
+				"5.0: first processes the event of 5.0",
+				"5.0: first processes the event of 5.0",
+				"8.0: second runs",
+				"8.0: second processes the event of 8.0"), log);
+	}
+
+	@Test
+	public void testWakingEntitiesRunInIdOrder() {
+		List<String> log = new ArrayList<>();
+		List<Recorder> entities = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			entities.add(new Recorder("entity" + i, log, entity -> {}));
+		}
+		new Recorder("sender", log, entity -> {
+			// sent in the reverse order of the ids of the entities
+			for (int i = entities.size() - 1; i >= 0; i--) {
+				entity.schedule(entities.get(i).getId(), 5, CloudActionTags.BLANK);
+			}
+		});
+
+		CloudSim.startSimulation();
+
+		assertEquals(List.of(
+				"5.0: entity0 runs",
+				"5.0: entity0 processes the event of 5.0",
+				"5.0: entity1 runs",
+				"5.0: entity1 processes the event of 5.0",
+				"5.0: entity2 runs",
+				"5.0: entity2 processes the event of 5.0"), log);
+	}
+
+	@Test
+	public void testDeferredEventsRunWhenTheEntityWakesUp() {
+		List<String> log = new ArrayList<>();
+		Recorder sleeper = new Recorder("sleeper", log, entity -> entity.pause(10));
+		new Recorder("sender", log, entity -> entity.schedule(sleeper.getId(), 5, CloudActionTags.BLANK));
+
+		CloudSim.startSimulation();
+
+		// the event got at 5 is deferred until the sleeper is woken up by the end of its pause
+		assertEquals(List.of(
+				"10.0: sleeper runs",
+				"10.0: sleeper processes the event of 5.0"), log);
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.Log;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class EventProfilerTest {
+
+	/** An entity that sends events to itself on start. */
+	private static class Sender extends SimEntity {
+
+		int processed;
+
+		Sender(String name) {
+			super(name);
+		}
+
+		@Override
+		public void startEntity() {
+			for (int i = 0; i < 3; i++) {
+				schedule(getId(), 5, CloudActionTags.BLANK);
+			}
+			schedule(getId(), 10, CloudActionTags.VM_CREATE);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			processed++;
+		}
+	}
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testProfile(@TempDir Path dir) throws IOException {
+		Path table = dir.resolve("profile.txt");
+		Path folded = dir.resolve("profile.folded");
+		EventProfiler profiler = new EventProfiler(table, folded);
+
+		CloudSim.init(1, Calendar.getInstance(), false);
+		Sender sender = new Sender("sender");
+		CloudSim.setEventProfiler(profiler);
+		CloudSim.startSimulation();
+
+		assertEquals(4, sender.processed);
+		assertEquals(3, profiler.getEventCount(Sender.class, CloudActionTags.BLANK));
+		assertEquals(1, profiler.getEventCount(Sender.class, CloudActionTags.VM_CREATE));
+		assertEquals(0, profiler.getEventCount(Sender.class, CloudActionTags.VM_DESTROY));
+
+		// the three events at the same time are processed in one go
+		assertEquals(3, profiler.getMaxDeferredQueueSize(Sender.class, CloudActionTags.BLANK));
+		assertEquals(1, profiler.getMaxDeferredQueueSize(Sender.class, CloudActionTags.VM_CREATE));
+		assertEquals(4, profiler.getMaxFutureQueueSize(Sender.class, CloudActionTags.BLANK));
+
+		// the profile is written and the profiler detached when the simulation finishes
+		assertNull(CloudSim.getEventProfiler());
+		List<String> tableLines = Files.readAllLines(table);
+		assertTrue(tableLines.stream().anyMatch(line -> line.matches("Sender\\s+BLANK\\s+3\\s.*")));
+		List<String> foldedLines = Files.readAllLines(folded);
+		assertTrue(foldedLines.stream().anyMatch(line -> line.matches("CloudSim;Sender;VM_CREATE \\d+")));
+	}
+
+	@Test
+	public void testDisabledByInit() {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		CloudSim.setEventProfiler(new EventProfiler());
+		CloudSim.init(1, Calendar.getInstance(), false);
+		assertNull(CloudSim.getEventProfiler());
+	}
+}
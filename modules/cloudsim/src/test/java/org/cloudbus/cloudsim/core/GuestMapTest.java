@@ -0,0 +1,67 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Vm;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class GuestMapTest {
+
+	@Test
+	public void testPutGetRemove() {
+		GuestMap<Integer> map = new GuestMap<>();
+		Map<Long, Integer> expected = new HashMap<>();
+		Random random = new Random(0);
+		for (int i = 0; i < 100000; i++) {
+			long key = GuestEntity.getKey(random.nextInt(4), random.nextInt(2000) - 1000);
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(key), map.remove(key));
+			} else {
+				assertEquals(expected.put(key, i), map.put(key, i));
+			}
+			assertEquals(expected.size(), map.size());
+		}
+		for (long key : expected.keySet()) {
+			assertEquals(expected.get(key), map.get(key));
+		}
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertNull(map.get(expected.keySet().iterator().next()));
+	}
+
+	@Test
+	public void testUidMap() {
+		Vm vm = new Vm(7, 3, 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared());
+		GuestMap<String> map = new GuestMap<>();
+		map.put(vm, "a");
+		Map<String, String> uidMap = map.asUidMap();
+		assertEquals("a", uidMap.get(vm.getUid()));
+		assertEquals(Map.of("3-7", "a"), uidMap);
+
+		uidMap.put(GuestEntity.getUid(-2, -5), "b");
+		assertEquals("b", map.get(GuestEntity.getKey(-2, -5)));
+		assertNull(uidMap.get("3"));
+		assertNull(uidMap.get("x-7"));
+		assertThrows(IllegalArgumentException.class, () -> uidMap.put("3-", "c"));
+
+		assertEquals("a", uidMap.remove("3-7"));
+		assertNull(map.get(vm));
+		assertEquals(1, uidMap.size());
+	}
+}
@@ -0,0 +1,321 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.CloudletSchedulerSpaceShared;
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.UtilizationModelNull;
+import org.cloudbus.cloudsim.UtilizationModelStochastic;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.cloudbus.cloudsim.power.PowerDatacenter;
+import org.cloudbus.cloudsim.power.PowerHost;
+import org.cloudbus.cloudsim.power.PowerVm;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationStaticThreshold;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMinimumMigrationTime;
+import org.cloudbus.cloudsim.util.WorkloadFileReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class SimulationCheckpointTest {
+
+	/** An entity that processes an event every period, until a given time, and cancels a timeout. */
+	private static class Ticker extends SimEntity {
+
+		double period = 10;
+
+		final List<Double> times = new ArrayList<>();
+
+		Ticker(String name) {
+			super(name);
+		}
+
+		@Override
+		public void startEntity() {
+			schedule(getId(), period, CloudActionTags.BLANK);
+			schedule(getId(), 1000, CloudActionTags.VM_DESTROY);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			times.add(CloudSim.clock());
+			if (CloudSim.clock() + period <= 100) {
+				schedule(getId(), period, CloudActionTags.BLANK);
+			} else {
+				CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.VM_DESTROY));
+			}
+		}
+	}
+
+	/**
+	 * A power host that reports a VM as completed only once it has no cloudlet left, so that the
+	 * VMs of the power simulation keep running and being migrated until the end.
+	 */
+	private static class BusyPowerHost extends PowerHost {
+
+		BusyPowerHost(int id, List<Pe> peList) {
+			super(id, new RamProvisionerSimple(4096), new BwProvisionerSimple(1000000), 1000000, peList,
+					new VmSchedulerTimeSharedOverSubscription(peList), new PowerModelLinear(250, 0.7));
+		}
+
+		@Override
+		public List<GuestEntity> getCompletedVms() {
+			List<GuestEntity> completed = super.getCompletedVms();
+			completed.removeIf(vm -> vm.getCloudletScheduler().runningCloudlets() > 0
+					|| !vm.getCloudletScheduler().getCloudletWaitingList().isEmpty());
+			return completed;
+		}
+	}
+
+	private static final double SCHEDULING_INTERVAL = 300;
+
+	private static final double SIMULATION_LIMIT = 6 * 60 * 60;
+
+	/**
+	 * Creates a small power simulation, whose VMs are consolidated and migrated by a static
+	 * threshold policy.
+	 */
+	private static void createPowerSimulation() throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+
+		List<PowerHost> hostList = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1860 + i % 2 * 800)));
+			peList.add(new Pe(1, new PeProvisionerSimple(1860 + i % 2 * 800)));
+			hostList.add(new BusyPowerHost(i, peList));
+		}
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		new PowerDatacenter("Datacenter", characteristics,
+				new PowerVmAllocationPolicyMigrationStaticThreshold(hostList,
+						new SelectionPolicyMinimumMigrationTime<>(), 0.8),
+				new LinkedList<>(), SCHEDULING_INTERVAL);
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		List<Vm> vmList = new ArrayList<>();
+		List<Cloudlet> cloudletList = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			int mips = 500 * (1 + i % 3);
+			vmList.add(new PowerVm(i, broker.getId(), mips, 1, 870, 100000, 2500, 1, "Xen",
+					new CloudletSchedulerDynamicWorkload(mips, 1), SCHEDULING_INTERVAL));
+			Cloudlet cloudlet = new Cloudlet(i, 2500 * (long) SIMULATION_LIMIT, 1, 300, 300,
+					new UtilizationModelStochastic(i + 1), new UtilizationModelNull(), new UtilizationModelNull());
+			cloudlet.setUserId(broker.getId());
+			cloudlet.setGuestId(i);
+			cloudletList.add(cloudlet);
+		}
+		broker.submitGuestList(vmList);
+		broker.submitCloudletList(cloudletList);
+		CloudSim.terminateSimulation(SIMULATION_LIMIT);
+	}
+
+	/**
+	 * Creates a simulation whose broker streams a workload of SWF jobs, each arriving 10 seconds
+	 * after the previous one.
+	 */
+	private static void createWorkloadSimulation(Path trace) throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		List<Host> hostList = new ArrayList<>();
+		hostList.add(new Host(0, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 1000000,
+				peList, new VmSchedulerTimeShared(peList)));
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		new Datacenter("Datacenter", characteristics, new VmAllocationPolicySimple(hostList),
+				new LinkedList<>(), 0);
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		List<Vm> vmList = new ArrayList<>();
+		vmList.add(new Vm(0, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerSpaceShared()));
+		broker.submitGuestList(vmList);
+		broker.submitWorkload(new WorkloadFileReader(trace.toString(), 1000), 50);
+	}
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testRunUntil() {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		Ticker ticker = new Ticker("ticker");
+
+		assertEquals(35, CloudSim.runUntil(35));
+		assertTrue(CloudSim.running());
+		assertEquals(List.of(10.0, 20.0, 30.0), ticker.times);
+
+		assertEquals(100, CloudSim.startSimulation());
+		assertEquals(10, ticker.times.size());
+	}
+
+	@Test
+	public void testRestore(@TempDir Path dir) throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		Ticker ticker = new Ticker("ticker");
+		CloudSim.runUntil(35);
+		Path file = dir.resolve("checkpoint.gz");
+		CloudSim.saveCheckpoint(file);
+
+		// the restored simulation continues from the checkpoint, independently of the original one
+		Ticker restored = new SimulationContext().call(() -> {
+			CloudSim.restoreCheckpoint(file);
+			assertEquals(35, CloudSim.clock());
+			Ticker entity = (Ticker) CloudSim.getEntity("ticker");
+			assertEquals(100, CloudSim.startSimulation());
+			return entity;
+		});
+		assertNotSame(ticker, restored);
+		assertEquals(3, ticker.times.size());
+
+		CloudSim.startSimulation();
+		assertEquals(ticker.times, restored.times);
+	}
+
+	@Test
+	public void testRestorePowerSimulation() throws Exception {
+		PowerDatacenter uninterrupted = new SimulationContext().call(() -> {
+			createPowerSimulation();
+			PowerDatacenter datacenter = (PowerDatacenter) CloudSim.getEntity("Datacenter");
+			CloudSim.startSimulation();
+			return datacenter;
+		});
+		assertTrue(uninterrupted.getMigrationCount() > 0);
+
+		byte[] checkpoint = new SimulationContext().call(() -> {
+			createPowerSimulation();
+			CloudSim.runUntil(SIMULATION_LIMIT / 2);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			CloudSim.saveCheckpoint(out);
+			return out.toByteArray();
+		});
+		PowerDatacenter restored = new SimulationContext().call(() -> {
+			CloudSim.restoreCheckpoint(new ByteArrayInputStream(checkpoint));
+			PowerDatacenter datacenter = (PowerDatacenter) CloudSim.getEntity("Datacenter");
+			CloudSim.startSimulation();
+			return datacenter;
+		});
+
+		assertEquals(uninterrupted.getPower(), restored.getPower());
+		assertEquals(uninterrupted.getMigrationCount(), restored.getMigrationCount());
+	}
+
+	@Test
+	public void testRestoreStreamedWorkload(@TempDir Path dir) throws Exception {
+		StringBuilder jobs = new StringBuilder();
+		for (int i = 1; i <= 200; i++) {
+			jobs.append(i).append(' ').append(10 * i).append(" 0 ").append(1 + i % 7)
+					.append(" 1 -1 -1 1 ").append(1 + i % 7).append(" -1 1 1 1 -1 -1 -1 -1 -1\n");
+		}
+		Path trace = Files.writeString(dir.resolve("trace.swf"), jobs);
+
+		List<Cloudlet> uninterrupted = new SimulationContext().call(() -> {
+			createWorkloadSimulation(trace);
+			DatacenterBroker broker = (DatacenterBroker) CloudSim.getEntity("Broker");
+			CloudSim.startSimulation();
+			return broker.getCloudletReceivedList();
+		});
+		assertEquals(200, uninterrupted.size());
+
+		// the broker is saved in the middle of the replay, with jobs still to read
+		byte[] checkpoint = new SimulationContext().call(() -> {
+			createWorkloadSimulation(trace);
+			DatacenterBroker broker = (DatacenterBroker) CloudSim.getEntity("Broker");
+			CloudSim.runUntil(1000);
+			assertTrue(broker.getCloudletReceivedList().size() < 100);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			CloudSim.saveCheckpoint(out);
+			return out.toByteArray();
+		});
+		List<Cloudlet> restored = new SimulationContext().call(() -> {
+			CloudSim.restoreCheckpoint(new ByteArrayInputStream(checkpoint));
+			DatacenterBroker broker = (DatacenterBroker) CloudSim.getEntity("Broker");
+			CloudSim.startSimulation();
+			return broker.getCloudletReceivedList();
+		});
+
+		assertEquals(uninterrupted.size(), restored.size());
+		for (int i = 0; i < uninterrupted.size(); i++) {
+			assertEquals(uninterrupted.get(i).getCloudletId(), restored.get(i).getCloudletId());
+			assertEquals(uninterrupted.get(i).getSubmissionTime(), restored.get(i).getSubmissionTime());
+			assertEquals(uninterrupted.get(i).getExecFinishTime(), restored.get(i).getExecFinishTime());
+		}
+	}
+
+	@Test
+	public void testFork() throws Exception {
+		byte[] checkpoint = new SimulationContext().call(() -> {
+			CloudSim.init(1, Calendar.getInstance(), false);
+			new Ticker("ticker");
+			CloudSim.runUntil(35);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			CloudSim.saveCheckpoint(out);
+			return out.toByteArray();
+		});
+
+		// each fork changes the entity restored from the shared warm-up
+		List<List<Double>> forks = new ArrayList<>();
+		for (double period : new double[] {10, 20}) {
+			forks.add(new SimulationContext().call(() -> {
+				CloudSim.restoreCheckpoint(new ByteArrayInputStream(checkpoint));
+				Ticker ticker = (Ticker) CloudSim.getEntity("ticker");
+				ticker.period = period;
+				CloudSim.startSimulation();
+				return ticker.times;
+			}));
+		}
+		assertEquals(List.of(10.0, 20.0, 30.0, 40.0, 50.0, 60.0, 70.0, 80.0, 90.0, 100.0), forks.get(0));
+		assertEquals(List.of(10.0, 20.0, 30.0, 40.0, 60.0, 80.0, 100.0), forks.get(1));
+	}
+
+	@Test
+	public void testNotInitialised() throws Exception {
+		new SimulationContext().run(() ->
+				assertThrows(IllegalStateException.class, () -> CloudSim.saveCheckpoint(OutputStream.nullOutputStream())));
+	}
+}
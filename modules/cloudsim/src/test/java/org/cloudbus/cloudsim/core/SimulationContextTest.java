@@ -0,0 +1,150 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.EX.util.Id;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class SimulationContextTest {
+
+	private static final int REPLICATIONS = 4;
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	/**
+	 * Runs a small simulation with two hosts, two VMs and a few cloudlets per VM.
+	 *
+	 * @param cloudlets the number of cloudlets per VM
+	 * @return the finish time of each cloudlet, by cloudlet id, and the last clock time
+	 */
+	private static List<Double> simulate(int cloudlets) throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+
+		List<Host> hostList = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			hostList.add(new Host(i, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 1000000,
+					peList, new VmSchedulerTimeShared(peList)));
+		}
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		new Datacenter("Datacenter_0", characteristics, new VmAllocationPolicySimple(hostList),
+				new LinkedList<Storage>(), 0);
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		List<Vm> vmList = new ArrayList<>();
+		List<Cloudlet> cloudletList = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			vmList.add(new Vm(i, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+		}
+		for (int i = 0; i < 2 * cloudlets; i++) {
+			Cloudlet cloudlet = new Cloudlet(i, 10000L * (i + 1), 1, 300, 300,
+					new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+			cloudlet.setUserId(broker.getId());
+			cloudlet.setGuestId(i % 2);
+			cloudletList.add(cloudlet);
+		}
+		broker.submitGuestList(vmList);
+		broker.submitCloudletList(cloudletList);
+
+		double lastClock = CloudSim.startSimulation();
+
+		List<Double> result = new ArrayList<>();
+		for (Cloudlet cloudlet : cloudletList) {
+			assertEquals(Cloudlet.CloudletStatus.SUCCESS, cloudlet.getStatus());
+			result.add(cloudlet.getExecFinishTime());
+		}
+		result.add(lastClock);
+		return result;
+	}
+
+	@Test
+	public void testParallelReplications() throws Exception {
+		List<Double> expected = simulate(3);
+
+		ExecutorService executor = Executors.newFixedThreadPool(REPLICATIONS);
+		try {
+			List<Future<List<Double>>> results = new ArrayList<>();
+			for (int i = 0; i < REPLICATIONS; i++) {
+				SimulationContext context = new SimulationContext();
+				results.add(executor.submit(() -> context.call(() -> simulate(3))));
+			}
+			for (Future<List<Double>> result : results) {
+				assertEquals(expected, result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testBinding() throws Exception {
+		SimulationContext defaultContext = SimulationContext.current();
+		SimulationContext context = new SimulationContext();
+
+		double clock = context.call(() -> {
+			assertSame(context, SimulationContext.current());
+			return simulate(1).get(2);
+		});
+		assertTrue(clock > 0);
+		assertSame(defaultContext, SimulationContext.current());
+		assertFalse(context.isRunning());
+	}
+
+	@Test
+	public void testIdsPerContext() throws Exception {
+		SimulationContext first = new SimulationContext();
+		SimulationContext second = new SimulationContext();
+
+		assertEquals(1, (int) first.call(() -> Id.pollId(Vm.class)));
+		assertEquals(2, (int) first.call(() -> Id.pollId(Vm.class)));
+		assertEquals(1, (int) second.call(() -> Id.pollId(Vm.class)));
+		assertEquals(1, (int) second.call(() -> Id.pollId(Cloudlet.class)));
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class DelayMatrix_FloatTest {
+
+	/**
+	 * Compares the delays with the ones of {@link FloydWarshall_Float}, on random graphs with
+	 * unconnected nodes, replaced links and links without delay.
+	 */
+	@Test
+	public void testSameDelaysAsFloydWarshall() {
+		Random random = new Random(0);
+		for (boolean directed : new boolean[] { false, true }) {
+			for (int test = 0; test < 20; test++) {
+				TopologicalGraph graph = createRandomGraph(random, 1 + random.nextInt(60), random.nextInt(150));
+				assertSameDelays(graph, new DelayMatrix_Float(graph, directed), directed);
+			}
+		}
+	}
+
+	/**
+	 * Adds links one by one, checking the incremental update against the delays computed again.
+	 */
+	@Test
+	public void testAddLink() {
+		Random random = new Random(1);
+		TopologicalGraph graph = createRandomGraph(random, 30, 20);
+		DelayMatrix_Float delayMatrix = new DelayMatrix_Float(graph, false);
+		for (int i = 0; i < 100; i++) {
+			// new nodes, shorter and longer links
+			TopologicalLink link = new TopologicalLink(random.nextInt(40), random.nextInt(40),
+					random.nextInt(10), 1);
+			if (link.getSrcNodeID() >= graph.getNumberOfNodes() || link.getDestNodeID() >= graph.getNumberOfNodes()) {
+				continue;
+			}
+			graph.addLink(link);
+			delayMatrix.addLink(link.getSrcNodeID(), link.getDestNodeID(), link.getLinkDelay());
+			assertSameDelays(graph, delayMatrix, false);
+		}
+
+		delayMatrix.addLink(31, 2, 1);
+		assertEquals(32, delayMatrix.getNumberOfNodes());
+		assertEquals(0, delayMatrix.getDelay(31, 31));
+		assertEquals(1, delayMatrix.getDelay(31, 2));
+		assertEquals(Float.MAX_VALUE, delayMatrix.getDelay(30, 2));
+	}
+
+	/**
+	 * Checks the delays computed upon request, on a ring too large for a full matrix.
+	 */
+	@Test
+	public void testLargeTopology() {
+		int nodes = 20000;
+		TopologicalGraph graph = new TopologicalGraph();
+		for (int i = 0; i < nodes; i++) {
+			graph.addNode(new TopologicalNode(i));
+			graph.addLink(new TopologicalLink(i, (i + 1) % nodes, 1, 1));
+		}
+		DelayMatrix_Float delayMatrix = new DelayMatrix_Float(graph, false);
+		assertEquals(1, delayMatrix.getDelay(0, nodes - 1));
+		assertEquals(nodes / 2, delayMatrix.getDelay(nodes / 2, 0));
+		assertEquals(100, delayMatrix.getDelay(50, 150));
+
+		delayMatrix.addLink(0, nodes / 2, 1);
+		assertEquals(2, delayMatrix.getDelay(nodes / 2, nodes - 1));
+	}
+
+	private static TopologicalGraph createRandomGraph(Random random, int nodes, int links) {
+		TopologicalGraph graph = new TopologicalGraph();
+		for (int i = 0; i < nodes; i++) {
+			graph.addNode(new TopologicalNode(i));
+		}
+		for (int i = 0; i < links; i++) {
+			graph.addLink(new TopologicalLink(random.nextInt(nodes), random.nextInt(nodes),
+					random.nextInt(5) == 0 ? 0 : random.nextInt(10) + 1, 1));
+		}
+		return graph;
+	}
+
+	private static void assertSameDelays(TopologicalGraph graph, DelayMatrix_Float delayMatrix, boolean directed) {
+		int n = graph.getNumberOfNodes();
+		float[][] adjMatrix = new float[n][n];
+		for (float[] row : adjMatrix) {
+			Arrays.fill(row, Float.MAX_VALUE);
+		}
+		graph.getLinkIterator().forEachRemaining(link -> {
+			adjMatrix[link.getSrcNodeID()][link.getDestNodeID()] = link.getLinkDelay();
+			if (!directed) {
+				adjMatrix[link.getDestNodeID()][link.getSrcNodeID()] = link.getLinkDelay();
+			}
+		});
+		FloydWarshall_Float floyd = new FloydWarshall_Float();
+		floyd.initialize(n);
+		float[][] expected = floyd.allPairsShortestPaths(adjMatrix);
+
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				assertEquals(expected[i][j], delayMatrix.getDelay(i, j), "Delay from " + i + " to " + j);
+			}
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class FlowNetworkTest {
+
+	private static final long DOWNLINK_BW = 100000000;
+
+	private static final long DATA = 1000000;
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+		CloudSim.init(1, Calendar.getInstance(), false);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testPacketLevel() throws Exception {
+		runGatherer(false);
+	}
+
+	/**
+	 * Three workers on different hosts send their data to a gatherer at the same time: they share
+	 * the downlink of the edge switch to the host of the gatherer.
+	 */
+	@Test
+	public void testFlowLevel() throws Exception {
+		NetworkCloudlet gatherer = runGatherer(true);
+		// the three flows get a third of the downlink each, and end together
+		double transferTime = 8.0 * 3 * DATA / DOWNLINK_BW;
+		assertEquals(transferTime, gatherer.stages.get(1).getTime(), 1e-9);
+	}
+
+	/**
+	 * Runs three workers sending data to a gatherer, each cloudlet on its own host.
+	 *
+	 * @param flowLevel whether the network is simulated at the flow level
+	 * @return the gatherer
+	 */
+	private NetworkCloudlet runGatherer(boolean flowLevel) throws Exception {
+		List<NetworkHost> hostList = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			hostList.add(new NetworkHost(i, new RamProvisionerSimple(2048), new BwProvisionerSimple(1000000000),
+					1000000, peList, new VmSchedulerTimeShared(peList)));
+		}
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		NetworkDatacenter dc = new NetworkDatacenter("Datacenter_0", characteristics,
+				new VmAllocationPolicySimple(hostList), new LinkedList<Storage>(), 0);
+		dc.setFlowLevelNetwork(flowLevel);
+		Switch edge = new Switch("Edge0", 4, Switch.SwitchLevel.EDGE_LEVEL, 0, DOWNLINK_BW, DOWNLINK_BW, dc);
+		dc.registerSwitch(edge);
+		for (NetworkHost host : hostList) {
+			dc.attachSwitchToHost(edge, host);
+		}
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		List<Vm> vmList = new ArrayList<>();
+		List<NetworkCloudlet> cloudletList = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			vmList.add(new Vm(i, broker.getId(), 1000, 1, 512, 1000000000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+			NetworkCloudlet cl = new NetworkCloudlet(i, 1000, 1, 300, 300,
+					new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+			cl.setUserId(broker.getId());
+			cl.setGuestId(i);
+			cl.addExecutionStage(1000);
+			cloudletList.add(cl);
+		}
+		NetworkCloudlet gatherer = cloudletList.getFirst();
+		for (NetworkCloudlet worker : cloudletList.subList(1, 4)) {
+			worker.addSendStage(DATA, gatherer);
+			gatherer.addRecvStage(worker);
+		}
+		broker.submitGuestList(vmList);
+		broker.submitCloudletList(cloudletList);
+
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+
+		assertEquals(4, broker.getCloudletReceivedList().size());
+		for (Cloudlet cl : broker.getCloudletReceivedList()) {
+			assertEquals(Cloudlet.CloudletStatus.SUCCESS, cl.getStatus());
+		}
+		assertEquals(3 * DATA, dc.totalDataTransfer);
+		if (flowLevel) {
+			assertEquals(0, dc.getFlowNetwork().getNumberOfFlows());
+			// the links of the senders are dropped with their VMs
+			assertEquals(0, dc.getFlowNetwork().getNumberOfGuestLinks());
+		}
+		return gatherer;
+	}
+}
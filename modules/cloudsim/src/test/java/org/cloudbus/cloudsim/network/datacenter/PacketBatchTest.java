@@ -0,0 +1,70 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class PacketBatchTest {
+
+	private List<NetworkPacket> packets;
+
+	@BeforeEach
+	public void setUp() {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		NetworkCloudlet receiver = createCloudlet(0);
+		packets = new ArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			NetworkCloudlet sender = createCloudlet(i);
+			sender.addSendStage(1000L * i, receiver);
+			packets.add(new NetworkPacket(0, new HostPacket(sender, 0)));
+		}
+	}
+
+	@Test
+	public void testPollByDelay() {
+		PacketBatch batch = new PacketBatch(packets, new double[] { 2, 1, 1 });
+		assertEquals(3, batch.size());
+		assertEquals(1, batch.getDelay());
+
+		// the two packets with the smallest delay arrive first, in their order
+		batch.receive();
+		assertSame(packets.get(1), batch.poll());
+		assertSame(packets.get(2), batch.poll());
+		assertNull(batch.poll());
+
+		batch.receive();
+		assertSame(packets.get(0), batch.poll());
+		assertNull(batch.poll());
+	}
+
+	@Test
+	public void testInvalidBatch() {
+		assertThrows(IllegalArgumentException.class, () -> new PacketBatch(packets, new double[] { 1, 1 }));
+		assertThrows(IllegalArgumentException.class, () -> new PacketBatch(new ArrayList<>(), new double[0]));
+	}
+
+	private static NetworkCloudlet createCloudlet(int id) {
+		NetworkCloudlet cl = new NetworkCloudlet(id, 1000, 1, 300, 300,
+				new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+		cl.setGuestId(id);
+		return cl;
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class PowerHostSnapshotTest {
+
+	private static final double MIPS = 1000;
+	private static final int RAM = 1024;
+	private static final long BW = 10000;
+	private static final double TIME = 10;
+
+	private PowerHost host;
+
+	private PowerVm vm0;
+
+	private PowerVm vm1;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+		peList.add(new Pe(1, new PeProvisionerSimple(MIPS)));
+		host = new PowerHost(0, new RamProvisionerSimple(RAM), new BwProvisionerSimple(BW), 1000000, peList,
+				new VmSchedulerTimeShared(peList), new PowerModelLinear(200, 0.3));
+
+		vm0 = new PowerVm(0, 0, MIPS / 2, 1, RAM / 2, BW / 2, 0, 0, "", null, TIME);
+		vm1 = new PowerVm(1, 0, MIPS, 1, RAM / 2, BW / 4, 0, 0, "", null, TIME);
+		for (int i = 0; i < 20; i++) {
+			vm0.addUtilizationHistoryValue(i % 5 / 5.0);
+			vm1.addUtilizationHistoryValue(i % 3 / 3.0);
+		}
+		assertTrue(host.guestCreate(vm0));
+	}
+
+	@Test
+	public void testGuestCreate() {
+		PowerHostSnapshot snapshot = new PowerHostSnapshot(host);
+		assertFalse(snapshot.isChanged());
+		assertTrue(snapshot.guestCreate(vm1));
+		assertEquals(List.of(vm0, vm1), snapshot.getGuestList());
+		assertEquals(MIPS, snapshot.getTotalAllocatedMipsForGuest(vm1), 0);
+
+		// all the RAM is reserved
+		PowerVm vm2 = new PowerVm(2, 0, MIPS / 10, 1, 1, 0, 0, 0, "", null, TIME);
+		assertTrue(host.isSuitableForGuest(vm2));
+		assertFalse(snapshot.isSuitableForGuest(vm2));
+
+		// the host is not changed
+		assertEquals(List.of(vm0), host.getGuestList());
+		assertEquals(RAM / 2, host.getGuestRamProvisioner().getAvailableRam());
+		assertNull(vm1.getHost());
+
+		double[] historyBefore = host.getUtilizationHistory();
+		assertTrue(host.guestCreate(vm1));
+		assertEquals(host.getUtilizationHistoryLength(), snapshot.getUtilizationHistoryLength());
+		for (int i = 0; i < host.getUtilizationHistoryLength(); i++) {
+			assertEquals(host.getUtilizationHistoryValue(i), snapshot.getUtilizationHistoryValue(i), 0);
+		}
+		assertEquals(host.getUtilizationMad(), snapshot.getUtilizationMad(), 0);
+		assertEquals(host.getUtilizationIqr(), snapshot.getUtilizationIqr(), 0);
+		host.guestDestroy(vm1);
+		assertArrayEquals(historyBefore, host.getUtilizationHistory(), 0);
+	}
+
+	@Test
+	public void testGuestDestroy() {
+		assertTrue(host.guestCreate(vm1));
+		PowerHostSnapshot snapshot = new PowerHostSnapshot(host);
+		snapshot.guestDestroy(vm0);
+		assertEquals(List.of(vm1), snapshot.getGuestList());
+
+		// vm0 can be created again with the resources it released
+		PowerHostSnapshot copy = new PowerHostSnapshot(snapshot);
+		assertTrue(copy.guestCreate(vm0));
+		assertEquals(List.of(vm1, vm0), copy.getGuestList());
+		assertEquals(List.of(vm1), snapshot.getGuestList());
+		assertEquals(List.of(vm0, vm1), host.getGuestList());
+
+		int i = 0;
+		for (double utilization : vm1.getUtilizationHistory()) {
+			assertEquals(utilization / 2, snapshot.getUtilizationHistoryValue(i++), 1e-12);
+		}
+		assertEquals(i, snapshot.getUtilizationHistoryLength());
+	}
+
+	@Test
+	public void testIsHostOverUtilizedWithPowerHostOverload() {
+		List<List<GuestEntity>> checkedGuests = new ArrayList<>();
+		PowerVmAllocationPolicyMigrationAbstract policy =
+				new PowerVmAllocationPolicyMigrationAbstract(List.of(host), null) {
+			@Override
+			protected boolean isHostOverUtilized(PowerHost host) {
+				checkedGuests.add(new ArrayList<>(host.getGuestList()));
+				return host.getGuestList().size() > 1;
+			}
+		};
+
+		PowerHostSnapshot snapshot = new PowerHostSnapshot(host);
+		assertFalse(policy.isHostOverUtilized(snapshot));
+		assertTrue(snapshot.guestCreate(vm1));
+		assertTrue(policy.isHostOverUtilized(snapshot));
+		snapshot.guestDestroy(vm0);
+		assertFalse(policy.isHostOverUtilized(snapshot));
+		assertEquals(List.of(List.of(vm0), List.of(vm0, vm1), List.of(vm1)), checkedGuests);
+
+		// the host is not changed
+		assertEquals(List.of(vm0), host.getGuestList());
+		assertEquals(RAM / 2, host.getGuestRamProvisioner().getAvailableRam());
+		assertEquals(host, vm0.getHost());
+		assertNull(vm1.getHost());
+	}
+}
@@ -10,14 +10,18 @@ package org.cloudbus.cloudsim.power;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.core.PowerGuestEntity;
 import org.cloudbus.cloudsim.power.models.PowerModelLinear;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.util.MathUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -59,4 +63,54 @@ public class PowerHostTest {
 		assertEquals(expectedEnergy, host.getEnergyLinearInterpolation(0.2, 0.9, TIME), 0);
 	}
 
+	@Test
+	public void testGetUtilizationHistory() {
+		PowerVm vm0 = new PowerVm(0, 0, MIPS / 2, 1, 0, 0, 0, 0, "", null, TIME);
+		PowerVm vm1 = new PowerVm(1, 0, MIPS / 4, 1, 0, 0, 0, 0, "", null, TIME);
+		for (int i = 0; i < PowerGuestEntity.HISTORY_LENGTH + 5; i++) {
+			vm0.addUtilizationHistoryValue(i % 7 / 7.0);
+		}
+		for (int i = 0; i < 15; i++) {
+			vm1.addUtilizationHistoryValue(i % 3 / 3.0);
+		}
+		host.getGuestList().add(vm0);
+		host.getGuestList().add(vm1);
+		assertArrayEquals(sumUtilizationHistory(), host.getUtilizationHistory(), 0);
+		assertEquals(PowerGuestEntity.HISTORY_LENGTH, host.getUtilizationHistoryLength());
+		assertEquals(MathUtil.mad(sumUtilizationHistory()), host.getUtilizationMad(), 0);
+		assertEquals(MathUtil.iqr(sumUtilizationHistory()), host.getUtilizationIqr(), 0);
+
+		vm1.addUtilizationHistoryValue(1);
+		assertArrayEquals(sumUtilizationHistory(), host.getUtilizationHistory(), 0);
+		assertEquals(MathUtil.mad(sumUtilizationHistory()), host.getUtilizationMad(), 0);
+
+		PowerVm vm2 = new PowerVm(2, 0, MIPS / 4, 1, 0, 0, 0, 0, "", null, TIME);
+		vm2.addUtilizationHistoryValue(0.5);
+		host.getGuestList().add(vm2);
+		assertArrayEquals(sumUtilizationHistory(), host.getUtilizationHistory(), 0);
+		assertEquals(MathUtil.iqr(sumUtilizationHistory()), host.getUtilizationIqr(), 0);
+		host.getGuestList().remove(vm2);
+		assertArrayEquals(sumUtilizationHistory(), host.getUtilizationHistory(), 0);
+
+		host.getGuestList().remove(vm0);
+		assertArrayEquals(sumUtilizationHistory(), host.getUtilizationHistory(), 0);
+		assertEquals(16, host.getUtilizationHistoryLength());
+		assertEquals(vm1.getUtilizationHistory().peekLast() / 4, host.getUtilizationHistoryValue(15), 0);
+	}
+
+	/**
+	 * Sums the utilization history of the VMs of the host, without caching it.
+	 */
+	private double[] sumUtilizationHistory() {
+		double[] utilizationHistory = new double[PowerGuestEntity.HISTORY_LENGTH];
+		int length = 0;
+		for (PowerVm vm : host.<PowerVm>getGuestList()) {
+			int i = 0;
+			for (double u : vm.getUtilizationHistory()) {
+				utilizationHistory[i++] += u * vm.getMips() / host.getTotalMips();
+			}
+			length = Math.max(length, i);
+		}
+		return Arrays.copyOf(utilizationHistory, length);
+	}
 }
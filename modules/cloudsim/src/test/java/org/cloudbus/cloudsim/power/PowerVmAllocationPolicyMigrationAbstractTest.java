@@ -0,0 +1,194 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.UtilizationModelNull;
+import org.cloudbus.cloudsim.UtilizationModelStochastic;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMinimumMigrationTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class PowerVmAllocationPolicyMigrationAbstractTest {
+
+	private static final int HOSTS = 6;
+
+	private static final double SCHEDULING_INTERVAL = 300;
+
+	private static final double SIMULATION_LIMIT = 6 * 60 * 60;
+
+	/**
+	 * A power host that reports a VM as completed only once it has no cloudlet left, so that the
+	 * VMs of the simulation keep running and being migrated until the end.
+	 */
+	private static class BusyPowerHost extends PowerHost {
+
+		BusyPowerHost(int id, List<Pe> peList) {
+			super(id, new RamProvisionerSimple(4096), new BwProvisionerSimple(1000000), 1000000, peList,
+					new VmSchedulerTimeSharedOverSubscription(peList), new PowerModelLinear(250, 0.7));
+		}
+
+		@Override
+		public List<GuestEntity> getCompletedVms() {
+			List<GuestEntity> completed = super.getCompletedVms();
+			completed.removeIf(vm -> vm.getCloudletScheduler().runningCloudlets() > 0
+					|| !vm.getCloudletScheduler().getCloudletWaitingList().isEmpty());
+			return completed;
+		}
+	}
+
+	private List<PowerHost> hostList;
+
+	private PowerVm vm;
+
+	@BeforeEach
+	public void setUp() {
+		hostList = new ArrayList<>();
+		for (int i = 0; i < HOSTS; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			peList.add(new Pe(1, new PeProvisionerSimple(1000)));
+			PowerHost host = new PowerHost(i, new RamProvisionerSimple(4096), new BwProvisionerSimple(100000),
+					1000000, peList, new VmSchedulerTimeShared(peList), new PowerModelLinear(200, 0.3));
+			assertTrue(host.guestCreate(new PowerVm(i, 0, 150 * (i + 1), 1, 512, 1000, 0, 1, "Xen",
+					new CloudletSchedulerDynamicWorkload(150 * (i + 1), 1), 300)));
+			hostList.add(host);
+		}
+		vm = new PowerVm(HOSTS, 0, 500, 1, 512, 1000, 0, 1, "Xen", new CloudletSchedulerDynamicWorkload(500, 1), 300);
+		Log.disable();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	/**
+	 * Runs a power simulation whose VMs are consolidated by a static threshold policy.
+	 *
+	 * @param parallel whether the policy evaluates the candidate hosts in parallel
+	 * @return the migrations planned by each optimization, as "time: VM -> host" entries
+	 */
+	private static List<String> runPowerSimulation(boolean parallel) throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+
+		List<PowerHost> hostList = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1860 + i % 2 * 800)));
+			peList.add(new Pe(1, new PeProvisionerSimple(1860 + i % 2 * 800)));
+			hostList.add(new BusyPowerHost(i, peList));
+		}
+		List<String> migrations = new ArrayList<>();
+		PowerVmAllocationPolicyMigrationStaticThreshold policy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+				hostList, new SelectionPolicyMinimumMigrationTime<>(), 0.8) {
+			@Override
+			public List<GuestMapping> optimizeAllocation(List<? extends GuestEntity> vmList) {
+				List<GuestMapping> migrationMap = super.optimizeAllocation(vmList);
+				for (GuestMapping migration : migrationMap) {
+					migrations.add(CloudSim.clock() + ": " + migration.vm().getId() + " -> " + migration.host().getId());
+				}
+				return migrationMap;
+			}
+		};
+		policy.setParallelHostEvaluation(parallel);
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		new PowerDatacenter("Datacenter", characteristics, policy, new LinkedList<>(), SCHEDULING_INTERVAL);
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		List<Vm> vmList = new ArrayList<>();
+		List<Cloudlet> cloudletList = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			int mips = 500 * (1 + i % 3);
+			vmList.add(new PowerVm(i, broker.getId(), mips, 1, 870, 100000, 2500, 1, "Xen",
+					new CloudletSchedulerDynamicWorkload(mips, 1), SCHEDULING_INTERVAL));
+			Cloudlet cloudlet = new Cloudlet(i, 2500 * (long) SIMULATION_LIMIT, 1, 300, 300,
+					new UtilizationModelStochastic(i + 1), new UtilizationModelNull(), new UtilizationModelNull());
+			cloudlet.setUserId(broker.getId());
+			cloudlet.setGuestId(i);
+			cloudletList.add(cloudlet);
+		}
+		broker.submitGuestList(vmList);
+		broker.submitCloudletList(cloudletList);
+		CloudSim.terminateSimulation(SIMULATION_LIMIT);
+		CloudSim.startSimulation();
+		return migrations;
+	}
+
+	@Test
+	public void testParallelEvaluationWithPowerHostOverload() {
+		AtomicInteger checking = new AtomicInteger();
+		AtomicInteger maxChecking = new AtomicInteger();
+		List<Integer> checkedHosts = new ArrayList<>();
+		PowerVmAllocationPolicyMigrationAbstract policy =
+				new PowerVmAllocationPolicyMigrationAbstract(hostList, null) {
+			@Override
+			protected boolean isHostOverUtilized(PowerHost host) {
+				maxChecking.accumulateAndGet(checking.incrementAndGet(), Math::max);
+				checkedHosts.add(host.getId());
+				try {
+					Thread.sleep(5);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				checking.decrementAndGet();
+				return host.getGuestList().size() > 1 && host.getId() < 2;
+			}
+		};
+		policy.setParallelHostEvaluation(true);
+
+		// the real hosts are changed while they are checked, so they are checked one at a time
+		assertEquals(hostList.get(2), policy.findHostForGuest(vm, Set.of()));
+		assertEquals(1, maxChecking.get());
+		assertEquals(List.of(0, 1, 2, 3, 4, 5), checkedHosts);
+
+		for (PowerHost host : hostList) {
+			assertEquals(1, host.getGuestList().size());
+		}
+		assertNull(vm.getHost());
+	}
+
+	@Test
+	public void testParallelEvaluationGivesSameMigrations() throws Exception {
+		List<String> sequential = new SimulationContext().call(() -> runPowerSimulation(false));
+		List<String> parallel = new SimulationContext().call(() -> runPowerSimulation(true));
+
+		assertFalse(sequential.isEmpty());
+		assertEquals(sequential, parallel);
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class CapacityIndexTest {
+
+	@Test
+	public void testNextFit() {
+		int size = 37;
+		CapacityIndex index = new CapacityIndex(size, 2);
+		double[][] capacities = new double[size][2];
+		assertEquals(-1, index.nextFit(0, new double[] {0, 0}));
+		for (int i = 0; i < size; i++) {
+			index.set(i, 0, 0);
+			index.set(i, 1, 0);
+		}
+
+		Random random = new Random(0);
+		for (int i = 0; i < 10000; i++) {
+			int position = random.nextInt(size);
+			int dimension = random.nextInt(2);
+			capacities[position][dimension] = random.nextInt(20);
+			index.set(position, dimension, capacities[position][dimension]);
+			assertEquals(capacities[position][dimension], index.get(position, dimension), 0);
+
+			double[] demand = {random.nextInt(20), random.nextInt(20)};
+			int from = random.nextInt(size + 1);
+			assertEquals(nextFit(capacities, from, demand), index.nextFit(from, demand));
+
+			int[] positions = new int[size];
+			int count = index.findFits(demand, positions);
+			int expected = nextFit(capacities, 0, demand);
+			for (int j = 0; j < count; j++) {
+				assertEquals(expected, positions[j]);
+				expected = nextFit(capacities, expected + 1, demand);
+			}
+			assertEquals(-1, expected);
+
+			int best = -1;
+			for (int j = 0; j < size; j++) {
+				if (capacities[j][0] >= demand[0] && capacities[j][1] >= demand[1]
+						&& (best < 0 || capacities[j][1] > capacities[best][1])) {
+					best = j;
+				}
+			}
+			assertEquals(best, index.bestFit(demand, 1));
+		}
+	}
+
+	@Test
+	public void testInvalidArguments() {
+		CapacityIndex index = new CapacityIndex(3, 1);
+		assertThrows(IndexOutOfBoundsException.class, () -> index.set(3, 0, 1));
+		assertThrows(IllegalArgumentException.class, () -> index.nextFit(0, new double[2]));
+		assertThrows(IllegalArgumentException.class, () -> new CapacityIndex(1, 0));
+	}
+
+	private static int nextFit(double[][] capacities, int from, double[] demand) {
+		for (int i = from; i < capacities.length; i++) {
+			if (capacities[i][0] >= demand[0] && capacities[i][1] >= demand[1]) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
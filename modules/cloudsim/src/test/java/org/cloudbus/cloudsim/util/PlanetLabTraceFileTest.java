@@ -0,0 +1,68 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory;
+import org.cloudbus.cloudsim.UtilizationModelPlanetLabMapped;
+import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemoryTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class PlanetLabTraceFileTest {
+
+	private static final double SCHEDULING_INTERVAL = UtilizationModelPlanetLabInMemoryTest.SCHEDULING_INTERVAL;
+
+	@TempDir
+	Path folder;
+
+	@Test
+	public void testConvert() throws Exception {
+		Path trace = Paths.get(getClass().getClassLoader()
+				.getResource(UtilizationModelPlanetLabInMemoryTest.FILE).toURI());
+		Path workload = Files.createDirectory(folder.resolve("workload"));
+		Files.copy(trace, workload.resolve("b"));
+		Files.writeString(workload.resolve("a"), "0\n100\n".repeat(144));
+		Path file = folder.resolve("workload.bin");
+
+		PlanetLabTraceFile.convert(workload.toString(), file.toString());
+		PlanetLabTraceFile traceFile = PlanetLabTraceFile.open(file.toString());
+		assertEquals(2, traceFile.getTraceCount());
+		assertEquals(288, traceFile.getSampleCount());
+		int a = traceFile.indexOf("a");
+		int b = traceFile.indexOf("b");
+		assertEquals(1, a + b);
+		assertEquals("a", traceFile.getName(a));
+		assertEquals(-1, traceFile.indexOf("c"));
+		assertEquals(1.0, traceFile.getUtilization(a, 287), 0);
+
+		UtilizationModelPlanetLabInMemory expected = new UtilizationModelPlanetLabInMemory(trace.toString(),
+				SCHEDULING_INTERVAL);
+		UtilizationModelPlanetLabMapped mapped = new UtilizationModelPlanetLabMapped(traceFile, b,
+				SCHEDULING_INTERVAL);
+		for (double time = 0; time <= 288 * SCHEDULING_INTERVAL; time += SCHEDULING_INTERVAL / 4) {
+			assertEquals(expected.getUtilization(time), mapped.getUtilization(time), 0, "time " + time);
+		}
+	}
+
+	@Test
+	public void testInvalidFile() throws Exception {
+		Path file = Files.writeString(folder.resolve("invalid.bin"), "not a trace file");
+		assertThrows(IOException.class, () -> PlanetLabTraceFile.open(file.toString()));
+	}
+}
@@ -2,16 +2,24 @@ package org.cloudbus.cloudsim.util;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class WorkloadFileReaderTest {
 
+    @TempDir
+    Path folder;
+
     @BeforeAll
     public static void setUpBeforeClass() throws Exception {
     }
@@ -43,4 +51,43 @@ public class WorkloadFileReaderTest {
 	    assertTrue(cloudlet.getCloudletLength() > 0);
 	}
     }
+
+    @Test
+    public void stream() throws FileNotFoundException {
+	WorkloadModel r = new WorkloadFileReader("src"
+		+ File.separator
+		+ "test"
+		+ File.separator
+		+ "LCG.swf.gz", 1);
+	try (Stream<WorkloadJob> jobs = r.streamWorkload()) {
+	    double[] last = { 0 };
+	    assertEquals(188041, jobs.peek(job -> {
+		assertTrue(job.getSubmitTime() >= last[0]);
+		last[0] = job.getSubmitTime();
+	    }).count());
+	}
+    }
+
+    @Test
+    public void readFields() throws Exception {
+	Path trace = Files.writeString(folder.resolve("trace.swf"),
+		"; a comment\n"
+		+ "10 30 0 5 2 -1 -1 2 9 -1 1 1 1 -1 -1 -1 -1 -1\n"
+		+ "11 20 0 0 3 -1 -1 -1 9 -1 1 1 1 -1 -1 -1 -1 -1\n"
+		+ "12 x 0 5 2 -1 -1 2 9 -1 1 1 1 -1 -1 -1 -1 -1\n"
+		+ "13 10 0 5 2 -1 -1 2 9 -1 1 1 1 -1 -1 -1 -1\n"
+		+ "14 25 0 8 4 -1 -1 4 9 -1 1 1 1 -1 -1 -1 -1 -1\n");
+	WorkloadFileReader r = new WorkloadFileReader(trace.toString(), 10);
+	r.setField(18, -1, 2, 9, 8);
+	List<Cloudlet> cloudlets = r.generateWorkload();
+	assertEquals(List.of(1, 2, 3), cloudlets.stream().map(Cloudlet::getCloudletId).collect(Collectors.toList()));
+	assertEquals(List.of(50L, 10L, 80L),
+		cloudlets.stream().map(Cloudlet::getCloudletLength).collect(Collectors.toList()));
+	assertEquals(List.of(2, 3, 4), cloudlets.stream().map(Cloudlet::getNumberOfPes).collect(Collectors.toList()));
+
+	try (Stream<WorkloadJob> jobs = r.streamWorkload()) {
+	    assertEquals(List.of(20.0, 25.0, 30.0),
+		    jobs.map(WorkloadJob::getSubmitTime).collect(Collectors.toList()));
+	}
+    }
 }